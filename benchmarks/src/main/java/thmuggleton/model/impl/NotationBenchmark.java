@@ -0,0 +1,105 @@
+package thmuggleton.model.impl;
+
+import java.nio.CharBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import thmuggleton.Constants;
+
+/**
+ * Measures the cost of writing a game in score sheet notation with
+ * {@link Notation#format(int[], int, int, CharBuffer)} and of reading it
+ * back with {@link Notation#parse(CharSequence, int[], int)}.
+ * <p>
+ * Each invocation handles the next of a set of pre-generated games, so that
+ * league games do not repeat often enough for branch prediction to learn
+ * them. Run with {@code -prof gc} to confirm that neither allocates.
+ *
+ * @author Thomas Muggleton
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NotationBenchmark {
+
+	// Constants
+	private static final int NUMBER_OF_SEQUENCES = 64;
+	private static final long SEED = 42L;
+
+	@Param({"ALL_STRIKES", "ALL_SPARES", "GUTTER", "LEAGUE"})
+	public RollStreams.Kind stream;
+
+	// Fields
+	private int[][] games;
+	private CharBuffer[] sheets;
+	private CharBuffer buffer;
+	private int[] rolls;
+	private int next;
+
+	/**
+	 * Generates the games and writes each in notation to be read back.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+
+		SplittableRandom random = new SplittableRandom(SEED);
+
+		games = new int[NUMBER_OF_SEQUENCES][];
+		sheets = new CharBuffer[NUMBER_OF_SEQUENCES];
+		buffer = CharBuffer.allocate(Constants.MAX_ROLLS_PER_GAME + Constants.NUMBER_OF_FRAMES);
+		rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+
+		for (int i = 0; i < NUMBER_OF_SEQUENCES; i++) {
+			games[i] = RollStreams.game(stream, random);
+			sheets[i] = CharBuffer.allocate(buffer.capacity());
+			Notation.format(games[i], 0, games[i].length, sheets[i]);
+			sheets[i].flip();
+		}
+	}
+
+	/**
+	 * Writes the next game in notation.
+	 *
+	 * @return
+	 */
+	@Benchmark
+	public int format() {
+
+		int[] game = games[next];
+		next = (next + 1) % NUMBER_OF_SEQUENCES;
+
+		buffer.clear();
+
+		return Notation.format(game, 0, game.length, buffer);
+	}
+
+	/**
+	 * Reads the next game from notation.
+	 *
+	 * @return
+	 */
+	@Benchmark
+	public int parse() {
+
+		CharBuffer sheet = sheets[next];
+		next = (next + 1) % NUMBER_OF_SEQUENCES;
+
+		return Notation.parse(sheet, rolls, 0);
+	}
+}
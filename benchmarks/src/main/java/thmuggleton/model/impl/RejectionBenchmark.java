@@ -0,0 +1,106 @@
+package thmuggleton.model.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import thmuggleton.model.exceptions.BowlingException;
+import thmuggleton.model.exceptions.RollRejections;
+
+/**
+ * Measures the cost of rejecting an invalid score: catching the exception
+ * thrown by {@link MatchImpl#addScore(int)}, checking the status returned
+ * by {@link MatchImpl#tryAddScore(int)}, and throwing the preallocated
+ * exception for that status.
+ * <p>
+ * Every invocation offers a second ball of 4 after a first ball of 7, so
+ * the match is never changed. Run with {@code -prof gc} to compare the
+ * allocation rate of each approach.
+ *
+ * @author Thomas Muggleton
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RejectionBenchmark {
+
+	// Constants
+	private static final int FIRST_BALL = 7;
+	private static final int INVALID_SECOND_BALL = 4;
+
+	// Fields
+	private MatchImpl match;
+
+	/**
+	 * Creates a match waiting for the second ball of the first frame.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+
+		match = new MatchImpl();
+		match.addPlayer("Player 1");
+		match.addScore(FIRST_BALL);
+	}
+
+	/**
+	 * Rejects the score by catching the exception thrown by addScore().
+	 *
+	 * @return
+	 */
+	@Benchmark
+	public Object addScoreThrows() {
+
+		try {
+			match.addScore(INVALID_SECOND_BALL);
+			return null;
+		}
+		catch (BowlingException e) {
+			return e;
+		}
+	}
+
+	/**
+	 * Rejects the score through the status returned by tryAddScore().
+	 *
+	 * @return
+	 */
+	@Benchmark
+	public int tryAddScore() {
+		return match.tryAddScore(INVALID_SECOND_BALL);
+	}
+
+	/**
+	 * Rejects the score by throwing and catching the preallocated exception
+	 * for the status returned by tryAddScore().
+	 *
+	 * @return
+	 */
+	@Benchmark
+	public Object tryAddScoreThrowsPreallocated() {
+
+		try {
+			int status = match.tryAddScore(INVALID_SECOND_BALL);
+
+			if (status < 0)
+				throw RollRejections.forStatus(status);
+
+			return null;
+		}
+		catch (BowlingException e) {
+			return e;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package thmuggleton.model.impl;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import thmuggleton.Constants;
+import thmuggleton.workload.Bowler;
+import thmuggleton.workload.SkillProfile;
+
+/**
+ * Generates the sequences of shots fed to the benchmarks, both for single
+ * games and for whole matches in the order the shots are played.
+ *
+ * @author Thomas Muggleton
+ */
+public final class RollStreams {
+
+	/**
+	 * Kinds of game that can be generated.
+	 */
+	public enum Kind {
+
+		/**
+		 * Twelve strikes.
+		 */
+		ALL_STRIKES,
+
+		/**
+		 * A spare in every frame, with five pins on each ball.
+		 */
+		ALL_SPARES,
+
+		/**
+		 * Twenty shots that miss every pin.
+		 */
+		GUTTER,
+
+		/**
+		 * Shots bowled by a league bowler averaging around 170; see
+		 * {@link SkillProfile#LEAGUE}.
+		 */
+		LEAGUE
+	}
+
+	/**
+	 * Private constructor; this class only provides static methods.
+	 */
+	private RollStreams() {
+	}
+
+	/**
+	 * Returns the shots for a complete game of the given kind.
+	 *
+	 * @param kind
+	 * @param random source of randomness for league games.
+	 * @return
+	 */
+	public static int[] game(Kind kind, SplittableRandom random) {
+
+		int[] shots = new int[Constants.MAX_ROLLS_PER_GAME];
+		int count = 0;
+
+		if (kind == Kind.LEAGUE) {
+			Bowler bowler = new Bowler(SkillProfile.LEAGUE, random);
+
+			while (!bowler.isFinished())
+				shots[count++] = bowler.nextShot();
+
+			return Arrays.copyOf(shots, count);
+		}
+
+		int position = GameRules.INITIAL_POSITION;
+
+		while (position != GameRules.COMPLETE) {
+			int score = shot(kind, position);
+			shots[count++] = score;
+			position = GameRules.advance(position, score);
+		}
+
+		return Arrays.copyOf(shots, count);
+	}
+
+	/**
+	 * Returns the shots for a match in which each player bowls the given
+	 * game, in the order they are played: each player bowls a whole frame
+	 * before the next player starts theirs.
+	 *
+	 * @param games shots for each player's game.
+	 * @return
+	 */
+	public static int[] match(int[][] games) {
+
+		int total = 0;
+
+		for (int[] game : games)
+			total += game.length;
+
+		int[] shots = new int[total];
+		int[] next = new int[games.length];
+		int count = 0;
+
+		for (int frame = 0; frame < Constants.NUMBER_OF_FRAMES; frame++) {
+			for (int player = 0; player < games.length; player++) {
+
+				int position = GameRules.position(games[player], 0, next[player]);
+
+				// Copy shots until the player moves on to the next frame
+				while (position != GameRules.COMPLETE && GameRules.frameOf(position) == frame) {
+					int score = games[player][next[player]++];
+					shots[count++] = score;
+					position = GameRules.advance(position, score);
+				}
+			}
+		}
+
+		return shots;
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Returns the score for the next shot of the given fixed kind of game.
+	 */
+	private static int shot(Kind kind, int position) {
+
+		int standing = GameRules.pinsStanding(position);
+
+		switch (kind) {
+
+		case ALL_STRIKES:
+			return standing;
+
+		case ALL_SPARES:
+			return Math.min(standing, Constants.TOTAL_PINS / 2);
+
+		default:
+			// Gutter game
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package thmuggleton.model.impl;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of scoring: every shot of a game through
+ * {@link GameImpl#addScore(int)}, and every shot of a match through
+ * {@link MatchImpl#addScore(int)}, which also updates the leaders and who
+ * can still win.
+ * <p>
+ * Each invocation scores a fresh game or match, cycling through a set of
+ * pre-generated shot sequences so that league games do not repeat often
+ * enough for branch prediction to learn them. Run with {@code -prof gc} to
+ * report the allocation rate alongside throughput.
+ *
+ * @author Thomas Muggleton
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScoringBenchmark {
+
+	// Constants
+	private static final int NUMBER_OF_SEQUENCES = 64;
+	private static final long SEED = 42L;
+
+	@Param({"ALL_STRIKES", "ALL_SPARES", "GUTTER", "LEAGUE"})
+	public RollStreams.Kind stream;
+
+	@Param({"1", "2", "4", "6"})
+	public int players;
+
+	// Fields
+	private String[] names;
+	private int[][] games;
+	private int[][] matches;
+	private int next;
+
+	/**
+	 * Generates the shot sequences for each game and match.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+
+		SplittableRandom random = new SplittableRandom(SEED);
+
+		names = new String[players];
+		games = new int[NUMBER_OF_SEQUENCES][];
+		matches = new int[NUMBER_OF_SEQUENCES][];
+
+		for (int i = 0; i < players; i++)
+			names[i] = "Player " + (i + 1);
+
+		for (int i = 0; i < NUMBER_OF_SEQUENCES; i++) {
+			int[][] matchGames = new int[players][];
+
+			for (int j = 0; j < players; j++)
+				matchGames[j] = RollStreams.game(stream, random);
+
+			games[i] = matchGames[0];
+			matches[i] = RollStreams.match(matchGames);
+		}
+	}
+
+	/**
+	 * Scores every shot of a single game.
+	 *
+	 * @return
+	 */
+	@Benchmark
+	public GameImpl gameImplAddScore() {
+
+		int[] shots = games[next++ & (NUMBER_OF_SEQUENCES - 1)];
+		GameImpl game = new GameImpl();
+
+		for (int shot : shots)
+			game.addScore(shot);
+
+		return game;
+	}
+
+	/**
+	 * Scores every shot of a match between the given number of players.
+	 *
+	 * @return
+	 */
+	@Benchmark
+	public MatchImpl matchImplAddScore() {
+
+		int[] shots = matches[next++ & (NUMBER_OF_SEQUENCES - 1)];
+		MatchImpl match = new MatchImpl();
+
+		for (String name : names)
+			match.addPlayer(name);
+
+		for (int shot : shots)
+			match.addScore(shot);
+
+		return match;
+	}
+}
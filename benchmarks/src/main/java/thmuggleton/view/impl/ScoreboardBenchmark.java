@@ -0,0 +1,260 @@
+package thmuggleton.view.impl;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.swing.SwingUtilities;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import thmuggleton.Constants;
+import thmuggleton.model.impl.MatchImpl;
+import thmuggleton.model.impl.RollStreams;
+import thmuggleton.view.ScoreboardSvgWriter;
+
+/**
+ * Measures the cost of keeping the scoreboard up to date and of exporting it
+ * as an image, using the real {@link Scoreboard} rendered offscreen in a
+ * headless JVM, and of exporting it as SVG written from the match itself.
+ * <p>
+ * Work that would run on the event dispatch thread in the application is run
+ * there with {@link SwingUtilities#invokeAndWait(Runnable)}, so that any
+ * revalidation queued by label updates is included in the time measured.
+ *
+ * @author Thomas Muggleton
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ScoreboardBenchmark {
+
+	// Constants
+	private static final long SEED = 42L;
+	private static final int SCOREBOARD_WIDTH = 900;
+	private static final int PLAYER_HEIGHT = 60;
+
+	@Param({"1", "2", "4", "6"})
+	public int players;
+
+	// Fields
+	private int[] shots;
+	private MatchImpl replayModel;
+	private MatchImpl finishedModel;
+	private Scoreboard replayScoreboard;
+	private Scoreboard finishedScoreboard;
+	private BufferedImage image;
+	private ByteArrayOutputStream encoded;
+	private ScoreboardSvgWriter svgWriter;
+	private CharArrayWriter svg;
+
+	/**
+	 * Generates the match script and builds a scoreboard showing the whole
+	 * match, for the paint and export benchmarks.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+
+		SplittableRandom random = new SplittableRandom(SEED);
+		int[][] games = new int[players][];
+
+		for (int i = 0; i < players; i++)
+			games[i] = RollStreams.game(RollStreams.Kind.LEAGUE, random);
+
+		shots = RollStreams.match(games);
+
+		onEventDispatchThread(new Runnable() {
+			@Override
+			public void run() {
+				finishedModel = createModel();
+				finishedScoreboard = createScoreboard(finishedModel);
+
+				for (int shot : shots)
+					finishedModel.addScore(shot);
+			}
+		});
+
+		image = new BufferedImage(SCOREBOARD_WIDTH, PLAYER_HEIGHT * Constants.MAX_NUMBER_OF_PLAYERS,
+				BufferedImage.TYPE_INT_RGB);
+		encoded = new ByteArrayOutputStream();
+		svgWriter = new ScoreboardSvgWriter();
+		svg = new CharArrayWriter();
+	}
+
+	/**
+	 * Builds an empty match and scoreboard before each replay.
+	 */
+	@Setup(Level.Invocation)
+	public void setUpReplay() throws Exception {
+		onEventDispatchThread(new Runnable() {
+			@Override
+			public void run() {
+				replayModel = createModel();
+				replayScoreboard = createScoreboard(replayModel);
+			}
+		});
+	}
+
+	/**
+	 * Plays every shot of the match, which dispatches change events to the
+	 * frame and player panels of the scoreboard.
+	 *
+	 * @return
+	 */
+	@Benchmark
+	public Scoreboard dispatchMatch() throws Exception {
+
+		onEventDispatchThread(new Runnable() {
+			@Override
+			public void run() {
+				for (int shot : shots)
+					replayModel.addScore(shot);
+			}
+		});
+
+		return replayScoreboard;
+	}
+
+	/**
+	 * Lays out and paints the whole scoreboard, as when the window is
+	 * repainted.
+	 *
+	 * @return
+	 */
+	@Benchmark
+	public BufferedImage layoutAndPaint() throws Exception {
+
+		onEventDispatchThread(new Runnable() {
+			@Override
+			public void run() {
+				finishedScoreboard.invalidate();
+				finishedScoreboard.validate();
+
+				Graphics2D graphics = image.createGraphics();
+				finishedScoreboard.paintAll(graphics);
+				graphics.dispose();
+			}
+		});
+
+		return image;
+	}
+
+	/**
+	 * Captures the scoreboard as a new image and encodes it in the export
+	 * format, as when the scoreboard is exported.
+	 *
+	 * @return
+	 */
+	@Benchmark
+	public int exportImage() throws Exception {
+
+		final BufferedImage[] capture = new BufferedImage[1];
+
+		onEventDispatchThread(new Runnable() {
+			@Override
+			public void run() {
+				capture[0] = new BufferedImage(finishedScoreboard.getWidth(),
+						finishedScoreboard.getHeight(), BufferedImage.TYPE_INT_RGB);
+				Graphics2D graphics = capture[0].createGraphics();
+				finishedScoreboard.paintAll(graphics);
+				graphics.dispose();
+			}
+		});
+
+		encoded.reset();
+		ImageIO.write(capture[0], Constants.IMAGE_EXPORT_FORMAT, encoded);
+
+		return encoded.size();
+	}
+
+	/**
+	 * Encodes a previously captured image, to separate the cost of encoding
+	 * from that of painting.
+	 *
+	 * @return
+	 */
+	@Benchmark
+	public int encodeImage() throws IOException {
+
+		encoded.reset();
+		ImageIO.write(image, Constants.IMAGE_EXPORT_FORMAT, encoded);
+
+		return encoded.size();
+	}
+
+	/**
+	 * Writes the scoreboard of the finished match as SVG, straight from the
+	 * match, as when the scoreboard is exported as SVG.
+	 *
+	 * @return
+	 */
+	@Benchmark
+	public int exportSvg() throws IOException {
+
+		svg.reset();
+		svgWriter.write(finishedModel, svg);
+
+		return svg.size();
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Creates a match with the benchmark's number of players.
+	 */
+	private MatchImpl createModel() {
+
+		MatchImpl model = new MatchImpl();
+
+		for (int i = 0; i < players; i++)
+			model.addPlayer("Player " + (i + 1));
+
+		return model;
+	}
+
+	/**
+	 * Creates a scoreboard for the given match, sized as in the main window.
+	 */
+	private Scoreboard createScoreboard(MatchImpl model) {
+
+		Scoreboard scoreboard = new Scoreboard(model);
+
+		for (String player : model.getPlayers())
+			scoreboard.addPlayer(player);
+
+		scoreboard.setSize(SCOREBOARD_WIDTH, PLAYER_HEIGHT * Constants.MAX_NUMBER_OF_PLAYERS);
+		scoreboard.validate();
+
+		return scoreboard;
+	}
+
+	/**
+	 * Runs the given task on the event dispatch thread and waits for it.
+	 */
+	private static void onEventDispatchThread(Runnable task)
+			throws InterruptedException, InvocationTargetException {
+		SwingUtilities.invokeAndWait(task);
+	}
+}
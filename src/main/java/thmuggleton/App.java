@@ -1,8 +1,13 @@
 package thmuggleton;
 
+import java.nio.file.Paths;
+import java.util.Arrays;
+
 import javax.swing.UIManager;
 
 import thmuggleton.controller.InitialisationController;
+import thmuggleton.diagnostics.FlightRecording;
+import thmuggleton.metrics.Metrics;
 
 /**
  * Initialises the bowling application.
@@ -13,12 +18,38 @@ public class App {
 
 	public static void main(String[] args) {
 		
+		// Write metrics to a file if one has been given
+		String metricsFile = System.getProperty(Constants.METRICS_FILE_PROPERTY);
+		
+		if (metricsFile != null)
+			Metrics.startExporter(Paths.get(metricsFile), Constants.METRICS_EXPORT_PERIOD_SECONDS);
+		
+		// Keep a continuous flight recording if requested
+		if (Arrays.asList(args).contains(Constants.FLIGHT_RECORDER_ARGUMENT))
+			startFlightRecording();
+		
+		long start = System.nanoTime();
 		setLookAndFeel();
+		Metrics.STARTUP_LOOK_AND_FEEL.recordSince(start);
 		
 		// Initialise application
 		new InitialisationController();	
 	}
 
+	/**
+	 * Starts a continuous flight recording; the application carries on
+	 * without one if it cannot be started.
+	 */
+	private static void startFlightRecording() {
+		
+		try {
+			FlightRecording.start();
+		}
+		catch (Exception e) {
+			System.err.println("Failed to start flight recording: " + e.getMessage());
+		}
+	}
+
 	/**
 	 * Tries to set the look and feel of the application
 	 * to match the native system.  Falls back to the
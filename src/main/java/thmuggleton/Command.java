@@ -10,11 +10,18 @@ public interface Command {
 	// File menu commands
 	public static final String NEW_MATCH = "New match";
 	public static final String EXPORT_IMAGE = "Export scoreboard as image";
+	public static final String EXPORT_SVG = "Export scoreboard as SVG";
+	public static final String EXPORT_ANIMATION = "Export match as animation";
+	public static final String DUMP_FLIGHT_RECORDING = "Save flight recording";
 	public static final String EXIT = "Exit";
 	
 	// Editing commands
 	public static final String ADD_PLAYER = "Add player";
 	public static final String ADD_SCORE = "Add score";
+	public static final String ADD_FRAMES = "Add frames";
+	public static final String CHECK_FRAMES = "Check frames";
+	public static final String UNDO = "Undo";
+	public static final String REDO = "Redo";
 	
 	// Help command
 	public static final String ABOUT = "About";
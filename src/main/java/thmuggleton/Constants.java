@@ -14,12 +14,38 @@ public interface Constants {
 	public static final int MAX_BONUS_POINTS = 20;
 	public static final int NUMBER_OF_FRAMES = 10;
 	public static final int MAX_NUMBER_OF_PLAYERS = 6;
+	public static final int MAX_ROLLS_PER_GAME = 21;
+	
+	/* ***********************************
+	 *  Win probability simulation constants
+	 * ***********************************/
+	public static final long WIN_PROBABILITY_TIME_BUDGET_MILLIS = 250;
+	public static final long WIN_PROBABILITY_MAX_TRIALS = 2000000;
+	
+	/* *******************
+	 *  Metrics constants
+	 * *******************/
+	public static final String METRICS_FILE_PROPERTY = "bowling.metrics.file";
+	public static final long METRICS_EXPORT_PERIOD_SECONDS = 15;
 	
 	/* *******************************
 	 *  Export image format constants
 	 * *******************************/
 	public static final String IMAGE_FILTER_DESCRIPTION = "PNG files";
 	public static final String IMAGE_EXPORT_FORMAT = "png";
+	public static final String SVG_FILTER_DESCRIPTION = "SVG files";
+	public static final String SVG_EXPORT_FORMAT = "svg";
+	public static final String ANIMATION_FILTER_DESCRIPTION = "GIF files";
+	public static final String ANIMATION_EXPORT_FORMAT = "gif";
+	
+	/* ******************************
+	 *  Flight recording constants
+	 * ******************************/
+	public static final String FLIGHT_RECORDER_ARGUMENT = "--flight-recorder";
+	public static final String FLIGHT_RECORDING_FILTER_DESCRIPTION = "Flight recordings";
+	public static final String FLIGHT_RECORDING_FORMAT = "jfr";
+	public static final long FLIGHT_RECORDING_MAX_BYTES = 16 * 1024 * 1024;
+	public static final long FLIGHT_RECORDING_MAX_AGE_MINUTES = 10;
 	
 	/**
 	 * Specifies the path within the src/main/resources/ directory for the 
@@ -0,0 +1,72 @@
+package thmuggleton.controller;
+
+import java.awt.Component;
+
+import javax.swing.Icon;
+import javax.swing.JOptionPane;
+
+/**
+ * Shows the dialogs used by the controllers, unless dialogs have been
+ * disabled so that the controllers can be driven without a user, e.g. by the
+ * {@link LoadDriver}.
+ * <p>
+ * While dialogs are disabled, messages are discarded and confirmation
+ * dialogs behave as if closed without choosing an option.
+ * 
+ * @author Thomas Muggleton
+ */
+final class Dialogs {
+
+	// Fields
+	private static volatile boolean enabled = true;
+	
+	/**
+	 * Private constructor; this class only provides static methods.
+	 */
+	private Dialogs() {
+	}
+	
+	/**
+	 * Sets whether dialogs are shown.
+	 * 
+	 * @param enabled
+	 */
+	static void setEnabled(boolean enabled) {
+		Dialogs.enabled = enabled;
+	}
+	
+	/**
+	 * Shows a message; see
+	 * {@link JOptionPane#showMessageDialog(Component, Object, String, int)}.
+	 */
+	static void showMessageDialog(Component parent, Object message, String title, int messageType) {
+		if (enabled)
+			JOptionPane.showMessageDialog(parent, message, title, messageType);
+	}
+	
+	/**
+	 * Shows a message with an icon; see
+	 * {@link JOptionPane#showMessageDialog(Component, Object, String, int, Icon)}.
+	 */
+	static void showMessageDialog(Component parent, Object message, String title, int messageType,
+			Icon icon) {
+		if (enabled)
+			JOptionPane.showMessageDialog(parent, message, title, messageType, icon);
+	}
+	
+	/**
+	 * Asks the user to choose an option; see
+	 * {@link JOptionPane#showConfirmDialog(Component, Object, String, int, int)}.
+	 * 
+	 * @return the option chosen, or {@link JOptionPane#CLOSED_OPTION} if
+	 * dialogs are disabled.
+	 */
+	static int showConfirmDialog(Component parent, Object message, String title, int optionType,
+			int messageType) {
+		
+		if (!enabled)
+			return JOptionPane.CLOSED_OPTION;
+		
+		return JOptionPane.showConfirmDialog(parent, message, title, optionType, messageType);
+	}
+}
@@ -0,0 +1,166 @@
+package thmuggleton.controller;
+
+import java.awt.image.BufferedImage;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.JFrame;
+
+import thmuggleton.model.MatchHistory;
+import thmuggleton.view.View;
+
+/**
+ * View without any components, used to drive the controllers without a
+ * display. The name and score that the controllers read as if entered by
+ * the user are set directly, and everything the controllers display is
+ * discarded, apart from a count of the matches finished and the last match
+ * archived.
+ * 
+ * @author Thomas Muggleton
+ */
+class HeadlessView implements View {
+
+	// Fields
+	private final BufferedImage scoreboardImage;
+	private String newPlayerName;
+	private int scoreEntered;
+	private CharSequence framesEntered;
+	private volatile int matchesFinished;
+	private MatchHistory archivedMatch;
+	
+	/**
+	 * Constructor
+	 */
+	HeadlessView() {
+		this.scoreboardImage = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+		this.newPlayerName = "";
+		this.scoreEntered = 0;
+		this.framesEntered = "";
+		this.matchesFinished = 0;
+	}
+	
+	/**
+	 * Sets the name returned as if entered by the user.
+	 * 
+	 * @param newPlayerName
+	 */
+	void setNewPlayerName(String newPlayerName) {
+		this.newPlayerName = newPlayerName;
+	}
+	
+	/**
+	 * Sets the score returned as if entered by the user.
+	 * 
+	 * @param scoreEntered
+	 */
+	void setScoreEntered(int scoreEntered) {
+		this.scoreEntered = scoreEntered;
+	}
+	
+	/**
+	 * Sets the frames returned as if entered by the user.
+	 * 
+	 * @param framesEntered
+	 */
+	void setFramesEntered(CharSequence framesEntered) {
+		this.framesEntered = framesEntered;
+	}
+	
+	/**
+	 * Returns the number of times the view has been told that a match is
+	 * finished.
+	 * 
+	 * @return
+	 */
+	int getMatchesFinished() {
+		return matchesFinished;
+	}
+	
+	/**
+	 * Returns the history of the last match archived, or {@code null} if
+	 * none has been; only the last is kept.
+	 * 
+	 * @return
+	 */
+	MatchHistory getArchivedMatch() {
+		return archivedMatch;
+	}
+	
+	@Override
+	public void clear() {
+	}
+
+	@Override
+	public void addPlayer(String playerName) {
+	}
+
+	@Override
+	public String getNewPlayerName() {
+		return newPlayerName;
+	}
+
+	@Override
+	public int getScoreEntered() {
+		return scoreEntered;
+	}
+
+	@Override
+	public CharSequence getFramesEntered() {
+		return framesEntered;
+	}
+
+	@Override
+	public void setFramesEntryError(String message) {
+	}
+
+	@Override
+	public void clearFramesEntered() {
+		framesEntered = "";
+	}
+
+	@Override
+	public BufferedImage getScoreboardImage() {
+		return scoreboardImage;
+	}
+
+	@Override
+	public int writeMatchAnimation(MatchHistory history, FileChannel channel) {
+		return 0;
+	}
+
+	@Override
+	public JFrame getWindow() {
+		return null;
+	}
+
+	@Override
+	public void disableFurtherPlayers() {
+	}
+
+	@Override
+	public void setMatchFinished() {
+		matchesFinished++;
+	}
+
+	@Override
+	public void setMatchResumed() {
+	}
+
+	@Override
+	public void addArchivedMatch(MatchHistory history) {
+		archivedMatch = history;
+	}
+
+	@Override
+	public void highlightLeaders(Set<String> leaders) {
+	}
+
+	@Override
+	public void highlightEliminated(Set<String> eliminated) {
+	}
+
+	@Override
+	public void showWinProbabilities(Map<String, Double> winProbabilities) {
+	}
+}
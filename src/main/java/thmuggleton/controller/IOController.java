@@ -4,6 +4,11 @@ import java.awt.event.ActionEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 
 import javax.imageio.ImageIO;
 import javax.swing.JFileChooser;
@@ -12,6 +17,11 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 
 import thmuggleton.Command;
 import thmuggleton.Constants;
+import thmuggleton.diagnostics.FlightRecording;
+import thmuggleton.diagnostics.ImageExportEvent;
+import thmuggleton.metrics.Metrics;
+import thmuggleton.model.Match;
+import thmuggleton.view.ScoreboardSvgWriter;
 import thmuggleton.view.View;
 
 /**
@@ -22,8 +32,16 @@ import thmuggleton.view.View;
 public class IOController implements Controller {
 	
 	// Fields
+	private Match model;
 	private View view;
 
+	/**
+	 * Constructor
+	 */
+	public IOController(Match model) {
+		this.model = model;
+	}
+	
 	/**
 	 * Sets the given view for this controller.
 	 */
@@ -45,6 +63,18 @@ public class IOController implements Controller {
 		case (Command.EXPORT_IMAGE) :
 			this.exportScoreboardImage();
 			break;
+			
+		case (Command.EXPORT_SVG) :
+			this.exportScoreboardSvg();
+			break;
+			
+		case (Command.EXPORT_ANIMATION) :
+			this.exportMatchAnimation();
+			break;
+			
+		case (Command.DUMP_FLIGHT_RECORDING) :
+			this.dumpFlightRecording();
+			break;
 		}
 	}
 	
@@ -65,6 +95,12 @@ public class IOController implements Controller {
 		
 		if (option == JFileChooser.APPROVE_OPTION) {
 			
+			long start = System.nanoTime();
+			ImageExportEvent event = ImageExportEvent.isRecorded() ? new ImageExportEvent() : null;
+			
+			if (event != null)
+				event.begin();
+			
 			// Create image and target file object
 			BufferedImage scoreboardImage = view.getScoreboardImage();
 			File outputFile = this.createFile(
@@ -72,19 +108,154 @@ public class IOController implements Controller {
 					Constants.IMAGE_EXPORT_FORMAT);
 			
 			// Try to write image to file
+			IOException error = null;
+			
 			try {
 				ImageIO.write(scoreboardImage, Constants.IMAGE_EXPORT_FORMAT, outputFile);
 			}
 			catch (IOException e) {
+				error = e;
+			}
+			
+			// Record time taken before any error dialog is shown
+			Metrics.IMAGE_EXPORT.recordSince(start);
+			
+			if (event != null) {
+				event.end();
+				
+				if (event.shouldCommit()) {
+					event.path = outputFile.getPath();
+					event.width = scoreboardImage.getWidth();
+					event.height = scoreboardImage.getHeight();
+					event.succeeded = (error == null);
+					event.commit();
+				}
+			}
+			
+			if (error != null) {
+				
+				Metrics.IMAGE_EXPORT_FAILURES.increment();
 				
 				// Feedback error to user
-				JOptionPane.showMessageDialog(view.getWindow(),
+				Dialogs.showMessageDialog(view.getWindow(),
 								String.format("The following error occurred while writing the image file:%n%s",
-										e.getMessage()),
+										error.getMessage()),
 						"Failed to write image", JOptionPane.ERROR_MESSAGE);
 			}
 		}
 	}
+	
+	/**
+	 * Exports the scoreboard of the current match as an SVG file, written
+	 * from the match itself rather than from the displayed scoreboard.
+	 */
+	private void exportScoreboardSvg() {
+		
+		// Create file chooser dialog for SVG files
+		// to initialise in working directory
+		JFileChooser chooser = new JFileChooser();
+		chooser.setCurrentDirectory(new File(System.getProperty("user.dir")));
+		chooser.setFileFilter(new FileNameExtensionFilter(Constants.SVG_FILTER_DESCRIPTION,
+				Constants.SVG_EXPORT_FORMAT));
+		
+		// Retrieve file path
+		int option = chooser.showSaveDialog(view.getWindow());
+		
+		if (option == JFileChooser.APPROVE_OPTION) {
+			
+			File outputFile = this.createFile(
+					chooser.getSelectedFile().getAbsolutePath(),
+					Constants.SVG_EXPORT_FORMAT);
+			
+			// Try to write scoreboard to file
+			try (Writer writer = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8)) {
+				new ScoreboardSvgWriter().write(model, writer);
+			}
+			catch (IOException e) {
+				
+				// Feedback error to user
+				Dialogs.showMessageDialog(view.getWindow(),
+								String.format("The following error occurred while writing the SVG file:%n%s",
+										e.getMessage()),
+						"Failed to write SVG file", JOptionPane.ERROR_MESSAGE);
+			}
+		}
+	}
+	
+	/**
+	 * Exports an animation of the current match, showing the scoreboard
+	 * after each shot, as a GIF file. Frames are written to the file as
+	 * they are drawn, so the whole animation is never held in memory.
+	 */
+	private void exportMatchAnimation() {
+		
+		// Create file chooser dialog for animations
+		// to initialise in working directory
+		JFileChooser chooser = new JFileChooser();
+		chooser.setCurrentDirectory(new File(System.getProperty("user.dir")));
+		chooser.setFileFilter(new FileNameExtensionFilter(Constants.ANIMATION_FILTER_DESCRIPTION,
+				Constants.ANIMATION_EXPORT_FORMAT));
+		
+		// Retrieve file path
+		int option = chooser.showSaveDialog(view.getWindow());
+		
+		if (option == JFileChooser.APPROVE_OPTION) {
+			
+			File outputFile = this.createFile(
+					chooser.getSelectedFile().getAbsolutePath(),
+					Constants.ANIMATION_EXPORT_FORMAT);
+			
+			// Try to write animation to file
+			try (FileChannel channel = FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				view.writeMatchAnimation(model.history(), channel);
+			}
+			catch (IOException e) {
+				
+				// Feedback error to user
+				Dialogs.showMessageDialog(view.getWindow(),
+								String.format("The following error occurred while writing the animation:%n%s",
+										e.getMessage()),
+						"Failed to write animation", JOptionPane.ERROR_MESSAGE);
+			}
+		}
+	}
+	
+	/**
+	 * Saves the events held by the running flight recording to a file.
+	 */
+	private void dumpFlightRecording() {
+		
+		// Create file chooser dialog for flight recordings
+		// to initialise in working directory
+		JFileChooser chooser = new JFileChooser();
+		chooser.setCurrentDirectory(new File(System.getProperty("user.dir")));
+		chooser.setFileFilter(new FileNameExtensionFilter(Constants.FLIGHT_RECORDING_FILTER_DESCRIPTION,
+				Constants.FLIGHT_RECORDING_FORMAT));
+		
+		// Retrieve file path
+		int option = chooser.showSaveDialog(view.getWindow());
+		
+		if (option == JFileChooser.APPROVE_OPTION) {
+			
+			File outputFile = this.createFile(
+					chooser.getSelectedFile().getAbsolutePath(),
+					Constants.FLIGHT_RECORDING_FORMAT);
+			
+			// Try to write recording to file
+			try {
+				FlightRecording.dump(outputFile.toPath());
+			}
+			catch (IOException e) {
+				
+				// Feedback error to user
+				Dialogs.showMessageDialog(view.getWindow(),
+								String.format("The following error occurred while writing the recording:%n%s",
+										e.getMessage()),
+						"Failed to save recording", JOptionPane.ERROR_MESSAGE);
+			}
+		}
+	}
 
 	/**
 	 * Returns a file having taken an absolute path and ensuring that
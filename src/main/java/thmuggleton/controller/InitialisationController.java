@@ -4,9 +4,17 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
 import thmuggleton.Command;
+import thmuggleton.diagnostics.FlightRecording;
+import thmuggleton.metrics.LatencyTrace;
+import thmuggleton.metrics.Metrics;
 import thmuggleton.model.Match;
 import thmuggleton.model.impl.MatchImpl;
+import thmuggleton.model.impl.WinProbabilityEngine;
 import thmuggleton.view.View;
 import thmuggleton.view.impl.MainWindow;
 
@@ -24,19 +32,75 @@ public class InitialisationController {
 	 */
 	public InitialisationController() {
 		
+		// Trace each score entered to the repaint that shows it
+		LatencyTrace.setScheduler(LatencyTrace.EVENT_QUEUE);
+		
 		// Create model
-		Match model = new MatchImpl();
+		long start = System.nanoTime();
+		MatchImpl model = new MatchImpl();
 		
 		// Create controllers
-		Map<String,Controller> commandToControllerMap = this.createControllers(model);
+		Map<String,Controller> commandToControllerMap = createControllers(model);
+		Metrics.STARTUP_CONTROLLERS.recordSince(start);
 		
 		// Create View
+		start = System.nanoTime();
 		View view = new MainWindow(Collections.unmodifiableMap(commandToControllerMap), model);
+		Metrics.STARTUP_VIEW.recordSince(start);
+		
+		connect(commandToControllerMap, model, view);
+	}
+	
+	/**
+	 * Sets the view for all of the given controllers and gives the match
+	 * controller the services it uses as the match progresses.
+	 * 
+	 * @param commandToControllerMap controllers created by
+	 * {@link #createControllers(Match)}.
+	 * @param model
+	 * @param view
+	 */
+	static void connect(Map<String,Controller> commandToControllerMap, MatchImpl model, View view) {
 		
 		// Add View to all controllers
 		for (Controller controller : commandToControllerMap.values()) {
 			controller.setView(view);
 		}
+		
+		// Estimate chances of winning as the match progresses
+		MatchController matchController = (MatchController) commandToControllerMap.get(Command.ADD_SCORE);
+		matchController.setWinProbabilityEngine(createWinProbabilityEngine(model, view));
+	}
+	
+	/**
+	 * Creates the engine that estimates each player's chance of winning and
+	 * displays each new estimate in the view.
+	 * 
+	 * @param model match for which to estimate chances of winning.
+	 * @param view in which to display estimates.
+	 * @return
+	 */
+	private static WinProbabilityEngine createWinProbabilityEngine(MatchImpl model, final View view) {
+		
+		final WinProbabilityEngine engine = new WinProbabilityEngine(model);
+		
+		// Estimates are published on a background thread, so pass
+		// them to the view on the event dispatch thread
+		engine.addChangeListener(new ChangeListener() {
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				final Map<String, Double> winProbabilities = engine.getWinProbabilities();
+				
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						view.showWinProbabilities(winProbabilities);
+					}
+				});
+			}
+		});
+		
+		return engine;
 	}
 
 	/**
@@ -46,7 +110,7 @@ public class InitialisationController {
 	 * @param model to set in controllers.
 	 * @return Map between commands and the controller intended to handle each command.
 	 */
-	private Map<String,Controller> createControllers(Match model) {
+	static Map<String,Controller> createControllers(Match model) {
 		
 		Map<String,Controller> commandToControllerMap = new HashMap<String,Controller>();
 		
@@ -60,11 +124,20 @@ public class InitialisationController {
 		commandToControllerMap.put(Command.NEW_MATCH, matchController);
 		commandToControllerMap.put(Command.ADD_PLAYER, matchController);
 		commandToControllerMap.put(Command.ADD_SCORE, matchController);
+		commandToControllerMap.put(Command.ADD_FRAMES, matchController);
+		commandToControllerMap.put(Command.CHECK_FRAMES, matchController);
+		commandToControllerMap.put(Command.UNDO, matchController);
+		commandToControllerMap.put(Command.REDO, matchController);
 		model.addChangeListener(matchController);
 		
 		// Create IO controller
-		IOController ioController = new IOController();
+		IOController ioController = new IOController(model);
 		commandToControllerMap.put(Command.EXPORT_IMAGE, ioController);
+		commandToControllerMap.put(Command.EXPORT_SVG, ioController);
+		commandToControllerMap.put(Command.EXPORT_ANIMATION, ioController);
+		
+		if (FlightRecording.isRunning())
+			commandToControllerMap.put(Command.DUMP_FLIGHT_RECORDING, ioController);
 		
 		return commandToControllerMap;
 	}
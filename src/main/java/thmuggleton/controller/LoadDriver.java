@@ -0,0 +1,379 @@
+package thmuggleton.controller;
+
+import java.awt.event.ActionEvent;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.swing.SwingUtilities;
+
+import thmuggleton.Command;
+import thmuggleton.metrics.LatencyHistogram;
+import thmuggleton.model.impl.MatchImpl;
+import thmuggleton.workload.League;
+import thmuggleton.workload.MatchScript;
+
+/**
+ * Plays back-to-back matches through the real controllers, wired as in the
+ * application but with a {@link HeadlessView} in place of the main window,
+ * to measure throughput, latency and heap growth under sustained load.
+ * <p>
+ * Matches come from a {@link League} of simulated bowlers. Each player and
+ * each shot is entered by sending the same action event the view would send
+ * on the event dispatch thread, and a new match is started once each one
+ * is finished. Dialogs are disabled while the driver runs, since nobody is
+ * there to close them.
+ * <p>
+ * By default each event is sent once the last has been handled. If a rate
+ * is set, events are instead sent on a fixed schedule whether or not earlier
+ * events have been handled, and latency is measured from when each event was
+ * due, so that a slowdown shows up as queueing rather than being hidden by
+ * the driver waiting for it.
+ * <p>
+ * The driver can be run from the command line, e.g.
+ * {@code java -cp bowling-desktop-1.0.0.jar thmuggleton.controller.LoadDriver
+ * --matches 10000 --players 4 --rate 2000}.
+ * 
+ * @author Thomas Muggleton
+ */
+public class LoadDriver {
+
+	// Constants
+	private static final int DEFAULT_MATCHES = 1000;
+	private static final int DEFAULT_WARM_UP_MATCHES = 100;
+	private static final int DEFAULT_PLAYERS_PER_MATCH = 4;
+	private static final int DEFAULT_HEAP_SAMPLE_INTERVAL = 100;
+	private static final long DEFAULT_SEED = 1;
+	private static final int GARBAGE_COLLECTIONS_PER_SAMPLE = 2;
+	
+	// Fields
+	private final MatchImpl model;
+	private final Map<String,Controller> commandToControllerMap;
+	private final HeadlessView view;
+	private final MemoryMXBean memory;
+	private int matches;
+	private int warmUpMatches;
+	private int playersPerMatch;
+	private boolean matchStarted;
+	private int eventsPerSecond;
+	private int heapSampleInterval;
+	private long seed;
+	
+	// State of the current run
+	private LatencyHistogram latency;
+	private long intervalNanos;
+	private long nextSend;
+	private long events;
+	private volatile RuntimeException failure;
+	
+	/**
+	 * Constructor
+	 */
+	public LoadDriver() {
+		
+		this.model = new MatchImpl();
+		this.commandToControllerMap = InitialisationController.createControllers(model);
+		this.view = new HeadlessView();
+		this.memory = ManagementFactory.getMemoryMXBean();
+		
+		InitialisationController.connect(commandToControllerMap, model, view);
+		
+		this.matches = DEFAULT_MATCHES;
+		this.warmUpMatches = DEFAULT_WARM_UP_MATCHES;
+		this.matchStarted = false;
+		this.playersPerMatch = DEFAULT_PLAYERS_PER_MATCH;
+		this.eventsPerSecond = 0;
+		this.heapSampleInterval = DEFAULT_HEAP_SAMPLE_INTERVAL;
+		this.seed = DEFAULT_SEED;
+	}
+	
+	/**
+	 * Runs the driver with options given on the command line and prints
+	 * the report.
+	 * 
+	 * @param args pairs of option and value: {@code --matches},
+	 * {@code --warm-up}, {@code --players}, {@code --rate} (events per second),
+	 * {@code --heap-sample-interval} and {@code --seed}.
+	 * @throws InterruptedException
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		
+		// Run without a display unless told otherwise
+		if (System.getProperty("java.awt.headless") == null)
+			System.setProperty("java.awt.headless", "true");
+		
+		LoadDriver driver = new LoadDriver();
+		
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			switch (args[i]) {
+			
+			case "--matches" :
+				driver.setMatches(Integer.parseInt(args[i + 1]));
+				break;
+				
+			case "--warm-up" :
+				driver.setWarmUpMatches(Integer.parseInt(args[i + 1]));
+				break;
+				
+			case "--players" :
+				driver.setPlayersPerMatch(Integer.parseInt(args[i + 1]));
+				break;
+				
+			case "--rate" :
+				driver.setEventsPerSecond(Integer.parseInt(args[i + 1]));
+				break;
+				
+			case "--heap-sample-interval" :
+				driver.setHeapSampleInterval(Integer.parseInt(args[i + 1]));
+				break;
+				
+			case "--seed" :
+				driver.setSeed(Long.parseLong(args[i + 1]));
+				break;
+				
+			default :
+				System.err.println("Unknown option " + args[i]);
+				return;
+			}
+		}
+		
+		System.out.print(driver.run());
+	}
+	
+	/**
+	 * Sets the number of matches to play.
+	 * 
+	 * @param matches
+	 */
+	public void setMatches(int matches) {
+		this.matches = matches;
+	}
+	
+	/**
+	 * Sets the number of matches to play before measuring, so that the
+	 * results are not skewed by class loading and JIT compilation.
+	 * 
+	 * @param warmUpMatches
+	 */
+	public void setWarmUpMatches(int warmUpMatches) {
+		this.warmUpMatches = warmUpMatches;
+	}
+	
+	/**
+	 * Sets the number of players in each match.
+	 * 
+	 * @param playersPerMatch
+	 */
+	public void setPlayersPerMatch(int playersPerMatch) {
+		this.playersPerMatch = playersPerMatch;
+	}
+	
+	/**
+	 * Sets the rate at which to send events, or zero to send each event
+	 * once the last has been handled.
+	 * 
+	 * @param eventsPerSecond
+	 */
+	public void setEventsPerSecond(int eventsPerSecond) {
+		this.eventsPerSecond = eventsPerSecond;
+	}
+	
+	/**
+	 * Sets the number of matches between samples of the heap in use.
+	 * 
+	 * @param heapSampleInterval
+	 */
+	public void setHeapSampleInterval(int heapSampleInterval) {
+		this.heapSampleInterval = Math.max(1, heapSampleInterval);
+	}
+	
+	/**
+	 * Sets the seed from which the matches are generated.
+	 * 
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+	
+	/**
+	 * Plays the matches and returns the results.
+	 * 
+	 * @return
+	 * @throws InterruptedException
+	 * @throws RuntimeException if a controller throws while handling an
+	 * event.
+	 */
+	public LoadReport run() throws InterruptedException {
+		
+		Dialogs.setEnabled(false);
+		
+		try {
+			return this.runMatches();
+		}
+		finally {
+			Dialogs.setEnabled(true);
+		}
+	}
+	
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+	
+	/**
+	 * Plays the warm-up matches, then the matches measured.
+	 */
+	private LoadReport runMatches() throws InterruptedException {
+		
+		League league = new League(playersPerMatch, playersPerMatch, 1, warmUpMatches + matches, seed);
+		MatchScript script = new MatchScript();
+		long[] heapSamples = new long[matches / heapSampleInterval + 1];
+		int numberOfSamples = 0;
+		
+		latency = new LatencyHistogram("load_driver_event_seconds", "Latency of events sent by the load driver", null);
+		failure = null;
+		
+		// Warm up, sending each event once the last has been handled
+		intervalNanos = 0;
+		
+		for (int match = 0; match < warmUpMatches && league.next(script); match++)
+			this.play(script);
+		
+		// Measure from a clean start
+		this.awaitEvents();
+		latency = new LatencyHistogram("load_driver_event_seconds", "Latency of events sent by the load driver", null);
+		intervalNanos = (eventsPerSecond > 0) ? TimeUnit.SECONDS.toNanos(1) / eventsPerSecond : 0;
+		events = 0;
+		
+		int matchesFinished = view.getMatchesFinished();
+		heapSamples[numberOfSamples++] = this.usedHeapAfterGarbageCollection();
+		
+		long start = System.nanoTime();
+		long pausedNanos = 0;
+		nextSend = start;
+		
+		for (int match = 0; league.next(script); match++) {
+			
+			this.play(script);
+			
+			// Sample the heap without counting the time taken
+			if ((match + 1) % heapSampleInterval == 0) {
+				long pauseStart = System.nanoTime();
+				this.awaitEvents();
+				heapSamples[numberOfSamples++] = this.usedHeapAfterGarbageCollection();
+				pausedNanos += System.nanoTime() - pauseStart;
+				nextSend = System.nanoTime();
+			}
+		}
+		
+		this.awaitEvents();
+		long elapsed = System.nanoTime() - start - pausedNanos;
+		
+		if (failure != null)
+			throw failure;
+		
+		return new LoadReport(matches, view.getMatchesFinished() - matchesFinished, events, elapsed,
+				latency, heapSamples, heapSampleInterval);
+	}
+	
+	/**
+	 * Sends the events to play the given match, first starting a new match
+	 * if one has already been played.
+	 */
+	private void play(MatchScript script) throws InterruptedException {
+		
+		if (matchStarted)
+			this.send(Command.NEW_MATCH, null, 0);
+		
+		for (int player = 0; player < script.getNumberOfPlayers(); player++)
+			this.send(Command.ADD_PLAYER, script.getPlayerName(player), 0);
+		
+		for (int i = 0; i < script.length(); i++)
+			this.send(Command.ADD_SCORE, null, script.getShot(i));
+		
+		matchStarted = true;
+	}
+	
+	/**
+	 * Sends the given command to its controller on the event dispatch
+	 * thread, as if the given name or score had been entered.
+	 */
+	private void send(final String command, final String playerName, final int score)
+			throws InterruptedException {
+		
+		final long due;
+		
+		// Wait until the event is due to be sent
+		if (intervalNanos > 0) {
+			due = nextSend;
+			nextSend += intervalNanos;
+			
+			for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime())
+				LockSupport.parkNanos(wait);
+		}
+		else
+			due = System.nanoTime();
+		
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					view.setNewPlayerName(playerName);
+					view.setScoreEntered(score);
+					commandToControllerMap.get(command).actionPerformed(
+							new ActionEvent(view, ActionEvent.ACTION_PERFORMED, command));
+				}
+				catch (RuntimeException e) {
+					if (failure == null)
+						failure = e;
+				}
+				
+				latency.recordSince(due);
+			}
+		};
+		
+		events++;
+		
+		if (intervalNanos > 0)
+			SwingUtilities.invokeLater(task);
+		else
+			this.invokeAndWait(task);
+	}
+	
+	/**
+	 * Waits until every event sent has been handled.
+	 */
+	private void awaitEvents() throws InterruptedException {
+		this.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+			}
+		});
+	}
+	
+	/**
+	 * Runs the given task on the event dispatch thread and waits for it.
+	 */
+	private void invokeAndWait(Runnable task) throws InterruptedException {
+		try {
+			SwingUtilities.invokeAndWait(task);
+		}
+		catch (InvocationTargetException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+	
+	/**
+	 * Returns the heap in use after asking for garbage collection.
+	 */
+	private long usedHeapAfterGarbageCollection() {
+		
+		for (int i = 0; i < GARBAGE_COLLECTIONS_PER_SAMPLE; i++)
+			memory.gc();
+		
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
@@ -0,0 +1,177 @@
+package thmuggleton.controller;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import thmuggleton.metrics.LatencyHistogram;
+
+/**
+ * Results of a run of the {@link LoadDriver}: throughput, the latency of
+ * each event from when it was due to be sent until the controller had
+ * handled it, and the heap in use after garbage collection at regular
+ * intervals.
+ * 
+ * @author Thomas Muggleton
+ */
+public class LoadReport {
+
+	// Constants
+	private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999, 1};
+	private static final String[] QUANTILE_LABELS = {"p50", "p90", "p99", "p99.9", "max"};
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final double BYTES_PER_KIBIBYTE = 1024;
+	
+	// Fields
+	private final int matches;
+	private final int matchesFinished;
+	private final long events;
+	private final long elapsedNanos;
+	private final LatencyHistogram latency;
+	private final long[] heapSamples;
+	private final int heapSampleInterval;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param matches number of matches played.
+	 * @param matchesFinished number of matches the view was told were
+	 * finished.
+	 * @param events number of events sent.
+	 * @param elapsedNanos time taken, excluding heap sampling.
+	 * @param latency latency of each event.
+	 * @param heapSamples heap in use before the first match and after each
+	 * interval.
+	 * @param heapSampleInterval number of matches between heap samples.
+	 */
+	LoadReport(int matches, int matchesFinished, long events, long elapsedNanos,
+			LatencyHistogram latency, long[] heapSamples, int heapSampleInterval) {
+		this.matches = matches;
+		this.matchesFinished = matchesFinished;
+		this.events = events;
+		this.elapsedNanos = elapsedNanos;
+		this.latency = latency;
+		this.heapSamples = heapSamples;
+		this.heapSampleInterval = heapSampleInterval;
+	}
+	
+	/**
+	 * Returns the number of matches played.
+	 * 
+	 * @return
+	 */
+	public int getMatches() {
+		return matches;
+	}
+	
+	/**
+	 * Returns the number of matches that the view was told were finished.
+	 * 
+	 * @return
+	 */
+	public int getMatchesFinished() {
+		return matchesFinished;
+	}
+	
+	/**
+	 * Returns the number of events sent to the controllers.
+	 * 
+	 * @return
+	 */
+	public long getEvents() {
+		return events;
+	}
+	
+	/**
+	 * Returns the number of events handled per second.
+	 * 
+	 * @return
+	 */
+	public double getEventsPerSecond() {
+		return events / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+	}
+	
+	/**
+	 * Returns the number of matches played per second.
+	 * 
+	 * @return
+	 */
+	public double getMatchesPerSecond() {
+		return matches / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+	}
+	
+	/**
+	 * Returns the latency of each event.
+	 * 
+	 * @return
+	 */
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+	
+	/**
+	 * Returns the heap in use, in bytes, after garbage collection before
+	 * the first match and after every interval of matches.
+	 * 
+	 * @return
+	 */
+	public long[] getHeapSamples() {
+		return Arrays.copyOf(heapSamples, heapSamples.length);
+	}
+	
+	/**
+	 * Returns the growth in heap in use per match, in bytes, as the slope of
+	 * a least-squares fit to the heap samples; the sample taken before the
+	 * first match is left out, since it precedes class loading and JIT
+	 * compilation. Returns zero if there are too few samples.
+	 * 
+	 * @return
+	 */
+	public double getHeapGrowthPerMatch() {
+		
+		int n = heapSamples.length - 1;
+		
+		if (n < 2)
+			return 0;
+		
+		double meanX = (n + 1) / 2.0;
+		double meanY = 0;
+		
+		for (int i = 1; i <= n; i++)
+			meanY += heapSamples[i];
+		
+		meanY /= n;
+		
+		double covariance = 0;
+		double variance = 0;
+		
+		for (int i = 1; i <= n; i++) {
+			covariance += (i - meanX) * (heapSamples[i] - meanY);
+			variance += (i - meanX) * (i - meanX);
+		}
+		
+		return covariance / variance / heapSampleInterval;
+	}
+	
+	@Override
+	public String toString() {
+		
+		StringBuilder out = new StringBuilder();
+		
+		out.append(String.format("Matches:        %d (%d finished)%n", matches, matchesFinished));
+		out.append(String.format("Events:         %d in %.1f s%n", events,
+				elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+		out.append(String.format("Throughput:     %.0f events/s, %.1f matches/s%n",
+				this.getEventsPerSecond(), this.getMatchesPerSecond()));
+		out.append("Latency (ms):  ");
+		
+		for (int i = 0; i < QUANTILES.length; i++)
+			out.append(String.format(" %s=%.3f", QUANTILE_LABELS[i],
+					latency.getQuantile(QUANTILES[i]) / NANOS_PER_MILLI));
+		
+		out.append(String.format("%nHeap (KiB):     %.0f before, %.0f after%n",
+				heapSamples[0] / BYTES_PER_KIBIBYTE, heapSamples[heapSamples.length - 1] / BYTES_PER_KIBIBYTE));
+		out.append(String.format("Heap growth:    %.1f bytes/match%n", this.getHeapGrowthPerMatch()));
+		
+		return out.toString();
+	}
+}
@@ -13,8 +13,13 @@ import javax.swing.event.ChangeListener;
 
 import thmuggleton.Command;
 import thmuggleton.Constants;
+import thmuggleton.diagnostics.MatchUpdateEvent;
+import thmuggleton.metrics.LatencyTrace;
+import thmuggleton.metrics.Metrics;
 import thmuggleton.model.Match;
 import thmuggleton.model.exceptions.BowlingException;
+import thmuggleton.model.impl.Notation;
+import thmuggleton.model.impl.WinProbabilityEngine;
 import thmuggleton.view.View;
 
 /**
@@ -29,12 +34,16 @@ public class MatchController implements Controller, ChangeListener {
 	private View view;
 	private boolean matchBegun;
 	private boolean winnerDeclared;
+	private boolean matchFinished;
+	private WinProbabilityEngine winProbabilityEngine;
+	private final QuickEntry quickEntry;
 	
 	// Constructor
 	protected MatchController(Match model) {
 		
 		this.model = model;
 		this.matchBegun = false;
+		this.quickEntry = new QuickEntry();
 	}
 	
 	/**
@@ -45,12 +54,24 @@ public class MatchController implements Controller, ChangeListener {
 		this.view = view;
 	}
 	
+	/**
+	 * Sets the engine used to estimate each player's chance of winning;
+	 * the engine is refreshed whenever the match changes.
+	 * 
+	 * @param winProbabilityEngine
+	 */
+	protected void setWinProbabilityEngine(WinProbabilityEngine winProbabilityEngine) {
+		this.winProbabilityEngine = winProbabilityEngine;
+	}
+	
 	/**
 	 * Main handler method for action events.
 	 */
 	@Override
 	public void actionPerformed(ActionEvent e) {
 		
+		// Time of receipt, from which the latency of entering a score is traced
+		long received = System.nanoTime();
 		String command = e.getActionCommand();
 		
 		switch (command) {
@@ -64,7 +85,23 @@ public class MatchController implements Controller, ChangeListener {
 			break;
 			
 		case(Command.ADD_SCORE) :
-			this.addScore();
+			this.addScore(received);
+			break;
+			
+		case(Command.ADD_FRAMES) :
+			this.addFrames(received);
+			break;
+			
+		case(Command.CHECK_FRAMES) :
+			this.checkFrames();
+			break;
+			
+		case(Command.UNDO) :
+			this.undo();
+			break;
+			
+		case(Command.REDO) :
+			this.redo();
 			break;
 		}
 	}
@@ -75,17 +112,60 @@ public class MatchController implements Controller, ChangeListener {
 	@Override
 	public void stateChanged(ChangeEvent e) {
 		
+		MatchUpdateEvent event = MatchUpdateEvent.isRecorded() ? new MatchUpdateEvent() : null;
+		
+		if (event != null)
+			event.begin();
+		
 		// Retrieve leaders
 		Set<String> leaders = model.getLeaders();
 		
-		// Iterate over leader(s) to highlight in view
+		// Iterate over leader(s) and eliminated players to highlight in view
 		view.highlightLeaders(leaders);
+		view.highlightEliminated(model.getEliminated());
 		
 		// Display message if match is over and winner has not been declared
-		if (model.isFinished() && !winnerDeclared) {
-			view.setMatchFinished();
-			this.displayMessageForEndOfMatch(leaders);
-			this.winnerDeclared = true;
+		if (model.isFinished()) {
+			if (!matchFinished) {
+				view.setMatchFinished();
+				this.matchFinished = true;
+			}
+			
+			if (!winnerDeclared) {
+				this.displayMessageForEndOfMatch(leaders);
+				this.winnerDeclared = true;
+			}
+		}
+		
+		else {
+			Set<String> clinched = model.getClinched();
+			
+			// Declare winner early if they can no longer be caught
+			if (!winnerDeclared && !clinched.isEmpty()) {
+				this.displayMessageForEndOfMatch(clinched);
+				this.winnerDeclared = true;
+			}
+			
+			// Resume a match whose deciding shots have been taken back
+			else {
+				if (matchFinished) {
+					view.setMatchResumed();
+					this.matchFinished = false;
+				}
+				
+				if (clinched.isEmpty())
+					this.winnerDeclared = false;
+			}
+		}
+		
+		if (event != null) {
+			event.end();
+			
+			if (event.shouldCommit()) {
+				event.leaders = leaders.toString();
+				event.finished = matchFinished;
+				event.commit();
+			}
 		}
 	}
 
@@ -120,7 +200,10 @@ public class MatchController implements Controller, ChangeListener {
 		
 		winnersMessage.append(", you won!");
 		
-		JOptionPane.showMessageDialog(view.getWindow(),
+		// Time spent reading the message is not part of entering a score
+		LatencyTrace.cancel();
+		
+		Dialogs.showMessageDialog(view.getWindow(),
 				winnersMessage.toString(), "Congratulations!",
 				JOptionPane.INFORMATION_MESSAGE, 
 				this.createIcon(Constants.PATH_TO_TROPHY_IMAGE));
@@ -158,7 +241,7 @@ public class MatchController implements Controller, ChangeListener {
 		
 		// Show error if name is too long
 		if (playerName.length() > View.PLAYER_NAME_MAX_SIZE)
-			JOptionPane.showMessageDialog(view.getWindow(), 
+			Dialogs.showMessageDialog(view.getWindow(), 
 					String.format("The name that you entered is too long.%nThe maximum player name size is %d.",
 							View.PLAYER_NAME_MAX_SIZE),
 					"Cannot add player", JOptionPane.ERROR_MESSAGE);
@@ -169,10 +252,11 @@ public class MatchController implements Controller, ChangeListener {
 			try {
 				model.addPlayer(playerName);
 				view.addPlayer(playerName);
+				this.refreshWinProbabilities();
 			}
 			// Display error message if model throws exception
 			catch (BowlingException e) {
-				JOptionPane.showMessageDialog(view.getWindow(), e.getMessage(),
+				Dialogs.showMessageDialog(view.getWindow(), e.getMessage(),
 						"Cannot add player", JOptionPane.ERROR_MESSAGE);
 			}
 		}
@@ -180,8 +264,14 @@ public class MatchController implements Controller, ChangeListener {
 	
 	/**
 	 * Adds a new score to the model and view
+	 * 
+	 * @param received time at which the score was received, taken from
+	 * {@link System#nanoTime()}.
 	 */
-	private void addScore() {
+	private void addScore(long received) {
+		
+		long start = System.nanoTime();
+		LatencyTrace.begin(received);
 		
 		// Retrieve score details
 		int score = view.getScoreEntered();
@@ -189,28 +279,186 @@ public class MatchController implements Controller, ChangeListener {
 		// Try to add score to model
 		try {
 			model.addScore(score);
+			this.refreshWinProbabilities();
+			Metrics.SCORES_ADDED.increment();
 			
 			// Disable the addition of further players
 			if (!matchBegun) {
 				view.disableFurtherPlayers();
 				matchBegun = true;
 			}
+			
+			LatencyTrace.awaitPaint();
 		}
 		// Display error message if model throws exception
 		catch (BowlingException e) {
-			JOptionPane.showMessageDialog(view.getWindow(), e.getMessage(),
+			Metrics.SCORES_REJECTED.increment();
+			LatencyTrace.cancel();
+			Dialogs.showMessageDialog(view.getWindow(), e.getMessage(),
 					"Cannot add player", JOptionPane.ERROR_MESSAGE);
 		}
+		
+		Metrics.CONTROLLER_ADD_SCORE.recordSince(start);
+	}
+
+	/**
+	 * Adds the frames entered to the model in one batch, if they are valid
+	 * and whole, and clears them from the view.
+	 * 
+	 * @param received time at which the frames were received, taken from
+	 * {@link System#nanoTime()}.
+	 */
+	private void addFrames(long received) {
+		
+		long start = System.nanoTime();
+		LatencyTrace.begin(received);
+		
+		// Check frames against the match as it stands
+		int status = quickEntry.check(model.snapshot(), view.getFramesEntered());
+		
+		// Only add the frames once they are valid and whole; otherwise
+		// display error message, keeping the frames entered
+		if (status == QuickEntry.WHOLE_FRAMES)
+			this.addCheckedFrames();
+		else
+			this.rejectFrames(this.describeFramesError(status));
+		
+		Metrics.CONTROLLER_ADD_SCORE.recordSince(start);
+	}
+	
+	/**
+	 * Adds the frames read by the last check to the model in one batch, and
+	 * clears them from the view if the model accepts them.
+	 */
+	private void addCheckedFrames() {
+		
+		int added = model.addScores(quickEntry.getScores(), 0, quickEntry.getCount());
+		
+		if (added > 0) {
+			this.refreshWinProbabilities();
+			Metrics.SCORES_ADDED.add(added);
+			view.clearFramesEntered();
+			
+			// Disable the addition of further players
+			if (!matchBegun) {
+				view.disableFurtherPlayers();
+				matchBegun = true;
+			}
+			
+			LatencyTrace.awaitPaint();
+		}
+		// Display error message if the model rejects the frames
+		else
+			this.rejectFrames(this.describeScoresError(added));
+	}
+	
+	/**
+	 * Counts frames that could not be added and shows the given reason.
+	 * 
+	 * @param message
+	 */
+	private void rejectFrames(String message) {
+		
+		Metrics.SCORES_REJECTED.increment();
+		LatencyTrace.cancel();
+		Dialogs.showMessageDialog(view.getWindow(), message, "Cannot add frames",
+				JOptionPane.ERROR_MESSAGE);
+	}
+	
+	/**
+	 * Checks the frames entered so far against the match, and shows in the
+	 * view whether they can be added.
+	 */
+	private void checkFrames() {
+		
+		int status = quickEntry.check(model.snapshot(), view.getFramesEntered());
+		
+		view.setFramesEntryError((status < 0) ? this.describeFramesError(status) : null);
+	}
+	
+	/**
+	 * Returns the reason for which frames with the given status cannot be
+	 * added.
+	 * 
+	 * @param status
+	 * @return
+	 */
+	private String describeFramesError(int status) {
+		
+		switch (status) {
+		
+		case (QuickEntry.PART_FRAME) :
+			return "Enter whole frames, such as X 7/ 81";
+			
+		case (QuickEntry.NO_PLAYERS) :
+			return "Add players before entering frames";
+			
+		case (Notation.INVALID_CHARACTER) :
+			return "Use X for a strike, / for a spare, - or 0 for a miss, or a digit";
+			
+		case (Notation.INVALID_MARK) :
+			return "That mark cannot be played with the pins standing";
+			
+		case (Notation.MISPLACED_SEPARATOR) :
+			return "Frames can only be separated once they are complete";
+			
+		case (Notation.TOO_MANY_SHOTS) :
+			return "The match has no more frames to play";
+			
+		default :
+			return "The frames entered cannot be added";
+		}
+	}
+	
+	/**
+	 * Returns the reason for which the model rejected frames with the given
+	 * status, returned by {@link Match#addScores(int[], int, int)}.
+	 * 
+	 * @param status
+	 * @return
+	 */
+	private String describeScoresError(int status) {
+		
+		switch (status) {
+		
+		case (Match.NO_PLAYERS) :
+			return "Add players before entering frames";
+			
+		case (Match.GAME_FINISHED) :
+			return "The match has no more frames to play";
+			
+		default :
+			return "The frames entered cannot be added to the match as it stands";
+		}
 	}
 
 	/**
-	 * Creates a new match by clearing the model and view.
+	 * Takes back the last score added to the model; the view is updated
+	 * through the listeners of the frames that change.
+	 */
+	private void undo() {
+		if (model.undo(1) > 0)
+			this.refreshWinProbabilities();
+	}
+	
+	/**
+	 * Adds again the last score taken back from the model.
+	 */
+	private void redo() {
+		if (model.redo(1) > 0)
+			this.refreshWinProbabilities();
+	}
+
+	/**
+	 * Creates a new match by clearing the model and view. A finished match
+	 * is archived first, as it stands once any mistakes have been taken back
+	 * and corrected.
 	 */
 	private void createNewMatch() {
 		
 		// Prompt user if match is in progress
 		if(!model.isFinished()) {
-			int option = JOptionPane.showConfirmDialog(view.getWindow(),
+			int option = Dialogs.showConfirmDialog(view.getWindow(),
 					String.format("The match is still in progress;%nare you sure you want to clear the current match?"),
 					"Match in progress", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
 			
@@ -219,9 +467,24 @@ public class MatchController implements Controller, ChangeListener {
 				return;
 		}
 		
+		// Archive the finished match so that it can still be reviewed
+		if (matchFinished)
+			view.addArchivedMatch(model.history());
+		
 		view.clear();
 		model.clear();
+		this.refreshWinProbabilities();
 		this.matchBegun = false;
 		this.winnerDeclared = false;
+		this.matchFinished = false;
+	}
+	
+	/**
+	 * Restarts the estimate of each player's chance of winning, if an
+	 * engine has been set.
+	 */
+	private void refreshWinProbabilities() {
+		if (winProbabilityEngine != null)
+			winProbabilityEngine.refresh();
 	}
 }
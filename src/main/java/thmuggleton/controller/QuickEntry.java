@@ -0,0 +1,130 @@
+package thmuggleton.controller;
+
+import thmuggleton.Constants;
+import thmuggleton.model.MatchSnapshot;
+import thmuggleton.model.impl.GameRules;
+import thmuggleton.model.impl.Notation;
+
+/**
+ * Reads frames typed in score sheet notation, such as {@code X 7/ 81}, as
+ * the shots to add to a match, following the players in turn from the
+ * player due to play next.
+ * <p>
+ * Each character is checked against the position reached by the player
+ * whose shot it is, so that the text can be checked after every key
+ * pressed and a mistake shown as soon as it is typed. The shots read are
+ * kept in an array that is reused for every check, ready to be added to the
+ * match in one batch; a quick entry should only be used by one thread.
+ *
+ * @author Thomas Muggleton
+ */
+final class QuickEntry {
+
+	/**
+	 * Status returned by {@link #check(MatchSnapshot, CharSequence)} when
+	 * the text holds only whole frames.
+	 */
+	static final int WHOLE_FRAMES = 0;
+
+	/**
+	 * Status returned by {@link #check(MatchSnapshot, CharSequence)} when
+	 * the text is valid so far but holds no shots, or its last frame is
+	 * not yet complete.
+	 */
+	static final int PART_FRAME = 1;
+
+	/**
+	 * Error returned by {@link #check(MatchSnapshot, CharSequence)} when
+	 * the match has no players; other errors are those of {@link Notation}.
+	 */
+	static final int NO_PLAYERS = -8;
+
+	// Fields
+	private final int[] scores;
+	private final int[] positions;
+	private final int[] lastScores;
+	private final int[] rolls;
+	private int count;
+
+	/**
+	 * Constructor
+	 */
+	QuickEntry() {
+		scores = new int[Constants.MAX_NUMBER_OF_PLAYERS * Constants.MAX_ROLLS_PER_GAME];
+		positions = new int[Constants.MAX_NUMBER_OF_PLAYERS];
+		lastScores = new int[Constants.MAX_NUMBER_OF_PLAYERS];
+		rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+	}
+
+	/**
+	 * Reads the given text as shots played from the given snapshot of a
+	 * match, keeping the shots read to be returned by {@link #getScores()}.
+	 *
+	 * @param snapshot of the match to which the shots would be added.
+	 * @param text
+	 * @return {@link #WHOLE_FRAMES}, {@link #PART_FRAME} or a negative error
+	 *         code.
+	 */
+	int check(MatchSnapshot snapshot, CharSequence text) {
+
+		count = 0;
+
+		int players = snapshot.getNumberOfPlayers();
+
+		if (players <= 0)
+			return NO_PLAYERS;
+
+		// Find where each player is within their game
+		for (int i = 0; i < players; i++) {
+			int rollCount = snapshot.copyRolls(i, rolls, 0);
+			positions[i] = GameRules.position(rolls, 0, rollCount);
+			lastScores[i] = (rollCount > 0) ? rolls[rollCount - 1] : 0;
+		}
+
+		int player = snapshot.getCurrentPlayer();
+		boolean frameComplete = false;
+
+		for (int i = 0; i < text.length(); i++) {
+
+			int read = Notation.parse(text, i, i + 1, positions[player], lastScores[player], scores, count);
+
+			if (read < 0)
+				return read;
+
+			// Separators read no shot
+			if (read == 0)
+				continue;
+
+			int position = GameRules.advance(positions[player], scores[count]);
+			positions[player] = position;
+			lastScores[player] = scores[count++];
+
+			// Move on to the next player once the frame is complete
+			frameComplete = position == GameRules.COMPLETE || GameRules.ballOf(position) == 0;
+
+			if (frameComplete)
+				player = (player + 1) % players;
+		}
+
+		return (count > 0 && frameComplete) ? WHOLE_FRAMES : PART_FRAME;
+	}
+
+	/**
+	 * Returns the array holding the shots read by the last check, from
+	 * index zero.
+	 *
+	 * @return
+	 */
+	int[] getScores() {
+		return scores;
+	}
+
+	/**
+	 * Returns the number of shots read by the last check.
+	 *
+	 * @return
+	 */
+	int getCount() {
+		return count;
+	}
+}
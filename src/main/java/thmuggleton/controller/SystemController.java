@@ -46,7 +46,7 @@ public class SystemController implements Controller {
 		switch (command) {
 		
 		case(Command.ABOUT) :
-			JOptionPane.showMessageDialog(view.getWindow(),
+			Dialogs.showMessageDialog(view.getWindow(),
 					Constants.ABOUT_DIALOG_MESSAGE, "About",
 					JOptionPane.INFORMATION_MESSAGE);
 			break;
@@ -66,7 +66,7 @@ public class SystemController implements Controller {
 		
 		// Prompt user if match is in progress
 		if(!model.isFinished()) {
-			int option = JOptionPane.showConfirmDialog(view.getWindow(),
+			int option = Dialogs.showConfirmDialog(view.getWindow(),
 					String.format("The match is still in progress;%nare you sure you want to quit?"),
 					"Match in progress", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
 			
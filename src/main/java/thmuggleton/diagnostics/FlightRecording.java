@@ -0,0 +1,95 @@
+package thmuggleton.diagnostics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import thmuggleton.Constants;
+import thmuggleton.model.exceptions.BowlingException;
+
+/**
+ * Continuous flight recording that keeps only the most recent events, so
+ * that it can be left running and dumped to a file when the application
+ * stutters.
+ *
+ * @author Thomas Muggleton
+ */
+public final class FlightRecording {
+
+	// Fields
+	private static volatile Recording recording;
+
+	/**
+	 * Private constructor; this class only provides static methods.
+	 */
+	private FlightRecording() {
+	}
+
+	/**
+	 * Starts recording with the JDK's default settings plus the
+	 * application's own events, keeping a bounded amount of history.
+	 *
+	 * @throws IOException if the default settings cannot be read.
+	 * @throws ParseException if the default settings cannot be parsed.
+	 */
+	public static synchronized void start() throws IOException, ParseException {
+
+		if (recording != null)
+			return;
+
+		Recording newRecording = new Recording(Configuration.getConfiguration("default"));
+		newRecording.setName("bowling-desktop");
+		newRecording.setToDisk(true);
+		newRecording.setMaxSize(Constants.FLIGHT_RECORDING_MAX_BYTES);
+		newRecording.setMaxAge(Duration.ofMinutes(Constants.FLIGHT_RECORDING_MAX_AGE_MINUTES));
+
+		newRecording.enable(ScoreEvent.class);
+		newRecording.enable(ListenerDispatchEvent.class);
+		newRecording.enable(MatchUpdateEvent.class);
+		newRecording.enable(ImageExportEvent.class);
+
+		newRecording.start();
+		recording = newRecording;
+	}
+
+	/**
+	 * Stops and discards the recording, if one has been started.
+	 */
+	public static synchronized void stop() {
+
+		if (recording != null) {
+			recording.close();
+			recording = null;
+		}
+	}
+
+	/**
+	 * Returns {@code true} if a recording has been started.
+	 *
+	 * @return
+	 */
+	public static boolean isRunning() {
+		return recording != null;
+	}
+
+	/**
+	 * Writes the events currently held by the recording to the given file,
+	 * leaving the recording running.
+	 *
+	 * @param file
+	 * @throws IOException
+	 * @throws BowlingException if no recording has been started.
+	 */
+	public static void dump(Path file) throws IOException {
+
+		Recording current = recording;
+
+		if (current == null)
+			throw new BowlingException("Flight recording has not been started");
+
+		current.dump(file);
+	}
+}
@@ -0,0 +1,45 @@
+package thmuggleton.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for the scoreboard being exported as an image.
+ *
+ * @author Thomas Muggleton
+ */
+@Name("thmuggleton.ImageExport")
+@Label("Image Export")
+@Category("Bowling")
+@Description("Scoreboard captured and written to an image file")
+public class ImageExportEvent extends Event {
+
+	// Constants
+	private static final EventType TYPE = EventType.getEventType(ImageExportEvent.class);
+
+	@Label("Path")
+	public String path;
+
+	@Label("Width")
+	public int width;
+
+	@Label("Height")
+	public int height;
+
+	@Label("Succeeded")
+	public boolean succeeded;
+
+	/**
+	 * Returns {@code true} if a recording is taking this event, so that
+	 * the event need only be created when an image is exported while recording.
+	 *
+	 * @return
+	 */
+	public static boolean isRecorded() {
+		return TYPE.isEnabled();
+	}
+}
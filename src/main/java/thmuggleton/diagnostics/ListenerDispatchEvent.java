@@ -0,0 +1,44 @@
+package thmuggleton.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a model object notifying its change listeners.
+ *
+ * @author Thomas Muggleton
+ */
+@Name("thmuggleton.ListenerDispatch")
+@Label("Listener Dispatch")
+@Category("Bowling")
+@Description("Change listeners notified by a frame or match")
+public class ListenerDispatchEvent extends Event {
+
+	// Constants
+	private static final EventType TYPE = EventType.getEventType(ListenerDispatchEvent.class);
+
+	@Label("Source")
+	@Description("Type of model object notifying its listeners")
+	public String source;
+
+	@Label("Listeners")
+	public int listeners;
+
+	@Label("Total")
+	@Description("Score for the frame, or -1 for a match")
+	public int total;
+
+	/**
+	 * Returns {@code true} if a recording is taking this event, so that
+	 * the event need only be created when listeners are notified while recording.
+	 *
+	 * @return
+	 */
+	public static boolean isRecorded() {
+		return TYPE.isEnabled();
+	}
+}
@@ -0,0 +1,40 @@
+package thmuggleton.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for the match controller updating the view after a
+ * change in the match.
+ *
+ * @author Thomas Muggleton
+ */
+@Name("thmuggleton.MatchUpdate")
+@Label("Match Update")
+@Category("Bowling")
+@Description("View updated after a change in the match")
+public class MatchUpdateEvent extends Event {
+
+	// Constants
+	private static final EventType TYPE = EventType.getEventType(MatchUpdateEvent.class);
+
+	@Label("Leaders")
+	public String leaders;
+
+	@Label("Match Finished")
+	public boolean finished;
+
+	/**
+	 * Returns {@code true} if a recording is taking this event, so that
+	 * the event need only be created when the view is updated while recording.
+	 *
+	 * @return
+	 */
+	public static boolean isRecorded() {
+		return TYPE.isEnabled();
+	}
+}
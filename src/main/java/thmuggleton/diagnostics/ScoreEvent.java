@@ -0,0 +1,47 @@
+package thmuggleton.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a score being added to the match model.
+ *
+ * @author Thomas Muggleton
+ */
+@Name("thmuggleton.Score")
+@Label("Score Added")
+@Category("Bowling")
+@Description("A score added to the match model")
+public class ScoreEvent extends Event {
+
+	// Constants
+	private static final EventType TYPE = EventType.getEventType(ScoreEvent.class);
+
+	@Label("Player")
+	public String player;
+
+	@Label("Frame")
+	@Description("Frame number, from 1")
+	public int frame;
+
+	@Label("Score")
+	@Description("Number of pins knocked down")
+	public int score;
+
+	@Label("Game Finished")
+	public boolean gameFinished;
+
+	/**
+	 * Returns {@code true} if a recording is taking this event, so that
+	 * the event need only be created when a score is added while recording.
+	 *
+	 * @return
+	 */
+	public static boolean isRecorded() {
+		return TYPE.isEnabled();
+	}
+}
@@ -0,0 +1,61 @@
+package thmuggleton.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free count of events that only ever increases.
+ *
+ * @author Thomas Muggleton
+ */
+public class Counter extends Metric {
+
+	// Fields
+	private final AtomicLong count;
+
+	/**
+	 * Constructor
+	 *
+	 * @param name
+	 * @param help
+	 * @param labels
+	 */
+	protected Counter(String name, String help, String labels) {
+		super(name, help, labels);
+		this.count = new AtomicLong();
+	}
+
+	/**
+	 * Adds one to the count.
+	 */
+	public void increment() {
+		count.incrementAndGet();
+	}
+
+	/**
+	 * Adds the given number, which must not be negative, to the count.
+	 *
+	 * @param n
+	 */
+	public void add(long n) {
+		count.addAndGet(n);
+	}
+
+	/**
+	 * Returns the current count.
+	 *
+	 * @return
+	 */
+	public long get() {
+		return count.get();
+	}
+
+	@Override
+	protected String getType() {
+		return "counter";
+	}
+
+	@Override
+	protected void writeSamples(StringBuilder out) {
+		this.writeSample(out, "", null, count.get());
+	}
+}
@@ -0,0 +1,213 @@
+package thmuggleton.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds, using fixed log-linear
+ * buckets: each power of two is split into {@link #SUB_BUCKETS} equal
+ * buckets, so any recorded value is known to within 12.5%.
+ * <p>
+ * Recording a value is a couple of bit operations and two atomic additions,
+ * and never allocates, so histograms can be left recording all the time.
+ * Durations longer than about 18 minutes are counted in the last bucket.
+ *
+ * @author Thomas Muggleton
+ */
+public class LatencyHistogram extends Metric {
+
+	// Constants
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_EXPONENT = 40;
+
+	/**
+	 * Number of buckets in every histogram.
+	 */
+	public static final int NUMBER_OF_BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+	// Fields
+	private final AtomicLongArray counts;
+	private final AtomicLong sum;
+
+	/**
+	 * Constructor; the histogram is not exported unless it is created with
+	 * {@link Metrics#histogram(String, String, String)} instead.
+	 *
+	 * @param name
+	 * @param help
+	 * @param labels
+	 */
+	public LatencyHistogram(String name, String help, String labels) {
+		super(name, help, labels);
+		this.counts = new AtomicLongArray(NUMBER_OF_BUCKETS);
+		this.sum = new AtomicLong();
+	}
+
+	/**
+	 * Records the given duration.
+	 *
+	 * @param nanos
+	 */
+	public void record(long nanos) {
+
+		if (nanos < 0)
+			nanos = 0;
+
+		counts.incrementAndGet(bucketOf(nanos));
+		sum.addAndGet(nanos);
+	}
+
+	/**
+	 * Records the time elapsed since the given start time, taken from
+	 * {@link System#nanoTime()}.
+	 *
+	 * @param startNanos
+	 */
+	public void recordSince(long startNanos) {
+		this.record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Returns the number of durations recorded.
+	 *
+	 * @return
+	 */
+	public long getCount() {
+
+		long result = 0;
+
+		for (int i = 0; i < NUMBER_OF_BUCKETS; i++)
+			result += counts.get(i);
+
+		return result;
+	}
+
+	/**
+	 * Returns the total of all durations recorded, in nanoseconds.
+	 *
+	 * @return
+	 */
+	public long getSum() {
+		return sum.get();
+	}
+
+	/**
+	 * Returns the number of durations recorded in the given bucket.
+	 *
+	 * @param bucket
+	 * @return
+	 */
+	public long getBucketCount(int bucket) {
+		return counts.get(bucket);
+	}
+
+	/**
+	 * Returns an upper bound, in nanoseconds, for the given quantile of the
+	 * durations recorded, or zero if none have been recorded.
+	 *
+	 * @param quantile between 0 and 1.
+	 * @return
+	 */
+	public long getQuantile(double quantile) {
+
+		long count = this.getCount();
+
+		if (count == 0)
+			return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(quantile * count));
+		long seen = 0;
+
+		for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+			seen += counts.get(i);
+
+			if (seen >= rank)
+				return upperBoundOf(i);
+		}
+
+		return upperBoundOf(NUMBER_OF_BUCKETS - 1);
+	}
+
+	/**
+	 * Returns the bucket in which the given duration is counted.
+	 *
+	 * @param nanos
+	 * @return
+	 */
+	public static int bucketOf(long nanos) {
+
+		// Values below the first power of two split get a bucket each
+		if (nanos < SUB_BUCKETS)
+			return (int) nanos;
+
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+
+		if (exponent > MAX_EXPONENT)
+			return NUMBER_OF_BUCKETS - 1;
+
+		int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Returns the largest duration, in nanoseconds, counted in the given
+	 * bucket.
+	 *
+	 * @param bucket
+	 * @return
+	 */
+	public static long upperBoundOf(int bucket) {
+
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long subBucket = bucket % SUB_BUCKETS;
+
+		return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+	/**
+	 * Writes this histogram in Prometheus exposition format, in seconds. Only
+	 * buckets in which durations have been recorded are written, since the
+	 * counts are cumulative.
+	 */
+	@Override
+	protected void writeSamples(StringBuilder out) {
+
+		long cumulative = 0;
+
+		for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+			long count = counts.get(i);
+
+			if (count == 0)
+				continue;
+
+			cumulative += count;
+			this.writeSample(out, "_bucket", "le=\"" + toSeconds(upperBoundOf(i)) + "\"", cumulative);
+		}
+
+		this.writeSample(out, "_bucket", "le=\"+Inf\"", cumulative);
+		this.writeSample(out, "_sum", null, toSeconds(sum.get()));
+		this.writeSample(out, "_count", null, cumulative);
+	}
+
+	@Override
+	protected String getType() {
+		return "histogram";
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Converts nanoseconds to seconds.
+	 */
+	private static double toSeconds(long nanos) {
+		return (double) nanos / TimeUnit.SECONDS.toNanos(1);
+	}
+}
@@ -0,0 +1,220 @@
+package thmuggleton.metrics;
+
+import java.util.concurrent.Executor;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Traces an entered score from the action event that delivers it to the
+ * repaint that shows it, recording the time spent in each stage in the
+ * {@code ROLL_LATENCY} histograms of {@link Metrics}.
+ * <p>
+ * A trace is opened by the controller when the event is received. Time spent
+ * notifying listeners is added as it happens; whatever remains of the time
+ * taken to handle the event is counted against the model. Once the event has
+ * been handled, a task is passed to the scheduler to close the trace. With
+ * {@link #EVENT_QUEUE}, the repaints requested while handling the event are
+ * already queued on the event dispatch thread ahead of that task, and the
+ * queue is processed in order, so the task runs once the change has been
+ * painted, and the time until then is counted as paint.
+ * <p>
+ * Tracing is off until a scheduler is set, so that controllers driven
+ * without a display record nothing. Each thread has its own trace, so
+ * traces opened on different threads never share state; listener
+ * notifications made while the thread has no trace open are ignored.
+ *
+ * @author Thomas Muggleton
+ */
+public final class LatencyTrace {
+
+	/**
+	 * Scheduler that queues the task closing a trace on the event dispatch
+	 * thread.
+	 */
+	public static final Executor EVENT_QUEUE = new Executor() {
+		@Override
+		public void execute(Runnable task) {
+			SwingUtilities.invokeLater(task);
+		}
+	};
+
+	// Trace of each thread, created the first time the thread traces
+	private static final ThreadLocal<LatencyTrace> TRACES = new ThreadLocal<LatencyTrace>() {
+		@Override
+		protected LatencyTrace initialValue() {
+			return new LatencyTrace();
+		}
+	};
+
+	private static volatile Executor scheduler;
+
+	// Fields
+	private boolean open;
+	private boolean awaitingPaint;
+	private long received;
+	private long handled;
+	private long dispatchNanos;
+
+	// Passed to the scheduler to close the trace, kept so that tracing does
+	// not allocate
+	private final Runnable close;
+
+	/**
+	 * Constructor; creates the trace of one thread.
+	 */
+	private LatencyTrace() {
+		close = new Runnable() {
+			@Override
+			public void run() {
+				LatencyTrace.this.close();
+			}
+		};
+	}
+
+	/**
+	 * Sets the scheduler through which traces are closed once their event
+	 * has been handled, or turns tracing off if {@code null}.
+	 *
+	 * @param newScheduler
+	 */
+	public static void setScheduler(Executor newScheduler) {
+		scheduler = newScheduler;
+	}
+
+	/**
+	 * Opens a trace on this thread for an event received at the given time,
+	 * taken from {@link System#nanoTime()}, abandoning any trace already
+	 * open.
+	 *
+	 * @param receivedNanos
+	 */
+	public static void begin(long receivedNanos) {
+		if (scheduler != null)
+			TRACES.get().open(receivedNanos);
+	}
+
+	/**
+	 * Adds the given time spent notifying listeners to the trace open on
+	 * this thread, if any.
+	 *
+	 * @param nanos
+	 */
+	public static void dispatched(long nanos) {
+		if (scheduler != null)
+			TRACES.get().addDispatch(nanos);
+	}
+
+	/**
+	 * Marks the event as handled and schedules the trace open on this
+	 * thread, if any, to be closed once the resulting repaint has been
+	 * processed.
+	 */
+	public static void awaitPaint() {
+
+		Executor current = scheduler;
+
+		if (current == null)
+			return;
+
+		LatencyTrace trace = TRACES.get();
+
+		if (trace.markHandled())
+			current.execute(trace.close);
+	}
+
+	/**
+	 * Abandons the trace open on this thread, if any; used when handling the
+	 * event is held up by something other than the application, such as a
+	 * dialog.
+	 */
+	public static void cancel() {
+		if (scheduler != null)
+			TRACES.get().abandon();
+	}
+
+	/**
+	 * Returns {@code true} if a trace is open on this thread.
+	 *
+	 * @return
+	 */
+	public static boolean isOpen() {
+		return scheduler != null && TRACES.get().isTraceOpen();
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Opens this trace for an event received at the given time.
+	 *
+	 * @param receivedNanos
+	 */
+	private synchronized void open(long receivedNanos) {
+		open = true;
+		awaitingPaint = false;
+		received = receivedNanos;
+		dispatchNanos = 0;
+	}
+
+	/**
+	 * Adds the given time spent notifying listeners, if this trace is open.
+	 *
+	 * @param nanos
+	 */
+	private synchronized void addDispatch(long nanos) {
+		if (open)
+			dispatchNanos += nanos;
+	}
+
+	/**
+	 * Marks the event of this trace as handled, if the trace is open.
+	 *
+	 * @return {@code true} if the trace should be closed once painted.
+	 */
+	private synchronized boolean markHandled() {
+
+		if (!open)
+			return false;
+
+		handled = System.nanoTime();
+		awaitingPaint = true;
+
+		return true;
+	}
+
+	/**
+	 * Abandons this trace.
+	 */
+	private synchronized void abandon() {
+		open = false;
+	}
+
+	/**
+	 * Returns {@code true} if this trace is open.
+	 *
+	 * @return
+	 */
+	private synchronized boolean isTraceOpen() {
+		return open;
+	}
+
+	/**
+	 * Records each stage of this trace, if it has not been abandoned or
+	 * replaced by a trace still being handled since it was scheduled.
+	 */
+	private synchronized void close() {
+
+		if (!open || !awaitingPaint)
+			return;
+
+		long painted = System.nanoTime();
+		long handling = handled - received;
+
+		Metrics.ROLL_LATENCY_MODEL.record(Math.max(handling - dispatchNanos, 0));
+		Metrics.ROLL_LATENCY_DISPATCH.record(dispatchNanos);
+		Metrics.ROLL_LATENCY_PAINT.record(painted - handled);
+		Metrics.ROLL_LATENCY_TOTAL.record(painted - received);
+		open = false;
+	}
+}
@@ -0,0 +1,93 @@
+package thmuggleton.metrics;
+
+/**
+ * Shared functionality for metrics that can be written in Prometheus
+ * exposition format.
+ *
+ * @author Thomas Muggleton
+ */
+public abstract class Metric {
+
+	// Fields
+	private final String name;
+	private final String help;
+	private final String labels;
+
+	/**
+	 * Constructor
+	 *
+	 * @param name metric name, which may be shared by metrics with
+	 * different labels.
+	 * @param help description of the metric.
+	 * @param labels labels identifying this metric among those with the
+	 * same name, e.g. {@code phase="view"}, or {@code null} if none.
+	 */
+	protected Metric(String name, String help, String labels) {
+		this.name = name;
+		this.help = help;
+		this.labels = labels;
+	}
+
+	/**
+	 * Returns the name of this metric.
+	 *
+	 * @return
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the description of this metric.
+	 *
+	 * @return
+	 */
+	public String getHelp() {
+		return help;
+	}
+
+	/**
+	 * Returns the Prometheus type of this metric.
+	 *
+	 * @return
+	 */
+	protected abstract String getType();
+
+	/**
+	 * Appends a line for each sample of this metric to the given output.
+	 *
+	 * @param out
+	 */
+	protected abstract void writeSamples(StringBuilder out);
+
+	/**
+	 * Appends a single sample line, combining this metric's labels with any
+	 * given for the sample.
+	 *
+	 * @param out
+	 * @param suffix appended to the metric name, e.g. "_count".
+	 * @param sampleLabels labels for this sample, or {@code null} if none.
+	 * @param value
+	 */
+	protected void writeSample(StringBuilder out, String suffix, String sampleLabels, Object value) {
+
+		out.append(name).append(suffix);
+
+		if (labels != null || sampleLabels != null) {
+			out.append('{');
+
+			if (labels != null)
+				out.append(labels);
+
+			if (labels != null && sampleLabels != null)
+				out.append(',');
+
+			if (sampleLabels != null)
+				out.append(sampleLabels);
+
+			out.append('}');
+		}
+
+		out.append(' ').append(value).append('\n');
+	}
+}
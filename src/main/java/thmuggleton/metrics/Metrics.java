@@ -0,0 +1,257 @@
+package thmuggleton.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of the metrics recorded by the application, which can be written
+ * to a text file in Prometheus exposition format.
+ * <p>
+ * Metrics for the hot paths are created once, as constants, so recording
+ * does not need to look anything up by name.
+ *
+ * @author Thomas Muggleton
+ */
+public final class Metrics {
+
+	// Registered metrics, in order of registration
+	private static final List<Metric> METRICS = new CopyOnWriteArrayList<Metric>();
+
+	/**
+	 * Time taken by the match controller to handle an entered score,
+	 * including updating the model and view.
+	 */
+	public static final LatencyHistogram CONTROLLER_ADD_SCORE = histogram(
+			"bowling_controller_add_score_seconds", "Time to handle an entered score", null);
+
+	/**
+	 * Time taken by the match model to add a score.
+	 */
+	public static final LatencyHistogram MATCH_ADD_SCORE = histogram(
+			"bowling_match_add_score_seconds", "Time to add a score to the match model", null);
+
+	/**
+	 * Time taken to update the leaders and who can still win after a score.
+	 */
+	public static final LatencyHistogram LEADER_UPDATE = histogram(
+			"bowling_leader_update_seconds", "Time to update leaders and contention after a score", null);
+
+	/**
+	 * Time taken to notify the listeners of a frame.
+	 */
+	public static final LatencyHistogram FRAME_LISTENER_DISPATCH = histogram(
+			"bowling_listener_dispatch_seconds", "Time to notify change listeners", "source=\"frame\"");
+
+	/**
+	 * Time taken to notify the listeners of a match.
+	 */
+	public static final LatencyHistogram MATCH_LISTENER_DISPATCH = histogram(
+			"bowling_listener_dispatch_seconds", "Time to notify change listeners", "source=\"match\"");
+
+	/**
+	 * Time taken to paint the scoreboard.
+	 */
+	public static final LatencyHistogram SCOREBOARD_PAINT = histogram(
+			"bowling_scoreboard_paint_seconds", "Time to paint the scoreboard", null);
+
+	/**
+	 * Time from an entered score being received until it is shown, spent
+	 * in the controller and model outside of listener notification.
+	 */
+	public static final LatencyHistogram ROLL_LATENCY_MODEL = histogram(
+			"bowling_roll_latency_seconds", "Time from score entry until it is shown, by stage", "stage=\"model\"");
+
+	/**
+	 * Time from an entered score being received until it is shown, spent
+	 * notifying frame and match listeners.
+	 */
+	public static final LatencyHistogram ROLL_LATENCY_DISPATCH = histogram(
+			"bowling_roll_latency_seconds", "Time from score entry until it is shown, by stage", "stage=\"dispatch\"");
+
+	/**
+	 * Time from an entered score being received until it is shown, spent
+	 * waiting for and painting the repaint that shows it.
+	 */
+	public static final LatencyHistogram ROLL_LATENCY_PAINT = histogram(
+			"bowling_roll_latency_seconds", "Time from score entry until it is shown, by stage", "stage=\"paint\"");
+
+	/**
+	 * Time from an entered score being received until it is shown.
+	 */
+	public static final LatencyHistogram ROLL_LATENCY_TOTAL = histogram(
+			"bowling_roll_latency_seconds", "Time from score entry until it is shown, by stage", "stage=\"total\"");
+
+	/**
+	 * Time taken to export the scoreboard as an image.
+	 */
+	public static final LatencyHistogram IMAGE_EXPORT = histogram(
+			"bowling_image_export_seconds", "Time to capture and write a scoreboard image", null);
+
+	/**
+	 * Time taken to set the look and feel at startup.
+	 */
+	public static final LatencyHistogram STARTUP_LOOK_AND_FEEL = histogram(
+			"bowling_startup_phase_seconds", "Time taken by each phase of startup", "phase=\"look_and_feel\"");
+
+	/**
+	 * Time taken to create the model and controllers at startup.
+	 */
+	public static final LatencyHistogram STARTUP_CONTROLLERS = histogram(
+			"bowling_startup_phase_seconds", "Time taken by each phase of startup", "phase=\"controllers\"");
+
+	/**
+	 * Time taken to create the view at startup.
+	 */
+	public static final LatencyHistogram STARTUP_VIEW = histogram(
+			"bowling_startup_phase_seconds", "Time taken by each phase of startup", "phase=\"view\"");
+
+	/**
+	 * Number of scores added to the match.
+	 */
+	public static final Counter SCORES_ADDED = counter(
+			"bowling_scores_added_total", "Number of scores added", null);
+
+	/**
+	 * Number of entered scores rejected by the model.
+	 */
+	public static final Counter SCORES_REJECTED = counter(
+			"bowling_scores_rejected_total", "Number of entered scores rejected", null);
+
+	/**
+	 * Number of scoreboard images that could not be written.
+	 */
+	public static final Counter IMAGE_EXPORT_FAILURES = counter(
+			"bowling_image_export_failures_total", "Number of failed scoreboard image exports", null);
+
+	/**
+	 * Private constructor; this class only provides static methods.
+	 */
+	private Metrics() {
+	}
+
+	/**
+	 * Creates and registers a histogram.
+	 *
+	 * @param name
+	 * @param help
+	 * @param labels
+	 * @return
+	 */
+	public static LatencyHistogram histogram(String name, String help, String labels) {
+		LatencyHistogram histogram = new LatencyHistogram(name, help, labels);
+		METRICS.add(histogram);
+		return histogram;
+	}
+
+	/**
+	 * Creates and registers a counter.
+	 *
+	 * @param name
+	 * @param help
+	 * @param labels
+	 * @return
+	 */
+	public static Counter counter(String name, String help, String labels) {
+		Counter counter = new Counter(name, help, labels);
+		METRICS.add(counter);
+		return counter;
+	}
+
+	/**
+	 * Returns a snapshot of every registered metric in Prometheus exposition
+	 * format, grouping metrics that share a name.
+	 *
+	 * @return
+	 */
+	public static String toPrometheusText() {
+
+		StringBuilder out = new StringBuilder();
+		Set<String> written = new HashSet<String>();
+
+		for (Metric metric : METRICS) {
+
+			if (!written.add(metric.getName()))
+				continue;
+
+			out.append("# HELP ").append(metric.getName()).append(' ').append(metric.getHelp()).append('\n');
+			out.append("# TYPE ").append(metric.getName()).append(' ').append(metric.getType()).append('\n');
+
+			for (Metric sameName : METRICS) {
+				if (sameName.getName().equals(metric.getName()))
+					sameName.writeSamples(out);
+			}
+		}
+
+		return out.toString();
+	}
+
+	/**
+	 * Writes a snapshot of every registered metric to the given file. The
+	 * snapshot is written to a temporary file first and then moved into
+	 * place, so a reader never sees a partly written file.
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void writeTo(Path file) throws IOException {
+
+		Path directory = file.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+
+		Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+		Files.write(temporary, toPrometheusText().getBytes(StandardCharsets.UTF_8));
+
+		try {
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Starts writing a snapshot to the given file at the given interval on
+	 * a background thread, and once more when the application exits.
+	 *
+	 * @param file
+	 * @param periodSeconds
+	 */
+	public static void startExporter(final Path file, long periodSeconds) {
+
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "metrics-exporter");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		Runnable export = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					writeTo(file);
+				}
+				catch (IOException e) {
+					System.err.println("Failed to write metrics: " + e.getMessage());
+				}
+			}
+		};
+
+		executor.scheduleAtFixedRate(export, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+		Runtime.getRuntime().addShutdownHook(new Thread(export, "metrics-exporter-shutdown"));
+	}
+}
@@ -27,11 +27,40 @@ public interface Frame {
 	public static final int SCORE_UNSET = -1;
 	
 	/**
-	 * Returns the scores for each shot in the frame.
+	 * Returns a copy of the scores for each shot in the frame; use
+	 * {@link #getScore(int)} to read a score without copying.
 	 * 
 	 * @return
 	 */
 	public int[] getScores();
+	
+	/**
+	 * Returns the score for the given shot in the frame, or
+	 * {@link #SCORE_UNSET} if the shot has not been played.
+	 * 
+	 * @param ball index of the shot within the frame.
+	 * @return
+	 */
+	public int getScore(int ball);
+	
+	/**
+	 * Returns the number of shots that can be played in the frame, which
+	 * is {@link #REGULAR_FRAME} or {@link #LAST_FRAME}.
+	 * 
+	 * @return
+	 */
+	public int getNumberOfBalls();
+
+	/**
+	 * Returns a mask of the pins left standing after the given shot in the
+	 * frame, where bit {@code n - 1} is set if pin {@code n} is standing, or
+	 * {@code -1} if the shot has not been played or was entered as a count
+	 * only.
+	 * 
+	 * @param ball index of the shot within the frame.
+	 * @return
+	 */
+	public int getLeave(int ball);
 
 	/**
 	 * Returns the total score for the frame.
@@ -61,4 +90,20 @@ public interface Frame {
 	 * @param listener
 	 */
 	public void addChangeListener(ChangeListener listener);
+	
+	/**
+	 * Adds a change listener to this Frame through a weak reference, so
+	 * that the listener is dropped once nothing else refers to it.
+	 * 
+	 * @param listener
+	 */
+	public void addWeakChangeListener(ChangeListener listener);
+	
+	/**
+	 * Removes a change listener from this Frame, whether it was added
+	 * directly or weakly.
+	 * 
+	 * @param listener
+	 */
+	public void removeChangeListener(ChangeListener listener);
 }
@@ -1,5 +1,6 @@
 package thmuggleton.model;
 
+import java.util.List;
 import java.util.Set;
 
 import javax.swing.event.ChangeListener;
@@ -15,6 +16,42 @@ import thmuggleton.model.exceptions.BowlingException;
  */
 public interface Match {
 
+	/**
+	 * Status returned by {@link #tryAddScore(int, int)} when the score is
+	 * added and the current player's game continues.
+	 */
+	public static final int ROLL_ADDED = 0;
+	
+	/**
+	 * Status returned by {@link #tryAddScore(int, int)} when the score is
+	 * added and completes the current player's game.
+	 */
+	public static final int GAME_COMPLETE = 1;
+	
+	/**
+	 * Status returned by {@link #tryAddScore(int, int)} when no players
+	 * have been added to the match.
+	 */
+	public static final int NO_PLAYERS = -1;
+	
+	/**
+	 * Status returned by {@link #tryAddScore(int, int)} when the score is
+	 * negative or more than the pins left standing.
+	 */
+	public static final int INVALID_SCORE = -2;
+	
+	/**
+	 * Status returned by {@link #tryAddScore(int, int)} when the leave does
+	 * not match the score or the pins left standing.
+	 */
+	public static final int INVALID_LEAVE = -3;
+	
+	/**
+	 * Status returned by {@link #tryAddScore(int, int)} when every frame of
+	 * the current player's game has already been played.
+	 */
+	public static final int GAME_FINISHED = -4;
+
 	/**
 	 * Clears the existing data from this match.
 	 */
@@ -39,6 +76,81 @@ public interface Match {
 	 */
 	public boolean addScore(int score);
 	
+	/**
+	 * Adds the next score in the match along with the pins left standing
+	 * after the shot, given as a mask in which bit {@code n - 1} is set if
+	 * pin {@code n} is standing.
+	 * 
+	 * @param score
+	 * @param leave mask of pins left standing, or {@code -1} if not known.
+	 * 
+	 * @return boolean indicating whether the game for the current player is
+	 *         complete ({@code true}) or not ({@code false}).
+	 * @throws BowlingException if the leave does not match the score.
+	 */
+	public boolean addScore(int score, int leave);
+	
+	/**
+	 * Adds the next score in the match if it is valid, returning a status
+	 * instead of throwing an exception if it is not. Rejecting a score
+	 * neither allocates nor changes the match, so this suits automated
+	 * feeds in which invalid or duplicate scores are routine.
+	 * 
+	 * @param score
+	 * @return {@link #ROLL_ADDED} or {@link #GAME_COMPLETE} if the score was
+	 *         added, otherwise a negative status giving the reason it was
+	 *         rejected.
+	 */
+	public int tryAddScore(int score);
+	
+	/**
+	 * Adds the next score in the match, along with the pins left standing,
+	 * if they are valid, returning a status instead of throwing an
+	 * exception if they are not.
+	 * 
+	 * @param score
+	 * @param leave mask of pins left standing, or {@code -1} if not known.
+	 * @return {@link #ROLL_ADDED} or {@link #GAME_COMPLETE} if the score was
+	 *         added, otherwise a negative status giving the reason it was
+	 *         rejected.
+	 * @see thmuggleton.model.exceptions.RollRejections
+	 */
+	public int tryAddScore(int score, int leave);
+	
+	/**
+	 * Adds the given scores in turn, as if each were added with
+	 * {@link #addScore(int)}, as a single change to the match. Every score is
+	 * checked before anything is changed, so either all of the scores are
+	 * added or none are.
+	 * 
+	 * @param scores array containing the scores to add.
+	 * @param off index of the first score in the array.
+	 * @param len number of scores to add.
+	 * @return the number of scores added, otherwise a negative status giving
+	 *         the reason they were rejected: {@link #NO_PLAYERS},
+	 *         {@link #INVALID_SCORE} or {@link #GAME_FINISHED}.
+	 */
+	public int addScores(int[] scores, int off, int len);
+	
+	/**
+	 * Takes back up to the given number of shots, most recent first, so
+	 * that a mistyped score can be corrected. The shots taken back can be
+	 * played again with {@link #redo(int)} until a different score is added.
+	 * 
+	 * @param count
+	 * @return the number of shots taken back.
+	 */
+	public int undo(int count);
+	
+	/**
+	 * Plays again up to the given number of the shots last taken back with
+	 * {@link #undo(int)}.
+	 * 
+	 * @param count
+	 * @return the number of shots played again.
+	 */
+	public int redo(int count);
+	
 	/**
 	 * Returns an array of frames for a given player.
 	 * 
@@ -47,6 +159,71 @@ public interface Match {
 	 */
 	public Frame[] getFrames(String playerName);
 	
+	/**
+	 * Returns the number of shots the given player has played.
+	 * 
+	 * @param playerName
+	 * @return
+	 */
+	public int getNumberOfRolls(String playerName);
+	
+	/**
+	 * Returns the score for the given shot played by the given player,
+	 * counting shots from the start of the game.
+	 * 
+	 * @param playerName
+	 * @param index of the shot, less than {@link #getNumberOfRolls(String)}.
+	 * @return
+	 */
+	public int getRoll(String playerName, int index);
+	
+	/**
+	 * Copies the score for every shot the given player has played into the
+	 * given array, in the order in which the shots were played. Unlike the
+	 * other methods, this and {@link #version()} may be called from any
+	 * thread while the match is changing, and see a consistent copy.
+	 * 
+	 * @param playerName
+	 * @param dst array into which scores are copied; must have room for
+	 * {@link thmuggleton.Constants#MAX_ROLLS_PER_GAME} scores from {@code off}.
+	 * @param off index in {@code dst} at which to copy the first score.
+	 * @return the number of scores copied.
+	 */
+	public int copyRolls(String playerName, int[] dst, int off);
+	
+	/**
+	 * Returns a number that changes whenever the match changes, so that a
+	 * reader polling the match, from any thread, can skip it if nothing has
+	 * changed since it was last read.
+	 * 
+	 * @return
+	 */
+	public long version();
+	
+	/**
+	 * Returns an immutable snapshot of the match as it stands, which stays
+	 * unchanged as the match carries on. This may be called from any
+	 * thread.
+	 * 
+	 * @return
+	 */
+	public MatchSnapshot snapshot();
+	
+	/**
+	 * Returns an immutable history of the shots played in the match so far,
+	 * from which the match can be shown as it stood after any shot.
+	 * 
+	 * @return
+	 */
+	public MatchHistory history();
+	
+	/**
+	 * Returns the names of the players in this match, in playing order.
+	 * 
+	 * @return
+	 */
+	public List<String> getPlayers();
+	
 	/**
 	 * Returns the total score for the given player.
 	 * 
@@ -62,6 +239,23 @@ public interface Match {
 	 */
 	public Set<String> getLeaders();
 	
+	/**
+	 * Returns the player who is certain to win the match however the
+	 * remaining shots are played, if any.  Only one player can have clinched
+	 * a match, and none can while another player could still draw level.
+	 * 
+	 * @return
+	 */
+	public Set<String> getClinched();
+	
+	/**
+	 * Returns the players who can no longer win the match, even by scoring
+	 * the maximum with every remaining shot.
+	 * 
+	 * @return
+	 */
+	public Set<String> getEliminated();
+	
 	/**
 	 * Returns {@Code true} if all players in this match have
 	 * recorded scores for all of their frames.
@@ -76,4 +270,20 @@ public interface Match {
 	 * @param listener
 	 */
 	public void addChangeListener(ChangeListener listener);
+	
+	/**
+	 * Adds a change listener to this Match through a weak reference, so
+	 * that the listener is dropped once nothing else refers to it.
+	 * 
+	 * @param listener
+	 */
+	public void addWeakChangeListener(ChangeListener listener);
+	
+	/**
+	 * Removes a change listener from this Match, whether it was added
+	 * directly or weakly.
+	 * 
+	 * @param listener
+	 */
+	public void removeChangeListener(ChangeListener listener);
 }
@@ -0,0 +1,85 @@
+package thmuggleton.model;
+
+/**
+ * Defines a read-only interface to the shots of a match in the order in
+ * which they were played, from which the state of the match after any
+ * number of shots can be read.
+ * <p>
+ * A history never changes once taken, so it can be kept after the match
+ * is cleared, for example to step back through a finished match. Reading
+ * the state at any point takes the same time however long the match.
+ * Players are identified by their index, in the order in which they were
+ * added.
+ *
+ * @author Thomas Muggleton
+ */
+public interface MatchHistory {
+
+	/**
+	 * Returns the number of shots played in the match.
+	 *
+	 * @return
+	 */
+	public int getNumberOfRolls();
+
+	/**
+	 * Returns the number of players in the match.
+	 *
+	 * @return
+	 */
+	public int getNumberOfPlayers();
+
+	/**
+	 * Returns the name of the player at the given index.
+	 *
+	 * @param player
+	 * @return
+	 */
+	public String getPlayer(int player);
+
+	/**
+	 * Returns the index of the player who played the given shot of the
+	 * match.
+	 *
+	 * @param index of the shot, counting shots of every player.
+	 * @return
+	 */
+	public int getPlayerOfRoll(int index);
+
+	/**
+	 * Returns the number of shots the given player had played once the
+	 * given number of shots of the match had been played.
+	 *
+	 * @param player
+	 * @param rolls number of shots of the match, up to
+	 * {@link #getNumberOfRolls()}.
+	 * @return
+	 */
+	public int getNumberOfRollsAt(int player, int rolls);
+
+	/**
+	 * Copies the score for every shot the given player had played once the
+	 * given number of shots of the match had been played into the given
+	 * array, in the order in which they were played.
+	 *
+	 * @param player
+	 * @param rolls number of shots of the match, up to
+	 * {@link #getNumberOfRolls()}.
+	 * @param dst array into which scores are copied; must have room for
+	 * the maximum number of shots in a game from {@code off}.
+	 * @param off index in {@code dst} at which to copy the first score.
+	 * @return the number of scores copied.
+	 */
+	public int copyRollsAt(int player, int rolls, int[] dst, int off);
+
+	/**
+	 * Returns the total score for the given player once the given number of
+	 * shots of the match had been played.
+	 *
+	 * @param player
+	 * @param rolls number of shots of the match, up to
+	 * {@link #getNumberOfRolls()}.
+	 * @return
+	 */
+	public int getTotalScoreAt(int player, int rolls);
+}
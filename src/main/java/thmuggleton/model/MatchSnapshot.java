@@ -0,0 +1,98 @@
+package thmuggleton.model;
+
+/**
+ * Defines a read-only interface to an immutable copy of a match, taken at a
+ * single version of the match.
+ * <p>
+ * A snapshot never changes once taken, so it can be read from any thread
+ * and kept for as long as needed, for example to replay or audit a match,
+ * while the match itself carries on changing. Players are identified by
+ * their index, in the order in which they were added.
+ * 
+ * @author Thomas Muggleton
+ */
+public interface MatchSnapshot {
+
+	/**
+	 * Returns the version of the match from which this snapshot was taken;
+	 * see {@link Match#version()}.
+	 * 
+	 * @return
+	 */
+	public long getVersion();
+	
+	/**
+	 * Returns the number of players in the match.
+	 * 
+	 * @return
+	 */
+	public int getNumberOfPlayers();
+	
+	/**
+	 * Returns the name of the player at the given index.
+	 * 
+	 * @param player
+	 * @return
+	 */
+	public String getPlayer(int player);
+	
+	/**
+	 * Returns the index of the player due to play the next shot.
+	 * 
+	 * @return
+	 */
+	public int getCurrentPlayer();
+	
+	/**
+	 * Returns the number of shots the given player had played.
+	 * 
+	 * @param player
+	 * @return
+	 */
+	public int getNumberOfRolls(int player);
+	
+	/**
+	 * Returns the score for the given shot played by the given player,
+	 * counting shots from the start of the game.
+	 * 
+	 * @param player
+	 * @param index of the shot, less than {@link #getNumberOfRolls(int)}.
+	 * @return
+	 */
+	public int getRoll(int player, int index);
+	
+	/**
+	 * Copies the score for every shot the given player had played into the
+	 * given array, in the order in which the shots were played.
+	 * 
+	 * @param player
+	 * @param dst array into which scores are copied; must have room for
+	 * {@link thmuggleton.Constants#MAX_ROLLS_PER_GAME} scores from {@code off}.
+	 * @param off index in {@code dst} at which to copy the first score.
+	 * @return the number of scores copied.
+	 */
+	public int copyRolls(int player, int[] dst, int off);
+	
+	/**
+	 * Returns the total score of the given player.
+	 * 
+	 * @param player
+	 * @return
+	 */
+	public int getTotalScore(int player);
+	
+	/**
+	 * Returns {@code true} if the given player had played every frame.
+	 * 
+	 * @param player
+	 * @return
+	 */
+	public boolean isFinished(int player);
+	
+	/**
+	 * Returns {@code true} if every player had played every frame.
+	 * 
+	 * @return
+	 */
+	public boolean isFinished();
+}
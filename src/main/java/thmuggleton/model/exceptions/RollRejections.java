@@ -0,0 +1,75 @@
+package thmuggleton.model.exceptions;
+
+import thmuggleton.model.Match;
+
+/**
+ * Preallocated exceptions for each reason that {@link Match#tryAddScore(int, int)}
+ * can reject a score, for callers that still want to throw an exception.
+ * <p>
+ * The exceptions record no stack trace, so throwing one costs no more than
+ * returning the status, and since they hold no state beyond their message
+ * the same instances can be thrown by any thread.
+ * 
+ * @author Thomas Muggleton
+ */
+public final class RollRejections {
+
+	/**
+	 * Thrown for {@link Match#NO_PLAYERS}.
+	 */
+	public static final BowlingException NO_PLAYERS = new BowlingException(
+			"No players have been added to this match", true);
+	
+	/**
+	 * Thrown for {@link Match#INVALID_SCORE}.
+	 */
+	public static final ScoreException INVALID_SCORE = new ScoreException(
+			"Score must be between 0 and the number of pins standing", true);
+	
+	/**
+	 * Thrown for {@link Match#INVALID_LEAVE}.
+	 */
+	public static final ScoreException INVALID_LEAVE = new ScoreException(
+			"Leave does not match the score and the pins standing", true);
+	
+	/**
+	 * Thrown for {@link Match#GAME_FINISHED}.
+	 */
+	public static final BowlingException GAME_FINISHED = new BowlingException(
+			"All frames have already been added to this game.", true);
+
+	/**
+	 * Private constructor; this class only provides static members.
+	 */
+	private RollRejections() {
+	}
+	
+	/**
+	 * Returns the exception for the given status returned by
+	 * {@link Match#tryAddScore(int, int)}, or {@code null} if the score was
+	 * added.
+	 * 
+	 * @param status
+	 * @return
+	 */
+	public static BowlingException forStatus(int status) {
+		
+		switch (status) {
+		
+		case Match.NO_PLAYERS :
+			return NO_PLAYERS;
+			
+		case Match.INVALID_SCORE :
+			return INVALID_SCORE;
+			
+		case Match.INVALID_LEAVE :
+			return INVALID_LEAVE;
+			
+		case Match.GAME_FINISHED :
+			return GAME_FINISHED;
+			
+		default :
+			return null;
+		}
+	}
+}
@@ -16,4 +16,15 @@ public class ScoreException extends BowlingException {
 	public ScoreException(String errorMessage) {
 		super(errorMessage);
 	}
+
+	/**
+	 * Constructor for an exception that may be thrown more than once, which
+	 * records no stack trace or suppressed exceptions if {@code stackless}.
+	 * 
+	 * @param errorMessage
+	 * @param stackless
+	 */
+	protected ScoreException(String errorMessage, boolean stackless) {
+		super(errorMessage, stackless);
+	}
 }
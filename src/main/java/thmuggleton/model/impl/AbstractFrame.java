@@ -1,13 +1,14 @@
 package thmuggleton.model.impl;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
 import thmuggleton.Constants;
+import thmuggleton.diagnostics.ListenerDispatchEvent;
+import thmuggleton.metrics.LatencyTrace;
+import thmuggleton.metrics.Metrics;
 import thmuggleton.model.Frame;
 import thmuggleton.model.exceptions.ScoreException;
 
@@ -26,9 +27,12 @@ public abstract class AbstractFrame implements Frame {
 	// Fields
 	protected int[] scores;
 	protected int total;
+	private int[] leaves;
 	private boolean strike;
 	private boolean spare;
-	private Collection<ChangeListener> changeListeners;
+	private boolean muted;
+	private ChangeListenerList changeListeners;
+	private ChangeEvent changeEvent;
 
 	/**
 	 * Constructor
@@ -116,11 +120,81 @@ public abstract class AbstractFrame implements Frame {
 	 */
 	protected abstract void addBonusPoints(int score);
 
+	/**
+	 * Records the pins left standing after the given shot in the frame. The
+	 * array of leaves is only created once a leave is recorded, so frames
+	 * entered as counts only carry no extra storage.
+	 * 
+	 * @param ball index of the shot within the frame.
+	 * @param leave mask of pins left standing; see {@link Leaves}.
+	 */
+	protected void setLeave(int ball, int leave) {
+		
+		if (leave == Leaves.UNKNOWN && leaves == null)
+			return;
+		
+		if (leaves == null) {
+			leaves = new int[scores.length];
+			Arrays.fill(leaves, Leaves.UNKNOWN);
+		}
+		
+		leaves[ball] = leave;
+	}
+
+	/**
+	 * Returns this frame to the state of a frame that has not been played,
+	 * keeping its arrays so that it can be reused without allocating.
+	 * Listeners are removed, since they belong to the match that played
+	 * the frame.
+	 */
+	protected void reset() {
+		this.clearScores();
+		this.removeAllChangeListeners();
+	}
+	
+	/**
+	 * Returns this frame to the state of a frame that has not been played,
+	 * keeping its listeners, so that the frame can be played again when
+	 * shots are taken back.
+	 */
+	protected void clearScores() {
+		
+		Arrays.fill(scores, SCORE_UNSET);
+		
+		if (leaves != null)
+			Arrays.fill(leaves, Leaves.UNKNOWN);
+		
+		this.total = SCORE_UNSET;
+		this.strike = false;
+		this.spare = false;
+	}
+	
+	/**
+	 * Stops or resumes notifying listeners of changes to this frame, so that
+	 * a frame being played again is only reported once it is complete.
+	 * 
+	 * @param muted
+	 */
+	protected void setMuted(boolean muted) {
+		this.muted = muted;
+	}
 	
 	// GETTERS
 	@Override
 	public int[] getScores() {
-		return scores;
+		return scores.clone();
+	}
+	@Override
+	public int getScore(int ball) {
+		return scores[ball];
+	}
+	@Override
+	public int getNumberOfBalls() {
+		return scores.length;
+	}
+	@Override
+	public int getLeave(int ball) {
+		return (leaves != null) ? leaves[ball] : Leaves.UNKNOWN;
 	}
 	@Override
 	public int getTotal() {
@@ -162,13 +236,46 @@ public abstract class AbstractFrame implements Frame {
 	 */
 	public void addChangeListener(ChangeListener listener) {
 		
-		// Initialise collection for first change listener
+		// Initialise list for first change listener
 		if (changeListeners == null)
-			changeListeners = new ArrayList<ChangeListener>();
+			changeListeners = new ChangeListenerList();
 		
 		changeListeners.add(listener);
 	}
 	
+	/**
+	 * Adds a change listener to this frame through a weak reference, so
+	 * that the listener is dropped once nothing else refers to it.
+	 * 
+	 * @param listener
+	 */
+	public void addWeakChangeListener(ChangeListener listener) {
+		
+		// Initialise list for first change listener
+		if (changeListeners == null)
+			changeListeners = new ChangeListenerList();
+		
+		changeListeners.addWeak(listener);
+	}
+	
+	/**
+	 * Removes a change listener from this frame, whether it was added
+	 * directly or weakly.
+	 * 
+	 * @param listener
+	 */
+	public void removeChangeListener(ChangeListener listener) {
+		if (changeListeners != null)
+			changeListeners.remove(listener);
+	}
+	
+	/**
+	 * Removes every change listener from this frame.
+	 */
+	protected void removeAllChangeListeners() {
+		changeListeners = null;
+	}
+	
 	/**
 	 * Passes the given change event to all registered change listeners.
 	 * 
@@ -176,9 +283,36 @@ public abstract class AbstractFrame implements Frame {
 	 */
 	protected void notifyListeners() {
 		
-		if (changeListeners != null) {
-			for (ChangeListener listener : changeListeners)
-				listener.stateChanged(new ChangeEvent(this));
+		if (changeListeners != null && !muted) {
+			
+			// Events only carry their source, so one is shared by all
+			// notifications, as Swing components do
+			if (changeEvent == null)
+				changeEvent = new ChangeEvent(this);
+			
+			long start = System.nanoTime();
+			ListenerDispatchEvent event = ListenerDispatchEvent.isRecorded()
+					? new ListenerDispatchEvent() : null;
+			
+			if (event != null)
+				event.begin();
+			
+			changeListeners.fire(changeEvent);
+			
+			long elapsed = System.nanoTime() - start;
+			Metrics.FRAME_LISTENER_DISPATCH.record(elapsed);
+			LatencyTrace.dispatched(elapsed);
+			
+			if (event != null) {
+				event.end();
+				
+				if (event.shouldCommit()) {
+					event.source = "Frame";
+					event.listeners = changeListeners.size();
+					event.total = this.getTotal();
+					event.commit();
+				}
+			}
 		}
 	}
 	
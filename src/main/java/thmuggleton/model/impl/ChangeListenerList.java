@@ -0,0 +1,177 @@
+package thmuggleton.model.impl;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+/**
+ * List of the change listeners registered with a model object, each held
+ * either directly or through a weak reference.
+ * <p>
+ * Listeners are kept in an array which is replaced, rather than modified,
+ * whenever a listener is added or removed, so notifying the listeners does
+ * not allocate and a listener may add or remove listeners while being
+ * notified; the change takes effect from the next notification. A weak
+ * listener that has been garbage collected is dropped the next time the
+ * listeners are notified.
+ * 
+ * @author Thomas Muggleton
+ */
+final class ChangeListenerList {
+
+	// Constants
+	private static final Object[] EMPTY = new Object[0];
+	
+	// Fields
+	private Object[] listeners;
+	
+	/**
+	 * Constructor
+	 */
+	ChangeListenerList() {
+		this.listeners = EMPTY;
+	}
+	
+	/**
+	 * Adds the given listener, which is held until it is removed.
+	 * 
+	 * @param listener
+	 */
+	void add(ChangeListener listener) {
+		this.append(listener);
+	}
+	
+	/**
+	 * Adds the given listener through a weak reference, so that it is
+	 * dropped once nothing else refers to it.
+	 * 
+	 * @param listener
+	 */
+	void addWeak(ChangeListener listener) {
+		this.append(new WeakReference<ChangeListener>(listener));
+	}
+	
+	/**
+	 * Removes the first registration of the given listener, whether it was
+	 * added directly or weakly.
+	 * 
+	 * @param listener
+	 * @return {@code true} if the listener was registered.
+	 */
+	boolean remove(ChangeListener listener) {
+		
+		for (int i = 0; i < listeners.length; i++) {
+			if (listenerAt(i) == listener) {
+				this.removeAt(i);
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Removes every listener.
+	 */
+	void clear() {
+		listeners = EMPTY;
+	}
+	
+	/**
+	 * Returns the number of listeners registered, including weak listeners
+	 * that may have been garbage collected but not yet dropped.
+	 * 
+	 * @return
+	 */
+	int size() {
+		return listeners.length;
+	}
+	
+	/**
+	 * Passes the given event to every listener, dropping weak listeners that
+	 * have been garbage collected.
+	 * 
+	 * @param event
+	 */
+	void fire(ChangeEvent event) {
+		
+		Object[] current = listeners;
+		boolean collected = false;
+		
+		for (int i = 0; i < current.length; i++) {
+			ChangeListener listener = listenerAt(current, i);
+			
+			if (listener != null)
+				listener.stateChanged(event);
+			else
+				collected = true;
+		}
+		
+		if (collected)
+			this.dropCollected();
+	}
+	
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+	
+	/**
+	 * Returns the listener at the given index, or {@code null} if it was a
+	 * weak listener that has been garbage collected.
+	 */
+	private ChangeListener listenerAt(int index) {
+		return listenerAt(listeners, index);
+	}
+	
+	/**
+	 * Returns the listener at the given index of the given array.
+	 */
+	@SuppressWarnings("unchecked")
+	private static ChangeListener listenerAt(Object[] array, int index) {
+		
+		Object entry = array[index];
+		
+		if (entry instanceof WeakReference)
+			return ((WeakReference<ChangeListener>) entry).get();
+		
+		return (ChangeListener) entry;
+	}
+	
+	/**
+	 * Replaces the array with a copy including the given entry.
+	 */
+	private void append(Object entry) {
+		Object[] replacement = Arrays.copyOf(listeners, listeners.length + 1);
+		replacement[listeners.length] = entry;
+		listeners = replacement;
+	}
+	
+	/**
+	 * Replaces the array with a copy excluding the given index.
+	 */
+	private void removeAt(int index) {
+		Object[] replacement = new Object[listeners.length - 1];
+		System.arraycopy(listeners, 0, replacement, 0, index);
+		System.arraycopy(listeners, index + 1, replacement, index, replacement.length - index);
+		listeners = replacement;
+	}
+	
+	/**
+	 * Replaces the array with a copy excluding weak listeners that have been
+	 * garbage collected.
+	 */
+	private void dropCollected() {
+		
+		Object[] replacement = new Object[listeners.length];
+		int count = 0;
+		
+		for (int i = 0; i < listeners.length; i++) {
+			if (listenerAt(i) != null)
+				replacement[count++] = listeners[i];
+		}
+		
+		listeners = (count == 0) ? EMPTY : Arrays.copyOf(replacement, count);
+	}
+}
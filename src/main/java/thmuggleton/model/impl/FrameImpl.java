@@ -35,6 +35,15 @@ public class FrameImpl extends AbstractFrame {
 		this.bonusPoints = 0;
 	}
 
+	/**
+	 * Clears the scores of this frame, including any bonus points.
+	 */
+	@Override
+	protected void clearScores() {
+		super.clearScores();
+		this.bonusPoints = 0;
+	}
+
 	/**
 	 * Adds bonus points for the frame. This method can be called more than once
 	 * to accumulate bonus points in the case of a strike.
@@ -4,7 +4,9 @@ import java.util.Arrays;
 
 import thmuggleton.Constants;
 import thmuggleton.model.Frame;
+import thmuggleton.model.Match;
 import thmuggleton.model.exceptions.BowlingException;
+import thmuggleton.model.exceptions.ScoreException;
 
 /**
  * Model class to represent a game played by a single player. This class is only
@@ -14,12 +16,25 @@ import thmuggleton.model.exceptions.BowlingException;
  */
 public class GameImpl {
 
+	// Constants
+	private static final int LEAVE_VALID = 0;
+	private static final int LEAVE_NOT_A_MASK = 1;
+	private static final int LEAVE_WRONG_COUNT = 2;
+	private static final int LEAVE_PIN_DOWN = 3;
+
 	// Fields
 	private AbstractFrame[] frames;
+	private int[] rolls;
+	private int[] rollLeaves;
+	private int[] rewoundTotals;
+	private int numberOfRolls;
 	private int currentFrameIndex;
 	private boolean isFirstBall;
 	private int lastFrameShots;
 	private boolean finished;
+	private int position;
+	private int pendingBonus;
+	private int standingPins;
 
 	// Default constructor
 	protected GameImpl() {
@@ -34,11 +49,74 @@ public class GameImpl {
 		// Create last frame
 		frames[Constants.NUMBER_OF_FRAMES - 1] = new LastFrameImpl();
 		
+		// Create packed storage for every shot of the game
+		rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+		rollLeaves = new int[Constants.MAX_ROLLS_PER_GAME];
+		rewoundTotals = new int[Constants.NUMBER_OF_FRAMES];
+		
 		// Initialise remaining fields
-		currentFrameIndex = 0;
-		isFirstBall = true;
-		lastFrameShots = 0;
-		finished = false;
+		this.initialiseFields();
+	}
+	
+	/**
+	 * Returns this game and its frames to the state of a new game, so that
+	 * the same objects can be reused for a later match.
+	 */
+	protected void reset() {
+		
+		for (AbstractFrame frame : frames)
+			frame.reset();
+		
+		this.initialiseFields();
+	}
+	
+	/**
+	 * Takes back every shot after the given number of shots. The frames are
+	 * cleared and the shots kept are played again from this game's packed
+	 * storage, so the cost is bounded by the shots in one game however long
+	 * the match.
+	 * <p>
+	 * Listeners are only told of the frames that changed: the frames from
+	 * the first shot taken back to the last shot played, and those of the
+	 * two frames before whose bonus points included a shot taken back.
+	 * 
+	 * @param count number of shots to keep.
+	 */
+	protected void rewind(int count) {
+		
+		if (count >= numberOfRolls)
+			return;
+		
+		// Find the frame of the last shot played
+		int lastFrame = (position == GameRules.COMPLETE) ? Constants.NUMBER_OF_FRAMES - 1
+				: GameRules.frameOf(position) - ((GameRules.ballOf(position) == 0) ? 1 : 0);
+		
+		// Play the shots kept again without notifying listeners; each
+		// shot is written back to the same place in the packed storage
+		for (int i = 0; i < frames.length; i++) {
+			rewoundTotals[i] = frames[i].getTotal();
+			frames[i].setMuted(true);
+			frames[i].clearScores();
+		}
+		
+		this.initialiseFields();
+		
+		for (int i = 0; i < count; i++)
+			this.addScore(rolls[i], rollLeaves[i]);
+		
+		for (AbstractFrame frame : frames)
+			frame.setMuted(false);
+		
+		// Notify listeners of the frames that changed
+		int firstFrame = GameRules.frameOf(position);
+		
+		for (int i = Math.max(0, firstFrame - 2); i < firstFrame; i++) {
+			if (frames[i].getTotal() != rewoundTotals[i])
+				frames[i].notifyListeners();
+		}
+		
+		for (int i = firstFrame; i <= lastFrame; i++)
+			frames[i].notifyListeners();
 	}
 
 	/**
@@ -50,14 +128,43 @@ public class GameImpl {
 	 * or not ({@code false}).
 	 */
 	protected boolean addScore(int score) {
+		return this.addScore(score, Leaves.UNKNOWN);
+	}
+	
+	/**
+	 * Adds the given score for the next shot in this game, along with the
+	 * pins left standing after the shot.
+	 * 
+	 * @param score
+	 * @param leave mask of pins left standing, or {@link Leaves#UNKNOWN}.
+	 * 
+	 * @return boolean indicating whether the current frame is complete ({@code true})
+	 * or not ({@code false}).
+	 * @throws ScoreException if the leave does not match the score.
+	 */
+	protected boolean addScore(int score, int leave) {
 
 		boolean frameOver = false;
+		int frameIndex = currentFrameIndex;
+		int ball = GameRules.ballOf(position);
+		
+		// Validate leave against the score; invalid scores are left to the
+		// checks below to report
+		if (leave != Leaves.UNKNOWN && GameRules.isValidScore(position, score))
+			this.validateLeave(score, leave);
 		
 		// Validate that all frames have not been played
 		if (finished)
 			throw new BowlingException(
 					"All frames have already been added to this game.");
-
+		
+		// Validate shots in the last frame against the pins left standing,
+		// since bonus shots are not validated by the frame itself
+		else if (currentFrameIndex == (Constants.NUMBER_OF_FRAMES - 1)
+				&& !GameRules.isValidScore(position, score))
+			throw new ScoreException("Score must be between 0 and "
+					+ GameRules.pinsStanding(position));
+		
 		// Branch for last frame
 		else if (currentFrameIndex == (Constants.NUMBER_OF_FRAMES - 1))
 			frameOver = this.setScoreForLastFrame(score);
@@ -66,9 +173,65 @@ public class GameImpl {
 		else
 			frameOver = this.setScoreForRegularFrame(score);
 		
+		// Track position and bonus owed to find the maximum final score
+		pendingBonus = GameRules.nextPendingBonus(position, pendingBonus, score);
+		position = GameRules.advance(position, score);
+		
+		// Record score in playing order, then leave, and track the pins
+		// standing for the next shot
+		rollLeaves[numberOfRolls] = leave;
+		rolls[numberOfRolls++] = score;
+		frames[frameIndex].setLeave(ball, leave);
+		
+		if (position != GameRules.COMPLETE && GameRules.pinsStanding(position) == Constants.TOTAL_PINS)
+			standingPins = Leaves.FULL_RACK;
+		else
+			standingPins = leave;
+		
 		return frameOver;
 	}
 
+	/**
+	 * Returns the status with which the given score and leave would be
+	 * rejected, or {@link Match#ROLL_ADDED} if they can be added. Unlike
+	 * {@link #addScore(int, int)}, this never throws an exception.
+	 * 
+	 * @param score
+	 * @param leave mask of pins left standing, or {@link Leaves#UNKNOWN}.
+	 * @return
+	 */
+	protected int checkScore(int score, int leave) {
+		
+		if (finished)
+			return Match.GAME_FINISHED;
+		
+		else if (!GameRules.isValidScore(position, score))
+			return Match.INVALID_SCORE;
+		
+		else if (leave != Leaves.UNKNOWN && !this.isValidLeave(score, leave))
+			return Match.INVALID_LEAVE;
+		
+		return Match.ROLL_ADDED;
+	}
+
+	/**
+	 * Returns the position reached within the game; see {@link GameRules}.
+	 * 
+	 * @return
+	 */
+	protected int getPosition() {
+		return position;
+	}
+
+	/**
+	 * Returns the index of the frame to which the next score will be added.
+	 * 
+	 * @return
+	 */
+	protected int getCurrentFrameIndex() {
+		return currentFrameIndex;
+	}
+
 	/**
 	 * Returns the all the frames currently stored in this game.
 	 * 
@@ -91,6 +254,75 @@ public class GameImpl {
 		return result;
 	}
 	
+	/**
+	 * Returns the lowest final score this game can reach, which is the
+	 * current total since every remaining shot could score zero.
+	 * 
+	 * @return
+	 */
+	protected int getMinimumFinalScore() {
+		return this.getTotalScore();
+	}
+	
+	/**
+	 * Returns the highest final score this game can reach, which is found
+	 * in constant time from the current position and bonus owed.
+	 * 
+	 * @return
+	 */
+	protected int getMaximumFinalScore() {
+		return this.getTotalScore() + GameRules.maximumRemaining(position, pendingBonus);
+	}
+	
+	/**
+	 * Returns the key identifying the current state of this game within
+	 * the {@link GameStateSpace}.
+	 * 
+	 * @return
+	 */
+	protected int getStateKey() {
+		return GameStateSpace.key(position, pendingBonus, this.getTotalScore());
+	}
+	
+	/**
+	 * Copies the score for every shot played so far in this game into the
+	 * given array, in the order in which the shots were played.
+	 * 
+	 * @param dst array into which scores are copied; must have room for
+	 * {@link Constants#MAX_ROLLS_PER_GAME} scores from {@code off}.
+	 * @param off index in {@code dst} at which to copy the first score.
+	 * @return the number of scores copied.
+	 */
+	protected int copyRolls(int[] dst, int off) {
+		System.arraycopy(rolls, 0, dst, off, numberOfRolls);
+		return numberOfRolls;
+	}
+	
+	/**
+	 * Returns the number of shots played so far in this game.
+	 * 
+	 * @return
+	 */
+	protected int getNumberOfRolls() {
+		return numberOfRolls;
+	}
+	
+	/**
+	 * Returns the score for the given shot, counting shots from the start
+	 * of the game.
+	 * 
+	 * @param index
+	 * @return
+	 * @throws BowlingException if the shot has not been played.
+	 */
+	protected int getRoll(int index) {
+		
+		if (index < 0 || index >= numberOfRolls)
+			throw new BowlingException("Shot " + index + " has not been played");
+		
+		return rolls[index];
+	}
+	
 	/**
 	 * Returns {@code true} if all frames are complete and have been added to
 	 * the game.
@@ -104,6 +336,82 @@ public class GameImpl {
 	/* ****************
 	 *  HELPER METHODS
 	 * ****************/
+
+	/**
+	 * Sets every field other than the frames to its value for a new game.
+	 */
+	private void initialiseFields() {
+		numberOfRolls = 0;
+		currentFrameIndex = 0;
+		isFirstBall = true;
+		lastFrameShots = 0;
+		finished = false;
+		position = GameRules.INITIAL_POSITION;
+		pendingBonus = GameRules.NO_BONUS;
+		standingPins = Leaves.FULL_RACK;
+	}
+	
+	/**
+	 * Validates that the given leave is a mask of pins, that the number of
+	 * pins it leaves standing matches the score, and, if the pins standing
+	 * before the shot are known, that it does not include any pin already
+	 * knocked down.
+	 * 
+	 * @param score
+	 * @param leave
+	 */
+	private void validateLeave(int score, int leave) {
+		
+		switch (this.checkLeave(score, leave)) {
+		
+		case LEAVE_NOT_A_MASK :
+			throw new ScoreException("Leave must be a mask of the "
+					+ Constants.TOTAL_PINS + " pins");
+			
+		case LEAVE_WRONG_COUNT :
+			throw new ScoreException("Leave " + Leaves.toString(leave)
+					+ " does not match score of " + score);
+			
+		case LEAVE_PIN_DOWN :
+			throw new ScoreException("Leave " + Leaves.toString(leave)
+					+ " includes pins already knocked down");
+		}
+	}
+	
+	/**
+	 * Returns {@code true} if the given leave passes the checks made by
+	 * {@link #validateLeave(int, int)}.
+	 * 
+	 * @param score
+	 * @param leave
+	 * @return
+	 */
+	private boolean isValidLeave(int score, int leave) {
+		return this.checkLeave(score, leave) == LEAVE_VALID;
+	}
+	
+	/**
+	 * Returns the first check that the given leave fails, or
+	 * {@code LEAVE_VALID} if it passes them all; the rules for a leave are
+	 * only set out here, so that validating and checking cannot differ.
+	 * 
+	 * @param score
+	 * @param leave
+	 * @return
+	 */
+	private int checkLeave(int score, int leave) {
+		
+		if (leave < 0 || leave > Leaves.FULL_RACK)
+			return LEAVE_NOT_A_MASK;
+		
+		else if (Leaves.pinsStanding(leave) != GameRules.pinsStanding(position) - score)
+			return LEAVE_WRONG_COUNT;
+		
+		else if (standingPins != Leaves.UNKNOWN && (leave & ~standingPins) != 0)
+			return LEAVE_PIN_DOWN;
+		
+		return LEAVE_VALID;
+	}
 	
 	/**
 	 * Adds the next score for frames other than the last frame.
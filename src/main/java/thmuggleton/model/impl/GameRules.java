@@ -0,0 +1,342 @@
+package thmuggleton.model.impl;
+
+import thmuggleton.Constants;
+
+/**
+ * Applies the scoring rules of ten-pin bowling to a game held as a plain
+ * sequence of shots, rather than as {@link GameImpl} frame objects.
+ * <p>
+ * The position reached within a game is packed into a single {@code int} so
+ * that callers replaying or simulating many games can track where each game
+ * has got to without allocating any objects. The bonus points still owed by
+ * earlier strikes and spares are tracked separately as a pending bonus, which
+ * together with the position determines the maximum number of points still
+ * available; these are looked up from a table built when the class is loaded.
+ *
+ * @author Thomas Muggleton
+ */
+public final class GameRules {
+
+	/**
+	 * Position returned once all shots in a game have been played.
+	 */
+	public static final int COMPLETE = -1;
+
+	/**
+	 * Position at the start of a game: first ball of the first frame, with
+	 * all pins standing.
+	 */
+	public static final int INITIAL_POSITION = Constants.TOTAL_PINS;
+	
+	/**
+	 * Pending bonus when no bonus points are owed.
+	 */
+	public static final int NO_BONUS = 0;
+
+	// Constants used to pack a position into an int
+	private static final int PINS_MASK = 0xF;
+	private static final int BALL_SHIFT = 4;
+	private static final int BALL_MASK = 0x3;
+	private static final int FRAME_SHIFT = 8;
+	private static final int FRAME_MASK = 0xF;
+	private static final int FILL_BALL_FLAG = 1 << 12;
+
+	private static final int LAST_FRAME_INDEX = Constants.NUMBER_OF_FRAMES - 1;
+	
+	// Constants used to pack a pending bonus into an int: the number of
+	// frames owed the next shot (0 to 2) and the shot after (0 or 1)
+	private static final int NEXT_SHOT_MASK = 0x3;
+	private static final int SHOT_AFTER_SHIFT = 2;
+	private static final int PENDING_BONUS_STATES = 1 << 3;
+	private static final int POSITIONS = FILL_BALL_FLAG << 1;
+	
+	/**
+	 * Maximum points still available, indexed by position and pending bonus.
+	 */
+	private static final short[] MAXIMUM_REMAINING = buildMaximumRemainingTable();
+
+	/**
+	 * Private constructor; this class only provides static methods.
+	 */
+	private GameRules() {
+	}
+
+	/**
+	 * Returns the position reached after the given score is played from the
+	 * given position, or {@link #COMPLETE} if the game is then over.  The
+	 * score is assumed to be valid; see {@link #isValidScore(int, int)}.
+	 *
+	 * @param position current position within the game.
+	 * @param score number of pins knocked down.
+	 * @return
+	 */
+	public static int advance(int position, int score) {
+
+		int frame = frameOf(position);
+		int ball = ballOf(position);
+		int standing = pinsStanding(position) - score;
+
+		// Branch for frames other than the last frame
+		if (frame < LAST_FRAME_INDEX) {
+			if (ball == 0 && standing > 0)
+				return pack(frame, 1, standing, false);
+			else
+				return pack(frame + 1, 0, Constants.TOTAL_PINS, false);
+		}
+
+		// Branch for last frame
+		boolean fillBall = (position & FILL_BALL_FLAG) != 0;
+
+		switch (ball) {
+
+		// A strike with the first ball earns two further shots
+		case (0):
+			if (standing == 0)
+				return pack(frame, 1, Constants.TOTAL_PINS, true);
+			else
+				return pack(frame, 1, standing, false);
+
+		// A strike followed by anything, or a spare, earns a third shot
+		case (1):
+			if (fillBall || standing == 0)
+				return pack(frame, 2, (standing == 0) ? Constants.TOTAL_PINS : standing, true);
+			else
+				return COMPLETE;
+
+		default:
+			return COMPLETE;
+		}
+	}
+
+	/**
+	 * Returns the position reached after playing the given sequence of
+	 * scores from the start of a game.
+	 *
+	 * @param scores array containing the scores for each shot.
+	 * @param off index of the first shot in the array.
+	 * @param count number of shots played.
+	 * @return
+	 */
+	public static int position(int[] scores, int off, int count) {
+
+		int position = INITIAL_POSITION;
+
+		for (int i = off; i < (off + count) && position != COMPLETE; i++)
+			position = advance(position, scores[i]);
+
+		return position;
+	}
+
+	/**
+	 * Returns {@code true} if the given score can be played from the given
+	 * position.
+	 *
+	 * @param position
+	 * @param score
+	 * @return
+	 */
+	public static boolean isValidScore(int position, int score) {
+		return position != COMPLETE && score >= 0 && score <= pinsStanding(position);
+	}
+
+	/**
+	 * Returns the total score for the given sequence of shots.  Bonus points
+	 * are only counted for shots that have been played, so this matches the
+	 * running total shown for a game that is still in progress.
+	 *
+	 * @param scores array containing the scores for each shot.
+	 * @param off index of the first shot in the array.
+	 * @param count number of shots played.
+	 * @return
+	 */
+	public static int score(int[] scores, int off, int count) {
+
+		int total = 0;
+		int end = off + count;
+		int i = off;
+
+		for (int frame = 0; frame < Constants.NUMBER_OF_FRAMES && i < end; frame++) {
+
+			// Branch for last frame; all shots count once
+			if (frame == LAST_FRAME_INDEX) {
+				for (; i < end; i++)
+					total += scores[i];
+			}
+
+			// Branch for strike
+			else if (scores[i] == Constants.TOTAL_PINS) {
+				total += Constants.TOTAL_PINS + shot(scores, i + 1, end) + shot(scores, i + 2, end);
+				i++;
+			}
+
+			// Branch for spare or open frame
+			else {
+				int frameScore = scores[i] + shot(scores, i + 1, end);
+
+				if (frameScore == Constants.TOTAL_PINS)
+					frameScore += shot(scores, i + 2, end);
+
+				total += frameScore;
+				i += 2;
+			}
+		}
+
+		return total;
+	}
+
+	/**
+	 * Returns the points earned by playing the given score with the given
+	 * bonus pending, including bonus points for earlier frames.
+	 * 
+	 * @param pendingBonus
+	 * @param score
+	 * @return
+	 */
+	public static int points(int pendingBonus, int score) {
+		return score * (1 + (pendingBonus & NEXT_SHOT_MASK));
+	}
+	
+	/**
+	 * Returns the bonus pending after the given score is played from the
+	 * given position.
+	 * 
+	 * @param position position before the shot.
+	 * @param pendingBonus bonus pending before the shot.
+	 * @param score number of pins knocked down.
+	 * @return
+	 */
+	public static int nextPendingBonus(int position, int pendingBonus, int score) {
+		
+		// Bonus owed to the shot after becomes owed to the next shot
+		int nextShot = pendingBonus >>> SHOT_AFTER_SHIFT;
+		int shotAfter = 0;
+		
+		// Strikes and spares before the last frame earn bonus points
+		if (frameOf(position) < LAST_FRAME_INDEX && score == pinsStanding(position)) {
+			nextShot++;
+			
+			if (ballOf(position) == 0)
+				shotAfter = 1;
+		}
+		
+		return nextShot | (shotAfter << SHOT_AFTER_SHIFT);
+	}
+	
+	/**
+	 * Returns the maximum number of points that can still be added to a game
+	 * from the given position and pending bonus, which is achieved by
+	 * knocking down every pin standing with every remaining shot.
+	 * 
+	 * @param position
+	 * @param pendingBonus
+	 * @return
+	 */
+	public static int maximumRemaining(int position, int pendingBonus) {
+		return (position == COMPLETE) ? 0 : MAXIMUM_REMAINING[position * PENDING_BONUS_STATES + pendingBonus];
+	}
+	
+	/**
+	 * Returns the index of the frame for the given position.
+	 *
+	 * @param position
+	 * @return
+	 */
+	public static int frameOf(int position) {
+		return (position >>> FRAME_SHIFT) & FRAME_MASK;
+	}
+
+	/**
+	 * Returns the index of the ball within the current frame for the given
+	 * position.
+	 *
+	 * @param position
+	 * @return
+	 */
+	public static int ballOf(int position) {
+		return (position >>> BALL_SHIFT) & BALL_MASK;
+	}
+
+	/**
+	 * Returns {@code true} if the pins standing for the next shot from the
+	 * given position have just been set, so that knocking them all down is
+	 * a strike rather than a spare. A full rack of pins is left standing
+	 * both when the pins are set again and by a shot that knocks down none,
+	 * so the score for the shot that reached the position is needed to tell
+	 * them apart.
+	 *
+	 * @param position
+	 * @param lastScore score for the shot that reached the position; not
+	 * read at the start of a frame.
+	 * @return
+	 */
+	public static boolean isNewRack(int position, int lastScore) {
+		return position != COMPLETE && (ballOf(position) == 0
+				|| (pinsStanding(position) == Constants.TOTAL_PINS && lastScore > 0));
+	}
+
+	/**
+	 * Returns the number of pins standing for the next shot from the given
+	 * position.
+	 *
+	 * @param position
+	 * @return
+	 */
+	public static int pinsStanding(int position) {
+		return position & PINS_MASK;
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Builds the table of maximum points still available for every position
+	 * and pending bonus by knocking down every pin standing with every
+	 * remaining shot.
+	 */
+	private static short[] buildMaximumRemainingTable() {
+		
+		short[] table = new short[POSITIONS * PENDING_BONUS_STATES];
+		
+		for (int position = 0; position < POSITIONS; position++) {
+			
+			// Skip codes that cannot be reached
+			if (frameOf(position) > LAST_FRAME_INDEX || pinsStanding(position) > Constants.TOTAL_PINS)
+				continue;
+			
+			for (int pendingBonus = 0; pendingBonus < PENDING_BONUS_STATES; pendingBonus++) {
+				
+				int total = 0;
+				int current = position;
+				int bonus = pendingBonus;
+				
+				while (current != COMPLETE) {
+					int score = pinsStanding(current);
+					total += points(bonus, score);
+					bonus = nextPendingBonus(current, bonus, score);
+					current = advance(current, score);
+				}
+				
+				table[position * PENDING_BONUS_STATES + pendingBonus] = (short) total;
+			}
+		}
+		
+		return table;
+	}
+	
+	/**
+	 * Packs the given components of a position into an int.
+	 */
+	private static int pack(int frame, int ball, int pinsStanding, boolean fillBall) {
+		return (frame << FRAME_SHIFT) | (ball << BALL_SHIFT) | pinsStanding
+				| (fillBall ? FILL_BALL_FLAG : 0);
+	}
+
+	/**
+	 * Returns the score at the given index, or zero if that shot has not been
+	 * played yet.
+	 */
+	private static int shot(int[] scores, int index, int end) {
+		return (index < end) ? scores[index] : 0;
+	}
+}
@@ -0,0 +1,197 @@
+package thmuggleton.model.impl;
+
+import thmuggleton.Constants;
+import thmuggleton.model.exceptions.BowlingException;
+
+/**
+ * Immutable copy of one game, as held by a {@link MatchSnapshotImpl}.
+ * <p>
+ * Successive snapshots of the same game share a buffer of rolls to which
+ * shots are only ever appended: a snapshot reads the first {@code count}
+ * rolls of the buffer, and a later snapshot writes its new rolls after
+ * them, so the earlier snapshot is unaffected. If the buffer has already
+ * been extended past this snapshot's rolls, as when a game is taken back
+ * to an earlier shot and played differently, the rolls are copied into a
+ * new buffer first. Updating a snapshot by one shot therefore allocates a
+ * single small object, and a game that has not changed is shared as is.
+ * <p>
+ * The frames of the game are not held separately; they follow from the
+ * rolls, as in {@link GameRules}.
+ *
+ * @author Thomas Muggleton
+ */
+final class GameSnapshot {
+
+	/**
+	 * Snapshot of a game in which no shots have been played.
+	 */
+	static final GameSnapshot EMPTY = new GameSnapshot(new RollBuffer(), 0,
+			GameRules.INITIAL_POSITION, GameRules.NO_BONUS, 0);
+
+	// Fields
+	private final RollBuffer buffer;
+	private final int count;
+	private final int position;
+	private final int pendingBonus;
+	private final int total;
+
+	/**
+	 * Constructor
+	 */
+	private GameSnapshot(RollBuffer buffer, int count, int position, int pendingBonus, int total) {
+		this.buffer = buffer;
+		this.count = count;
+		this.position = position;
+		this.pendingBonus = pendingBonus;
+		this.total = total;
+	}
+
+	/**
+	 * Returns a snapshot of the given game; this snapshot is returned if no
+	 * shots have been played since it was taken, and it is built on if the
+	 * game has only been played on from it. If the game has been taken back
+	 * and played differently, the snapshot is taken again from the start.
+	 * 
+	 * @param game
+	 * @return
+	 */
+	GameSnapshot update(GameImpl game) {
+
+		int newCount = game.getNumberOfRolls();
+
+		// Branch for game taken back past this snapshot; start again
+		if (newCount < count || !this.isPrefixOf(game))
+			return EMPTY.update(game);
+
+		if (newCount == count)
+			return this;
+
+		// Claim the rolls after this snapshot's, or copy them if another
+		// snapshot already has
+		RollBuffer target = buffer;
+
+		if (target == EMPTY.buffer || !target.claim(count, newCount)) {
+			target = new RollBuffer();
+			target.length = newCount;
+			System.arraycopy(buffer.rolls, 0, target.rolls, 0, count);
+		}
+
+		int newPosition = position;
+		int newPendingBonus = pendingBonus;
+		int newTotal = total;
+
+		for (int i = count; i < newCount; i++) {
+			int score = game.getRoll(i);
+
+			target.rolls[i] = score;
+			newTotal += GameRules.points(newPendingBonus, score);
+			newPendingBonus = GameRules.nextPendingBonus(newPosition, newPendingBonus, score);
+			newPosition = GameRules.advance(newPosition, score);
+		}
+
+		return new GameSnapshot(target, newCount, newPosition, newPendingBonus, newTotal);
+	}
+
+	/**
+	 * Returns the number of shots played.
+	 * 
+	 * @return
+	 */
+	int getNumberOfRolls() {
+		return count;
+	}
+
+	/**
+	 * Returns the score for the given shot.
+	 * 
+	 * @param index
+	 * @return
+	 * @throws BowlingException if the shot had not been played.
+	 */
+	int getRoll(int index) {
+
+		if (index < 0 || index >= count)
+			throw new BowlingException("Shot " + index + " had not been played");
+
+		return buffer.rolls[index];
+	}
+
+	/**
+	 * Copies the score for every shot played into the given array.
+	 * 
+	 * @param dst
+	 * @param off
+	 * @return the number of scores copied.
+	 */
+	int copyRolls(int[] dst, int off) {
+		System.arraycopy(buffer.rolls, 0, dst, off, count);
+		return count;
+	}
+
+	/**
+	 * Returns the total score.
+	 * 
+	 * @return
+	 */
+	int getTotalScore() {
+		return total;
+	}
+
+	/**
+	 * Returns the position reached; see {@link GameRules}.
+	 * 
+	 * @return
+	 */
+	int getPosition() {
+		return position;
+	}
+
+	/**
+	 * Returns {@code true} if the rolls of this snapshot are still the
+	 * first rolls of the given game.
+	 * 
+	 * @param game
+	 * @return
+	 */
+	private boolean isPrefixOf(GameImpl game) {
+
+		for (int i = 0; i < count; i++) {
+			if (buffer.rolls[i] != game.getRoll(i))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Rolls shared by successive snapshots of a game. Snapshots may be
+	 * built on several threads at once, so a thread claims the rolls after
+	 * those that existing snapshots read before writing them, and only one
+	 * thread can claim them.
+	 */
+	private static final class RollBuffer {
+
+		// Fields
+		private final int[] rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+		private int length;
+
+		/**
+		 * Claims the rolls from the first index up to the second for the
+		 * calling thread to write, if no rolls after the first index have
+		 * been claimed yet.
+		 *
+		 * @param from
+		 * @param to
+		 * @return {@code true} if the rolls were claimed.
+		 */
+		private synchronized boolean claim(int from, int to) {
+
+			if (length != from)
+				return false;
+
+			length = to;
+
+			return true;
+		}
+	}
+}
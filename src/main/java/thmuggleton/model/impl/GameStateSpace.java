@@ -0,0 +1,674 @@
+package thmuggleton.model.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import thmuggleton.Constants;
+import thmuggleton.model.Frame;
+
+/**
+ * Enumerates every state that a game can reach under the rules applied by
+ * {@link GameImpl} and assigns each one a dense index.
+ * <p>
+ * A state is made up of the position within the game (frame, ball and pins
+ * standing), the bonus still owed to earlier strikes and spares, and the
+ * score so far. Each state is packed into an {@code int} key; a minimal
+ * perfect hash maps every reachable key to a unique index between zero and
+ * {@link #size()} - 1, and returns -1 for keys that cannot be reached.
+ * <p>
+ * Ignoring the score, the states also form an acyclic automaton in which each
+ * shot moves from one node to the next and earns some points. This automaton
+ * is minimised so that nodes with identical futures are merged.
+ * <p>
+ * Enumeration runs in parallel and takes a noticeable fraction of a second,
+ * so the result can be saved to a file and loaded again at startup; see
+ * {@link #loadOrBuild(Path)}. Running this class builds the file.
+ *
+ * @author Thomas Muggleton
+ */
+public final class GameStateSpace {
+
+	/**
+	 * Index returned for a key that is not a reachable state.
+	 */
+	public static final int NOT_REACHABLE = -1;
+
+	// Constants used to pack a state into an int key
+	private static final int POSITION_BITS = 13;
+	private static final int POSITION_MASK = (1 << POSITION_BITS) - 1;
+	private static final int BONUS_SHIFT = POSITION_BITS;
+	private static final int BONUS_MASK = 0x7;
+	private static final int SCORE_SHIFT = BONUS_SHIFT + 3;
+	private static final int COMPLETE_CODE = Constants.NUMBER_OF_FRAMES << 8;
+
+	// Constants for enumeration, with one stage for each ball in a frame
+	private static final int STAGES_PER_FRAME = Frame.LAST_FRAME;
+	private static final int STAGES = Constants.NUMBER_OF_FRAMES * STAGES_PER_FRAME + 1;
+
+	// Constants for the automaton
+	private static final int OUTCOMES = Constants.TOTAL_PINS + 1;
+	private static final int NODE_CODES = 1 << SCORE_SHIFT;
+
+	// Constants for the perfect hash
+	private static final int KEYS_PER_BUCKET = 4;
+	private static final int MAX_DISPLACEMENT = 1 << 24;
+
+	// Constants for the cache file
+	private static final int FILE_MAGIC = 0x42475353;
+	private static final int FILE_VERSION = 1;
+
+	// Fields
+	private final int[] keys;
+	private final int[] displacements;
+	private final int[] nodeOfCode;
+	private final int[] transitions;
+	private final int[] points;
+
+	/**
+	 * Constructor
+	 */
+	private GameStateSpace(int[] keys, int[] displacements, int[] nodeOfCode,
+			int[] transitions, int[] points) {
+		this.keys = keys;
+		this.displacements = displacements;
+		this.nodeOfCode = nodeOfCode;
+		this.transitions = transitions;
+		this.points = points;
+	}
+
+	/**
+	 * Enumerates every reachable state and builds the index.
+	 *
+	 * @return
+	 */
+	public static GameStateSpace build() {
+
+		int[] sortedKeys = enumerate();
+		int[] displacements = new int[Math.max(1, sortedKeys.length / KEYS_PER_BUCKET)];
+		int[] keysBySlot = buildPerfectHash(sortedKeys, displacements);
+
+		int[] nodeOfCode = new int[NODE_CODES];
+		List<int[]> automaton = minimise(sortedKeys, nodeOfCode);
+
+		return new GameStateSpace(keysBySlot, displacements, nodeOfCode,
+				automaton.get(0), automaton.get(1));
+	}
+
+	/**
+	 * Loads the index from the given file, or builds it and saves it to
+	 * that file if the file does not exist or cannot be read.
+	 *
+	 * @param file
+	 * @return
+	 */
+	public static GameStateSpace loadOrBuild(Path file) {
+
+		if (Files.isReadable(file)) {
+			try {
+				return load(file);
+			}
+			catch (IOException e) {
+				System.err.println("Rebuilding game state space: " + e.getMessage());
+			}
+		}
+
+		GameStateSpace result = build();
+
+		try {
+			result.save(file);
+		}
+		catch (IOException e) {
+			System.err.println("Could not save game state space: " + e.getMessage());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Loads an index previously written by {@link #save(Path)}.
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException if the file cannot be read or is not a valid index.
+	 */
+	public static GameStateSpace load(Path file) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+			ByteBuffer bytes = ByteBuffer.allocate((int) channel.size());
+			while (bytes.hasRemaining() && channel.read(bytes) >= 0)
+				;
+			bytes.flip();
+			IntBuffer ints = bytes.asIntBuffer();
+
+			if (ints.remaining() < 2 || ints.get() != FILE_MAGIC || ints.get() != FILE_VERSION)
+				throw new IOException("Not a game state space file: " + file);
+
+			return new GameStateSpace(readArray(ints), readArray(ints), readArray(ints),
+					readArray(ints), readArray(ints));
+		}
+		catch (RuntimeException e) {
+			throw new IOException("Corrupt game state space file: " + file, e);
+		}
+	}
+
+	/**
+	 * Saves this index to the given file.
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public void save(Path file) throws IOException {
+
+		int length = 2 + 5 + keys.length + displacements.length + nodeOfCode.length
+				+ transitions.length + points.length;
+		ByteBuffer bytes = ByteBuffer.allocate(length * 4);
+		IntBuffer ints = bytes.asIntBuffer();
+
+		ints.put(FILE_MAGIC).put(FILE_VERSION);
+		writeArray(ints, keys);
+		writeArray(ints, displacements);
+		writeArray(ints, nodeOfCode);
+		writeArray(ints, transitions);
+		writeArray(ints, points);
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (bytes.hasRemaining())
+				channel.write(bytes);
+		}
+	}
+
+	/**
+	 * Returns the number of reachable states.
+	 *
+	 * @return
+	 */
+	public int size() {
+		return keys.length;
+	}
+
+	/**
+	 * Returns the dense index of the given state key, or
+	 * {@link #NOT_REACHABLE} if no game can reach that state.
+	 *
+	 * @param key
+	 * @return
+	 */
+	public int indexOf(int key) {
+
+		int bucket = bucketOf(key, displacements.length);
+		int slot = slotOf(key, displacements[bucket], keys.length);
+
+		return (keys[slot] == key) ? slot : NOT_REACHABLE;
+	}
+
+	/**
+	 * Returns the state key with the given index.
+	 *
+	 * @param index
+	 * @return
+	 */
+	public int keyAt(int index) {
+		return keys[index];
+	}
+
+	/**
+	 * Returns the number of nodes in the minimised automaton.
+	 *
+	 * @return
+	 */
+	public int numberOfNodes() {
+		return transitions.length / OUTCOMES;
+	}
+
+	/**
+	 * Returns the automaton node for the given position and pending bonus,
+	 * or -1 if that combination cannot be reached.
+	 *
+	 * @param position
+	 * @param pendingBonus
+	 * @return
+	 */
+	public int nodeOf(int position, int pendingBonus) {
+		return nodeOfCode[key(position, pendingBonus, 0)];
+	}
+
+	/**
+	 * Returns the automaton node reached by playing the given score from the
+	 * given node, or -1 if the score is not valid there.
+	 *
+	 * @param node
+	 * @param score
+	 * @return
+	 */
+	public int nextNode(int node, int score) {
+		return transitions[node * OUTCOMES + score];
+	}
+
+	/**
+	 * Returns the points earned by playing the given score from the given
+	 * node.
+	 *
+	 * @param node
+	 * @param score
+	 * @return
+	 */
+	public int pointsFor(int node, int score) {
+		return points[node * OUTCOMES + score];
+	}
+
+	/**
+	 * Packs a state into an int key.
+	 *
+	 * @param position position as returned by {@link GameRules}.
+	 * @param pendingBonus pending bonus as returned by {@link GameRules}.
+	 * @param score score so far.
+	 * @return
+	 */
+	public static int key(int position, int pendingBonus, int score) {
+
+		int positionCode = (position == GameRules.COMPLETE) ? COMPLETE_CODE : position;
+
+		return (score << SCORE_SHIFT) | (pendingBonus << BONUS_SHIFT) | positionCode;
+	}
+
+	/**
+	 * Returns the position packed into the given key.
+	 *
+	 * @param key
+	 * @return
+	 */
+	public static int positionOf(int key) {
+
+		int positionCode = key & POSITION_MASK;
+
+		return (positionCode == COMPLETE_CODE) ? GameRules.COMPLETE : positionCode;
+	}
+
+	/**
+	 * Returns the pending bonus packed into the given key.
+	 *
+	 * @param key
+	 * @return
+	 */
+	public static int pendingBonusOf(int key) {
+		return (key >>> BONUS_SHIFT) & BONUS_MASK;
+	}
+
+	/**
+	 * Returns the score packed into the given key.
+	 *
+	 * @param key
+	 * @return
+	 */
+	public static int scoreOf(int key) {
+		return key >>> SCORE_SHIFT;
+	}
+
+	/**
+	 * Builds the index and writes it to the file given as the first
+	 * argument.
+	 *
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+
+		if (args.length != 1) {
+			System.err.println("Usage: GameStateSpace <output file>");
+			return;
+		}
+
+		long start = System.nanoTime();
+		GameStateSpace stateSpace = build();
+		stateSpace.save(Paths.get(args[0]));
+
+		System.out.printf("%d states, %d automaton nodes, built in %d ms%n",
+				stateSpace.size(), stateSpace.numberOfNodes(),
+				(System.nanoTime() - start) / 1000000);
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Enumerates every reachable state key in ascending order. Each shot
+	 * moves a game to a later frame or ball, so states are expanded one
+	 * stage at a time, with each stage expanded in parallel.
+	 */
+	private static int[] enumerate() {
+
+		// Collect states for each stage; the complete state is the last stage
+		List<List<int[]>> pending = new ArrayList<List<int[]>>(STAGES);
+
+		for (int i = 0; i < STAGES; i++)
+			pending.add(new ArrayList<int[]>());
+
+		pending.get(0).add(new int[] {key(GameRules.INITIAL_POSITION, GameRules.NO_BONUS, 0)});
+
+		List<int[]> reached = new ArrayList<int[]>();
+		int total = 0;
+
+		for (int stage = 0; stage < STAGES; stage++) {
+
+			// Merge the states reaching this stage from earlier stages
+			int[] states = pending.get(stage).stream().flatMapToInt(IntStream::of)
+					.distinct().sorted().toArray();
+			pending.set(stage, null);
+			reached.add(states);
+			total += states.length;
+
+			// Expand every state at this stage in parallel
+			int[] successors = IntStream.of(states).parallel()
+					.flatMap(GameStateSpace::successors).distinct().toArray();
+
+			// Group successors by stage
+			int[] counts = new int[STAGES];
+			for (int successor : successors)
+				counts[stageOf(successor)]++;
+
+			int[][] byStage = new int[STAGES][];
+			for (int i = stage + 1; i < STAGES; i++) {
+				if (counts[i] > 0) {
+					byStage[i] = new int[counts[i]];
+					pending.get(i).add(byStage[i]);
+				}
+			}
+
+			int[] fill = new int[STAGES];
+			for (int successor : successors) {
+				int successorStage = stageOf(successor);
+				byStage[successorStage][fill[successorStage]++] = successor;
+			}
+		}
+
+		// Combine all stages in ascending key order
+		int[] result = new int[total];
+		int offset = 0;
+
+		for (int[] states : reached) {
+			System.arraycopy(states, 0, result, offset, states.length);
+			offset += states.length;
+		}
+
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * Returns the keys of every state reachable with one shot from the given
+	 * state.
+	 */
+	private static IntStream successors(int key) {
+
+		int position = positionOf(key);
+
+		if (position == GameRules.COMPLETE)
+			return IntStream.empty();
+
+		int pendingBonus = pendingBonusOf(key);
+		int score = scoreOf(key);
+		int standing = GameRules.pinsStanding(position);
+		int[] result = new int[standing + 1];
+
+		for (int pins = 0; pins <= standing; pins++) {
+			result[pins] = key(GameRules.advance(position, pins),
+					GameRules.nextPendingBonus(position, pendingBonus, pins),
+					score + GameRules.points(pendingBonus, pins));
+		}
+
+		return IntStream.of(result);
+	}
+
+	/**
+	 * Returns the stage for the given key, which increases with every shot.
+	 */
+	private static int stageOf(int key) {
+
+		int position = positionOf(key);
+
+		if (position == GameRules.COMPLETE)
+			return STAGES - 1;
+
+		return GameRules.frameOf(position) * STAGES_PER_FRAME + GameRules.ballOf(position);
+	}
+
+	/**
+	 * Builds a minimal perfect hash for the given keys using hash and
+	 * displace: keys are split into buckets, and the largest buckets are
+	 * placed first by searching for a displacement that moves all of their
+	 * keys into free slots.
+	 *
+	 * @return keys ordered by slot.
+	 */
+	private static int[] buildPerfectHash(int[] sortedKeys, int[] displacements) {
+
+		int n = sortedKeys.length;
+		int buckets = displacements.length;
+
+		// Group keys by bucket
+		int[] bucketStart = new int[buckets + 1];
+		for (int key : sortedKeys)
+			bucketStart[bucketOf(key, buckets) + 1]++;
+
+		for (int i = 0; i < buckets; i++)
+			bucketStart[i + 1] += bucketStart[i];
+
+		int[] grouped = new int[n];
+		int[] fill = Arrays.copyOf(bucketStart, buckets);
+		for (int key : sortedKeys)
+			grouped[fill[bucketOf(key, buckets)]++] = key;
+
+		// Place largest buckets first
+		Integer[] order = new Integer[buckets];
+		for (int i = 0; i < buckets; i++)
+			order[i] = i;
+
+		Arrays.sort(order, (a, b) -> (bucketStart[b + 1] - bucketStart[b]) - (bucketStart[a + 1] - bucketStart[a]));
+
+		int[] keysBySlot = new int[n];
+		boolean[] taken = new boolean[n];
+		int[] slots = new int[n];
+
+		for (int bucket : order) {
+
+			int start = bucketStart[bucket];
+			int size = bucketStart[bucket + 1] - start;
+
+			if (size == 0)
+				continue;
+
+			for (int displacement = 0; ; displacement++) {
+
+				if (displacement >= MAX_DISPLACEMENT)
+					throw new IllegalStateException("Could not build perfect hash");
+
+				if (tryPlace(grouped, start, size, displacement, taken, slots)) {
+					displacements[bucket] = displacement;
+
+					for (int i = 0; i < size; i++)
+						keysBySlot[slots[i]] = grouped[start + i];
+
+					break;
+				}
+			}
+		}
+
+		return keysBySlot;
+	}
+
+	/**
+	 * Tries to place every key in a bucket with the given displacement,
+	 * marking the slots as taken if successful.
+	 */
+	private static boolean tryPlace(int[] grouped, int start, int size, int displacement,
+			boolean[] taken, int[] slots) {
+
+		for (int i = 0; i < size; i++) {
+			int slot = slotOf(grouped[start + i], displacement, taken.length);
+
+			if (taken[slot])
+				return false;
+
+			// Reject slots shared by keys in the same bucket
+			for (int j = 0; j < i; j++) {
+				if (slots[j] == slot)
+					return false;
+			}
+
+			slots[i] = slot;
+		}
+
+		for (int i = 0; i < size; i++)
+			taken[slots[i]] = true;
+
+		return true;
+	}
+
+	/**
+	 * Returns the bucket for the given key.
+	 */
+	private static int bucketOf(int key, int buckets) {
+		return Math.floorMod(mix(key), buckets);
+	}
+
+	/**
+	 * Returns the slot for the given key and displacement.
+	 */
+	private static int slotOf(int key, int displacement, int n) {
+		return Math.floorMod(mix(key ^ (0x9E3779B9 * (displacement + 1))), n);
+	}
+
+	/**
+	 * Mixes the bits of the given value (MurmurHash3 finaliser).
+	 */
+	private static int mix(int x) {
+		x ^= x >>> 16;
+		x *= 0x85EBCA6B;
+		x ^= x >>> 13;
+		x *= 0xC2B2AE35;
+		x ^= x >>> 16;
+		return x;
+	}
+
+	/**
+	 * Builds the minimised automaton over positions and pending bonuses.
+	 * Nodes are visited from the end of the game backwards, and a node is
+	 * merged with an earlier one whenever every shot leads to the same node
+	 * and earns the same points.
+	 *
+	 * @return list containing the transition and points tables.
+	 */
+	private static List<int[]> minimise(int[] sortedKeys, int[] nodeOfCode) {
+
+		// Distinct position and pending bonus codes, latest stage first
+		int[] codes = IntStream.of(sortedKeys).map(key -> key & (NODE_CODES - 1))
+				.distinct().boxed()
+				.sorted((a, b) -> stageOf(b) - stageOf(a))
+				.mapToInt(Integer::intValue).toArray();
+
+		Arrays.fill(nodeOfCode, -1);
+		Map<Signature, Integer> nodes = new HashMap<Signature, Integer>();
+		List<int[]> signatures = new ArrayList<int[]>();
+
+		for (int code : codes) {
+
+			int position = positionOf(code);
+			int pendingBonus = pendingBonusOf(code);
+			int[] signature = new int[OUTCOMES * 2];
+			Arrays.fill(signature, -1);
+
+			// Record the node and points for every valid shot
+			if (position != GameRules.COMPLETE) {
+				for (int pins = 0; pins <= GameRules.pinsStanding(position); pins++) {
+					int next = key(GameRules.advance(position, pins),
+							GameRules.nextPendingBonus(position, pendingBonus, pins), 0);
+					signature[pins] = nodeOfCode[next];
+					signature[OUTCOMES + pins] = GameRules.points(pendingBonus, pins);
+				}
+			}
+
+			// Merge with an existing node with the same future
+			Signature wrapper = new Signature(signature);
+			Integer node = nodes.get(wrapper);
+
+			if (node == null) {
+				node = signatures.size();
+				nodes.put(wrapper, node);
+				signatures.add(signature);
+			}
+
+			nodeOfCode[code] = node;
+		}
+
+		// Flatten signatures into transition and points tables
+		int[] transitions = new int[signatures.size() * OUTCOMES];
+		int[] points = new int[signatures.size() * OUTCOMES];
+
+		for (int node = 0; node < signatures.size(); node++) {
+			System.arraycopy(signatures.get(node), 0, transitions, node * OUTCOMES, OUTCOMES);
+			System.arraycopy(signatures.get(node), OUTCOMES, points, node * OUTCOMES, OUTCOMES);
+		}
+
+		List<int[]> result = new ArrayList<int[]>(2);
+		result.add(transitions);
+		result.add(points);
+		return result;
+	}
+
+	/**
+	 * Writes the given array, preceded by its length.
+	 */
+	private static void writeArray(IntBuffer ints, int[] array) {
+		ints.put(array.length).put(array);
+	}
+
+	/**
+	 * Reads an array written by {@link #writeArray(IntBuffer, int[])}.
+	 */
+	private static int[] readArray(IntBuffer ints) {
+		int[] array = new int[ints.get()];
+		ints.get(array);
+		return array;
+	}
+
+	/**
+	 * Wraps the outgoing transitions of an automaton node so that nodes
+	 * with identical futures can be found in a Map.
+	 */
+	private static final class Signature {
+
+		// Fields
+		private final int[] values;
+		private final int hash;
+
+		private Signature(int[] values) {
+			this.values = values;
+			this.hash = Arrays.hashCode(values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return (obj instanceof Signature) && Arrays.equals(values, ((Signature) obj).values);
+		}
+	}
+}
@@ -0,0 +1,317 @@
+package thmuggleton.model.impl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import thmuggleton.model.Frame;
+import thmuggleton.model.Match;
+import thmuggleton.model.exceptions.BowlingException;
+
+/**
+ * Archive of every ball played in finished matches, indexed so that questions
+ * such as "how often does this player convert the 10 pin?" can be answered
+ * without scanning the whole history.
+ * <p>
+ * Each archived ball is given a position, in the order in which matches are
+ * added. For every possible leave and every player a {@link PostingList}
+ * holds the positions of the matching balls; since matches are added in date
+ * order, a date range is simply a range of positions. A query intersects the
+ * relevant posting lists within that range and looks up whether each ball
+ * found was an attempt at a conversion, and whether it succeeded, in bitsets
+ * indexed by position.
+ * <p>
+ * The index is updated as each match is added and, like the other model
+ * classes, is intended to be used from a single thread.
+ *
+ * @author Thomas Muggleton
+ */
+public class LeaveIndex {
+
+	// Constants
+	private static final int INITIAL_CAPACITY = 1024;
+
+	// Fields
+	private final PostingList[] leavePostings;
+	private final List<PostingList> playerPostings;
+	private final Map<String, Integer> playerIds;
+	private short[] leaves;
+	private long[] attempts;
+	private long[] conversions;
+	private int size;
+	private int[] days;
+	private int[] dayStarts;
+	private int numberOfDays;
+
+	/**
+	 * Constructor
+	 */
+	public LeaveIndex() {
+		leavePostings = new PostingList[Leaves.NUMBER_OF_LEAVES];
+		playerPostings = new ArrayList<PostingList>();
+		playerIds = new HashMap<String, Integer>();
+		leaves = new short[INITIAL_CAPACITY];
+		attempts = new long[INITIAL_CAPACITY / Long.SIZE];
+		conversions = new long[INITIAL_CAPACITY / Long.SIZE];
+		size = 0;
+		days = new int[INITIAL_CAPACITY];
+		dayStarts = new int[INITIAL_CAPACITY];
+		numberOfDays = 0;
+	}
+
+	/**
+	 * Archives every ball played in the given match, which must not have
+	 * been played before the last match added.
+	 *
+	 * @param match
+	 * @param date on which the match was played.
+	 * @throws BowlingException if the date is before that of the last match
+	 *             added.
+	 */
+	public void addMatch(Match match, LocalDate date) {
+
+		int day = (int) date.toEpochDay();
+
+		if (numberOfDays > 0 && day < days[numberOfDays - 1])
+			throw new BowlingException("Matches must be archived in date order");
+
+		// Record the first position for each new day
+		if (numberOfDays == 0 || day != days[numberOfDays - 1]) {
+			if (numberOfDays == days.length) {
+				days = Arrays.copyOf(days, numberOfDays * 2);
+				dayStarts = Arrays.copyOf(dayStarts, numberOfDays * 2);
+			}
+
+			days[numberOfDays] = day;
+			dayStarts[numberOfDays] = size;
+			numberOfDays++;
+		}
+
+		for (String player : match.getPlayers()) {
+			PostingList postings = this.getPlayerPostings(player);
+
+			for (Frame frame : match.getFrames(player))
+				this.addFrame(frame, postings);
+		}
+	}
+
+	/**
+	 * Returns conversion statistics for the balls matching all of the given
+	 * filters; any filter may be {@code null} (or {@link Leaves#UNKNOWN} for
+	 * the leave) to match every ball.
+	 *
+	 * @param player name of the player who played the ball.
+	 * @param from earliest date on which the ball was played.
+	 * @param to latest date on which the ball was played.
+	 * @param leave pins left standing by the ball.
+	 * @return
+	 */
+	public LeaveStatistics query(String player, LocalDate from, LocalDate to, int leave) {
+
+		LeaveStatistics result = new LeaveStatistics();
+		PostingList.Cursor[] cursors = new PostingList.Cursor[2];
+		int numberOfCursors = 0;
+
+		// Find the posting lists to intersect; a missing list matches nothing
+		if (leave != Leaves.UNKNOWN) {
+			if (leave <= 0 || leave > Leaves.FULL_RACK || leavePostings[leave] == null)
+				return result;
+
+			cursors[numberOfCursors++] = leavePostings[leave].cursor();
+		}
+
+		if (player != null) {
+			Integer id = playerIds.get(player);
+
+			if (id == null)
+				return result;
+
+			cursors[numberOfCursors++] = playerPostings.get(id).cursor();
+		}
+
+		// Convert the date range into a range of positions
+		int start = (from != null) ? this.firstPositionOnOrAfter(from.toEpochDay()) : 0;
+		int end = (to != null) ? this.firstPositionOnOrAfter(to.toEpochDay() + 1) : size;
+
+		if (numberOfCursors == 0)
+			this.collectRange(start, end, result);
+		else
+			this.collectIntersection(cursors, numberOfCursors, start, end, result);
+
+		return result;
+	}
+
+	/**
+	 * Returns the number of balls archived.
+	 *
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of balls archived that left the given pins standing.
+	 *
+	 * @param leave
+	 * @return
+	 */
+	public int getNumberOfBalls(int leave) {
+		return (leavePostings[leave] != null) ? leavePostings[leave].size() : 0;
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Archives each ball played in the given frame. A ball is an attempt at
+	 * a conversion if it left pins standing and the next ball was played at
+	 * the same rack.
+	 */
+	private void addFrame(Frame frame, PostingList postings) {
+
+		int balls = frame.getNumberOfBalls();
+		boolean conversionShot = false;
+
+		for (int ball = 0; ball < balls && frame.getScore(ball) != Frame.SCORE_UNSET; ball++) {
+
+			int position = size++;
+			int leave = frame.getLeave(ball);
+
+			this.ensureCapacity(size);
+			postings.add(position);
+			leaves[position] = (short) leave;
+
+			if (leave > 0) {
+				if (leavePostings[leave] == null)
+					leavePostings[leave] = new PostingList();
+
+				leavePostings[leave].add(position);
+			}
+
+			// Branch for attempt at a conversion
+			if (!conversionShot && leave > 0 && ball + 1 < balls
+					&& frame.getScore(ball + 1) != Frame.SCORE_UNSET) {
+				attempts[position / Long.SIZE] |= 1L << position;
+
+				if (frame.getScore(ball + 1) == Leaves.pinsStanding(leave))
+					conversions[position / Long.SIZE] |= 1L << position;
+
+				conversionShot = true;
+			}
+			else
+				conversionShot = false;
+		}
+	}
+
+	/**
+	 * Records every attempt in the given range of positions.
+	 */
+	private void collectRange(int start, int end, LeaveStatistics result) {
+		for (int position = start; position < end; position++)
+			this.collect(position, result);
+	}
+
+	/**
+	 * Records every attempt at a position found in all of the given posting
+	 * lists within the given range, leapfrogging each cursor to the highest
+	 * position seen so far.
+	 */
+	private void collectIntersection(PostingList.Cursor[] cursors, int numberOfCursors,
+			int start, int end, LeaveStatistics result) {
+
+		int candidate = start;
+
+		while (candidate < end) {
+
+			int matched = 0;
+
+			for (int i = 0; matched < numberOfCursors && candidate < end; i = (i + 1) % numberOfCursors) {
+				int position = cursors[i].advance(candidate);
+
+				if (position == candidate)
+					matched++;
+				else {
+					candidate = position;
+					matched = 1;
+				}
+			}
+
+			if (candidate >= end)
+				break;
+
+			this.collect(candidate, result);
+			candidate++;
+		}
+	}
+
+	/**
+	 * Records the ball at the given position if it was an attempt at a
+	 * conversion.
+	 */
+	private void collect(int position, LeaveStatistics result) {
+
+		long bit = 1L << position;
+
+		if ((attempts[position / Long.SIZE] & bit) != 0) {
+			int leave = leaves[position];
+			result.record(leave, ((conversions[position / Long.SIZE] & bit) != 0) ? 0 : leave);
+		}
+	}
+
+	/**
+	 * Returns the first position archived on or after the given day.
+	 */
+	private int firstPositionOnOrAfter(long day) {
+
+		int low = 0;
+		int high = numberOfDays;
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+
+			if (days[middle] < day)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+
+		return (low < numberOfDays) ? dayStarts[low] : size;
+	}
+
+	/**
+	 * Returns the posting list for the given player, creating it if the
+	 * player has not been seen before.
+	 */
+	private PostingList getPlayerPostings(String player) {
+
+		Integer id = playerIds.get(player);
+
+		if (id == null) {
+			id = playerPostings.size();
+			playerIds.put(player, id);
+			playerPostings.add(new PostingList());
+		}
+
+		return playerPostings.get(id);
+	}
+
+	/**
+	 * Grows the arrays indexed by position to hold the given number of balls.
+	 */
+	private void ensureCapacity(int capacity) {
+
+		if (capacity <= leaves.length)
+			return;
+
+		int newCapacity = leaves.length * 2;
+
+		leaves = Arrays.copyOf(leaves, newCapacity);
+		attempts = Arrays.copyOf(attempts, newCapacity / Long.SIZE);
+		conversions = Arrays.copyOf(conversions, newCapacity / Long.SIZE);
+	}
+}
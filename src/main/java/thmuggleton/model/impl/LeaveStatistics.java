@@ -0,0 +1,162 @@
+package thmuggleton.model.impl;
+
+import thmuggleton.model.Frame;
+
+/**
+ * Accumulates how often each leave was faced and how often it was converted
+ * (every pin knocked down with the next shot).
+ * <p>
+ * Counts are held in flat arrays indexed by leave, so recording a shot is a
+ * couple of array increments and totals for splits or washouts only need a
+ * single pass over the 1024 possible leaves.
+ *
+ * @author Thomas Muggleton
+ */
+public class LeaveStatistics {
+
+	// Fields
+	private final int[] attempts;
+	private final int[] conversions;
+
+	/**
+	 * Constructor
+	 */
+	public LeaveStatistics() {
+		attempts = new int[Leaves.NUMBER_OF_LEAVES];
+		conversions = new int[Leaves.NUMBER_OF_LEAVES];
+	}
+
+	/**
+	 * Records an attempt to convert the given leave.
+	 *
+	 * @param leave pins standing before the attempt.
+	 * @param nextLeave pins standing after the attempt.
+	 */
+	public void record(int leave, int nextLeave) {
+
+		attempts[leave]++;
+
+		if (nextLeave == 0)
+			conversions[leave]++;
+	}
+
+	/**
+	 * Records every conversion attempt in the given frame for which both
+	 * leaves are known. Strikes leave nothing to convert.
+	 *
+	 * @param frame
+	 */
+	public void recordFrame(Frame frame) {
+
+		int balls = frame.getNumberOfBalls();
+
+		for (int ball = 0; ball < balls - 1; ball++) {
+			int leave = frame.getLeave(ball);
+			int nextLeave = frame.getLeave(ball + 1);
+
+			// Skip unknown leaves and strikes
+			if (leave == Leaves.UNKNOWN || nextLeave == Leaves.UNKNOWN || leave == 0)
+				continue;
+
+			this.record(leave, nextLeave);
+
+			// A conversion in the last frame is followed by a fresh rack
+			ball++;
+		}
+	}
+
+	/**
+	 * Returns the number of times the given leave was faced.
+	 *
+	 * @param leave
+	 * @return
+	 */
+	public int getAttempts(int leave) {
+		return attempts[leave];
+	}
+
+	/**
+	 * Returns the number of times the given leave was converted.
+	 *
+	 * @param leave
+	 * @return
+	 */
+	public int getConversions(int leave) {
+		return conversions[leave];
+	}
+
+	/**
+	 * Returns the proportion of attempts at the given leave that were
+	 * converted, or zero if it was never faced.
+	 *
+	 * @param leave
+	 * @return
+	 */
+	public double getConversionRate(int leave) {
+		return (attempts[leave] > 0) ? (double) conversions[leave] / attempts[leave] : 0.0;
+	}
+
+	/**
+	 * Returns the number of splits faced.
+	 *
+	 * @return
+	 */
+	public int getSplitAttempts() {
+
+		int result = 0;
+
+		for (int leave = 0; leave < Leaves.NUMBER_OF_LEAVES; leave++) {
+			if (Leaves.isSplit(leave))
+				result += attempts[leave];
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the number of splits converted.
+	 *
+	 * @return
+	 */
+	public int getSplitConversions() {
+
+		int result = 0;
+
+		for (int leave = 0; leave < Leaves.NUMBER_OF_LEAVES; leave++) {
+			if (Leaves.isSplit(leave))
+				result += conversions[leave];
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the number of washouts faced.
+	 *
+	 * @return
+	 */
+	public int getWashoutAttempts() {
+
+		int result = 0;
+
+		for (int leave = 0; leave < Leaves.NUMBER_OF_LEAVES; leave++) {
+			if (Leaves.isWashout(leave))
+				result += attempts[leave];
+		}
+
+		return result;
+	}
+
+	/**
+	 * Adds the counts from another set of statistics to this one.
+	 *
+	 * @param other
+	 */
+	public void addAll(LeaveStatistics other) {
+
+		for (int leave = 0; leave < Leaves.NUMBER_OF_LEAVES; leave++) {
+			attempts[leave] += other.attempts[leave];
+			conversions[leave] += other.conversions[leave];
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package thmuggleton.model.impl;
+
+import thmuggleton.Constants;
+
+/**
+ * Classifies the pins left standing after a shot ("leaves").
+ * <p>
+ * A leave is a 10-bit mask in which bit {@code n - 1} is set if pin
+ * {@code n} is standing. Whether each of the 1024 possible leaves is a split
+ * or a washout is worked out once when the class is loaded, so classifying a
+ * leave is a single array lookup.
+ * <p>
+ * Two standing pins are connected if one is diagonally behind the other, or
+ * directly behind it (a "sleeper"). Pins next to each other in the same row
+ * are not connected, since the pin in front of and between them is down;
+ * so, as in the usual definition, a leave such as 4-5 or 9-10 is a split. A
+ * leave is a split if the head pin is down and the standing pins fall into
+ * two or more unconnected groups; it is a washout if the head pin is
+ * standing and the pins fall into two or more groups.
+ *
+ * @author Thomas Muggleton
+ */
+public final class Leaves {
+
+	/**
+	 * Leave with every pin standing.
+	 */
+	public static final int FULL_RACK = (1 << Constants.TOTAL_PINS) - 1;
+
+	/**
+	 * Number of possible leaves.
+	 */
+	public static final int NUMBER_OF_LEAVES = FULL_RACK + 1;
+
+	/**
+	 * Leave recorded for a shot entered as a count only.
+	 */
+	public static final int UNKNOWN = -1;
+
+	// Constants
+	private static final int HEAD_PIN = 1;
+	private static final byte SPLIT = 1;
+	private static final byte WASHOUT = 2;
+
+	/**
+	 * Pairs of connected pins, numbered from 1.
+	 */
+	private static final int[][] CONNECTED_PINS = {
+		// Diagonal
+		{1, 2}, {1, 3}, {2, 4}, {2, 5}, {3, 5}, {3, 6},
+		{4, 7}, {4, 8}, {5, 8}, {5, 9}, {6, 9}, {6, 10},
+		// Directly behind
+		{1, 5}, {2, 8}, {3, 9}
+	};
+
+	/**
+	 * Mask of pins connected to each pin, indexed from 0.
+	 */
+	private static final int[] NEIGHBOURS = buildNeighbours();
+
+	/**
+	 * Split and washout flags for every leave.
+	 */
+	private static final byte[] FLAGS = buildFlags();
+
+	/**
+	 * Private constructor; this class only provides static methods.
+	 */
+	private Leaves() {
+	}
+
+	/**
+	 * Returns {@code true} if the given leave is a split.
+	 *
+	 * @param leave
+	 * @return
+	 */
+	public static boolean isSplit(int leave) {
+		return (FLAGS[leave] & SPLIT) != 0;
+	}
+
+	/**
+	 * Returns {@code true} if the given leave is a washout.
+	 *
+	 * @param leave
+	 * @return
+	 */
+	public static boolean isWashout(int leave) {
+		return (FLAGS[leave] & WASHOUT) != 0;
+	}
+
+	/**
+	 * Returns {@code true} if the given pin, numbered from 1, is standing in
+	 * the given leave.
+	 *
+	 * @param leave
+	 * @param pin
+	 * @return
+	 */
+	public static boolean isStanding(int leave, int pin) {
+		return (leave & pinMask(pin)) != 0;
+	}
+
+	/**
+	 * Returns the leave in which only the given pins, numbered from 1, are
+	 * standing.
+	 *
+	 * @param pins
+	 * @return
+	 */
+	public static int of(int... pins) {
+
+		int leave = 0;
+
+		for (int pin : pins)
+			leave |= pinMask(pin);
+
+		return leave;
+	}
+
+	/**
+	 * Returns the number of pins standing in the given leave.
+	 *
+	 * @param leave
+	 * @return
+	 */
+	public static int pinsStanding(int leave) {
+		return Integer.bitCount(leave);
+	}
+
+	/**
+	 * Returns the usual name for a leave, listing the pins standing in
+	 * ascending order separated by hyphens, such as "7-10".
+	 *
+	 * @param leave
+	 * @return
+	 */
+	public static String toString(int leave) {
+
+		if (leave == UNKNOWN)
+			return "?";
+
+		StringBuilder result = new StringBuilder();
+
+		for (int pin = 1; pin <= Constants.TOTAL_PINS; pin++) {
+			if (isStanding(leave, pin)) {
+				if (result.length() > 0)
+					result.append('-');
+				result.append(pin);
+			}
+		}
+
+		return result.toString();
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Returns the mask for a single pin, numbered from 1.
+	 */
+	private static int pinMask(int pin) {
+		return 1 << (pin - 1);
+	}
+
+	/**
+	 * Builds the mask of connected pins for each pin.
+	 */
+	private static int[] buildNeighbours() {
+
+		int[] result = new int[Constants.TOTAL_PINS];
+
+		for (int[] pair : CONNECTED_PINS) {
+			result[pair[0] - 1] |= pinMask(pair[1]);
+			result[pair[1] - 1] |= pinMask(pair[0]);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Classifies every leave by counting its groups of connected pins.
+	 */
+	private static byte[] buildFlags() {
+
+		byte[] result = new byte[NUMBER_OF_LEAVES];
+
+		for (int leave = 0; leave < NUMBER_OF_LEAVES; leave++) {
+
+			if (countGroups(leave) < 2)
+				continue;
+
+			result[leave] = ((leave & pinMask(HEAD_PIN)) == 0) ? SPLIT : WASHOUT;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the number of groups of connected pins in the given leave.
+	 */
+	private static int countGroups(int leave) {
+
+		int groups = 0;
+		int remaining = leave;
+
+		while (remaining != 0) {
+
+			// Grow a group from the lowest standing pin
+			int group = Integer.lowestOneBit(remaining);
+			int previous = 0;
+
+			while (group != previous) {
+				previous = group;
+
+				for (int pin = 0; pin < Constants.TOTAL_PINS; pin++) {
+					if ((group & (1 << pin)) != 0)
+						group |= NEIGHBOURS[pin] & leave;
+				}
+			}
+
+			remaining &= ~group;
+			groups++;
+		}
+
+		return groups;
+	}
+}
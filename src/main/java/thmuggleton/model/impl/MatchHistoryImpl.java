@@ -0,0 +1,138 @@
+package thmuggleton.model.impl;
+
+import java.util.List;
+
+import thmuggleton.Constants;
+import thmuggleton.model.MatchHistory;
+import thmuggleton.model.exceptions.BowlingException;
+
+/**
+ * Immutable history of a match, copied from its roll log.
+ * <p>
+ * The shots of each player are kept together, in the order in which the
+ * player played them, so the shots a player had played at any point are
+ * the first of their shots. The number of those is found from a compact
+ * checkpoint, holding the number of shots each player had played every
+ * {@link RollLog#COUNT_INTERVAL} shots of the match, and fewer than
+ * that many shots after it. Reading the state at any point therefore
+ * takes the same time however long the match.
+ *
+ * @author Thomas Muggleton
+ */
+final class MatchHistoryImpl implements MatchHistory {
+
+	// Constants
+	private static final int INTERVAL = RollLog.COUNT_INTERVAL;
+	private static final int ROLLS_PER_PLAYER = Constants.MAX_ROLLS_PER_GAME;
+
+	// Fields
+	private final long version;
+	private final String[] players;
+	private final byte[] rollPlayers;
+	private final int[] playerRolls;
+	private final byte[] checkpoints;
+
+	/**
+	 * Copies the shots played and not taken back from the given log.
+	 *
+	 * @param log
+	 * @param players names of the players in playing order.
+	 * @param version of the match from which the history is taken.
+	 */
+	MatchHistoryImpl(RollLog log, List<String> players, long version) {
+
+		this.version = version;
+		this.players = players.toArray(new String[players.size()]);
+
+		int length = log.getLength();
+		int numberOfPlayers = this.players.length;
+
+		rollPlayers = new byte[length];
+		playerRolls = new int[numberOfPlayers * ROLLS_PER_PLAYER];
+		checkpoints = new byte[(length / INTERVAL + 1) * numberOfPlayers];
+
+		// Counts fit in a byte, since a game has at most 21 shots
+		byte[] counts = new byte[numberOfPlayers];
+
+		for (int i = 0; i < length; i++) {
+
+			if (i % INTERVAL == 0)
+				System.arraycopy(counts, 0, checkpoints, (i / INTERVAL) * numberOfPlayers, numberOfPlayers);
+
+			int player = log.getPlayer(i);
+			rollPlayers[i] = (byte) player;
+			playerRolls[player * ROLLS_PER_PLAYER + counts[player]] = log.getScore(i);
+			counts[player]++;
+		}
+
+		// Keep a checkpoint after the last shot if it starts an interval
+		if (length % INTERVAL == 0)
+			System.arraycopy(counts, 0, checkpoints, (length / INTERVAL) * numberOfPlayers, numberOfPlayers);
+	}
+
+	@Override
+	public int getNumberOfRolls() {
+		return rollPlayers.length;
+	}
+
+	@Override
+	public int getNumberOfPlayers() {
+		return players.length;
+	}
+
+	@Override
+	public String getPlayer(int player) {
+		return players[player];
+	}
+
+	@Override
+	public int getPlayerOfRoll(int index) {
+
+		if (index < 0 || index >= rollPlayers.length)
+			throw new BowlingException("Shot " + index + " has not been played");
+
+		return rollPlayers[index];
+	}
+
+	@Override
+	public int getNumberOfRollsAt(int player, int rolls) {
+
+		if (rolls < 0 || rolls > rollPlayers.length)
+			throw new BowlingException("Only " + rollPlayers.length + " shots have been played");
+
+		// Start from the checkpoint at or before the given shot
+		int checkpoint = rolls / INTERVAL;
+		int count = checkpoints[checkpoint * players.length + player];
+
+		for (int i = checkpoint * INTERVAL; i < rolls; i++) {
+			if (rollPlayers[i] == player)
+				count++;
+		}
+
+		return count;
+	}
+
+	@Override
+	public int copyRollsAt(int player, int rolls, int[] dst, int off) {
+
+		int count = this.getNumberOfRollsAt(player, rolls);
+		System.arraycopy(playerRolls, player * ROLLS_PER_PLAYER, dst, off, count);
+
+		return count;
+	}
+
+	@Override
+	public int getTotalScoreAt(int player, int rolls) {
+		return GameRules.score(playerRolls, player * ROLLS_PER_PLAYER,
+				this.getNumberOfRollsAt(player, rolls));
+	}
+
+	/**
+	 * Returns the version of the match from which this history was taken.
+	 *
+	 * @return
+	 */
+	long getVersion() {
+		return version;
+	}
+}
@@ -1,19 +1,27 @@
 package thmuggleton.model.impl;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.StampedLock;
 
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
 import thmuggleton.Constants;
+import thmuggleton.diagnostics.ListenerDispatchEvent;
+import thmuggleton.diagnostics.ScoreEvent;
+import thmuggleton.metrics.LatencyTrace;
+import thmuggleton.metrics.Metrics;
 import thmuggleton.model.Frame;
 import thmuggleton.model.Match;
+import thmuggleton.model.MatchHistory;
+import thmuggleton.model.MatchSnapshot;
 import thmuggleton.model.exceptions.BowlingException;
 
 /**
@@ -24,12 +32,29 @@ import thmuggleton.model.exceptions.BowlingException;
  */
 public class MatchImpl implements Match {
 
+	// Constants
+	private static final int MAX_OPTIMISTIC_READS = 64;
+	private static final AtomicReferenceFieldUpdater<MatchImpl, MatchSnapshotImpl> SNAPSHOT =
+			AtomicReferenceFieldUpdater.newUpdater(MatchImpl.class, MatchSnapshotImpl.class, "snapshot");
+	
 	// Fields
 	private Map<String, GameImpl> match;
+	private List<GameImpl> spareGames;
 	private List<String> players;
 	private int currentPlayerIndex = 0;
 	private Set<String> leaders;
-	private Collection<ChangeListener> changeListeners;
+	private Set<String> clinched;
+	private Set<String> eliminated;
+	private ChangeListenerList changeListeners;
+	private ChangeEvent changeEvent;
+	private final StampedLock lock;
+	private volatile long version;
+	private Thread writer;
+	private volatile MatchSnapshotImpl snapshot;
+	private RollLog rollLog;
+	private MatchHistoryImpl history;
+	private final int[] batchPositions;
+	private boolean notificationPending;
 	
 	/**
 	 * Default constructor
@@ -38,21 +63,68 @@ public class MatchImpl implements Match {
 		
 		// Initialise fields
 		match = new HashMap<String, GameImpl>();
+		spareGames = new ArrayList<GameImpl>(Constants.MAX_NUMBER_OF_PLAYERS);
 		players = new ArrayList<String>(Constants.MAX_NUMBER_OF_PLAYERS);
 		leaders = new HashSet<String>();
+		clinched = new HashSet<String>();
+		eliminated = new HashSet<String>();
 		
 		// Set change listeners to null until some are registered
 		changeListeners = null;
+		
+		// Create lock through which readers on other threads see
+		// consistent state
+		lock = new StampedLock();
+		version = 0;
+		writer = null;
+		snapshot = null;
+		
+		// Create log from which shots can be taken back
+		rollLog = new RollLog();
+		history = null;
+		
+		// Create positions through which a batch of scores is checked
+		batchPositions = new int[Constants.MAX_NUMBER_OF_PLAYERS];
 	}
 	
 	/**
-	 * Clears the existing data from this match.
+	 * Clears the existing data from this match. Listeners registered with
+	 * the frames of the match are removed, so that they are not kept alive
+	 * by anything still referring to the old frames; listeners registered
+	 * with the match itself are kept.
+	 * <p>
+	 * The games of the match, and their frames, are reset and kept for
+	 * the players of the next match, so frames returned by
+	 * {@link #getFrames(String)} must not be used once the match is
+	 * cleared.
 	 */
 	@Override
 	public void clear() {
-		match.clear();
-		players.clear();
-		leaders.clear();
+		
+		long stamp = this.beginWrite();
+		
+		try {
+			for (GameImpl game : match.values()) {
+				game.reset();
+				
+				if (spareGames.size() < Constants.MAX_NUMBER_OF_PLAYERS)
+					spareGames.add(game);
+			}
+			
+			match.clear();
+			players.clear();
+			currentPlayerIndex = 0;
+			leaders.clear();
+			clinched.clear();
+			eliminated.clear();
+			rollLog.clear();
+			
+			// Snapshots of the old match share nothing with the next one
+			snapshot = null;
+		}
+		finally {
+			this.endWrite(stamp, true);
+		}
 	}
 	
 	/**
@@ -75,8 +147,17 @@ public class MatchImpl implements Match {
 		
 		// Branch to add a new player and accompanying game
 		else {
-			match.put(playerName, new GameImpl());
-			players.add(playerName);
+			GameImpl game = spareGames.isEmpty() ? new GameImpl()
+					: spareGames.remove(spareGames.size() - 1);
+			long stamp = this.beginWrite();
+			
+			try {
+				match.put(playerName, game);
+				players.add(playerName);
+			}
+			finally {
+				this.endWrite(stamp, true);
+			}
 		}
 	}
 
@@ -90,36 +171,224 @@ public class MatchImpl implements Match {
 	 */
 	@Override
 	public boolean addScore(int score) {
+		return this.addScore(score, Leaves.UNKNOWN);
+	}
+	
+	/**
+	 * Adds the next score in the match, along with the pins left standing.
+	 * 
+	 * @param score
+	 * @param leave
+	 * @return
+	 */
+	@Override
+	public boolean addScore(int score, int leave) {
 		
-		// Validate that players have been added
-		if (players.size() <= 0)
-			throw new BowlingException("No players have been added to this match");
+		long start = System.nanoTime();
 		
-		// Retrieve current player
-		String currentPlayer = players.get(currentPlayerIndex);
+		// Only create an event while it is being recorded
+		ScoreEvent event = ScoreEvent.isRecorded() ? new ScoreEvent() : null;
 		
-		// Retrieve game associated with player and add score
-		GameImpl game = match.get(currentPlayer);
-		boolean frameComplete = game.addScore(score);
+		if (event != null)
+			event.begin();
 		
-		// Increment player index if frame complete, or wrap to first player
-		if (frameComplete) {
-			currentPlayerIndex++;
+		String currentPlayer;
+		GameImpl game;
+		int frameIndex;
+		boolean changed = false;
+		long stamp = this.beginWrite();
+		
+		try {
 			
-			if(currentPlayerIndex >= players.size())
-				currentPlayerIndex = 0;
+			// Validate that players have been added
+			if (players.size() <= 0)
+				throw new BowlingException("No players have been added to this match");
+			
+			// Retrieve current player and the game to which the score is added
+			currentPlayer = players.get(currentPlayerIndex);
+			game = match.get(currentPlayer);
+			frameIndex = game.getCurrentFrameIndex();
+			
+			// A score that is rejected leaves the match, and its version,
+			// unchanged
+			this.playScore(score, leave);
+			changed = true;
+		}
+		finally {
+			this.endWrite(stamp, changed);
 		}
 		
-		// Determine whether this score affects leaders
-		this.updateLeaders(currentPlayer, score);
+		// Notify listeners of the change, and that a game is complete, once
+		// the change is visible to readers on other threads
+		this.notifyPendingListeners(game.isFinished());
 		
-		// Notify listeners that a game is complete
-		if (game.isFinished())
-			this.notifyListeners();
+		Metrics.MATCH_ADD_SCORE.recordSince(start);
+		
+		if (event != null) {
+			event.end();
+			
+			if (event.shouldCommit()) {
+				event.player = currentPlayer;
+				event.frame = frameIndex + 1;
+				event.score = score;
+				event.gameFinished = game.isFinished();
+				event.commit();
+			}
+		}
 		
 		return game.isFinished();
 	}
 
+	/**
+	 * Adds the next score in the match if it is valid.
+	 * 
+	 * @param score
+	 * @return
+	 */
+	@Override
+	public int tryAddScore(int score) {
+		return this.tryAddScore(score, Leaves.UNKNOWN);
+	}
+	
+	/**
+	 * Adds the next score in the match, along with the pins left standing,
+	 * if they are valid. The score is checked before anything is changed,
+	 * so a rejected score costs a few comparisons rather than an exception.
+	 * 
+	 * @param score
+	 * @param leave
+	 * @return
+	 */
+	@Override
+	public int tryAddScore(int score, int leave) {
+		
+		if (players.size() <= 0)
+			return NO_PLAYERS;
+		
+		int status = match.get(players.get(currentPlayerIndex)).checkScore(score, leave);
+		
+		if (status != ROLL_ADDED)
+			return status;
+		
+		return this.addScore(score, leave) ? GAME_COMPLETE : ROLL_ADDED;
+	}
+
+	/**
+	 * Adds the given scores in turn as a single change. The scores are
+	 * checked against the position each player would reach before any are
+	 * added, then added under one write, and listeners are told once if the
+	 * leaders or any player's chances changed or a game was completed.
+	 * 
+	 * @param scores
+	 * @param off
+	 * @param len
+	 * @return
+	 */
+	@Override
+	public int addScores(int[] scores, int off, int len) {
+		
+		if (players.size() <= 0)
+			return NO_PLAYERS;
+		
+		boolean gameFinished = false;
+		boolean changed = false;
+		long stamp = this.beginWrite();
+		
+		try {
+			int status = this.checkScores(scores, off, len);
+			
+			if (status != ROLL_ADDED)
+				return status;
+			
+			changed = len > 0;
+			
+			for (int i = off; i < off + len; i++)
+				gameFinished |= this.playScore(scores[i], Leaves.UNKNOWN);
+		}
+		finally {
+			this.endWrite(stamp, changed);
+		}
+		
+		// Notify listeners of every change at once, when the batch is
+		// visible to readers on other threads
+		this.notifyPendingListeners(gameFinished);
+		
+		return len;
+	}
+
+	/**
+	 * Takes back up to the given number of shots. The number of shots each
+	 * player had played is found from the counts the roll log keeps every
+	 * {@link RollLog#COUNT_INTERVAL} shots, and the game of each player
+	 * whose shots were taken back is played again from its first shot,
+	 * from its own packed storage. No state of the games is kept along the
+	 * way; a game has at most 21 shots, so the cost does not grow with the
+	 * length of the match.
+	 * Listeners of frames are only told of the frames that may have
+	 * changed.
+	 * 
+	 * @param count
+	 * @return
+	 */
+	@Override
+	public int undo(int count) {
+		
+		int undone = Math.min(count, rollLog.getLength());
+		
+		if (undone <= 0)
+			return 0;
+		
+		long stamp = this.beginWrite();
+		
+		try {
+			int index = rollLog.getLength() - undone;
+			rollLog.rewind(index);
+			
+			// Take back the shots of each player who played since
+			for (int i = 0; i < players.size(); i++)
+				match.get(players.get(i)).rewind(rollLog.getCount(i));
+			
+			// The next shot is played by whoever played the first shot
+			// taken back
+			currentPlayerIndex = rollLog.getPlayer(index);
+			
+			this.recalculateStandings();
+			
+			// Snapshots taken before the shots taken back are played again
+			// differently share nothing with the match
+			snapshot = null;
+		}
+		finally {
+			this.endWrite(stamp, true);
+		}
+		
+		// Leaders may have changed, and a finished match is resumed
+		this.notifyPendingListeners(true);
+		
+		return undone;
+	}
+	
+	/**
+	 * Plays again up to the given number of the shots last taken back,
+	 * as if their scores were added again.
+	 * 
+	 * @param count
+	 * @return
+	 */
+	@Override
+	public int redo(int count) {
+		
+		int redone = 0;
+		
+		while (redone < count && rollLog.getNumberUndone() > 0) {
+			int index = rollLog.getLength();
+			this.addScore(rollLog.getScore(index), rollLog.getLeave(index));
+			redone++;
+		}
+		
+		return redone;
+	}
+
 	/**
 	 * Returns an array of frames for a given player.
 	 * 
@@ -131,6 +400,209 @@ public class MatchImpl implements Match {
 		return match.get(playerName).getFrames();
 	}
 
+	/**
+	 * Returns the number of shots the given player has played.
+	 * 
+	 * @param playerName
+	 * @return
+	 */
+	@Override
+	public int getNumberOfRolls(String playerName) {
+		return match.get(playerName).getNumberOfRolls();
+	}
+	
+	/**
+	 * Returns the score for the given shot played by the given player.
+	 * 
+	 * @param playerName
+	 * @param index
+	 * @return
+	 * @throws BowlingException if the shot has not been played.
+	 */
+	@Override
+	public int getRoll(String playerName, int index) {
+		return match.get(playerName).getRoll(index);
+	}
+	
+	/**
+	 * Copies the score for every shot the given player has played into the
+	 * given array, straight from the packed storage of the player's game.
+	 * <p>
+	 * Unlike the other methods of this class, this may be called from any
+	 * thread while scores are being added. The copy is made optimistically,
+	 * without locking, and made again if the match changed while it was
+	 * being read; only if the match keeps changing does the reader wait for
+	 * a change to finish.
+	 * 
+	 * @param playerName
+	 * @param dst
+	 * @param off
+	 * @return
+	 * @throws BowlingException if the player is not in the match.
+	 */
+	@Override
+	public int copyRolls(String playerName, int[] dst, int off) {
+		
+		// Read directly when called back by a listener during a change
+		if (writer == Thread.currentThread())
+			return this.getPlayerGame(playerName).copyRolls(dst, off);
+		
+		for (int attempt = 0; attempt < MAX_OPTIMISTIC_READS; attempt++) {
+			
+			long stamp = lock.tryOptimisticRead();
+			
+			// Branch for change in progress
+			if (stamp == 0)
+				continue;
+			
+			GameImpl game;
+			int count;
+			
+			// A change made while copying can leave the state read
+			// inconsistent, so failures only count once validated
+			try {
+				game = match.get(playerName);
+				count = (game != null) ? game.copyRolls(dst, off) : 0;
+			}
+			catch (RuntimeException e) {
+				if (lock.validate(stamp))
+					throw e;
+				
+				continue;
+			}
+			
+			if (lock.validate(stamp)) {
+				if (game == null)
+					throw new BowlingException("Player " + playerName + " is not in this match");
+				
+				return count;
+			}
+		}
+		
+		// Fall back to waiting for the change in progress
+		long stamp = lock.readLock();
+		
+		try {
+			return this.getPlayerGame(playerName).copyRolls(dst, off);
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	/**
+	 * Returns an immutable snapshot of the match. The last snapshot taken
+	 * is returned if the match has not changed since; otherwise a new one
+	 * is built that shares every game without new shots with the last.
+	 * <p>
+	 * This may be called from any thread. Like
+	 * {@link #copyRolls(String, int[], int)}, the snapshot is built
+	 * optimistically, without holding up changes, and built again if the
+	 * match changed meanwhile; only if the match keeps changing does the
+	 * reader wait for a change to finish. A snapshot is only kept for
+	 * later readers if no other has been kept since it was started.
+	 * 
+	 * @return
+	 */
+	@Override
+	public MatchSnapshot snapshot() {
+		
+		MatchSnapshotImpl current = snapshot;
+		
+		// Branch for listener called back during a change; the state is
+		// not yet a version that can be shared with other readers, and the
+		// version kept may be the one before the change
+		if (writer == Thread.currentThread())
+			return MatchSnapshotImpl.update(current, this, version, currentPlayerIndex);
+		
+		if (current != null && current.getVersion() == version)
+			return current;
+		
+		for (int attempt = 0; attempt < MAX_OPTIMISTIC_READS; attempt++) {
+			
+			long stamp = lock.tryOptimisticRead();
+			
+			// Branch for change in progress
+			if (stamp == 0)
+				continue;
+			
+			MatchSnapshotImpl previous = snapshot;
+			MatchSnapshotImpl built;
+			
+			// A change made while building can leave the state read
+			// inconsistent, so failures only count once validated
+			try {
+				built = MatchSnapshotImpl.update(previous, this, version, currentPlayerIndex);
+			}
+			catch (RuntimeException e) {
+				if (lock.validate(stamp))
+					throw e;
+				
+				continue;
+			}
+			
+			if (lock.validate(stamp))
+				return this.keepSnapshot(previous, built);
+		}
+		
+		// Fall back to waiting for the change in progress
+		long stamp = lock.readLock();
+		
+		try {
+			MatchSnapshotImpl previous = snapshot;
+			
+			return this.keepSnapshot(previous,
+					MatchSnapshotImpl.update(previous, this, version, currentPlayerIndex));
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	/**
+	 * Returns an immutable history of the shots played so far. The last
+	 * history is returned if the match has not changed since; otherwise a
+	 * new one is copied from the roll log, which holds at most a few
+	 * hundred shots.
+	 * 
+	 * @return
+	 */
+	@Override
+	public MatchHistory history() {
+		
+		// Branch for listener called back during a change, before the
+		// version moves on; the history is not kept
+		if (writer == Thread.currentThread())
+			return new MatchHistoryImpl(rollLog, players, version);
+		
+		if (history == null || history.getVersion() != version)
+			history = new MatchHistoryImpl(rollLog, players, version);
+		
+		return history;
+	}
+	
+	/**
+	 * Returns a number that changes whenever a player or score is added,
+	 * shots are taken back or the match is cleared. Like {@link #copyRolls(String, int[], int)},
+	 * this may be called from any thread.
+	 * 
+	 * @return
+	 */
+	@Override
+	public long version() {
+		return version;
+	}
+	
+	/**
+	 * Returns the names of the players in this match, in playing order.
+	 * 
+	 * @return
+	 */
+	@Override
+	public List<String> getPlayers() {
+		return Collections.unmodifiableList(players);
+	}
+
 	/**
 	 * Returns the total score for the given player.
 	 * 
@@ -152,6 +624,27 @@ public class MatchImpl implements Match {
 		return leaders;
 	}
 	
+	/**
+	 * Returns the player who is certain to win the match however the
+	 * remaining shots are played, if any.
+	 * 
+	 * @return
+	 */
+	@Override
+	public Set<String> getClinched() {
+		return clinched;
+	}
+	
+	/**
+	 * Returns the players who can no longer win the match.
+	 * 
+	 * @return
+	 */
+	@Override
+	public Set<String> getEliminated() {
+		return eliminated;
+	}
+	
 	/**
 	 * Returns {@Code true} if all players in this match have
 	 * recorded scores for all of their frames.
@@ -171,9 +664,176 @@ public class MatchImpl implements Match {
 		return true;
 	}
 	
+	/**
+	 * Returns the number of players in this match.
+	 * 
+	 * @return
+	 */
+	protected int getNumberOfPlayers() {
+		return players.size();
+	}
+	
+	/**
+	 * Returns the name of the player at the given index, in the order in
+	 * which players were added.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	protected String getPlayer(int index) {
+		return players.get(index);
+	}
+	
+	/**
+	 * Returns the game for the given player.
+	 * 
+	 * @param playerName
+	 * @return
+	 */
+	protected GameImpl getGame(String playerName) {
+		return match.get(playerName);
+	}
+	
 	/* ****************
 	 *  HELPER METHODS
 	 * ****************/
+
+	/**
+	 * Starts a change to the match, which readers on other threads see
+	 * either in full or not at all. Only one thread may change the match,
+	 * so the lock is never contended by another writer.
+	 * 
+	 * @return stamp to pass to {@link #endWrite(long, boolean)}.
+	 */
+	private long beginWrite() {
+		
+		long stamp = lock.writeLock();
+		writer = Thread.currentThread();
+		
+		return stamp;
+	}
+	
+	/**
+	 * Ends a change to the match, moving readers on to the new version if
+	 * anything was changed.
+	 * 
+	 * @param stamp returned by {@link #beginWrite()}.
+	 * @param changed {@code false} if the change was rejected before the
+	 * match was changed.
+	 */
+	private void endWrite(long stamp, boolean changed) {
+		
+		if (changed)
+			version++;
+		
+		writer = null;
+		lock.unlockWrite(stamp);
+	}
+	
+	/**
+	 * Keeps the given snapshot for later readers, unless another has been
+	 * kept, or the kept snapshot dropped, since the given previous snapshot
+	 * was read.
+	 * 
+	 * @param previous kept snapshot from which the given one was built.
+	 * @param built
+	 * @return the given snapshot.
+	 */
+	private MatchSnapshotImpl keepSnapshot(MatchSnapshotImpl previous, MatchSnapshotImpl built) {
+		
+		SNAPSHOT.compareAndSet(this, previous, built);
+		
+		return built;
+	}
+	
+	/**
+	 * Returns the game for the given player.
+	 * 
+	 * @param playerName
+	 * @return
+	 * @throws BowlingException if the player is not in the match.
+	 */
+	private GameImpl getPlayerGame(String playerName) {
+		
+		GameImpl game = match.get(playerName);
+		
+		if (game == null)
+			throw new BowlingException("Player " + playerName + " is not in this match");
+		
+		return game;
+	}
+	
+	/**
+	 * Adds the given score to the game of the current player and moves on
+	 * to the next player once the frame is complete. Must be called within
+	 * a write.
+	 * 
+	 * @param score
+	 * @param leave
+	 * @return {@code true} if the game of the player is then finished.
+	 */
+	private boolean playScore(int score, int leave) {
+		
+		String currentPlayer = players.get(currentPlayerIndex);
+		GameImpl game = match.get(currentPlayer);
+		boolean frameComplete = game.addScore(score, leave);
+		rollLog.append(currentPlayerIndex, score, leave);
+		
+		// Increment player index if frame complete, or wrap to first player
+		if (frameComplete) {
+			currentPlayerIndex++;
+			
+			if(currentPlayerIndex >= players.size())
+				currentPlayerIndex = 0;
+		}
+		
+		// Determine whether this score affects leaders, or decides
+		// who can still win
+		long leaderStart = System.nanoTime();
+		this.updateLeaders(currentPlayer, score);
+		this.updateContention();
+		Metrics.LEADER_UPDATE.recordSince(leaderStart);
+		
+		return game.isFinished();
+	}
+	
+	/**
+	 * Checks that the given scores can be added in turn, following the
+	 * position each player would reach without changing any game.
+	 * 
+	 * @param scores
+	 * @param off
+	 * @param len
+	 * @return {@link #ROLL_ADDED} if every score can be added, otherwise the
+	 *         status for the first that cannot.
+	 */
+	private int checkScores(int[] scores, int off, int len) {
+		
+		for (int i = 0; i < players.size(); i++)
+			batchPositions[i] = match.get(players.get(i)).getPosition();
+		
+		int player = currentPlayerIndex;
+		
+		for (int i = off; i < off + len; i++) {
+			
+			int position = batchPositions[player];
+			
+			if (position == GameRules.COMPLETE)
+				return GAME_FINISHED;
+			
+			if (!GameRules.isValidScore(position, scores[i]))
+				return INVALID_SCORE;
+			
+			position = GameRules.advance(position, scores[i]);
+			batchPositions[player] = position;
+			
+			// Move on to the next player once the frame is complete
+			if (position == GameRules.COMPLETE || GameRules.ballOf(position) == 0)
+				player = (player + 1) % players.size();
+		}
+		
+		return ROLL_ADDED;
+	}
 	
 	/**
 	 * Determines who currently has the top score in this
@@ -219,6 +879,99 @@ public class MatchImpl implements Match {
 		this.notifyListeners();
 	}
 	
+	/**
+	 * Determines the leaders, and the players who have clinched the match
+	 * or been eliminated, from the current scores rather than from the
+	 * last change, as is needed once shots are taken back. Players who have
+	 * not yet played are not leaders, as when scores are added.
+	 */
+	private void recalculateStandings() {
+		
+		leaders.clear();
+		clinched.clear();
+		eliminated.clear();
+		
+		int leadingScore = -1;
+		
+		for (int i = 0; i < players.size(); i++) {
+			
+			if (rollLog.getCount(i) == 0)
+				continue;
+			
+			String player = players.get(i);
+			int score = this.getTotalScore(player);
+			
+			if (score > leadingScore) {
+				leaders.clear();
+				leadingScore = score;
+			}
+			
+			if (score == leadingScore)
+				leaders.add(player);
+		}
+		
+		this.updateContention();
+	}
+	
+	/**
+	 * Determines which player, if any, has clinched the match and which
+	 * players have been eliminated, and notifies listeners if either has
+	 * changed. Each player's range of possible final scores is available in
+	 * constant time, so this only needs two passes over the players.
+	 */
+	private void updateContention() {
+		
+		// A match cannot be clinched or lost without an opponent
+		if (players.size() < 2)
+			return;
+		
+		// Find the two highest minimum and maximum final scores
+		String highestMinimumPlayer = null, highestMaximumPlayer = null;
+		int highestMinimum = -1, secondMinimum = -1;
+		int highestMaximum = -1, secondMaximum = -1;
+		
+		for (String player : players) {
+			GameImpl game = match.get(player);
+			int minimum = game.getMinimumFinalScore();
+			int maximum = game.getMaximumFinalScore();
+			
+			if (minimum > highestMinimum) {
+				secondMinimum = highestMinimum;
+				highestMinimum = minimum;
+				highestMinimumPlayer = player;
+			}
+			else if (minimum > secondMinimum)
+				secondMinimum = minimum;
+			
+			if (maximum > highestMaximum) {
+				secondMaximum = highestMaximum;
+				highestMaximum = maximum;
+				highestMaximumPlayer = player;
+			}
+			else if (maximum > secondMaximum)
+				secondMaximum = maximum;
+		}
+		
+		// Compare each player against the best of their opponents
+		boolean changed = false;
+		
+		for (String player : players) {
+			GameImpl game = match.get(player);
+			int opponentsMinimum = player.equals(highestMinimumPlayer) ? secondMinimum : highestMinimum;
+			int opponentsMaximum = player.equals(highestMaximumPlayer) ? secondMaximum : highestMaximum;
+			
+			if (game.getMinimumFinalScore() > opponentsMaximum)
+				changed |= clinched.add(player);
+			
+			if (game.getMaximumFinalScore() < opponentsMinimum)
+				changed |= eliminated.add(player);
+		}
+		
+		// Notify listeners that a player has clinched or been eliminated
+		if (changed)
+			this.notifyListeners();
+	}
+	
 	/* **************************
 	 *  OBSERVER PATTERN METHODS
 	 * **************************/
@@ -231,23 +984,99 @@ public class MatchImpl implements Match {
 	 */
 	public void addChangeListener(ChangeListener listener) {
 		
-		// Initialise collection for first change listener
+		// Initialise list for first change listener
 		if (changeListeners == null)
-			changeListeners = new ArrayList<ChangeListener>();
+			changeListeners = new ChangeListenerList();
 		
 		changeListeners.add(listener);
 	}
 	
 	/**
-	 * Passes the given change event to all registered change listeners.
+	 * Adds a change listener to this match through a weak reference, so
+	 * that the listener is dropped once nothing else refers to it.
 	 * 
-	 * @param changeEvent
+	 * @param listener
+	 */
+	public void addWeakChangeListener(ChangeListener listener) {
+		
+		// Initialise list for first change listener
+		if (changeListeners == null)
+			changeListeners = new ChangeListenerList();
+		
+		changeListeners.addWeak(listener);
+	}
+	
+	/**
+	 * Removes a change listener from this match, whether it was added
+	 * directly or weakly.
+	 * 
+	 * @param listener
+	 */
+	public void removeChangeListener(ChangeListener listener) {
+		if (changeListeners != null)
+			changeListeners.remove(listener);
+	}
+	
+	/**
+	 * Passes the change event to all registered change listeners, or, if
+	 * called during a change, holds the notification back until the change
+	 * has ended; see {@link #notifyPendingListeners(boolean)}.
 	 */
 	private void notifyListeners() {
 		
+		if (writer == Thread.currentThread()) {
+			notificationPending = true;
+			return;
+		}
+		
 		if (changeListeners != null) {
-			for (ChangeListener listener : changeListeners)
-				listener.stateChanged(new ChangeEvent(this));
+			
+			// Events only carry their source, so one is shared by all
+			// notifications, as Swing components do
+			if (changeEvent == null)
+				changeEvent = new ChangeEvent(this);
+			
+			long start = System.nanoTime();
+			ListenerDispatchEvent event = ListenerDispatchEvent.isRecorded()
+					? new ListenerDispatchEvent() : null;
+			
+			if (event != null)
+				event.begin();
+			
+			changeListeners.fire(changeEvent);
+			
+			long elapsed = System.nanoTime() - start;
+			Metrics.MATCH_LISTENER_DISPATCH.record(elapsed);
+			LatencyTrace.dispatched(elapsed);
+			
+			if (event != null) {
+				event.end();
+				
+				if (event.shouldCommit()) {
+					event.source = "Match";
+					event.listeners = changeListeners.size();
+					event.total = -1;
+					event.commit();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Notifies listeners once of the notifications held back during the
+	 * change just ended. Listeners are only called once the change is
+	 * visible to readers on other threads and the lock has been released,
+	 * so a listener that blocks, e.g. by showing a dialog, does not hold up
+	 * readers, and a listener may change the match itself.
+	 * 
+	 * @param notify whether to notify listeners even if no notification
+	 * was held back.
+	 */
+	private void notifyPendingListeners(boolean notify) {
+		
+		if (notify || notificationPending) {
+			notificationPending = false;
+			this.notifyListeners();
 		}
 	}
 
@@ -0,0 +1,143 @@
+package thmuggleton.model.impl;
+
+import thmuggleton.model.MatchSnapshot;
+
+/**
+ * Implementation of the MatchSnapshot interface, built by
+ * {@link MatchImpl#snapshot()}.
+ * <p>
+ * Each snapshot holds an array with a {@link GameSnapshot} for each player.
+ * Taking a new snapshot replaces only the games in which shots have been
+ * played since the last one and shares every other game, together with the
+ * array of player names unless a player has been added, so a snapshot after
+ * each shot costs a few small objects however long the match.
+ *
+ * @author Thomas Muggleton
+ */
+final class MatchSnapshotImpl implements MatchSnapshot {
+
+	// Fields
+	private final long version;
+	private final String[] players;
+	private final GameSnapshot[] games;
+	private final int currentPlayer;
+
+	/**
+	 * Constructor
+	 */
+	private MatchSnapshotImpl(long version, String[] players, GameSnapshot[] games, int currentPlayer) {
+		this.version = version;
+		this.players = players;
+		this.games = games;
+		this.currentPlayer = currentPlayer;
+	}
+
+	/**
+	 * Returns a snapshot of the given match at the given version, sharing
+	 * the players and games that are unchanged since the given previous
+	 * snapshot; this must be {@code null} if the match has been cleared or
+	 * taken back since.
+	 * 
+	 * @param previous
+	 * @param match
+	 * @param version
+	 * @param currentPlayer
+	 * @return
+	 */
+	static MatchSnapshotImpl update(MatchSnapshotImpl previous, MatchImpl match, long version,
+			int currentPlayer) {
+
+		int numberOfPlayers = match.getNumberOfPlayers();
+		int shared = (previous != null) ? previous.players.length : 0;
+		String[] players;
+
+		// Branch for unchanged players
+		if (previous != null && shared == numberOfPlayers)
+			players = previous.players;
+
+		else {
+			players = new String[numberOfPlayers];
+
+			for (int i = 0; i < numberOfPlayers; i++)
+				players[i] = match.getPlayer(i);
+		}
+
+		GameSnapshot[] games = new GameSnapshot[numberOfPlayers];
+
+		for (int i = 0; i < numberOfPlayers; i++) {
+			GameSnapshot game = (i < shared) ? previous.games[i] : GameSnapshot.EMPTY;
+			games[i] = game.update(match.getGame(players[i]));
+		}
+
+		return new MatchSnapshotImpl(version, players, games, currentPlayer);
+	}
+
+	// GETTERS
+	@Override
+	public long getVersion() {
+		return version;
+	}
+	@Override
+	public int getNumberOfPlayers() {
+		return players.length;
+	}
+	@Override
+	public String getPlayer(int player) {
+		return players[player];
+	}
+	@Override
+	public int getCurrentPlayer() {
+		return currentPlayer;
+	}
+	@Override
+	public int getNumberOfRolls(int player) {
+		return games[player].getNumberOfRolls();
+	}
+	@Override
+	public int getRoll(int player, int index) {
+		return games[player].getRoll(index);
+	}
+	@Override
+	public int copyRolls(int player, int[] dst, int off) {
+		return games[player].copyRolls(dst, off);
+	}
+	@Override
+	public int getTotalScore(int player) {
+		return games[player].getTotalScore();
+	}
+	@Override
+	public boolean isFinished(int player) {
+		return games[player].getPosition() == GameRules.COMPLETE;
+	}
+	@Override
+	public boolean isFinished() {
+
+		for (GameSnapshot game : games) {
+			if (game.getPosition() != GameRules.COMPLETE)
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the snapshot of the given player's game.
+	 * 
+	 * @param player
+	 * @return
+	 */
+	GameSnapshot getGame(int player) {
+		return games[player];
+	}
+	
+	/**
+	 * Returns the position reached by the given player; see
+	 * {@link GameRules}.
+	 * 
+	 * @param player
+	 * @return
+	 */
+	int getPosition(int player) {
+		return games[player].getPosition();
+	}
+}
@@ -0,0 +1,260 @@
+package thmuggleton.model.impl;
+
+import java.nio.CharBuffer;
+
+import thmuggleton.Constants;
+
+/**
+ * Reads and writes games in the notation of a score sheet: {@code X} for a
+ * strike, {@code /} for a spare, {@code -} for a shot that knocks down no
+ * pins and a digit for any other shot, with frames separated by {@code |},
+ * e.g. {@code X|7/|9-|X|-8|8/|-6|X|X|X81}.
+ * <p>
+ * Shots are read into and written from a caller's {@code int} array, and
+ * text is read from any {@link CharSequence} and written to a
+ * {@link CharBuffer}, so neither reading nor writing a game allocates.
+ * Rather than throwing exceptions, both return a negative error code for
+ * text or shots that do not make a valid game, so that text can be checked
+ * as it is typed. Reading can start from any position within a game, as
+ * tracked by {@link GameRules}, so a game can be read a frame at a time.
+ *
+ * @author Thomas Muggleton
+ */
+public final class Notation {
+
+	/**
+	 * Character for a strike.
+	 */
+	public static final char STRIKE = 'X';
+
+	/**
+	 * Character for a spare.
+	 */
+	public static final char SPARE = '/';
+
+	/**
+	 * Character for a shot that knocks down no pins.
+	 */
+	public static final char MISS = '-';
+
+	/**
+	 * Character separating frames.
+	 */
+	public static final char SEPARATOR = '|';
+
+	/**
+	 * Error returned when the text contains a character that is not part of
+	 * the notation.
+	 */
+	public static final int INVALID_CHARACTER = -1;
+
+	/**
+	 * Error returned when a mark cannot be played from the position reached,
+	 * such as a spare at a rack that has just been set, a strike at one that
+	 * has not, including after a shot that knocked down no pins, or a digit
+	 * greater than the number of pins standing.
+	 */
+	public static final int INVALID_MARK = -2;
+
+	/**
+	 * Error returned when frames are separated part way through a frame.
+	 */
+	public static final int MISPLACED_SEPARATOR = -3;
+
+	/**
+	 * Error returned when the text holds shots after the end of the game.
+	 */
+	public static final int TOO_MANY_SHOTS = -4;
+
+	/**
+	 * Error returned when the array has no room for the shots read.
+	 */
+	public static final int ARRAY_TOO_SMALL = -5;
+
+	/**
+	 * Error returned when the shots to write are not a valid game.
+	 */
+	public static final int INVALID_SCORE = -6;
+
+	/**
+	 * Error returned when the buffer has no room for the text written.
+	 */
+	public static final int BUFFER_TOO_SMALL = -7;
+
+	/**
+	 * Private constructor; this class only provides static methods.
+	 */
+	private Notation() {
+	}
+
+	/**
+	 * Reads the shots of a game from the given text into the given array.
+	 *
+	 * @param text
+	 * @param dst array into which to read the score for each shot.
+	 * @param off index in the array of the first shot read.
+	 * @return the number of shots read, or a negative error code.
+	 */
+	public static int parse(CharSequence text, int[] dst, int off) {
+		return parse(text, 0, text.length(), GameRules.INITIAL_POSITION, 0, dst, off);
+	}
+
+	/**
+	 * Reads shots from the given range of the given text into the given
+	 * array, continuing a game from the given position. Separators are only
+	 * accepted where a frame starts; a separator before the first shot of a
+	 * frame that has already been started is an error.
+	 *
+	 * @param text
+	 * @param start index of the first character to read.
+	 * @param end index after the last character to read.
+	 * @param position within the game of the first shot read; see
+	 * {@link GameRules}.
+	 * @param lastScore score for the shot that reached the position; see
+	 * {@link GameRules#isNewRack(int, int)}.
+	 * @param dst array into which to read the score for each shot.
+	 * @param off index in the array of the first shot read.
+	 * @return the number of shots read, or a negative error code.
+	 */
+	public static int parse(CharSequence text, int start, int end, int position, int lastScore,
+			int[] dst, int off) {
+
+		int count = 0;
+
+		for (int i = start; i < end; i++) {
+
+			char c = text.charAt(i);
+
+			// Separators and spaces are only allowed between frames
+			if (c == SEPARATOR || c == ' ') {
+				if (position != GameRules.COMPLETE && GameRules.ballOf(position) != 0)
+					return MISPLACED_SEPARATOR;
+
+				continue;
+			}
+
+			int score = scoreOf(c, position, lastScore);
+
+			if (score < 0)
+				return score;
+
+			if (position == GameRules.COMPLETE)
+				return TOO_MANY_SHOTS;
+
+			if (off + count >= dst.length)
+				return ARRAY_TOO_SMALL;
+
+			dst[off + count++] = score;
+			position = GameRules.advance(position, score);
+			lastScore = score;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Writes the given shots, played from the start of a game, to the given
+	 * buffer. Nothing is written if an error is returned.
+	 *
+	 * @param scores array containing the score for each shot.
+	 * @param off index of the first shot in the array.
+	 * @param count number of shots to write.
+	 * @param dst
+	 * @return the number of characters written, or a negative error code.
+	 */
+	public static int format(int[] scores, int off, int count, CharBuffer dst) {
+
+		int start = dst.position();
+		int position = GameRules.INITIAL_POSITION;
+
+		for (int i = off; i < off + count; i++) {
+
+			int score = scores[i];
+
+			if (!GameRules.isValidScore(position, score)) {
+				dst.position(start);
+				return INVALID_SCORE;
+			}
+
+			// Separate frames, other than before the first
+			boolean separate = i > off && GameRules.ballOf(position) == 0;
+
+			if (dst.remaining() < (separate ? 2 : 1)) {
+				dst.position(start);
+				return BUFFER_TOO_SMALL;
+			}
+
+			if (separate)
+				dst.put(SEPARATOR);
+
+			boolean newRack = GameRules.isNewRack(position, (i > off) ? scores[i - 1] : 0);
+
+			dst.put(markOf(score, GameRules.pinsStanding(position), newRack));
+			position = GameRules.advance(position, score);
+		}
+
+		return dst.position() - start;
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Returns the score for the given character played from the given
+	 * position, or a negative error code. A strike can only be played at a
+	 * rack that has just been set, and a spare at any other.
+	 *
+	 * @param c
+	 * @param position
+	 * @param lastScore score for the shot that reached the position.
+	 * @return
+	 */
+	private static int scoreOf(char c, int position, int lastScore) {
+
+		// Treat the end of the game as a new rack, so that further shots
+		// are read and rejected as too many
+		boolean complete = position == GameRules.COMPLETE;
+		int standing = complete ? Constants.TOTAL_PINS : GameRules.pinsStanding(position);
+		boolean newRack = complete || GameRules.isNewRack(position, lastScore);
+
+		switch (c) {
+
+		case STRIKE :
+		case 'x' :
+			return newRack ? Constants.TOTAL_PINS : INVALID_MARK;
+
+		case SPARE :
+			return newRack ? INVALID_MARK : standing;
+
+		case MISS :
+			return 0;
+
+		default :
+			if (c < '0' || c > '9')
+				return INVALID_CHARACTER;
+
+			return (c - '0' <= standing) ? c - '0' : INVALID_MARK;
+		}
+	}
+
+	/**
+	 * Returns the character for the given score with the given number of
+	 * pins standing.
+	 *
+	 * @param score
+	 * @param standing
+	 * @param newRack whether the pins standing have just been set.
+	 * @return
+	 */
+	private static char markOf(int score, int standing, boolean newRack) {
+
+		if (score == standing && score > 0)
+			return newRack ? STRIKE : SPARE;
+
+		else if (score == 0)
+			return MISS;
+
+		return (char) ('0' + score);
+	}
+}
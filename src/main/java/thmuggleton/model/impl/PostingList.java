@@ -0,0 +1,211 @@
+package thmuggleton.model.impl;
+
+import java.util.Arrays;
+
+import thmuggleton.model.exceptions.BowlingException;
+
+/**
+ * Append-only, compressed list of ascending ball positions.
+ * <p>
+ * Each position is stored as the gap from the previous position encoded as a
+ * variable-length integer, so the dense lists typical of a single player or
+ * a common leave take one or two bytes per ball. A skip entry is kept every
+ * {@link #SKIP_INTERVAL} positions so that a {@link Cursor} can jump close to
+ * a target position without decoding everything before it, which is what
+ * makes intersecting a short list with a long one cheap.
+ *
+ * @author Thomas Muggleton
+ */
+public class PostingList {
+
+	/**
+	 * Value returned by a cursor once every position has been read.
+	 */
+	public static final int NO_MORE_POSITIONS = Integer.MAX_VALUE;
+
+	// Constants
+	private static final int SKIP_INTERVAL = 128;
+	private static final int INITIAL_CAPACITY = 16;
+
+	// Fields
+	private byte[] data;
+	private int length;
+	private int size;
+	private int last;
+	private int[] skipPositions;
+	private int[] skipOffsets;
+	private int[] skipBases;
+
+	/**
+	 * Constructor
+	 */
+	public PostingList() {
+		data = new byte[INITIAL_CAPACITY];
+		length = 0;
+		size = 0;
+		last = -1;
+		skipPositions = new int[INITIAL_CAPACITY];
+		skipOffsets = new int[INITIAL_CAPACITY];
+		skipBases = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Appends the given position, which must be greater than every position
+	 * already in the list.
+	 *
+	 * @param position
+	 * @throws BowlingException if the position is out of order.
+	 */
+	public void add(int position) {
+
+		if (position <= last)
+			throw new BowlingException("Positions must be added in ascending order");
+
+		// Record a skip entry at the start of each block
+		if (size % SKIP_INTERVAL == 0) {
+			int block = size / SKIP_INTERVAL;
+
+			if (block == skipPositions.length) {
+				skipPositions = Arrays.copyOf(skipPositions, block * 2);
+				skipOffsets = Arrays.copyOf(skipOffsets, block * 2);
+				skipBases = Arrays.copyOf(skipBases, block * 2);
+			}
+
+			skipPositions[block] = position;
+			skipOffsets[block] = length;
+			skipBases[block] = last;
+		}
+
+		// Ensure room for the longest variable-length integer
+		if (length + 5 > data.length)
+			data = Arrays.copyOf(data, data.length * 2);
+
+		int gap = position - last;
+
+		while ((gap & ~0x7F) != 0) {
+			data[length++] = (byte) ((gap & 0x7F) | 0x80);
+			gap >>>= 7;
+		}
+
+		data[length++] = (byte) gap;
+		last = position;
+		size++;
+	}
+
+	/**
+	 * Returns the number of positions in the list.
+	 *
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of bytes used to hold the positions.
+	 *
+	 * @return
+	 */
+	public int getEncodedLength() {
+		return length;
+	}
+
+	/**
+	 * Returns a new cursor positioned before the first position.
+	 *
+	 * @return
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * Reads positions from the list in ascending order. A cursor sees
+	 * positions added after it was created.
+	 */
+	public class Cursor {
+
+		// Fields
+		private int offset;
+		private int index;
+		private int current;
+
+		/**
+		 * Constructor
+		 */
+		private Cursor() {
+			offset = 0;
+			index = 0;
+			current = -1;
+		}
+
+		/**
+		 * Returns the position last returned by this cursor, or -1 if none
+		 * has been read.
+		 *
+		 * @return
+		 */
+		public int current() {
+			return current;
+		}
+
+		/**
+		 * Moves to and returns the next position, or
+		 * {@link PostingList#NO_MORE_POSITIONS} if there are none left.
+		 *
+		 * @return
+		 */
+		public int next() {
+
+			if (index >= size)
+				return current = NO_MORE_POSITIONS;
+
+			int gap = 0;
+			int shift = 0;
+			byte b;
+
+			do {
+				b = data[offset++];
+				gap |= (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+
+			index++;
+			return current = current + gap;
+		}
+
+		/**
+		 * Moves to and returns the first position at or after the given
+		 * target, or {@link PostingList#NO_MORE_POSITIONS} if there is none.
+		 * The cursor never moves backwards.
+		 *
+		 * @param target
+		 * @return
+		 */
+		public int advance(int target) {
+
+			if (current >= target)
+				return current;
+
+			// Jump ahead to the last block starting at or before the target
+			int block = index / SKIP_INTERVAL;
+			int blocks = (size + SKIP_INTERVAL - 1) / SKIP_INTERVAL;
+			int skip = block;
+
+			while (skip + 1 < blocks && skipPositions[skip + 1] <= target)
+				skip++;
+
+			if (skip > block) {
+				offset = skipOffsets[skip];
+				index = skip * SKIP_INTERVAL;
+				current = skipBases[skip];
+			}
+
+			// Decode the remaining positions within the block
+			while (this.next() < target)
+				;
+
+			return current;
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package thmuggleton.model.impl;
+
+import java.util.SplittableRandom;
+
+import thmuggleton.Constants;
+
+/**
+ * Records how many pins a player knocks down for each number of pins left
+ * standing, and samples further shots from those frequencies.
+ * <p>
+ * Every possible outcome starts with a count of one so that a player with
+ * little or no history can still be simulated. Instances are not thread-safe;
+ * use {@link #copy()} to hand a distribution to another thread.
+ *
+ * @author Thomas Muggleton
+ */
+public final class RollDistribution {
+
+	// Constants
+	private static final int OUTCOMES = Constants.TOTAL_PINS + 1;
+
+	// Fields
+	private final int[] counts;
+	private final int[] totals;
+
+	/**
+	 * Constructor; creates a distribution containing only the prior count for
+	 * each outcome.
+	 */
+	public RollDistribution() {
+
+		counts = new int[OUTCOMES * OUTCOMES];
+		totals = new int[OUTCOMES];
+
+		for (int standing = 0; standing < OUTCOMES; standing++) {
+			for (int score = 0; score <= standing; score++)
+				counts[standing * OUTCOMES + score] = 1;
+
+			totals[standing] = standing + 1;
+		}
+	}
+
+	/**
+	 * Copy constructor.
+	 */
+	private RollDistribution(RollDistribution other) {
+		this.counts = other.counts.clone();
+		this.totals = other.totals.clone();
+	}
+
+	/**
+	 * Records a single shot.
+	 *
+	 * @param pinsStanding number of pins standing before the shot.
+	 * @param score number of pins knocked down.
+	 */
+	public void record(int pinsStanding, int score) {
+		counts[pinsStanding * OUTCOMES + score]++;
+		totals[pinsStanding]++;
+	}
+
+	/**
+	 * Records every shot in the given sequence, which must start at the
+	 * beginning of a game.
+	 *
+	 * @param scores array containing the scores for each shot.
+	 * @param off index of the first shot in the array.
+	 * @param count number of shots played.
+	 */
+	public void recordGame(int[] scores, int off, int count) {
+
+		int position = GameRules.INITIAL_POSITION;
+
+		for (int i = off; i < (off + count) && position != GameRules.COMPLETE; i++) {
+			this.record(GameRules.pinsStanding(position), scores[i]);
+			position = GameRules.advance(position, scores[i]);
+		}
+	}
+
+	/**
+	 * Returns a random score for a shot at the given number of pins.
+	 *
+	 * @param random source of randomness.
+	 * @param pinsStanding number of pins standing before the shot.
+	 * @return
+	 */
+	public int sample(SplittableRandom random, int pinsStanding) {
+
+		int base = pinsStanding * OUTCOMES;
+		int remaining = random.nextInt(totals[pinsStanding]);
+
+		for (int score = 0; score < pinsStanding; score++) {
+			remaining -= counts[base + score];
+
+			if (remaining < 0)
+				return score;
+		}
+
+		return pinsStanding;
+	}
+
+	/**
+	 * Returns an independent copy of this distribution.
+	 *
+	 * @return
+	 */
+	public RollDistribution copy() {
+		return new RollDistribution(this);
+	}
+}
@@ -0,0 +1,165 @@
+package thmuggleton.model.impl;
+
+import java.util.Arrays;
+
+import thmuggleton.Constants;
+
+/**
+ * Records every shot of a match in playing order, so that shots can be
+ * taken back and played again. Shots taken back are kept until a different
+ * shot is played in their place.
+ * <p>
+ * Every {@link #COUNT_INTERVAL} shots, the number of shots each player has
+ * played is kept, so that the number each had played before any earlier
+ * shot is found from the counts kept at the start of its interval and
+ * fewer than {@link #COUNT_INTERVAL} shots after them. Only these counts
+ * are kept, not the state of the games, which are played again from their
+ * own shots when shots are taken back. A match cannot have more
+ * shots than its players' games, so all storage is created up front.
+ *
+ * @author Thomas Muggleton
+ */
+final class RollLog {
+
+	// Constants
+	static final int COUNT_INTERVAL = 16;
+	private static final int CAPACITY = Constants.MAX_NUMBER_OF_PLAYERS * Constants.MAX_ROLLS_PER_GAME;
+	private static final int PLAYERS = Constants.MAX_NUMBER_OF_PLAYERS;
+
+	// Fields
+	private final int[] players;
+	private final int[] scores;
+	private final int[] leaves;
+	private final int[] intervalCounts;
+	private final int[] counts;
+	private int length;
+	private int end;
+
+	/**
+	 * Creates an empty log.
+	 */
+	RollLog() {
+		players = new int[CAPACITY];
+		scores = new int[CAPACITY];
+		leaves = new int[CAPACITY];
+		intervalCounts = new int[(CAPACITY / COUNT_INTERVAL + 1) * PLAYERS];
+		counts = new int[PLAYERS];
+	}
+
+	/**
+	 * Removes every shot from the log, including any taken back.
+	 */
+	void clear() {
+		length = 0;
+		end = 0;
+		Arrays.fill(counts, 0);
+	}
+
+	/**
+	 * Records a shot played by the given player. Shots taken back are kept
+	 * if the shot is the same as the next of them, and discarded otherwise.
+	 *
+	 * @param player index of the player in playing order.
+	 * @param score
+	 * @param leave mask of pins left standing, or {@link Leaves#UNKNOWN}.
+	 */
+	void append(int player, int score, int leave) {
+
+		// Branch for the shot taken back being played again
+		if (length < end && players[length] == player && scores[length] == score
+				&& leaves[length] == leave) {
+			counts[player]++;
+			length++;
+			return;
+		}
+
+		// Keep the counts before the shot at the start of each interval
+		if (length % COUNT_INTERVAL == 0)
+			System.arraycopy(counts, 0, intervalCounts, (length / COUNT_INTERVAL) * PLAYERS, PLAYERS);
+
+		players[length] = player;
+		scores[length] = score;
+		leaves[length] = leave;
+		counts[player]++;
+		length++;
+		end = length;
+	}
+
+	/**
+	 * Takes back every shot from the given index, restoring the number of
+	 * shots each player has played from the counts kept at the start of
+	 * the interval holding the index.
+	 *
+	 * @param index of the first shot to take back.
+	 */
+	void rewind(int index) {
+
+		int interval = index / COUNT_INTERVAL;
+		System.arraycopy(intervalCounts, interval * PLAYERS, counts, 0, PLAYERS);
+
+		for (int i = interval * COUNT_INTERVAL; i < index; i++)
+			counts[players[i]]++;
+
+		length = index;
+	}
+
+	/**
+	 * Returns the number of shots played and not taken back.
+	 *
+	 * @return
+	 */
+	int getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns the number of shots that have been taken back and can be
+	 * played again.
+	 *
+	 * @return
+	 */
+	int getNumberUndone() {
+		return end - length;
+	}
+
+	/**
+	 * Returns the number of shots the given player has played and not
+	 * taken back.
+	 *
+	 * @param player index of the player in playing order.
+	 * @return
+	 */
+	int getCount(int player) {
+		return counts[player];
+	}
+
+	/**
+	 * Returns the index of the player who played the given shot.
+	 *
+	 * @param index
+	 * @return
+	 */
+	int getPlayer(int index) {
+		return players[index];
+	}
+
+	/**
+	 * Returns the score of the given shot.
+	 *
+	 * @param index
+	 * @return
+	 */
+	int getScore(int index) {
+		return scores[index];
+	}
+
+	/**
+	 * Returns the pins left standing after the given shot.
+	 *
+	 * @param index
+	 * @return
+	 */
+	int getLeave(int index) {
+		return leaves[index];
+	}
+}
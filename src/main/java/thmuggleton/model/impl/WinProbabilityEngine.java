@@ -0,0 +1,455 @@
+package thmuggleton.model.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import thmuggleton.Constants;
+import thmuggleton.model.MatchSnapshot;
+
+/**
+ * Estimates each player's chance of winning a match that is in progress by
+ * completing the remaining frames of every game many times at random.
+ * <p>
+ * Shots are drawn from a {@link RollDistribution} for each player, made up of
+ * their history (if any has been set) plus the shots they have played so far
+ * in the match. Calling {@link #refresh()} after each score takes a snapshot
+ * of the match and restarts the simulation in the background, spread across
+ * all available cores. Estimates are published to change listeners after each
+ * round of trials until the time budget or trial limit is reached, so the
+ * caller never waits for the simulation.
+ * <p>
+ * {@link #refresh()} and {@link #setHistory(String, RollDistribution)} must be
+ * called on the thread that updates the match; change listeners are notified
+ * on a background thread.
+ *
+ * @author Thomas Muggleton
+ */
+public class WinProbabilityEngine {
+
+	// Constants
+	private static final long ROUND_NANOS = TimeUnit.MILLISECONDS.toNanos(25);
+	private static final int TRIALS_PER_CHECK = 256;
+	private static final int NOT_CANCELLABLE = -1;
+
+	// Fields
+	private final MatchImpl match;
+	private final long timeBudgetNanos;
+	private final long maxTrials;
+	private final int parallelism;
+	private final ExecutorService coordinator;
+	private final AtomicInteger generation;
+	private final SplittableRandom seeds;
+	private final Map<String, RollDistribution> history;
+	private final Collection<ChangeListener> changeListeners;
+	private volatile Map<String, Double> winProbabilities;
+	private volatile long trials;
+
+	/**
+	 * Constructor; uses the default time budget and trial limit.
+	 *
+	 * @param match the match for which to estimate win probabilities.
+	 */
+	public WinProbabilityEngine(MatchImpl match) {
+		this(match, Constants.WIN_PROBABILITY_TIME_BUDGET_MILLIS,
+				Constants.WIN_PROBABILITY_MAX_TRIALS);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param match the match for which to estimate win probabilities.
+	 * @param timeBudgetMillis maximum time to spend simulating after each
+	 * refresh.
+	 * @param maxTrials maximum number of simulated matches after each refresh.
+	 */
+	public WinProbabilityEngine(MatchImpl match, long timeBudgetMillis, long maxTrials) {
+
+		this.match = match;
+		this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+		this.maxTrials = maxTrials;
+		this.parallelism = Runtime.getRuntime().availableProcessors();
+		this.generation = new AtomicInteger();
+		this.seeds = new SplittableRandom();
+		this.history = new HashMap<String, RollDistribution>();
+		this.changeListeners = new CopyOnWriteArrayList<ChangeListener>();
+		this.winProbabilities = Collections.emptyMap();
+
+		// Run simulations on a single background thread which fans
+		// out each round of trials to the common fork-join pool
+		this.coordinator = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "win-probability");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Sets the historical shot distribution for the given player, which is
+	 * combined with the shots they play in the match.
+	 *
+	 * @param playerName
+	 * @param distribution
+	 */
+	public void setHistory(String playerName, RollDistribution distribution) {
+		history.put(playerName, distribution.copy());
+	}
+
+	/**
+	 * Takes a snapshot of the match and restarts the simulation in the
+	 * background, abandoning any simulation still running for an earlier
+	 * snapshot.
+	 */
+	public void refresh() {
+
+		final Snapshot snapshot = new Snapshot(match.snapshot(), history);
+		final int run = generation.incrementAndGet();
+		final long seed = seeds.nextLong();
+
+		coordinator.execute(new Runnable() {
+			@Override
+			public void run() {
+				simulate(snapshot, run, seed);
+			}
+		});
+	}
+
+	/**
+	 * Runs the given number of trials for the current state of the match on
+	 * the calling thread and returns the result; intended for tests and
+	 * batch analysis where a repeatable answer is required.
+	 *
+	 * @param trials number of simulated matches.
+	 * @param seed seed for the random number generator.
+	 * @return Map between each player and their chance of winning.
+	 */
+	public Map<String, Double> estimate(long trials, long seed) {
+
+		Snapshot snapshot = new Snapshot(match.snapshot(), history);
+		Worker worker = new Worker(snapshot, new SplittableRandom(seed), NOT_CANCELLABLE);
+
+		worker.prepareRound(snapshot.isDecided() ? 1 : trials, Long.MAX_VALUE);
+		worker.runTrials();
+
+		return snapshot.toProbabilities(worker.wins, worker.trials);
+	}
+
+	/**
+	 * Returns the most recently published chance of winning for each player,
+	 * in the order in which the players were added.
+	 *
+	 * @return
+	 */
+	public Map<String, Double> getWinProbabilities() {
+		return winProbabilities;
+	}
+
+	/**
+	 * Returns the number of simulated matches behind the most recently
+	 * published estimate.
+	 *
+	 * @return
+	 */
+	public long getTrials() {
+		return trials;
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Runs rounds of trials for the given snapshot across all cores until the
+	 * time budget or trial limit is reached, publishing the estimate after
+	 * each round.
+	 */
+	private void simulate(Snapshot snapshot, int run, long seed) {
+
+		// Nothing to simulate for an empty match
+		if (snapshot.players.length == 0) {
+			this.publish(snapshot, run, new double[0], 0);
+			return;
+		}
+
+		// Create one worker per core, each with an independent random stream
+		SplittableRandom random = new SplittableRandom(seed);
+		List<Worker> workers = new ArrayList<Worker>(parallelism);
+
+		for (int i = 0; i < parallelism; i++)
+			workers.add(new Worker(snapshot, random.split(), run));
+
+		// A single trial settles a match in which every game is complete
+		long trialsPerWorker = snapshot.isDecided() ? 1 : (maxTrials + parallelism - 1) / parallelism;
+		long start = System.nanoTime();
+		double[] wins = new double[snapshot.players.length];
+
+		while (!this.isCancelled(run)) {
+
+			// Run the next round of trials on all workers
+			long elapsed = System.nanoTime() - start;
+			long roundDeadline = start + Math.min(timeBudgetNanos, elapsed + ROUND_NANOS);
+
+			for (Worker worker : workers)
+				worker.prepareRound(trialsPerWorker, roundDeadline);
+
+			ForkJoinPool.commonPool().invokeAll(workers);
+
+			// Combine results from all workers
+			long totalTrials = 0;
+			boolean trialLimitReached = true;
+
+			for (int i = 0; i < wins.length; i++)
+				wins[i] = 0;
+
+			for (Worker worker : workers) {
+				totalTrials += worker.trials;
+				trialLimitReached &= worker.trials >= trialsPerWorker;
+
+				for (int i = 0; i < wins.length; i++)
+					wins[i] += worker.wins[i];
+			}
+
+			this.publish(snapshot, run, wins, totalTrials);
+
+			// Stop once the trial limit or time budget is reached
+			if (trialLimitReached || (System.nanoTime() - start) >= timeBudgetNanos)
+				return;
+		}
+	}
+
+	/**
+	 * Publishes an estimate if no later snapshot has been taken.
+	 */
+	private void publish(Snapshot snapshot, int run, double[] wins, long trials) {
+
+		if (this.isCancelled(run))
+			return;
+
+		this.winProbabilities = snapshot.toProbabilities(wins, trials);
+		this.trials = trials;
+		this.notifyListeners();
+	}
+
+	/**
+	 * Returns {@code true} if a later snapshot has replaced the given run.
+	 */
+	private boolean isCancelled(int run) {
+		return run != NOT_CANCELLABLE && generation.get() != run;
+	}
+
+	/* **************************
+	 *  OBSERVER PATTERN METHODS
+	 * **************************/
+
+	/**
+	 * Adds a change listener which is informed, on a background thread,
+	 * whenever a new estimate is published.
+	 *
+	 * @param listener
+	 */
+	public void addChangeListener(ChangeListener listener) {
+		changeListeners.add(listener);
+	}
+
+	/**
+	 * Passes a change event to all registered change listeners.
+	 */
+	private void notifyListeners() {
+
+		ChangeEvent event = new ChangeEvent(this);
+
+		for (ChangeListener listener : changeListeners)
+			listener.stateChanged(event);
+	}
+
+	/**
+	 * State of every game in the match needed by the simulation, taken from
+	 * an immutable snapshot of the match on the thread that updates it.
+	 */
+	private static final class Snapshot {
+
+		// Fields
+		private final MatchSnapshot match;
+		private final String[] players;
+		private final int[] positions;
+		private final RollDistribution[] distributions;
+
+		/**
+		 * Constructor
+		 */
+		private Snapshot(MatchSnapshot match, Map<String, RollDistribution> history) {
+
+			int numberOfPlayers = match.getNumberOfPlayers();
+			int[] scores = new int[Constants.MAX_ROLLS_PER_GAME];
+
+			this.match = match;
+			players = new String[numberOfPlayers];
+			positions = new int[numberOfPlayers];
+			distributions = new RollDistribution[numberOfPlayers];
+
+			for (int i = 0; i < numberOfPlayers; i++) {
+
+				// Find where each game has got to
+				players[i] = match.getPlayer(i);
+				int count = match.copyRolls(i, scores, 0);
+				positions[i] = GameRules.position(scores, 0, count);
+
+				// Combine history with shots played in this match
+				RollDistribution playerHistory = history.get(players[i]);
+				distributions[i] = (playerHistory != null) ? playerHistory.copy() : new RollDistribution();
+				distributions[i].recordGame(scores, 0, count);
+			}
+		}
+
+		/**
+		 * Returns {@code true} if every game in the snapshot is complete.
+		 */
+		private boolean isDecided() {
+
+			for (int position : positions) {
+				if (position != GameRules.COMPLETE)
+					return false;
+			}
+
+			return true;
+		}
+
+		/**
+		 * Converts accumulated wins into a Map between each player and their
+		 * chance of winning.
+		 */
+		private Map<String, Double> toProbabilities(double[] wins, long trials) {
+
+			Map<String, Double> result = new LinkedHashMap<String, Double>();
+
+			for (int i = 0; i < players.length; i++)
+				result.put(players[i], (trials > 0) ? wins[i] / trials : 0.0);
+
+			return Collections.unmodifiableMap(result);
+		}
+	}
+
+	/**
+	 * Completes the remaining frames of every game in a snapshot repeatedly.
+	 * All buffers are allocated up front so that trials allocate nothing.
+	 */
+	private final class Worker implements Callable<Void> {
+
+		// Fields
+		private final Snapshot snapshot;
+		private final SplittableRandom random;
+		private final int run;
+		private final int[] buffer;
+		private final int[] finals;
+		private final double[] wins;
+		private long trials;
+		private long trialLimit;
+		private long deadline;
+
+		/**
+		 * Constructor
+		 */
+		private Worker(Snapshot snapshot, SplittableRandom random, int run) {
+			this.snapshot = snapshot;
+			this.random = random;
+			this.run = run;
+			this.buffer = new int[Constants.MAX_ROLLS_PER_GAME];
+			this.finals = new int[snapshot.players.length];
+			this.wins = new double[snapshot.players.length];
+		}
+
+		/**
+		 * Sets the cumulative trial limit and the deadline for the next round.
+		 */
+		private void prepareRound(long trialLimit, long deadline) {
+			this.trialLimit = trialLimit;
+			this.deadline = deadline;
+		}
+
+		@Override
+		public Void call() {
+			this.runTrials();
+			return null;
+		}
+
+		/**
+		 * Runs trials in batches until the trial limit or deadline is reached
+		 * or the run is cancelled.
+		 */
+		private void runTrials() {
+
+			while (trials < trialLimit && !isCancelled(run)) {
+
+				long batchEnd = Math.min(trialLimit, trials + TRIALS_PER_CHECK);
+
+				for (; trials < batchEnd; trials++)
+					this.playOnce();
+
+				if (deadline != Long.MAX_VALUE && (System.nanoTime() - deadline) >= 0)
+					return;
+			}
+		}
+
+		/**
+		 * Completes every game once and shares the win between the players
+		 * with the highest final score.
+		 */
+		private void playOnce() {
+
+			int best = -1;
+			int numberOfLeaders = 0;
+
+			for (int player = 0; player < finals.length; player++) {
+
+				// Start from the shots played so far
+				int count = snapshot.match.copyRolls(player, buffer, 0);
+				int position = snapshot.positions[player];
+				RollDistribution distribution = snapshot.distributions[player];
+
+				// Play out the remaining shots
+				while (position != GameRules.COMPLETE) {
+					int score = distribution.sample(random, GameRules.pinsStanding(position));
+					buffer[count++] = score;
+					position = GameRules.advance(position, score);
+				}
+
+				// Track the leading final score
+				int total = GameRules.score(buffer, 0, count);
+				finals[player] = total;
+
+				if (total > best) {
+					best = total;
+					numberOfLeaders = 1;
+				}
+				else if (total == best)
+					numberOfLeaders++;
+			}
+
+			double share = 1.0 / numberOfLeaders;
+
+			for (int player = 0; player < finals.length; player++) {
+				if (finals[player] == best)
+					wins[player] += share;
+			}
+		}
+	}
+}
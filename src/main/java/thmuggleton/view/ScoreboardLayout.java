@@ -0,0 +1,87 @@
+package thmuggleton.view;
+
+import thmuggleton.Constants;
+
+/**
+ * Defines the layout shared by the scoreboards that are drawn rather than
+ * built from components, and the marks shown for each shot on every
+ * scoreboard, so that all of them show a match in the same way.
+ *
+ * @author Thomas Muggleton
+ */
+public final class ScoreboardLayout {
+
+	/**
+	 * Width of the box holding a player's name.
+	 */
+	public static final int NAME_WIDTH = 100;
+
+	/**
+	 * Width of the box for each frame other than the last.
+	 */
+	public static final int FRAME_WIDTH = 48;
+
+	/**
+	 * Width of the box for the last frame, which has room for three shots.
+	 */
+	public static final int LAST_FRAME_WIDTH = 66;
+
+	/**
+	 * Width of the box holding a player's total.
+	 */
+	public static final int TOTAL_WIDTH = 56;
+
+	/**
+	 * Height of the row for each player.
+	 */
+	public static final int ROW_HEIGHT = 40;
+
+	/**
+	 * Width of the box for each shot within a frame.
+	 */
+	public static final int SHOT_WIDTH = 22;
+
+	/**
+	 * Width of a whole row, including the line on its right-hand edge.
+	 */
+	public static final int WIDTH = NAME_WIDTH + (Constants.NUMBER_OF_FRAMES - 1) * FRAME_WIDTH
+			+ LAST_FRAME_WIDTH + TOTAL_WIDTH + 1;
+
+	/**
+	 * Private constructor; this class only provides constants and static
+	 * methods.
+	 */
+	private ScoreboardLayout() {
+	}
+
+	/**
+	 * Returns the mark shown for the given shot of a frame, or {@code null}
+	 * if the number of pins knocked down is shown instead. A strike is only
+	 * shown for a shot at a full rack, and a spare for any other shot that
+	 * knocks down every pin standing, including a second shot of ten after
+	 * a first that knocked down none.
+	 *
+	 * @param first score for the first shot of the frame.
+	 * @param second score for the second shot of the frame; only read for
+	 * the third shot.
+	 * @param shot index of the shot within the frame.
+	 * @param score score for the shot.
+	 * @return {@link View#STRIKE_CHARACTER}, {@link View#SPARE_CHARACTER}
+	 *         or {@code null}.
+	 */
+	public static String markOf(int first, int second, int shot, int score) {
+
+		// Pins are set again for the second shot after a strike, and for the
+		// third after two strikes or a spare
+		boolean fullRack = (shot == 0)
+				|| (shot == 1 && first == Constants.TOTAL_PINS)
+				|| (shot == 2 && (first != Constants.TOTAL_PINS || second == Constants.TOTAL_PINS));
+
+		int previous = (shot == 2) ? second : first;
+
+		if (fullRack)
+			return (score == Constants.TOTAL_PINS) ? View.STRIKE_CHARACTER : null;
+
+		return (previous + score == Constants.TOTAL_PINS) ? View.SPARE_CHARACTER : null;
+	}
+}
@@ -0,0 +1,395 @@
+package thmuggleton.view;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Set;
+
+import thmuggleton.Constants;
+import thmuggleton.model.Frame;
+import thmuggleton.model.Match;
+
+/**
+ * Writes the scoreboard of a match as an SVG image, read straight from the
+ * frames of each player rather than painted from the components that show
+ * them, so no Swing components are needed.
+ * <p>
+ * The image is streamed to the writer through a small buffer, passed on a
+ * block at a time rather than element by element. Its grid, marks and
+ * totals follow the scoreboard, with the names of the leaders and of
+ * players who can no longer win highlighted in the same colours. The boxes
+ * of a row are written once and referred to by each player's row, so the
+ * image holds little more than the marks and totals; it scales to any size
+ * and a finished match takes a few kilobytes. Numbers are formatted into the
+ * buffer, so writing a match does not allocate apart from what the given
+ * writer does; a writer can be reused for any number of matches, but only
+ * by one thread at a time.
+ *
+ * @author Thomas Muggleton
+ */
+public class ScoreboardSvgWriter {
+
+	// Constants
+	private static final int NAME_WIDTH = ScoreboardLayout.NAME_WIDTH;
+	private static final int FRAME_WIDTH = ScoreboardLayout.FRAME_WIDTH;
+	private static final int LAST_FRAME_WIDTH = ScoreboardLayout.LAST_FRAME_WIDTH;
+	private static final int TOTAL_WIDTH = ScoreboardLayout.TOTAL_WIDTH;
+	private static final int ROW_HEIGHT = ScoreboardLayout.ROW_HEIGHT;
+	private static final int SHOT_WIDTH = ScoreboardLayout.SHOT_WIDTH;
+	private static final int WIDTH = ScoreboardLayout.WIDTH;
+	private static final int LAST_FRAME = Constants.NUMBER_OF_FRAMES - 1;
+	private static final String STYLE = "<style>rect{fill:" + toHex(View.DEFAULT_PLAYER_COLOUR)
+			+ ";stroke:#000}.l{fill:" + toHex(View.LEADER_COLOUR)
+			+ "}.e{fill:" + toHex(View.ELIMINATED_COLOUR)
+			+ "}text{font:14px sans-serif}.m{text-anchor:middle}</style>\n";
+
+	private static final String GRID_ID = "g";
+	private static final int BUFFER_SIZE = 4096;
+
+	// Fields
+	private final char[] digits;
+	private final char[] buffer;
+	private int length;
+	private Writer out;
+
+	/**
+	 * Constructor
+	 */
+	public ScoreboardSvgWriter() {
+		digits = new char[Integer.toString(Integer.MIN_VALUE).length()];
+		buffer = new char[BUFFER_SIZE];
+	}
+
+	/**
+	 * Writes the scoreboard of the given match to the given writer, which
+	 * is neither flushed nor closed.
+	 *
+	 * @param match
+	 * @param out
+	 * @throws IOException if the writer cannot be written.
+	 */
+	public void write(Match match, Writer out) throws IOException {
+
+		this.out = out;
+
+		try {
+			this.writeMatch(match);
+			this.flushBuffer();
+		}
+		finally {
+			this.out = null;
+			this.length = 0;
+		}
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Writes the scoreboard of the given match.
+	 *
+	 * @param match
+	 * @throws IOException
+	 */
+	private void writeMatch(Match match) throws IOException {
+
+		List<String> players = match.getPlayers();
+		Set<String> leaders = match.getLeaders();
+		Set<String> eliminated = match.getEliminated();
+		int height = players.size() * ROW_HEIGHT + 1;
+
+		this.append("<svg xmlns=\"http://www.w3.org/2000/svg\""
+				+ " xmlns:xlink=\"http://www.w3.org/1999/xlink\" width=\"");
+		this.writeNumber(WIDTH);
+		this.append("\" height=\"");
+		this.writeNumber(height);
+		this.append("\" viewBox=\"0 0 ");
+		this.writeNumber(WIDTH);
+		this.append(' ');
+		this.writeNumber(height);
+		this.append("\">\n");
+		this.append(STYLE);
+		this.writeGrid();
+
+		for (int player = 0; player < players.size(); player++) {
+			String name = players.get(player);
+			String style = leaders.contains(name) ? "l" : eliminated.contains(name) ? "e" : null;
+
+			this.writePlayer(match, name, style, player * ROW_HEIGHT);
+		}
+
+		this.append("</svg>\n");
+	}
+
+	/**
+	 * Writes the boxes for the frames and total of a row, which are the same
+	 * for every player, once for each row to refer to.
+	 *
+	 * @throws IOException
+	 */
+	private void writeGrid() throws IOException {
+
+		int x = NAME_WIDTH;
+
+		this.append("<defs><g id=\"" + GRID_ID + "\">\n");
+
+		for (int frame = 0; frame < Constants.NUMBER_OF_FRAMES; frame++) {
+
+			int width = (frame == LAST_FRAME) ? LAST_FRAME_WIDTH : FRAME_WIDTH;
+			int shots = (frame == LAST_FRAME) ? Frame.LAST_FRAME : Frame.REGULAR_FRAME;
+
+			this.writeRect(x, 0, width, ROW_HEIGHT, null);
+
+			for (int shot = 0; shot < shots; shot++)
+				this.writeRect(x + width - (shots - shot) * SHOT_WIDTH, 0, SHOT_WIDTH, ROW_HEIGHT / 2, null);
+
+			x += width;
+		}
+
+		this.writeRect(x, 0, TOTAL_WIDTH, ROW_HEIGHT, null);
+		this.append("</g></defs>\n");
+	}
+
+	/**
+	 * Writes the name, frames and total of the given player.
+	 *
+	 * @param match
+	 * @param name
+	 * @param style class of the name box, or {@code null} for none.
+	 * @param y top of the row.
+	 * @throws IOException
+	 */
+	private void writePlayer(Match match, String name, String style, int y) throws IOException {
+
+		int half = ROW_HEIGHT / 2;
+
+		// Write name and the boxes of the row
+		this.writeRect(0, y, NAME_WIDTH, ROW_HEIGHT, style);
+		this.append("<use xlink:href=\"#" + GRID_ID + "\" y=\"");
+		this.writeNumber(y);
+		this.append("\"/>\n");
+		this.writeTextStart(4, y + 25, false);
+		this.writeEscaped(name);
+		this.append("</text>\n");
+
+		Frame[] frames = match.getFrames(name);
+		int x = NAME_WIDTH;
+
+		for (int i = 0; i < frames.length; i++) {
+
+			Frame frame = frames[i];
+			int width = (i == LAST_FRAME) ? LAST_FRAME_WIDTH : FRAME_WIDTH;
+			int shots = frame.getNumberOfBalls();
+			int firstScore = frame.getScore(0);
+			int secondScore = frame.getScore(1);
+
+			for (int shot = 0; shot < shots; shot++) {
+				int shotX = x + width - (shots - shot) * SHOT_WIDTH;
+				int score = frame.getScore(shot);
+
+				if (score == Frame.SCORE_UNSET)
+					continue;
+
+				this.writeTextStart(shotX + SHOT_WIDTH / 2, y + 15, true);
+
+				// Show marks as the scoreboard does
+				String mark = ScoreboardLayout.markOf(firstScore, secondScore, shot, score);
+
+				if (mark != null)
+					this.append(mark);
+				else
+					this.writeNumber(score);
+
+				this.append("</text>\n");
+			}
+
+			// Write total for the frame, if the frame has been started
+			if (firstScore != Frame.SCORE_UNSET) {
+				this.writeTextStart(x + 4, y + half + 15, false);
+				this.writeNumber(frame.getTotal());
+				this.append("</text>\n");
+			}
+
+			x += width;
+		}
+
+		// Write total for the game
+		this.writeTextStart(x + 4, y + 25, false);
+		this.writeNumber(match.getTotalScore(name));
+		this.append("</text>\n");
+	}
+
+	/**
+	 * Writes a rectangle with the given bounds.
+	 *
+	 * @param x
+	 * @param y
+	 * @param width
+	 * @param height
+	 * @param style class of the rectangle, or {@code null} for none.
+	 * @throws IOException
+	 */
+	private void writeRect(int x, int y, int width, int height, String style) throws IOException {
+
+		this.append("<rect x=\"");
+		this.writeNumber(x);
+		this.append("\" y=\"");
+		this.writeNumber(y);
+		this.append("\" width=\"");
+		this.writeNumber(width);
+		this.append("\" height=\"");
+		this.writeNumber(height);
+
+		if (style != null) {
+			this.append("\" class=\"");
+			this.append(style);
+		}
+
+		this.append("\"/>\n");
+	}
+
+	/**
+	 * Writes the start tag of a text element at the given position.
+	 *
+	 * @param x
+	 * @param y baseline of the text.
+	 * @param centred whether the text is centred on the position.
+	 * @throws IOException
+	 */
+	private void writeTextStart(int x, int y, boolean centred) throws IOException {
+
+		this.append(centred ? "<text class=\"m\" x=\"" : "<text x=\"");
+		this.writeNumber(x);
+		this.append("\" y=\"");
+		this.writeNumber(y);
+		this.append("\">");
+	}
+
+	/**
+	 * Writes the given number in decimal without creating a string.
+	 *
+	 * @param value
+	 * @throws IOException
+	 */
+	private void writeNumber(int value) throws IOException {
+
+		// Fill the buffer from the end, working with the negative value so
+		// that the minimum value does not overflow
+		int i = digits.length;
+		int remaining = (value < 0) ? value : -value;
+
+		do {
+			digits[--i] = (char) ('0' - remaining % 10);
+			remaining /= 10;
+		} while (remaining != 0);
+
+		if (value < 0)
+			digits[--i] = '-';
+
+		this.append(digits, i, digits.length - i);
+	}
+
+	/**
+	 * Writes the given text, escaping the characters that have a meaning
+	 * in XML.
+	 *
+	 * @param text
+	 * @throws IOException
+	 */
+	private void writeEscaped(String text) throws IOException {
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+
+			switch (c) {
+			case '&' :
+				this.append("&amp;");
+				break;
+			case '<' :
+				this.append("&lt;");
+				break;
+			case '>' :
+				this.append("&gt;");
+				break;
+			case '"' :
+				this.append("&quot;");
+				break;
+			default :
+				this.append(c);
+			}
+		}
+	}
+
+	/**
+	 * Adds the given text to the buffer, passing the buffer to the writer
+	 * whenever it fills.
+	 *
+	 * @param text
+	 * @throws IOException
+	 */
+	private void append(String text) throws IOException {
+
+		int off = 0;
+
+		while (off < text.length()) {
+			if (length == buffer.length)
+				this.flushBuffer();
+
+			int count = Math.min(text.length() - off, buffer.length - length);
+			text.getChars(off, off + count, buffer, length);
+			length += count;
+			off += count;
+		}
+	}
+
+	/**
+	 * Adds the given characters to the buffer, passing the buffer to the
+	 * writer whenever it fills.
+	 *
+	 * @param chars
+	 * @param off
+	 * @param len
+	 * @throws IOException
+	 */
+	private void append(char[] chars, int off, int len) throws IOException {
+		for (int i = off; i < off + len; i++)
+			this.append(chars[i]);
+	}
+
+	/**
+	 * Adds the given character to the buffer, passing the buffer to the
+	 * writer if it is full.
+	 *
+	 * @param c
+	 * @throws IOException
+	 */
+	private void append(char c) throws IOException {
+
+		if (length == buffer.length)
+			this.flushBuffer();
+
+		buffer[length++] = c;
+	}
+
+	/**
+	 * Passes the buffered characters to the writer.
+	 *
+	 * @throws IOException
+	 */
+	private void flushBuffer() throws IOException {
+		out.write(buffer, 0, length);
+		length = 0;
+	}
+
+	/**
+	 * Returns the given colour in the hexadecimal form used by SVG.
+	 *
+	 * @param colour
+	 * @return
+	 */
+	private static String toHex(Color colour) {
+		return String.format("#%06x", colour.getRGB() & 0xFFFFFF);
+	}
+}
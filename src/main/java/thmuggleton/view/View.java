@@ -2,10 +2,15 @@ package thmuggleton.view;
 
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Map;
 import java.util.Set;
 
 import javax.swing.JFrame;
 
+import thmuggleton.model.MatchHistory;
+
 /**
  * Defines the methods required by the controller to
  * interact with the view.
@@ -24,6 +29,12 @@ public interface View {
 	 */
 	public static final Color LEADER_COLOUR = Color.YELLOW;
 	
+	/**
+	 * Colour used to highlight the name of players who can no longer
+	 * win the match.
+	 */
+	public static final Color ELIMINATED_COLOUR = Color.LIGHT_GRAY;
+	
 	/**
 	 * Colour used as the default background colour for a player name
 	 * in this View. 
@@ -65,6 +76,26 @@ public interface View {
 	 */
 	public int getScoreEntered();
 	
+	/**
+	 * Returns the frames entered in score sheet notation, as typed so far.
+	 * 
+	 * @return
+	 */
+	public CharSequence getFramesEntered();
+	
+	/**
+	 * Shows that the frames entered cannot be added, with the given
+	 * reason, or that they can if the reason is {@code null}.
+	 * 
+	 * @param message
+	 */
+	public void setFramesEntryError(String message);
+	
+	/**
+	 * Clears the frames entered, once they have been added.
+	 */
+	public void clearFramesEntered();
+	
 	/**
 	 * Returns a BufferedImage of the currently displayed scoreboard.
 	 * 
@@ -72,6 +103,17 @@ public interface View {
 	 */
 	public BufferedImage getScoreboardImage();
 	
+	/**
+	 * Writes an animation of the given match, showing the scoreboard after
+	 * each shot, to the given channel.
+	 * 
+	 * @param history of the match to animate.
+	 * @param channel to write to, which is left open.
+	 * @return the number of frames written.
+	 * @throws IOException if the channel cannot be written.
+	 */
+	public int writeMatchAnimation(MatchHistory history, FileChannel channel) throws IOException;
+	
 	/**
 	 * Returns the window with which an error dialog should be displayed.
 	 * 
@@ -90,10 +132,39 @@ public interface View {
 	 */
 	public void setMatchFinished();
 	
+	/**
+	 * Updates the View when a finished match is resumed, because shots
+	 * have been taken back.
+	 */
+	public void setMatchResumed();
+	
+	/**
+	 * Keeps the history of a finished match so that it can be reviewed
+	 * once the next match has started.
+	 * 
+	 * @param history
+	 */
+	public void addArchivedMatch(MatchHistory history);
+	
 	/**
 	 * Highlights the current leader in this View.
 	 * 
 	 * @param leaders
 	 */
 	public void highlightLeaders(Set<String> leaders);
+	
+	/**
+	 * Highlights the players who can no longer win the match.
+	 * 
+	 * @param eliminated
+	 */
+	public void highlightEliminated(Set<String> eliminated);
+	
+	/**
+	 * Displays each player's estimated chance of winning the match.
+	 * 
+	 * @param winProbabilities Map between player names and their chance
+	 * of winning, between 0 and 1.
+	 */
+	public void showWinProbabilities(Map<String, Double> winProbabilities);
 }
@@ -1,10 +1,17 @@
 package thmuggleton.view.impl;
 
+import java.awt.Color;
+import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
 import javax.swing.JButton;
 import javax.swing.JComboBox;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.UIManager;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 import thmuggleton.Command;
 import thmuggleton.Constants;
@@ -12,6 +19,11 @@ import thmuggleton.Constants;
 /**
  * Defines a panel to allow user input
  * of scores.
+ * <p>
+ * As well as a single score, whole frames can be typed in score sheet
+ * notation, such as {@code X 7/ 81}, and added by pressing enter. The
+ * frames are checked as they are typed, and shown in error as soon as a
+ * mark cannot be played.
  * 
  * @author Thomas Muggleton
  */
@@ -22,17 +34,26 @@ public class AddScoresPanel extends JPanel {
 	 */
 	private static final long serialVersionUID = 2267913999206416138L;
 	
+	// Constants
+	private static final String FRAMES_LABEL = "Frames:";
+	private static final int FRAMES_COLUMNS = 12;
+	private static final Color ERROR_COLOUR = new Color(255, 200, 200);
+	
 	// Fields
 	private JComboBox<Integer> scoresComboBox;
 	private JButton inputScoresButton;
+	private JTextField framesField;
+	private Color framesBackground;
 	
 	/**
 	 * Constructor; creates the panel used to add scores.
 	 * 
 	 * @param controller handler for command to add a score to the match.
+	 * @param framesController handler for commands to check and add the
+	 * frames entered.
 	 * @return
 	 */
-	protected AddScoresPanel (ActionListener controller) {
+	protected AddScoresPanel (ActionListener controller, ActionListener framesController) {
 		
 		// Add combo boxes to result
 		this.add(this.createScoresComboBox());
@@ -43,6 +64,37 @@ public class AddScoresPanel extends JPanel {
 		inputScoresButton.addActionListener(controller);
 		inputScoresButton.setEnabled(false);
 		this.add(inputScoresButton);
+		
+		// Add field to type frames; disable until players are added
+		this.add(new JLabel(FRAMES_LABEL));
+		this.add(this.createFramesField(framesController));
+	}
+	
+	/**
+	 * Returns the frames entered, as typed so far.
+	 * 
+	 * @return
+	 */
+	protected CharSequence getFrames() {
+		return framesField.getText();
+	}
+	
+	/**
+	 * Shows the frames entered in error, with the given reason as a tool
+	 * tip, or clears the error if the reason is {@code null}.
+	 * 
+	 * @param message
+	 */
+	protected void setFramesError(String message) {
+		framesField.setBackground((message == null) ? framesBackground : ERROR_COLOUR);
+		framesField.setToolTipText(message);
+	}
+	
+	/**
+	 * Clears the frames entered.
+	 */
+	protected void clearFrames() {
+		framesField.setText("");
 	}
 	
 	/**
@@ -64,6 +116,48 @@ public class AddScoresPanel extends JPanel {
 	 */
 	protected void enableInput(boolean enable) {
 		inputScoresButton.setEnabled(enable);
+		framesField.setEnabled(enable);
+	}
+	
+	/**
+	 * Creates and returns a field to type frames in, which asks the given
+	 * controller to check the frames whenever they change and to add them
+	 * when enter is pressed.
+	 * 
+	 * @param controller
+	 * @return
+	 */
+	private JTextField createFramesField(final ActionListener controller) {
+		
+		framesField = new JTextField(FRAMES_COLUMNS);
+		framesField.setActionCommand(Command.ADD_FRAMES);
+		framesField.addActionListener(controller);
+		framesField.setEnabled(false);
+		framesBackground = UIManager.getColor("TextField.background");
+		
+		framesField.getDocument().addDocumentListener(new DocumentListener() {
+			
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				this.check();
+			}
+			
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				this.check();
+			}
+			
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+			}
+			
+			private void check() {
+				controller.actionPerformed(new ActionEvent(framesField,
+						ActionEvent.ACTION_PERFORMED, Command.CHECK_FRAMES));
+			}
+		});
+		
+		return framesField;
 	}
 	
 	/**
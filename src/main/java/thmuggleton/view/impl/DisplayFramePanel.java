@@ -9,9 +9,8 @@ import javax.swing.JPanel;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
-import thmuggleton.Constants;
 import thmuggleton.model.Frame;
-import thmuggleton.view.View;
+import thmuggleton.view.ScoreboardLayout;
 
 /**
  * Defines a panel on which to display scores.
@@ -65,39 +64,64 @@ public class DisplayFramePanel extends JPanel implements ChangeListener {
 	}
 	
 	/**
-	 * Displays all scores stored in the given frame if these have been set.
+	 * Displays the given frame in place of the frame shown so far, so that
+	 * the panel can be reused for a new match.
+	 * 
+	 * @param frame
+	 */
+	protected void setFrame(Frame frame) {
+		
+		this.model = frame;
+		
+		for (JLabel shot : shots)
+			shot.setText("   ");
+		
+		total.setText("");
+		
+		// Only show a total once the frame has been started, as when the
+		// panel is first created
+		if (frame.getScore(0) != Frame.SCORE_UNSET)
+			this.refreshScores();
+	}
+	
+	/**
+	 * Displays all scores stored in the given frame if these have been set,
+	 * and clears those that are not, since shots can be taken back.
 	 * 
 	 * @param frame
 	 */
 	private void refreshScores() {
 		
-		// Set labels for individual scores 
-		int[] scores = model.getScores();
+		// Set labels for individual scores, reading them from the frame
+		// without copying
+		int firstScore = model.getScore(0);
+		int secondScore = model.getScore(1);
 		
 		// Iterate over all scores for frame and display if set
-		for (int i = 0; i < scores.length; i++) {
-			int score = scores[i];
+		for (int i = 0; i < shots.length; i++) {
+			int score = model.getScore(i);
 			
-			// Set spare: second shot, total is 10 and first shot
-			// not a strike; the latter is necessary for last frame
-			if (i == 1 && (score + scores[0]) == Constants.TOTAL_PINS
-					&& scores[0] != Constants.TOTAL_PINS)
-				shots[i].setText(View.SPARE_CHARACTER);
+			// Set strike or spare
+			String mark = (score != Frame.SCORE_UNSET)
+					? ScoreboardLayout.markOf(firstScore, secondScore, i, score) : null;
 			
-			// Set strike
-			else if (score == Constants.TOTAL_PINS)
-				shots[i].setText(View.STRIKE_CHARACTER);
+			if (mark != null)
+				shots[i].setText(mark);
 			
 			// Set normal score
 			else if (score != Frame.SCORE_UNSET)
 				shots[i].setText("" + score);
+			
+			// Clear score taken back
+			else
+				shots[i].setText("   ");
 		}
 		
-		// Set label for total for frame, if set
-		int totalScore = model.getTotal();
-		
-		if (totalScore != Frame.SCORE_UNSET)
-			total.setText("" + totalScore);
+		// Set label for total for frame, if the frame has been started
+		if (firstScore != Frame.SCORE_UNSET)
+			total.setText("" + model.getTotal());
+		else
+			total.setText("");
 	}
 
 	/**
@@ -0,0 +1,160 @@
+package thmuggleton.view.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import javax.imageio.stream.ImageOutputStreamImpl;
+
+/**
+ * Image output stream that writes straight to a file channel through a
+ * small buffer. Unlike the streams created by
+ * {@link javax.imageio.ImageIO#createImageOutputStream(Object)} for an
+ * output stream, nothing written is cached, so the memory used stays the
+ * same however large the image.
+ * <p>
+ * The channel belongs to the caller and is left open when the stream is
+ * closed.
+ *
+ * @author Thomas Muggleton
+ */
+final class FileChannelImageOutputStream extends ImageOutputStreamImpl {
+
+	// Constants
+	private static final int BUFFER_SIZE = 8192;
+
+	// Fields
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+
+	/**
+	 * Creates a stream that writes from the current position of the given
+	 * channel.
+	 *
+	 * @param channel
+	 * @throws IOException
+	 */
+	FileChannelImageOutputStream(FileChannel channel) throws IOException {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		this.streamPos = channel.position();
+		this.flushedPos = streamPos;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+
+		this.flushBits();
+
+		if (!buffer.hasRemaining())
+			this.drain();
+
+		buffer.put((byte) b);
+		streamPos++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+
+		this.flushBits();
+
+		// Write large arrays without copying them into the buffer
+		if (len > buffer.remaining()) {
+			this.drain();
+
+			if (len > buffer.capacity()) {
+				this.writeFully(ByteBuffer.wrap(b, off, len));
+				streamPos += len;
+				return;
+			}
+		}
+
+		buffer.put(b, off, len);
+		streamPos += len;
+	}
+
+	@Override
+	public int read() throws IOException {
+
+		byte[] b = new byte[1];
+
+		return (this.read(b, 0, 1) == 1) ? (b[0] & 0xFF) : -1;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+
+		this.checkClosed();
+		this.drain();
+		bitOffset = 0;
+
+		int read = channel.read(ByteBuffer.wrap(b, off, len));
+
+		if (read > 0)
+			streamPos += read;
+
+		return read;
+	}
+
+	@Override
+	public void seek(long pos) throws IOException {
+
+		this.checkClosed();
+
+		if (pos < flushedPos)
+			throw new IndexOutOfBoundsException("pos < flushedPos!");
+
+		this.drain();
+		bitOffset = 0;
+		channel.position(pos);
+		streamPos = pos;
+	}
+
+	@Override
+	public long length() {
+
+		try {
+			this.drain();
+			return channel.size();
+		}
+		catch (IOException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Writes anything buffered to the channel, which is left open.
+	 */
+	@Override
+	public void close() throws IOException {
+		this.drain();
+		super.close();
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Writes the buffered bytes to the channel.
+	 *
+	 * @throws IOException
+	 */
+	private void drain() throws IOException {
+
+		buffer.flip();
+		this.writeFully(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Writes every remaining byte of the given buffer to the channel.
+	 *
+	 * @param source
+	 * @throws IOException
+	 */
+	private void writeFully(ByteBuffer source) throws IOException {
+		while (source.hasRemaining())
+			channel.write(source);
+	}
+}
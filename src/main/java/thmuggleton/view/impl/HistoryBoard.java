@@ -0,0 +1,273 @@
+package thmuggleton.view.impl;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+
+import javax.swing.JComponent;
+
+import thmuggleton.Constants;
+import thmuggleton.model.MatchHistory;
+import thmuggleton.view.ScoreboardLayout;
+import thmuggleton.view.View;
+
+/**
+ * Defines a read-only scoreboard that shows a match as it stood after a
+ * given shot, read from the history of the match.
+ * <p>
+ * Unlike the {@link Scoreboard}, which keeps a label for every score, the
+ * board is painted directly from the shots each player had played, so
+ * moving to another shot only repaints it. Painting reads at most one game
+ * of shots per player, whatever the length of the match, and does not
+ * allocate, so the board can follow a slider as it is dragged.
+ *
+ * @author Thomas Muggleton
+ */
+public class HistoryBoard extends JComponent {
+
+	/**
+	 * Auto-generated serial version ID.
+	 */
+	private static final long serialVersionUID = -4420180562931977461L;
+
+	// Constants
+	private static final int NAME_WIDTH = ScoreboardLayout.NAME_WIDTH;
+	private static final int FRAME_WIDTH = ScoreboardLayout.FRAME_WIDTH;
+	private static final int LAST_FRAME_WIDTH = ScoreboardLayout.LAST_FRAME_WIDTH;
+	private static final int TOTAL_WIDTH = ScoreboardLayout.TOTAL_WIDTH;
+	private static final int ROW_HEIGHT = ScoreboardLayout.ROW_HEIGHT;
+	private static final int SHOT_WIDTH = ScoreboardLayout.SHOT_WIDTH;
+	private static final int LAST_FRAME = Constants.NUMBER_OF_FRAMES - 1;
+	private static final int MAX_SCORE = Constants.NUMBER_OF_FRAMES
+			* (Constants.TOTAL_PINS + Constants.MAX_BONUS_POINTS);
+	static final Color LAST_SHOT_COLOUR = new Color(0xD8E8FF);
+	private static final String[] NUMBERS = createNumbers();
+
+	// Fields
+	private MatchHistory history;
+	private int rolls;
+	private final int[] scores;
+	private final int[] frameStarts;
+
+	/**
+	 * Constructor; creates an empty board.
+	 */
+	public HistoryBoard() {
+
+		scores = new int[Constants.MAX_ROLLS_PER_GAME];
+		frameStarts = new int[Constants.NUMBER_OF_FRAMES + 1];
+
+		this.setOpaque(true);
+		this.setBackground(Color.WHITE);
+	}
+
+	/**
+	 * Shows the given history as it stood after the given number of shots.
+	 *
+	 * @param history match to show, or {@code null} to show nothing.
+	 * @param rolls
+	 */
+	protected void setHistory(MatchHistory history, int rolls) {
+		this.history = history;
+		this.rolls = rolls;
+		this.repaint();
+	}
+
+	/**
+	 * Shows the match as it stood after the given number of shots.
+	 *
+	 * @param rolls
+	 */
+	protected void setRolls(int rolls) {
+
+		if (rolls != this.rolls) {
+			this.rolls = rolls;
+			this.repaint();
+		}
+	}
+
+	/**
+	 * Returns a size with room for the maximum number of players.
+	 */
+	@Override
+	public Dimension getPreferredSize() {
+		return new Dimension(ScoreboardLayout.WIDTH, Constants.MAX_NUMBER_OF_PLAYERS * ROW_HEIGHT + 1);
+	}
+
+	/**
+	 * Paints a row for each player.
+	 */
+	@Override
+	protected void paintComponent(Graphics g) {
+
+		g.setColor(this.getBackground());
+		g.fillRect(0, 0, this.getWidth(), this.getHeight());
+
+		if (history == null)
+			return;
+
+		FontMetrics metrics = g.getFontMetrics();
+		int lastPlayer = (rolls > 0) ? history.getPlayerOfRoll(rolls - 1) : -1;
+
+		for (int player = 0; player < history.getNumberOfPlayers(); player++)
+			this.paintPlayer(g, metrics, player, player * ROW_HEIGHT, player == lastPlayer);
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Paints the name, frames and total of the given player.
+	 *
+	 * @param g
+	 * @param metrics of the font in use.
+	 * @param player
+	 * @param y top of the row.
+	 * @param playedLast whether the player played the last shot shown.
+	 */
+	private void paintPlayer(Graphics g, FontMetrics metrics, int player, int y, boolean playedLast) {
+
+		int count = history.copyRollsAt(player, rolls, scores, 0);
+		int half = ROW_HEIGHT / 2;
+		int textOffset = (half + metrics.getAscent() - metrics.getDescent()) / 2;
+		int rowTextOffset = (ROW_HEIGHT + metrics.getAscent() - metrics.getDescent()) / 2;
+
+		// Paint name, highlighting the player who played the last shot
+		g.setColor(playedLast ? LAST_SHOT_COLOUR : View.DEFAULT_PLAYER_COLOUR);
+		g.fillRect(0, y, NAME_WIDTH, ROW_HEIGHT);
+		g.setColor(Color.BLACK);
+		g.drawRect(0, y, NAME_WIDTH, ROW_HEIGHT);
+		g.drawString(history.getPlayer(player), 4, y + rowTextOffset);
+
+		// Find the first shot of each frame
+		int started = this.findFrameStarts(count);
+		int total = 0;
+		int x = NAME_WIDTH;
+
+		for (int frame = 0; frame < Constants.NUMBER_OF_FRAMES; frame++) {
+
+			int width = (frame == LAST_FRAME) ? LAST_FRAME_WIDTH : FRAME_WIDTH;
+			int shots = (frame == LAST_FRAME) ? 3 : 2;
+
+			g.drawRect(x, y, width, ROW_HEIGHT);
+
+			for (int shot = 0; shot < shots; shot++)
+				g.drawRect(x + width - (shots - shot) * SHOT_WIDTH, y, SHOT_WIDTH, half);
+
+			if (frame < started) {
+				int start = frameStarts[frame];
+				int end = frameStarts[frame + 1];
+
+				for (int i = start; i < end; i++) {
+					String mark = this.markOf(start, i);
+					int shotX = x + width - (shots - (i - start)) * SHOT_WIDTH;
+					g.drawString(mark, shotX + (SHOT_WIDTH - metrics.stringWidth(mark)) / 2, y + textOffset);
+				}
+
+				int frameTotal = this.totalOf(frame, start, end, count);
+				total += frameTotal;
+				g.drawString(NUMBERS[frameTotal], x + 4, y + half + textOffset);
+			}
+
+			x += width;
+		}
+
+		// Paint total for the game
+		g.drawRect(x, y, TOTAL_WIDTH, ROW_HEIGHT);
+
+		if (count > 0)
+			g.drawString(NUMBERS[total], x + 4, y + rowTextOffset);
+	}
+
+	/**
+	 * Finds the index of the first shot of each frame among the given
+	 * number of shots, and of the shot after the last frame started.
+	 *
+	 * @param count
+	 * @return the number of frames started.
+	 */
+	private int findFrameStarts(int count) {
+
+		int i = 0;
+		int frame = 0;
+
+		for (; frame < Constants.NUMBER_OF_FRAMES && i < count; frame++) {
+			frameStarts[frame] = i;
+
+			if (frame == LAST_FRAME)
+				i = count;
+			else if (scores[i] == Constants.TOTAL_PINS)
+				i++;
+			else
+				i = Math.min(i + 2, count);
+		}
+
+		frameStarts[frame] = i;
+
+		return frame;
+	}
+
+	/**
+	 * Returns the text for the given shot of a frame, as it would be shown
+	 * on the scoreboard.
+	 *
+	 * @param start index of the first shot of the frame.
+	 * @param shot index of the shot.
+	 * @return
+	 */
+	private String markOf(int start, int shot) {
+
+		int score = scores[shot];
+		int second = (shot - start == 2) ? scores[start + 1] : 0;
+		String mark = ScoreboardLayout.markOf(scores[start], second, shot - start, score);
+
+		return (mark != null) ? mark : NUMBERS[score];
+	}
+
+	/**
+	 * Returns the total for the given frame, counting bonus points only for
+	 * shots that had been played, as the scoreboard does.
+	 *
+	 * @param frame
+	 * @param start index of the first shot of the frame.
+	 * @param end index of the first shot after the frame.
+	 * @param count number of shots played.
+	 * @return
+	 */
+	private int totalOf(int frame, int start, int end, int count) {
+
+		int total = 0;
+
+		for (int i = start; i < end; i++)
+			total += scores[i];
+
+		// Strikes count the next two shots and spares the next one, other
+		// than in the last frame, whose bonus shots are part of the frame
+		if (frame != LAST_FRAME && total == Constants.TOTAL_PINS) {
+			int bonusEnd = Math.min(start + 3, count);
+
+			for (int i = end; i < bonusEnd; i++)
+				total += scores[i];
+		}
+
+		return total;
+	}
+
+	/**
+	 * Creates the text for every number that can be shown, so that painting
+	 * does not create strings.
+	 *
+	 * @return
+	 */
+	private static String[] createNumbers() {
+
+		String[] result = new String[MAX_SCORE + 1];
+
+		for (int i = 0; i < result.length; i++)
+			result[i] = Integer.toString(i);
+
+		return result;
+	}
+}
@@ -10,6 +10,8 @@ import java.awt.event.ActionListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.util.Map;
 import java.util.Set;
 
@@ -19,6 +21,7 @@ import javax.swing.WindowConstants;
 
 import thmuggleton.Command;
 import thmuggleton.model.Match;
+import thmuggleton.model.MatchHistory;
 import thmuggleton.view.View;
 
 /**
@@ -42,6 +45,8 @@ public class MainWindow extends JFrame implements View {
 	private AddPlayerPanel addPlayerPanel;
 	private AddScoresPanel addScoresPanel;
 	private Scoreboard scoreboard;
+	private ScrubberPanel scrubberPanel;
+	private MatchAnimationWriter animationWriter;
 
 	/**
 	 * Constructor
@@ -68,6 +73,7 @@ public class MainWindow extends JFrame implements View {
 	@Override
 	public void clear() {
 		this.scoreboard.clearScoreboard();
+		this.scrubberPanel.clear();
 		this.addScoresPanel.enableInput(false);
 		this.addPlayerPanel.enableInput(true);
 		this.repaint();
@@ -108,6 +114,49 @@ public class MainWindow extends JFrame implements View {
 		return addScoresPanel.getScore();
 	}
 	
+	/**
+	 * Returns the frames entered in score sheet notation.
+	 */
+	@Override
+	public CharSequence getFramesEntered() {
+		return addScoresPanel.getFrames();
+	}
+	
+	/**
+	 * Shows whether the frames entered can be added.
+	 */
+	@Override
+	public void setFramesEntryError(String message) {
+		addScoresPanel.setFramesError(message);
+	}
+	
+	/**
+	 * Clears the frames entered.
+	 */
+	@Override
+	public void clearFramesEntered() {
+		addScoresPanel.clearFrames();
+	}
+	
+	/**
+	 * Writes an animation of the given match to the given channel. The
+	 * writer, and the images into which it paints, are created for the
+	 * first animation and reused for the rest.
+	 * 
+	 * @param history
+	 * @param channel
+	 * @return the number of frames written.
+	 * @throws IOException
+	 */
+	@Override
+	public int writeMatchAnimation(MatchHistory history, FileChannel channel) throws IOException {
+		
+		if (animationWriter == null)
+			animationWriter = new MatchAnimationWriter();
+		
+		return animationWriter.write(history, channel);
+	}
+	
 	/**
 	 * Returns a BufferedImage of the currently displayed scoreboard.
 	 * 
@@ -157,6 +206,24 @@ public class MainWindow extends JFrame implements View {
 		this.addScoresPanel.enableInput(false);
 	}
 	
+	/**
+	 * Updates the View when a finished match is resumed.
+	 */
+	@Override
+	public void setMatchResumed() {
+		this.addScoresPanel.enableInput(true);
+	}
+	
+	/**
+	 * Adds a finished match to those that can be reviewed.
+	 * 
+	 * @param history
+	 */
+	@Override
+	public void addArchivedMatch(MatchHistory history) {
+		this.scrubberPanel.addArchivedMatch(history);
+	}
+	
 	/**
 	 * Highlights the current leader(s).
 	 * 
@@ -171,6 +238,29 @@ public class MainWindow extends JFrame implements View {
 			scoreboard.highlightPanel(leader, View.LEADER_COLOUR);
 	}
 	
+	/**
+	 * Highlights the players who can no longer win the match.
+	 * 
+	 * @param eliminated Set containing eliminated players.
+	 */
+	@Override
+	public void highlightEliminated(Set<String> eliminated) {
+		
+		for (String player : eliminated)
+			scoreboard.highlightPanel(player, View.ELIMINATED_COLOUR);
+	}
+	
+	/**
+	 * Displays each player's estimated chance of winning the match.
+	 * 
+	 * @param winProbabilities Map between player names and their chance
+	 * of winning.
+	 */
+	@Override
+	public void showWinProbabilities(Map<String, Double> winProbabilities) {
+		scoreboard.showWinProbabilities(winProbabilities);
+	}
+	
 	/*
 	 * **********************
 	 *     HELPER METHODS
@@ -227,6 +317,10 @@ public class MainWindow extends JFrame implements View {
 		this.scoreboard = new Scoreboard(model);
 		centrePanel.add(scoreboard, BorderLayout.CENTER);
 		
+		// Add scrubber to review the match shot by shot
+		this.scrubberPanel = new ScrubberPanel(model);
+		centrePanel.add(scrubberPanel, BorderLayout.SOUTH);
+		
 		// Add centre-panel to main window
 		this.add(centrePanel, BorderLayout.CENTER);
 	}
@@ -244,7 +338,8 @@ public class MainWindow extends JFrame implements View {
 		
 		// Create panel with textfield and button to add players
 		addPlayerPanel = new AddPlayerPanel(controllers.get(Command.ADD_PLAYER));
-		addScoresPanel = new AddScoresPanel(controllers.get(Command.ADD_SCORE));
+		addScoresPanel = new AddScoresPanel(controllers.get(Command.ADD_SCORE),
+				controllers.get(Command.ADD_FRAMES));
 		
 		result.add(addPlayerPanel);
 		result.add(addScoresPanel);
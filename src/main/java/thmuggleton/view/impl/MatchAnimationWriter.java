@@ -0,0 +1,368 @@
+package thmuggleton.view.impl;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+import thmuggleton.model.MatchHistory;
+import thmuggleton.view.View;
+
+/**
+ * Writes an animated GIF of a match, showing the scoreboard after each shot
+ * in turn.
+ * <p>
+ * The match is replayed through a {@link HistoryBoard} painted offscreen
+ * into an image with a palette of the board's few colours. Each frame of
+ * the animation holds only the region of the board that changed since the
+ * previous shot, drawn over the frames before it, and is written to the
+ * file channel as soon as it is encoded. Only the board for the current and
+ * previous shots is kept, and the board has room for the most players a
+ * match can have, so the memory used does not depend on the length of the
+ * match or the number of players.
+ *
+ * @author Thomas Muggleton
+ */
+public class MatchAnimationWriter {
+
+	// Constants
+	private static final int SHOT_DELAY = 50;
+	private static final int FINAL_DELAY = 400;
+	private static final String GIF_METADATA_FORMAT = "javax_imageio_gif_image_1.0";
+	private static final String GIF_STREAM_METADATA_FORMAT = "javax_imageio_gif_stream_1.0";
+	private static final Color[] PALETTE = { View.DEFAULT_PLAYER_COLOUR, Color.BLACK,
+			HistoryBoard.LAST_SHOT_COLOUR, Color.BLACK };
+
+	// Fields
+	private final HistoryBoard board;
+	private final BufferedImage current;
+	private final BufferedImage previous;
+	private final byte[] currentPixels;
+	private final byte[] previousPixels;
+	private final byte[] regionPixels;
+	private final IndexColorModel palette;
+	private final int width;
+	private final int height;
+
+	/**
+	 * Constructor; creates the board and the images into which it is
+	 * painted, which are reused for every match written.
+	 */
+	public MatchAnimationWriter() {
+
+		board = new HistoryBoard();
+		board.setSize(board.getPreferredSize());
+		width = board.getWidth();
+		height = board.getHeight();
+
+		palette = createPalette();
+		current = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, palette);
+		previous = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, palette);
+		currentPixels = ((DataBufferByte) current.getRaster().getDataBuffer()).getData();
+		previousPixels = ((DataBufferByte) previous.getRaster().getDataBuffer()).getData();
+		regionPixels = new byte[currentPixels.length];
+	}
+
+	/**
+	 * Writes an animation of the given match to the given channel, from
+	 * its current position, with a frame for the empty scoreboard followed
+	 * by a frame for each shot. The channel is left open.
+	 *
+	 * @param history
+	 * @param channel
+	 * @return the number of frames written.
+	 * @throws IOException if no GIF writer is available or the channel
+	 * cannot be written.
+	 */
+	public int write(MatchHistory history, FileChannel channel) throws IOException {
+
+		ImageWriter writer = this.createWriter();
+		ImageOutputStream output = new FileChannelImageOutputStream(channel);
+		int frames = 0;
+
+		try {
+			writer.setOutput(output);
+
+			ImageTypeSpecifier type = ImageTypeSpecifier.createFromRenderedImage(current);
+			writer.prepareWriteSequence(this.createStreamMetadata(writer));
+			int rolls = history.getNumberOfRolls();
+
+			for (int shot = 0; shot <= rolls; shot++) {
+
+				this.paint(history, shot);
+
+				// Write the whole board first, then only what changed
+				int delay = (shot == rolls) ? FINAL_DELAY : SHOT_DELAY;
+
+				if (shot == 0)
+					this.writeFrame(writer, type, 0, 0, width, height, delay, true);
+				else
+					this.writeChangedRegion(writer, type, delay);
+
+				System.arraycopy(currentPixels, 0, previousPixels, 0, currentPixels.length);
+				frames++;
+			}
+
+			writer.endWriteSequence();
+		}
+		finally {
+			writer.dispose();
+			output.close();
+		}
+
+		return frames;
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Paints the board for the given match after the given number of shots.
+	 *
+	 * @param history
+	 * @param rolls
+	 */
+	private void paint(MatchHistory history, int rolls) {
+
+		board.setHistory(history, rolls);
+
+		Graphics2D graphics = current.createGraphics();
+
+		try {
+			board.paint(graphics);
+		}
+		finally {
+			graphics.dispose();
+		}
+	}
+
+	/**
+	 * Creates the metadata for the animation as a whole, setting the size
+	 * of the board and its palette as the colour table shared by every
+	 * frame.
+	 *
+	 * @param writer
+	 * @return
+	 * @throws IOException
+	 */
+	private IIOMetadata createStreamMetadata(ImageWriter writer) throws IOException {
+
+		IIOMetadata metadata = writer.getDefaultStreamMetadata(null);
+		IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(GIF_STREAM_METADATA_FORMAT);
+
+		IIOMetadataNode screen = this.getChild(root, "LogicalScreenDescriptor");
+		screen.setAttribute("logicalScreenWidth", Integer.toString(width));
+		screen.setAttribute("logicalScreenHeight", Integer.toString(height));
+		screen.setAttribute("colorResolution", "8");
+		screen.setAttribute("pixelAspectRatio", "0");
+
+		// Replace the default colour table with the palette of the board
+		IIOMetadataNode table = this.getChild(root, "GlobalColorTable");
+
+		while (table.getFirstChild() != null)
+			table.removeChild(table.getFirstChild());
+
+		table.setAttribute("sizeOfGlobalColorTable", Integer.toString(PALETTE.length));
+		table.setAttribute("backgroundColorIndex", "0");
+		table.setAttribute("sortFlag", "FALSE");
+
+		for (int i = 0; i < PALETTE.length; i++) {
+			IIOMetadataNode entry = new IIOMetadataNode("ColorTableEntry");
+			entry.setAttribute("index", Integer.toString(i));
+			entry.setAttribute("red", Integer.toString(PALETTE[i].getRed()));
+			entry.setAttribute("green", Integer.toString(PALETTE[i].getGreen()));
+			entry.setAttribute("blue", Integer.toString(PALETTE[i].getBlue()));
+			table.appendChild(entry);
+		}
+
+		metadata.setFromTree(GIF_STREAM_METADATA_FORMAT, root);
+
+		return metadata;
+	}
+
+	/**
+	 * Writes a frame holding the smallest rectangle of the board that
+	 * contains every pixel changed since the previous shot.
+	 *
+	 * @param writer
+	 * @param type
+	 * @param delay
+	 * @throws IOException
+	 */
+	private void writeChangedRegion(ImageWriter writer, ImageTypeSpecifier type, int delay)
+			throws IOException {
+
+		int minX = width, minY = height, maxX = -1, maxY = -1;
+
+		for (int y = 0; y < height; y++) {
+			int row = y * width;
+
+			for (int x = 0; x < width; x++) {
+				if (currentPixels[row + x] != previousPixels[row + x]) {
+					minX = Math.min(minX, x);
+					maxX = Math.max(maxX, x);
+					minY = Math.min(minY, y);
+					maxY = y;
+				}
+			}
+		}
+
+		// Branch for nothing changed; keep the frame for its delay
+		if (maxX < 0)
+			this.writeFrame(writer, type, 0, 0, 1, 1, delay, false);
+		else
+			this.writeFrame(writer, type, minX, minY, maxX - minX + 1, maxY - minY + 1, delay, false);
+	}
+
+	/**
+	 * Writes the given region of the board as a frame drawn over the frames
+	 * before it.
+	 *
+	 * @param writer
+	 * @param type
+	 * @param x
+	 * @param y
+	 * @param regionWidth
+	 * @param regionHeight
+	 * @param delay in hundredths of a second.
+	 * @param first whether this is the first frame, which sets the
+	 * animation to loop.
+	 * @throws IOException
+	 */
+	private void writeFrame(ImageWriter writer, ImageTypeSpecifier type, int x, int y,
+			int regionWidth, int regionHeight, int delay, boolean first) throws IOException {
+
+		// Clear the default metadata, which has a colour table of its own, so
+		// that the frame uses the palette of the board
+		IIOMetadata metadata = writer.getDefaultImageMetadata(type, null);
+		metadata.reset();
+		IIOMetadataNode root = new IIOMetadataNode(GIF_METADATA_FORMAT);
+
+		IIOMetadataNode descriptor = this.getChild(root, "ImageDescriptor");
+		descriptor.setAttribute("imageLeftPosition", Integer.toString(x));
+		descriptor.setAttribute("imageTopPosition", Integer.toString(y));
+		descriptor.setAttribute("imageWidth", Integer.toString(regionWidth));
+		descriptor.setAttribute("imageHeight", Integer.toString(regionHeight));
+		descriptor.setAttribute("interlaceFlag", "FALSE");
+
+		IIOMetadataNode control = this.getChild(root, "GraphicControlExtension");
+		control.setAttribute("disposalMethod", "doNotDispose");
+		control.setAttribute("userInputFlag", "FALSE");
+		control.setAttribute("transparentColorFlag", "FALSE");
+		control.setAttribute("delayTime", Integer.toString(delay));
+		control.setAttribute("transparentColorIndex", "0");
+
+		// Loop the animation forever
+		if (first) {
+			IIOMetadataNode extension = new IIOMetadataNode("ApplicationExtension");
+			extension.setAttribute("applicationID", "NETSCAPE");
+			extension.setAttribute("authenticationCode", "2.0");
+			extension.setUserObject(new byte[] { 1, 0, 0 });
+
+			this.getChild(root, "ApplicationExtensions").appendChild(extension);
+		}
+
+		metadata.setFromTree(GIF_METADATA_FORMAT, root);
+
+		writer.writeToSequence(new IIOImage(this.copyRegion(x, y, regionWidth, regionHeight), null,
+				metadata), null);
+	}
+
+	/**
+	 * Copies the given region of the board into an image of its own. The
+	 * GIF writer reads a subimage from the origin of the image it shares
+	 * pixels with, so the region is copied rather than taken with
+	 * {@link BufferedImage#getSubimage(int, int, int, int)}; the pixels are
+	 * copied into the same array for every frame.
+	 *
+	 * @param x
+	 * @param y
+	 * @param regionWidth
+	 * @param regionHeight
+	 * @return
+	 */
+	private BufferedImage copyRegion(int x, int y, int regionWidth, int regionHeight) {
+
+		for (int row = 0; row < regionHeight; row++)
+			System.arraycopy(currentPixels, (y + row) * width + x, regionPixels, row * regionWidth, regionWidth);
+
+		WritableRaster raster = Raster.createInterleavedRaster(
+				new DataBufferByte(regionPixels, regionWidth * regionHeight), regionWidth, regionHeight,
+				regionWidth, 1, new int[] { 0 }, null);
+
+		return new BufferedImage(palette, raster, false, null);
+	}
+
+	/**
+	 * Returns the child of the given node with the given name, adding it if
+	 * there is none.
+	 *
+	 * @param node
+	 * @param name
+	 * @return
+	 */
+	private IIOMetadataNode getChild(IIOMetadataNode node, String name) {
+
+		for (int i = 0; i < node.getLength(); i++) {
+			if (node.item(i).getNodeName().equals(name))
+				return (IIOMetadataNode) node.item(i);
+		}
+
+		IIOMetadataNode child = new IIOMetadataNode(name);
+		node.appendChild(child);
+
+		return child;
+	}
+
+	/**
+	 * Returns a writer for GIF images.
+	 *
+	 * @return
+	 * @throws IOException if none is available.
+	 */
+	private ImageWriter createWriter() throws IOException {
+
+		Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("gif");
+
+		if (!writers.hasNext())
+			throw new IOException("No writer is available for GIF images");
+
+		return writers.next();
+	}
+
+	/**
+	 * Creates the palette of colours used by the board, padded to a power
+	 * of two entries as GIF colour tables must be.
+	 *
+	 * @return
+	 */
+	private static IndexColorModel createPalette() {
+
+		byte[] red = new byte[PALETTE.length];
+		byte[] green = new byte[PALETTE.length];
+		byte[] blue = new byte[PALETTE.length];
+
+		for (int i = 0; i < PALETTE.length; i++) {
+			red[i] = (byte) PALETTE[i].getRed();
+			green[i] = (byte) PALETTE[i].getGreen();
+			blue[i] = (byte) PALETTE[i].getBlue();
+		}
+
+		return new IndexColorModel(8, PALETTE.length, red, green, blue);
+	}
+}
@@ -1,11 +1,14 @@
 package thmuggleton.view.impl;
 
 import java.awt.event.ActionListener;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.util.Map;
 
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.KeyStroke;
 
 import thmuggleton.Command;
 
@@ -23,7 +26,9 @@ public class MenuBar extends JMenuBar {
 	
 	// Fields
 	private JMenu fileMenu;
-	private JMenuItem newMatch, exportImage, exit;
+	private JMenuItem newMatch, exportImage, exportSvg, exportAnimation, dumpFlightRecording, exit;
+	private JMenu editMenu;
+	private JMenuItem undo, redo;
 	
 	/**
 	 * Constructor to create and add all menus.
@@ -34,6 +39,7 @@ public class MenuBar extends JMenuBar {
 		
 		// Add all menus
 		this.add(createFileMenu(controllers));
+		this.add(createEditMenu(controllers));
 		this.add(createHelpMenu(controllers));
 	}
 
@@ -60,6 +66,26 @@ public class MenuBar extends JMenuBar {
 		exportImage.addActionListener(controllers.get(Command.EXPORT_IMAGE));
 		fileMenu.add(exportImage);
 		
+		// Create export SVG menu item
+		exportSvg = new JMenuItem(Command.EXPORT_SVG);
+		exportSvg.setActionCommand(Command.EXPORT_SVG);
+		exportSvg.addActionListener(controllers.get(Command.EXPORT_SVG));
+		fileMenu.add(exportSvg);
+		
+		// Create export animation menu item
+		exportAnimation = new JMenuItem(Command.EXPORT_ANIMATION);
+		exportAnimation.setActionCommand(Command.EXPORT_ANIMATION);
+		exportAnimation.addActionListener(controllers.get(Command.EXPORT_ANIMATION));
+		fileMenu.add(exportAnimation);
+		
+		// Create flight recording menu item, only if a recording is running
+		if (controllers.containsKey(Command.DUMP_FLIGHT_RECORDING)) {
+			dumpFlightRecording = new JMenuItem(Command.DUMP_FLIGHT_RECORDING);
+			dumpFlightRecording.setActionCommand(Command.DUMP_FLIGHT_RECORDING);
+			dumpFlightRecording.addActionListener(controllers.get(Command.DUMP_FLIGHT_RECORDING));
+			fileMenu.add(dumpFlightRecording);
+		}
+		
 		// Create exit menu item
 		exit = new JMenuItem(Command.EXIT);
 		exit.setActionCommand(Command.EXIT);
@@ -69,6 +95,34 @@ public class MenuBar extends JMenuBar {
 		return fileMenu;
 	}
 	
+	/**
+	 * Creates and returns edit menu.
+	 * 
+	 * @param controllers Map between command Strings and their handlers.
+	 * @return
+	 */
+	private JMenu createEditMenu(Map<String, ? extends ActionListener> controllers) {
+		
+		// Instantiate edit menu
+		editMenu = new JMenu("Edit");
+		
+		// Create undo menu item
+		undo = new JMenuItem(Command.UNDO);
+		undo.setActionCommand(Command.UNDO);
+		undo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK));
+		undo.addActionListener(controllers.get(Command.UNDO));
+		editMenu.add(undo);
+		
+		// Create redo menu item
+		redo = new JMenuItem(Command.REDO);
+		redo.setActionCommand(Command.REDO);
+		redo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK));
+		redo.addActionListener(controllers.get(Command.REDO));
+		editMenu.add(redo);
+		
+		return editMenu;
+	}
+	
 	/**
 	 * Creates and returns help menu.
 	 * 
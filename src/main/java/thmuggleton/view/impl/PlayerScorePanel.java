@@ -2,12 +2,14 @@ package thmuggleton.view.impl;
 
 import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.Dimension;
 import java.awt.GridLayout;
 
 import javax.swing.BorderFactory;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
+import javax.swing.SwingConstants;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
@@ -28,11 +30,16 @@ public class PlayerScorePanel extends JPanel implements ChangeListener {
 	 */
 	private static final long serialVersionUID = -9028381822431874536L;
 	
+	// Constants
+	private static final int WIN_PROBABILITY_LABEL_WIDTH = 45;
+	
 	// Fields
 	private Match model;
+	private Frame[] frames;
 	private JTextField playerNameField;
 	private DisplayFramePanel[] frameScorePanels;
 	private JLabel totalScoreLabel;
+	private JLabel winProbabilityLabel;
 	
 	/**
 	 * Constructor
@@ -45,8 +52,31 @@ public class PlayerScorePanel extends JPanel implements ChangeListener {
 		// Initialise fields
 		this.model = model;
 		
-		// Create panel
+		// Create panel and listen to the player's frames
 		this.layoutComponents(model, playerName);
+		this.listenToFrames();
+	}
+	
+	/**
+	 * Reuses this panel, once disposed, to display the given player, so
+	 * that a new match does not lay out the panel from scratch.
+	 * 
+	 * @param playerName String containing the name of the player.
+	 */
+	protected void rebind(String playerName) {
+		
+		playerNameField.setText(playerName);
+		playerNameField.setBackground(View.DEFAULT_PLAYER_COLOUR);
+		totalScoreLabel.setText(" ");
+		winProbabilityLabel.setText(" ");
+		
+		// Show the player's frames on the existing frame panels
+		frames = model.getFrames(playerName);
+		
+		for (int i = 0; i < frames.length; i++)
+			frameScorePanels[i].setFrame(frames[i]);
+		
+		this.listenToFrames();
 	}
 	
 	/**
@@ -59,6 +89,33 @@ public class PlayerScorePanel extends JPanel implements ChangeListener {
 		playerNameField.setBackground(colour);		
 	}
 	
+	/**
+	 * Stops this panel and its frame panels listening to the frames they
+	 * display, so that they are not kept alive by the model once removed
+	 * from the scoreboard.
+	 */
+	protected void dispose() {
+		
+		for (int i = 0; i < frames.length; i++) {
+			frames[i].removeChangeListener(frameScorePanels[i]);
+			frames[i].removeChangeListener(this);
+		}
+	}
+	
+	/**
+	 * Displays the player's estimated chance of winning as a percentage.
+	 * 
+	 * @param probability chance of winning between 0 and 1, or
+	 * {@code null} to clear the estimate.
+	 */
+	protected void showWinProbability(Double probability) {
+		
+		if (probability == null)
+			winProbabilityLabel.setText(" ");
+		else
+			winProbabilityLabel.setText(String.format("%.0f%%", probability * 100));
+	}
+	
 	/*
 	 * **********************
 	 *     HELPER METHODS
@@ -86,10 +143,16 @@ public class PlayerScorePanel extends JPanel implements ChangeListener {
 		// Create panel for scores associated with this player
 		JPanel scoresPanel = this.createScoresPanel(model, playerName);
 		
-		// Add name text field and scores panel to player panel
-		// and add player panel to scoreboard panel
+		// Create label for chance of winning, wide enough for "100%"
+		winProbabilityLabel = new JLabel(" ", SwingConstants.CENTER);
+		winProbabilityLabel.setPreferredSize(new Dimension(WIN_PROBABILITY_LABEL_WIDTH, 0));
+		winProbabilityLabel.setToolTipText("Estimated chance of winning");
+		
+		// Add name text field, scores panel and chance of winning
+		// to player panel
 		this.add(playerNameField, BorderLayout.WEST);
 		this.add(scoresPanel, BorderLayout.CENTER);
+		this.add(winProbabilityLabel, BorderLayout.EAST);
 	}
 	
 	/**
@@ -108,7 +171,7 @@ public class PlayerScorePanel extends JPanel implements ChangeListener {
 		JPanel allScoresPanel = new JPanel(new GridLayout(1, totalScorePanels));
 		
 		// Retrieve frames from model and create panels to display scores for each frame
-		Frame[] frames = model.getFrames(playerName);
+		frames = model.getFrames(playerName);
 		frameScorePanels = new DisplayFramePanel[Constants.NUMBER_OF_FRAMES];
 		
 		// Create all frame score panels
@@ -128,10 +191,6 @@ public class PlayerScorePanel extends JPanel implements ChangeListener {
 			// Set properties for frame score panel
 			frameScorePanels[i].setBorder(BorderFactory.createLineBorder(Color.BLACK, 1));
 			allScoresPanel.add(frameScorePanels[i]);
-			
-			// Set frame panel and this panel to listen for state change events
-			currentFrame.addChangeListener(frameScorePanels[i]);
-			currentFrame.addChangeListener(this);
 		}
 		
 		// Add total score label to scoreboard map and panel
@@ -142,6 +201,18 @@ public class PlayerScorePanel extends JPanel implements ChangeListener {
 		return allScoresPanel;
 	}
 
+	/**
+	 * Sets the frame panels and this panel to listen for state change
+	 * events from the player's frames.
+	 */
+	private void listenToFrames() {
+		
+		for (int i = 0; i < frames.length; i++) {
+			frames[i].addChangeListener(frameScorePanels[i]);
+			frames[i].addChangeListener(this);
+		}
+	}
+
 	/**
 	 * Reacts to change events in the model.
 	 */
@@ -1,13 +1,17 @@
 package thmuggleton.view.impl;
 
 import java.awt.Color;
+import java.awt.Graphics;
 import java.awt.GridLayout;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.swing.JPanel;
 
 import thmuggleton.Constants;
+import thmuggleton.metrics.Metrics;
 import thmuggleton.model.Match;
 import thmuggleton.view.View;
 
@@ -26,6 +30,7 @@ public class Scoreboard extends JPanel {
 	// Fields
 	private Match model;
 	private Map<String, PlayerScorePanel> playerPanels;
+	private List<PlayerScorePanel> panels;
 
 	/**
 	 * Constructor.
@@ -43,30 +48,63 @@ public class Scoreboard extends JPanel {
 		
 		// Create score display maps
 		playerPanels = new HashMap<String, PlayerScorePanel>();
+		panels = new ArrayList<PlayerScorePanel>(Constants.MAX_NUMBER_OF_PLAYERS);
 	}
 	
 	/**
-	 * Clears the existing scoreboard.
+	 * Paints the scoreboard, recording how long this takes.
+	 */
+	@Override
+	public void paint(Graphics g) {
+		
+		long start = System.nanoTime();
+		super.paint(g);
+		Metrics.SCOREBOARD_PAINT.recordSince(start);
+	}
+	
+	/**
+	 * Clears the existing scoreboard, removing the listeners that each
+	 * player's panel registered with the model. The panels are hidden
+	 * rather than removed, so that they can be reused by the next match
+	 * without building them again.
 	 */
 	protected void clearScoreboard() {
+		
+		for (PlayerScorePanel panel : playerPanels.values()) {
+			panel.dispose();
+			panel.setVisible(false);
+		}
+		
 		playerPanels.clear();
-		this.removeAll();
 	}
 
 	/**
-	 * Updates scoreboard when new players are added.
+	 * Updates scoreboard when new players are added, reusing a panel
+	 * hidden when the scoreboard was last cleared if there is one.
 	 * 
 	 * @param playerName String to be added to the scoreboard
 	 * for the new player.
 	 */
 	protected void addPlayer(String playerName) {
 		
-		// Create new panel
-		PlayerScorePanel newPanel = new PlayerScorePanel(model, playerName);
+		PlayerScorePanel newPanel;
+		
+		// Branch to reuse the next hidden panel
+		if (playerPanels.size() < panels.size()) {
+			newPanel = panels.get(playerPanels.size());
+			newPanel.rebind(playerName);
+			newPanel.setVisible(true);
+		}
 		
-		// Add new entry to Map and scoreboard display
+		// Branch to create new panel
+		else {
+			newPanel = new PlayerScorePanel(model, playerName);
+			panels.add(newPanel);
+			this.add(newPanel);
+		}
+		
+		// Add new entry to Map
 		this.playerPanels.put(playerName, newPanel);
-		this.add(newPanel);
 	}
 
 	/**
@@ -90,4 +128,19 @@ public class Scoreboard extends JPanel {
 	protected void highlightPanel(String playerName, Color colour) {
 		playerPanels.get(playerName).highlightPlayer(colour);
 	}
+	
+	/**
+	 * Displays each player's estimated chance of winning; players
+	 * missing from the given Map have their estimate cleared.
+	 * 
+	 * @param winProbabilities Map between player names and their chance
+	 * of winning.
+	 */
+	protected void showWinProbabilities(Map<String, Double> winProbabilities) {
+		
+		for (Map.Entry<String, PlayerScorePanel> entry : playerPanels.entrySet()) {
+			Double probability = winProbabilities.get(entry.getKey());
+			entry.getValue().showWinProbability(probability);
+		}
+	}
 }
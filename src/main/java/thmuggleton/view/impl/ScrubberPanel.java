@@ -0,0 +1,232 @@
+package thmuggleton.view.impl;
+
+import java.awt.BorderLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSlider;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import thmuggleton.model.Match;
+import thmuggleton.model.MatchHistory;
+
+/**
+ * Defines a panel to step back through the current match, or a finished
+ * match, shot by shot. A slider chooses the number of shots played, and a
+ * {@link HistoryBoard} shows the match as it stood after them.
+ * <p>
+ * The history of the current match is only taken again when the slider is
+ * used after the match has changed, so scores can be added without the
+ * panel doing any work.
+ *
+ * @author Thomas Muggleton
+ */
+public class ScrubberPanel extends JPanel implements ActionListener, ChangeListener {
+
+	/**
+	 * Auto-generated serial version ID.
+	 */
+	private static final long serialVersionUID = 5315894028871349260L;
+
+	// Constants
+	private static final int MAX_ARCHIVED_MATCHES = 50;
+	private static final String CURRENT_MATCH = "Current match";
+
+	// Fields
+	private Match model;
+	private long currentVersion;
+	private List<MatchHistory> archivedMatches;
+	private int matchesArchived;
+	private MatchHistory history;
+	private JComboBox<String> matchComboBox;
+	private JSlider slider;
+	private JLabel positionLabel;
+	private HistoryBoard board;
+
+	/**
+	 * Constructor; lays out the controls and the board.
+	 *
+	 * @param model object containing match data.
+	 */
+	protected ScrubberPanel(Match model) {
+
+		this.model = model;
+		this.currentVersion = -1;
+		this.archivedMatches = new ArrayList<MatchHistory>(MAX_ARCHIVED_MATCHES);
+
+		this.setLayout(new BorderLayout());
+
+		// Create combo box to choose the match, starting with the current one
+		matchComboBox = new JComboBox<String>();
+		matchComboBox.addItem(CURRENT_MATCH);
+		matchComboBox.addActionListener(this);
+
+		// Create slider to choose the number of shots played
+		slider = new JSlider(0, 0, 0);
+		slider.addChangeListener(this);
+
+		// Take the history of the current match again before the slider is
+		// used, if the match has changed
+		slider.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mousePressed(MouseEvent e) {
+				ScrubberPanel.this.refreshCurrentMatch();
+			}
+		});
+		slider.addFocusListener(new FocusAdapter() {
+			@Override
+			public void focusGained(FocusEvent e) {
+				ScrubberPanel.this.refreshCurrentMatch();
+			}
+		});
+
+		positionLabel = new JLabel();
+		board = new HistoryBoard();
+
+		// Add controls above the board
+		JPanel controls = new JPanel();
+		controls.add(new JLabel("Review"));
+		controls.add(matchComboBox);
+		controls.add(slider);
+		controls.add(positionLabel);
+
+		this.add(controls, BorderLayout.NORTH);
+		this.add(board, BorderLayout.CENTER);
+
+		this.updatePositionLabel();
+	}
+
+	/**
+	 * Adds a finished match to those that can be reviewed, dropping the
+	 * oldest once the maximum number are kept.
+	 *
+	 * @param history
+	 */
+	protected void addArchivedMatch(MatchHistory history) {
+
+		if (archivedMatches.size() >= MAX_ARCHIVED_MATCHES) {
+			archivedMatches.remove(0);
+			matchComboBox.removeItemAt(1);
+		}
+
+		matchesArchived++;
+		archivedMatches.add(history);
+		matchComboBox.addItem(this.describe(matchesArchived, history));
+	}
+
+	/**
+	 * Clears the board when a new match is started; the history of the new
+	 * match is taken once the slider is used.
+	 */
+	protected void clear() {
+
+		if (matchComboBox.getSelectedIndex() == 0) {
+			this.currentVersion = -1;
+			this.showHistory(null);
+		}
+	}
+
+	/**
+	 * Shows the match chosen in the combo box.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent e) {
+
+		int selected = matchComboBox.getSelectedIndex();
+
+		if (selected == 0) {
+			this.currentVersion = -1;
+			this.refreshCurrentMatch();
+		}
+		else if (selected > 0)
+			this.showHistory(archivedMatches.get(selected - 1));
+	}
+
+	/**
+	 * Shows the match after the number of shots chosen on the slider; this
+	 * only repaints the board, so the board follows the slider as it is
+	 * dragged.
+	 */
+	@Override
+	public void stateChanged(ChangeEvent e) {
+		board.setRolls(slider.getValue());
+		this.updatePositionLabel();
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Takes the history of the current match again if it is shown and has
+	 * changed, keeping the slider at the last shot if it was there.
+	 */
+	private void refreshCurrentMatch() {
+
+		if (matchComboBox.getSelectedIndex() != 0 || model.version() == currentVersion)
+			return;
+
+		currentVersion = model.version();
+		this.showHistory(model.history());
+	}
+
+	/**
+	 * Shows the given history from its last shot, or nothing if the history
+	 * is {@code null}.
+	 *
+	 * @param history
+	 */
+	private void showHistory(MatchHistory history) {
+
+		this.history = history;
+		int rolls = (history != null) ? history.getNumberOfRolls() : 0;
+
+		// Set the board first, so that moving the slider does not repaint
+		// the board for the previous match
+		board.setHistory(history, rolls);
+		slider.setMaximum(rolls);
+		slider.setValue(rolls);
+		this.updatePositionLabel();
+	}
+
+	/**
+	 * Shows the number of shots chosen on the slider.
+	 */
+	private void updatePositionLabel() {
+
+		int rolls = (history != null) ? history.getNumberOfRolls() : 0;
+		positionLabel.setText("Shot " + slider.getValue() + " of " + rolls);
+	}
+
+	/**
+	 * Returns the text by which the given finished match is chosen.
+	 *
+	 * @param number of the match since the application started.
+	 * @param history
+	 * @return
+	 */
+	private String describe(int number, MatchHistory history) {
+
+		StringBuilder result = new StringBuilder();
+		result.append("Match ").append(number).append(": ");
+
+		for (int player = 0; player < history.getNumberOfPlayers(); player++) {
+			if (player > 0)
+				result.append(", ");
+
+			result.append(history.getPlayer(player));
+		}
+
+		return result.toString();
+	}
+}
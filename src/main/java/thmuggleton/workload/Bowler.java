@@ -0,0 +1,160 @@
+package thmuggleton.workload;
+
+import java.util.SplittableRandom;
+
+import thmuggleton.Constants;
+import thmuggleton.model.exceptions.BowlingException;
+import thmuggleton.model.impl.GameRules;
+import thmuggleton.model.impl.Leaves;
+
+/**
+ * Simulated bowler who bowls valid games, one shot at a time, according to a
+ * {@link SkillProfile}.
+ * <p>
+ * Besides the number of pins knocked down, each shot gives the pins left
+ * standing as a leave mask (see {@link Leaves}), so shots can be added to a
+ * match with {@link thmuggleton.model.Match#addScore(int, int)}. The pins
+ * knocked down are chosen uniformly from those standing.
+ * <p>
+ * The position within the game is tracked with {@link GameRules}, so
+ * bowling a shot does not allocate. Two bowlers created with the same
+ * profile and seed bowl the same shots.
+ *
+ * @author Thomas Muggleton
+ */
+public class Bowler {
+
+	// Fields
+	private final SkillProfile profile;
+	private final SplittableRandom random;
+	private int position;
+	private int standingPins;
+	private int leave;
+
+	/**
+	 * Constructor
+	 *
+	 * @param profile
+	 * @param seed
+	 */
+	public Bowler(SkillProfile profile, long seed) {
+		this(profile, new SplittableRandom(seed));
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param profile
+	 * @param random source of randomness, which is not shared with other
+	 * bowlers.
+	 */
+	public Bowler(SkillProfile profile, SplittableRandom random) {
+		this.profile = profile;
+		this.random = random;
+		this.newGame();
+	}
+
+	/**
+	 * Starts a new game.
+	 */
+	public void newGame() {
+		position = GameRules.INITIAL_POSITION;
+		standingPins = Leaves.FULL_RACK;
+		leave = Leaves.FULL_RACK;
+	}
+
+	/**
+	 * Bowls the next shot of the current game and returns the number of
+	 * pins knocked down.
+	 *
+	 * @return
+	 * @throws BowlingException if the game is finished.
+	 */
+	public int nextShot() {
+
+		if (position == GameRules.COMPLETE)
+			throw new BowlingException("All frames have already been bowled in this game.");
+
+		int standing = GameRules.pinsStanding(position);
+		int score = profile.score(standing, random);
+
+		leave = this.knockDown(standingPins, standing, score);
+		position = GameRules.advance(position, score);
+
+		// Rack is reset after strikes and spares in the last frame
+		if (position != GameRules.COMPLETE && GameRules.pinsStanding(position) == Constants.TOTAL_PINS)
+			standingPins = Leaves.FULL_RACK;
+		else
+			standingPins = leave;
+
+		return score;
+	}
+
+	/**
+	 * Returns the pins left standing by the last shot.
+	 *
+	 * @return
+	 */
+	public int getLeave() {
+		return leave;
+	}
+
+	/**
+	 * Returns the position reached in the current game.
+	 *
+	 * @return
+	 * @see GameRules
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	/**
+	 * Returns {@code true} if every shot of the current game has been
+	 * bowled.
+	 *
+	 * @return
+	 */
+	public boolean isFinished() {
+		return position == GameRules.COMPLETE;
+	}
+
+	/**
+	 * Returns the profile of this bowler.
+	 *
+	 * @return
+	 */
+	public SkillProfile getProfile() {
+		return profile;
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Returns the leave after knocking down the given number of the pins
+	 * standing, each subset of that size being equally likely.
+	 */
+	private int knockDown(int pins, int standing, int score) {
+
+		int result = pins;
+		int remaining = standing;
+
+		for (int pin = 1; pin <= Constants.TOTAL_PINS && score > 0; pin++) {
+			int bit = 1 << (pin - 1);
+
+			if ((pins & bit) == 0)
+				continue;
+
+			if (random.nextInt(remaining) < score) {
+				result &= ~bit;
+				score--;
+			}
+
+			remaining--;
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,161 @@
+package thmuggleton.workload;
+
+import java.util.SplittableRandom;
+
+import thmuggleton.Constants;
+import thmuggleton.model.exceptions.BowlingException;
+
+/**
+ * Stream of shots from several lanes bowling at once, interleaved as they
+ * would arrive at a bowling centre's front desk.
+ * <p>
+ * Each lane plays one match after another between the same simulated
+ * bowlers, whose skill is drawn with {@link SkillProfile#sample}. Each call
+ * to {@link #next()} picks a lane at random and moves it on by one shot,
+ * starting a new match on that lane once its current match is finished.
+ * The feed is determined by the seed and does not allocate once created.
+ *
+ * @author Thomas Muggleton
+ */
+public class LaneFeed {
+
+	// Fields
+	private final SplittableRandom random;
+	private final Bowler[][] bowlers;
+	private final String[][] names;
+	private final MatchScript[] scripts;
+	private final int[] cursors;
+	private int lane;
+	private int index;
+	private long matchesStarted;
+
+	/**
+	 * Constructor
+	 *
+	 * @param lanes
+	 * @param playersPerLane
+	 * @param seed
+	 * @throws BowlingException if there are more players per lane than a
+	 * match allows.
+	 */
+	public LaneFeed(int lanes, int playersPerLane, long seed) {
+
+		if (playersPerLane < 1 || playersPerLane > Constants.MAX_NUMBER_OF_PLAYERS)
+			throw new BowlingException("Players per lane must be between 1 and "
+					+ Constants.MAX_NUMBER_OF_PLAYERS);
+
+		this.random = new SplittableRandom(seed);
+		this.bowlers = new Bowler[lanes][playersPerLane];
+		this.names = new String[lanes][playersPerLane];
+		this.scripts = new MatchScript[lanes];
+		this.cursors = new int[lanes];
+		this.lane = -1;
+		this.index = -1;
+		this.matchesStarted = 0;
+
+		for (int i = 0; i < lanes; i++) {
+			scripts[i] = new MatchScript();
+
+			for (int j = 0; j < playersPerLane; j++) {
+				bowlers[i][j] = new Bowler(SkillProfile.sample(random), random.split());
+				names[i][j] = "Lane " + (i + 1) + " Bowler " + (j + 1);
+			}
+		}
+	}
+
+	/**
+	 * Moves a lane picked at random on by one shot and returns the lane.
+	 *
+	 * @return
+	 */
+	public int next() {
+
+		lane = random.nextInt(scripts.length);
+
+		// Start a new match once the last one is finished
+		if (cursors[lane] == scripts[lane].length()) {
+			scripts[lane].generate(bowlers[lane], names[lane], bowlers[lane].length);
+			cursors[lane] = 0;
+			matchesStarted++;
+		}
+
+		index = cursors[lane]++;
+		return lane;
+	}
+
+	/**
+	 * Returns the lane of the current shot.
+	 *
+	 * @return
+	 */
+	public int getLane() {
+		return lane;
+	}
+
+	/**
+	 * Returns the number of pins knocked down by the current shot.
+	 *
+	 * @return
+	 */
+	public int getShot() {
+		return scripts[lane].getShot(index);
+	}
+
+	/**
+	 * Returns the pins left standing by the current shot.
+	 *
+	 * @return
+	 */
+	public int getLeave() {
+		return scripts[lane].getLeave(index);
+	}
+
+	/**
+	 * Returns {@code true} if the current shot is the first of a new match
+	 * on its lane; the players of the match can be found from
+	 * {@link #getScript(int)}.
+	 *
+	 * @return
+	 */
+	public boolean isNewMatch() {
+		return index == 0;
+	}
+
+	/**
+	 * Returns {@code true} if the current shot is the last of the match on
+	 * its lane.
+	 *
+	 * @return
+	 */
+	public boolean isEndOfMatch() {
+		return index == scripts[lane].length() - 1;
+	}
+
+	/**
+	 * Returns the script of the match being played on the given lane.
+	 *
+	 * @param lane
+	 * @return
+	 */
+	public MatchScript getScript(int lane) {
+		return scripts[lane];
+	}
+
+	/**
+	 * Returns the number of lanes.
+	 *
+	 * @return
+	 */
+	public int getNumberOfLanes() {
+		return scripts.length;
+	}
+
+	/**
+	 * Returns the number of matches started on all lanes.
+	 *
+	 * @return
+	 */
+	public long getMatchesStarted() {
+		return matchesStarted;
+	}
+}
@@ -0,0 +1,171 @@
+package thmuggleton.workload;
+
+import java.util.SplittableRandom;
+
+import thmuggleton.Constants;
+import thmuggleton.model.exceptions.BowlingException;
+
+/**
+ * Season of league nights played by a fixed roster of simulated bowlers.
+ * <p>
+ * Each session the roster is shuffled and split into groups of up to the
+ * given number of players, and every group bowls the given number of games,
+ * each game being one match. Matches are produced in the order they are
+ * played: the first game of every group, then the second, and so on. Each
+ * bowler's skill is drawn with {@link SkillProfile#sample} when the league is
+ * created, and the whole season is determined by the seed.
+ *
+ * @author Thomas Muggleton
+ */
+public class League {
+
+	// Fields
+	private final SplittableRandom random;
+	private final Bowler[] roster;
+	private final String[] names;
+	private final int[] order;
+	private final Bowler[] groupBowlers;
+	private final String[] groupNames;
+	private final int playersPerMatch;
+	private final int gamesPerSession;
+	private final int sessions;
+	private final int groups;
+	private int session;
+	private int game;
+	private int group;
+	private int currentSession;
+
+	/**
+	 * Constructor
+	 *
+	 * @param numberOfBowlers size of the roster.
+	 * @param playersPerMatch largest number of players in each match.
+	 * @param gamesPerSession games bowled by each group in a session.
+	 * @param sessions number of sessions in the season.
+	 * @param seed
+	 * @throws BowlingException if there are more players per match than a
+	 * match allows.
+	 */
+	public League(int numberOfBowlers, int playersPerMatch, int gamesPerSession, int sessions, long seed) {
+
+		if (playersPerMatch < 1 || playersPerMatch > Constants.MAX_NUMBER_OF_PLAYERS)
+			throw new BowlingException("Players per match must be between 1 and "
+					+ Constants.MAX_NUMBER_OF_PLAYERS);
+
+		this.random = new SplittableRandom(seed);
+		this.roster = new Bowler[numberOfBowlers];
+		this.names = new String[numberOfBowlers];
+		this.order = new int[numberOfBowlers];
+		this.groupBowlers = new Bowler[playersPerMatch];
+		this.groupNames = new String[playersPerMatch];
+		this.playersPerMatch = playersPerMatch;
+		this.gamesPerSession = gamesPerSession;
+		this.sessions = sessions;
+		this.groups = (numberOfBowlers + playersPerMatch - 1) / playersPerMatch;
+
+		for (int i = 0; i < numberOfBowlers; i++) {
+			roster[i] = new Bowler(SkillProfile.sample(random), random.split());
+			names[i] = "Bowler " + (i + 1);
+			order[i] = i;
+		}
+
+		this.session = 0;
+		this.game = 0;
+		this.group = 0;
+		this.currentSession = -1;
+		this.shuffle();
+	}
+
+	/**
+	 * Fills the given script with the next match of the season.
+	 *
+	 * @param script
+	 * @return {@code false} if the season is over, in which case the script
+	 * is left unchanged.
+	 */
+	public boolean next(MatchScript script) {
+
+		if (session >= sessions || groups == 0 || gamesPerSession <= 0)
+			return false;
+
+		// Gather the bowlers of the current group
+		int first = group * playersPerMatch;
+		int count = Math.min(playersPerMatch, roster.length - first);
+
+		for (int i = 0; i < count; i++) {
+			groupBowlers[i] = roster[order[first + i]];
+			groupNames[i] = names[order[first + i]];
+		}
+
+		script.generate(groupBowlers, groupNames, count);
+		currentSession = session;
+
+		// Move on to the next group, game and session in turn
+		if (++group == groups) {
+			group = 0;
+
+			if (++game == gamesPerSession) {
+				game = 0;
+				session++;
+				this.shuffle();
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the session, counting from zero, in which the last match
+	 * produced was played, or -1 if none has been produced.
+	 *
+	 * @return
+	 */
+	public int getSession() {
+		return currentSession;
+	}
+
+	/**
+	 * Returns the number of matches in the season.
+	 *
+	 * @return
+	 */
+	public int getNumberOfMatches() {
+		return sessions * gamesPerSession * groups;
+	}
+
+	/**
+	 * Returns the given bowler on the roster.
+	 *
+	 * @param index
+	 * @return
+	 */
+	public Bowler getBowler(int index) {
+		return roster[index];
+	}
+
+	/**
+	 * Returns the player name of the given bowler on the roster.
+	 *
+	 * @param index
+	 * @return
+	 */
+	public String getPlayerName(int index) {
+		return names[index];
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Shuffles the roster into groups for the next session.
+	 */
+	private void shuffle() {
+		for (int i = order.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = order[i];
+			order[i] = order[j];
+			order[j] = swap;
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package thmuggleton.workload;
+
+import java.util.Arrays;
+
+import thmuggleton.Constants;
+import thmuggleton.model.Match;
+import thmuggleton.model.exceptions.BowlingException;
+import thmuggleton.model.impl.GameRules;
+
+/**
+ * Reusable buffer holding every shot of a match, in the order in which the
+ * shots are played: each player bowls a whole frame before the next player
+ * starts theirs.
+ * <p>
+ * A script is sized for the largest match once and then refilled by
+ * {@link #generate(Bowler[], String[], int)}, so generating a match does not
+ * allocate.
+ *
+ * @author Thomas Muggleton
+ */
+public class MatchScript {
+
+	// Fields
+	private final String[] playerNames;
+	private final int[] shots;
+	private final int[] leaves;
+	private final int[] players;
+	private int numberOfPlayers;
+	private int length;
+
+	/**
+	 * Constructor
+	 */
+	public MatchScript() {
+		this.playerNames = new String[Constants.MAX_NUMBER_OF_PLAYERS];
+		this.shots = new int[Constants.MAX_NUMBER_OF_PLAYERS * Constants.MAX_ROLLS_PER_GAME];
+		this.leaves = new int[shots.length];
+		this.players = new int[shots.length];
+		this.numberOfPlayers = 0;
+		this.length = 0;
+	}
+
+	/**
+	 * Replaces the contents of this script with a new game bowled by each
+	 * of the given bowlers.
+	 *
+	 * @param bowlers
+	 * @param names name of the player for each bowler.
+	 * @param count number of bowlers taking part.
+	 * @throws BowlingException if there are more bowlers than a match allows.
+	 */
+	public void generate(Bowler[] bowlers, String[] names, int count) {
+
+		if (count > Constants.MAX_NUMBER_OF_PLAYERS)
+			throw new BowlingException("Cannot add more than "
+					+ Constants.MAX_NUMBER_OF_PLAYERS + " players to a match.");
+
+		numberOfPlayers = count;
+		length = 0;
+
+		for (int player = 0; player < count; player++) {
+			playerNames[player] = names[player];
+			bowlers[player].newGame();
+		}
+
+		for (int frame = 0; frame < Constants.NUMBER_OF_FRAMES; frame++) {
+			for (int player = 0; player < count; player++) {
+
+				Bowler bowler = bowlers[player];
+
+				// Bowl until the player moves on to the next frame
+				while (!bowler.isFinished() && GameRules.frameOf(bowler.getPosition()) == frame) {
+					shots[length] = bowler.nextShot();
+					leaves[length] = bowler.getLeave();
+					players[length] = player;
+					length++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the players of this script to the given match, which should
+	 * have no players, then plays every shot.
+	 *
+	 * @param match
+	 */
+	public void playInto(Match match) {
+
+		for (int player = 0; player < numberOfPlayers; player++)
+			match.addPlayer(playerNames[player]);
+
+		for (int i = 0; i < length; i++)
+			match.addScore(shots[i], leaves[i]);
+	}
+
+	/**
+	 * Returns the number of shots in the match.
+	 *
+	 * @return
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Returns the number of pins knocked down by the given shot.
+	 *
+	 * @param index
+	 * @return
+	 */
+	public int getShot(int index) {
+		return shots[index];
+	}
+
+	/**
+	 * Returns the pins left standing by the given shot.
+	 *
+	 * @param index
+	 * @return
+	 */
+	public int getLeave(int index) {
+		return leaves[index];
+	}
+
+	/**
+	 * Returns the index of the player who bowls the given shot.
+	 *
+	 * @param index
+	 * @return
+	 */
+	public int getPlayer(int index) {
+		return players[index];
+	}
+
+	/**
+	 * Returns the number of players in the match.
+	 *
+	 * @return
+	 */
+	public int getNumberOfPlayers() {
+		return numberOfPlayers;
+	}
+
+	/**
+	 * Returns the name of the given player.
+	 *
+	 * @param player
+	 * @return
+	 */
+	public String getPlayerName(int player) {
+		return playerNames[player];
+	}
+
+	/**
+	 * Returns a copy of the shots in the match.
+	 *
+	 * @return
+	 */
+	public int[] toShots() {
+		return Arrays.copyOf(shots, length);
+	}
+}
@@ -0,0 +1,171 @@
+package thmuggleton.workload;
+
+import java.util.SplittableRandom;
+
+import thmuggleton.Constants;
+import thmuggleton.model.exceptions.BowlingException;
+
+/**
+ * Describes how well a bowler plays: how many pins the first ball at a full
+ * rack knocks down, and how likely the bowler is to knock down all of the
+ * pins left standing for a spare.
+ * <p>
+ * Probabilities are converted to integer thresholds when the profile is
+ * created, so drawing a shot costs one or two calls to the random number
+ * generator and never allocates. Profiles are immutable and may be shared
+ * between any number of {@link Bowler}s.
+ *
+ * @author Thomas Muggleton
+ */
+public final class SkillProfile {
+
+	// Constants
+	private static final int SCALE = 1 << 24;
+
+	/**
+	 * Occasional bowler averaging around 100.
+	 */
+	public static final SkillProfile BEGINNER = new SkillProfile("Beginner",
+			new double[] {4, 3, 4, 6, 8, 11, 14, 16, 15, 11, 8},
+			new double[] {0.45, 0.3, 0.2, 0.12, 0.08, 0.05, 0.05, 0.05, 0.05});
+
+	/**
+	 * League bowler averaging around 170.
+	 */
+	public static final SkillProfile LEAGUE = new SkillProfile("League",
+			new double[] {0.5, 0.3, 0.4, 0.6, 1, 2, 4, 9, 19, 30.2, 33},
+			new double[] {0.88, 0.65, 0.45, 0.35, 0.25, 0.2, 0.15, 0.1, 0.1});
+
+	/**
+	 * Professional bowler averaging around 220.
+	 */
+	public static final SkillProfile PROFESSIONAL = new SkillProfile("Professional",
+			new double[] {0.1, 0, 0, 0.1, 0.2, 0.4, 1, 3, 10, 28.2, 57},
+			new double[] {0.97, 0.85, 0.7, 0.55, 0.45, 0.35, 0.3, 0.25, 0.2});
+
+	// Chance, in percent, of each profile being drawn by sample()
+	private static final int BEGINNER_PERCENT = 25;
+	private static final int PROFESSIONAL_PERCENT = 20;
+
+	// Fields
+	private final String name;
+	private final int[] firstBall;
+	private final int[] conversion;
+
+	/**
+	 * Constructor
+	 *
+	 * @param name
+	 * @param firstBallWeights relative likelihood of the first ball at a
+	 * full rack knocking down 0 to 10 pins.
+	 * @param conversionProbabilities probability of knocking down all of the
+	 * pins left standing by the first ball, for 1 to 9 pins standing.
+	 * @throws BowlingException if the arrays are the wrong length or hold
+	 * values out of range.
+	 */
+	public SkillProfile(String name, double[] firstBallWeights, double[] conversionProbabilities) {
+
+		if (firstBallWeights.length != Constants.TOTAL_PINS + 1
+				|| conversionProbabilities.length != Constants.TOTAL_PINS - 1)
+			throw new BowlingException("Skill profile needs " + (Constants.TOTAL_PINS + 1)
+					+ " first ball weights and " + (Constants.TOTAL_PINS - 1) + " conversion probabilities");
+
+		this.name = name;
+		this.firstBall = new int[firstBallWeights.length];
+		this.conversion = new int[Constants.TOTAL_PINS];
+
+		// Convert weights into cumulative thresholds
+		double total = 0;
+
+		for (double weight : firstBallWeights) {
+			if (weight < 0)
+				throw new BowlingException("First ball weights must not be negative");
+
+			total += weight;
+		}
+
+		if (total <= 0)
+			throw new BowlingException("First ball weights must not all be zero");
+
+		double cumulative = 0;
+
+		for (int pins = 0; pins < firstBallWeights.length; pins++) {
+			cumulative += firstBallWeights[pins];
+			firstBall[pins] = (int) Math.round(cumulative / total * SCALE);
+		}
+
+		firstBall[Constants.TOTAL_PINS] = SCALE;
+
+		// Convert probabilities into thresholds indexed by pins standing
+		for (int standing = 1; standing < Constants.TOTAL_PINS; standing++) {
+			double probability = conversionProbabilities[standing - 1];
+
+			if (probability < 0 || probability > 1)
+				throw new BowlingException("Conversion probabilities must be between 0 and 1");
+
+			conversion[standing] = (int) Math.round(probability * SCALE);
+		}
+	}
+
+	/**
+	 * Returns a profile drawn at random from a mix typical of the bowlers
+	 * at a league night: mostly league bowlers, with some beginners and
+	 * some professionals.
+	 *
+	 * @param random
+	 * @return
+	 */
+	public static SkillProfile sample(SplittableRandom random) {
+
+		int percent = random.nextInt(100);
+
+		if (percent < BEGINNER_PERCENT)
+			return BEGINNER;
+		else if (percent < BEGINNER_PERCENT + PROFESSIONAL_PERCENT)
+			return PROFESSIONAL;
+		else
+			return LEAGUE;
+	}
+
+	/**
+	 * Returns the name of the profile.
+	 *
+	 * @return
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the number of pins knocked down by a ball bowled at the given
+	 * number of pins standing.
+	 *
+	 * @param standing
+	 * @param random
+	 * @return
+	 */
+	public int score(int standing, SplittableRandom random) {
+
+		// Full rack: draw from the first ball distribution
+		if (standing == Constants.TOTAL_PINS) {
+			int draw = random.nextInt(SCALE);
+			int pins = 0;
+
+			while (draw >= firstBall[pins])
+				pins++;
+
+			return pins;
+		}
+
+		// Pins left standing: convert, or knock down fewer of them
+		if (standing == 0 || random.nextInt(SCALE) < conversion[standing])
+			return standing;
+
+		return random.nextInt(standing);
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
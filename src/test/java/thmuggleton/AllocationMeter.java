@@ -0,0 +1,144 @@
+package thmuggleton;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import thmuggleton.model.impl.GameRules;
+
+/**
+ * Test harness to measure the bytes allocated by the current thread while
+ * running a piece of code, using the allocation counter exposed by HotSpot's
+ * {@link com.sun.management.ThreadMXBean}.
+ * <p>
+ * Budgets are read from system properties so that they can be tightened or
+ * relaxed from the build without changing the tests, e.g.
+ * {@code mvn test -Dallocation.budget.model=64}.
+ * 
+ * @author Thomas Muggleton
+ */
+public final class AllocationMeter {
+
+	/**
+	 * Shots of a typical league game, scoring 147.
+	 */
+	public static final int[] LEAGUE_GAME = {10, 7, 3, 9, 0, 10, 0, 8, 8, 2, 0, 6, 10, 10, 10, 8, 1};
+
+	// Fields
+	private static final java.lang.management.ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	/**
+	 * Private constructor; this class only provides static methods.
+	 */
+	private AllocationMeter() {
+	}
+
+	/**
+	 * Returns {@code true} if the JVM can report the bytes allocated by a
+	 * thread.
+	 * 
+	 * @return
+	 */
+	public static boolean isSupported() {
+		return THREADS instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported();
+	}
+
+	/**
+	 * Returns the budget in bytes set by the given system property, or the
+	 * given default if the property is not set.
+	 * 
+	 * @param property
+	 * @param defaultBudget
+	 * @return
+	 */
+	public static long budget(String property, long defaultBudget) {
+		return Long.getLong(property, defaultBudget);
+	}
+
+	/**
+	 * Returns the average number of bytes allocated by the given action,
+	 * after running it enough times for the JIT compiler to have optimised
+	 * it. Each run of the action is given a fresh target created by the
+	 * given setup, which is created before measuring starts so that its own
+	 * allocations are not counted.
+	 * 
+	 * @param setup creates the target for each run.
+	 * @param action code to measure.
+	 * @param warmUps number of runs before measuring.
+	 * @param repetitions number of runs to measure.
+	 * @return
+	 */
+	public static <T> double bytesPerRun(Supplier<T> setup, Consumer<T> action,
+			int warmUps, int repetitions) {
+
+		// Warm up
+		for (int i = 0; i < warmUps; i++)
+			action.accept(setup.get());
+
+		// Create targets before measuring
+		Object[] targets = new Object[repetitions];
+
+		for (int i = 0; i < repetitions; i++)
+			targets[i] = setup.get();
+
+		// Measure the cost of reading the counter, then the action
+		long overhead = allocatedBytes() - allocatedBytes();
+		long before = allocatedBytes();
+
+		for (int i = 0; i < repetitions; i++) {
+			@SuppressWarnings("unchecked")
+			T target = (T) targets[i];
+			action.accept(target);
+		}
+
+		long after = allocatedBytes();
+
+		return (double) (after - before + overhead) / repetitions;
+	}
+
+	/**
+	 * Returns the shots of a match in which every player bowls the given
+	 * game, in the order they are played.
+	 * 
+	 * @param game
+	 * @param players
+	 * @return
+	 */
+	public static int[] matchScript(int[] game, int players) {
+
+		int[] shots = new int[game.length * players];
+		int count = 0;
+		int start = 0;
+
+		// Each player bowls the same shots for each frame in turn
+		for (int frame = 0; frame < Constants.NUMBER_OF_FRAMES; frame++) {
+			int end = start;
+			int position = GameRules.position(game, 0, start);
+
+			while (position != GameRules.COMPLETE && GameRules.frameOf(position) == frame)
+				position = GameRules.advance(position, game[end++]);
+
+			for (int player = 0; player < players; player++) {
+				for (int i = start; i < end; i++)
+					shots[count++] = game[i];
+			}
+
+			start = end;
+		}
+
+		return shots;
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Returns the bytes allocated so far by the current thread.
+	 */
+	private static long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(
+				Thread.currentThread().getId());
+	}
+}
@@ -20,6 +20,7 @@ import org.junit.runner.RunWith;
 
 import thmuggleton.Command;
 import thmuggleton.Constants;
+import thmuggleton.model.Match;
 import thmuggleton.view.View;
 
 /**
@@ -42,6 +43,7 @@ import thmuggleton.view.View;
 public class IOControllerTest {
 
 	@Tested private IOController controller;
+	@Injectable private Match model;
 	@Injectable private View view;
 	
 	/**
@@ -0,0 +1,56 @@
+package thmuggleton.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Soak test running back-to-back matches through the real controllers with
+ * the LoadDriver class.
+ * <p>
+ * Adopts BDD naming conventions suggested by
+ * <a href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * <p>
+ * The heap budget is read from the {@code load.budget.heap} system property
+ * so that it can be tightened from the build without changing the test.
+ * 
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class LoadDriverTest {
+
+	private static final int MATCHES = 500;
+	private static final int PLAYERS = 2;
+	private static final long DEFAULT_HEAP_BUDGET = 4096;
+	
+	/**
+	 * Tests that every match is played to the end and that the heap in use
+	 * does not keep growing from one match to the next.
+	 */
+	@Test
+	public void shouldPlayBackToBackMatchesWithoutHeapGrowth() throws InterruptedException {
+		
+		// Record phase
+		LoadDriver driver = new LoadDriver();
+		driver.setMatches(MATCHES);
+		driver.setWarmUpMatches(50);
+		driver.setPlayersPerMatch(PLAYERS);
+		driver.setHeapSampleInterval(50);
+		
+		// Replay phase
+		LoadReport report = driver.run();
+		
+		// Verify phase
+		long budget = Long.getLong("load.budget.heap", DEFAULT_HEAP_BUDGET);
+		
+		assertEquals("Every match should be finished", MATCHES, report.getMatchesFinished());
+		assertEquals("Every event should be timed", report.getEvents(), report.getLatency().getCount());
+		assertTrue("Each match should need an event per player and shot",
+				report.getEvents() >= MATCHES * PLAYERS * (1 + 10));
+		assertTrue(String.format("Heap grew by %.1f bytes per match; budget is %d",
+				report.getHeapGrowthPerMatch(), budget), report.getHeapGrowthPerMatch() < budget);
+	}
+}
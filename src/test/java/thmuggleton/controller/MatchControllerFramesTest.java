@@ -0,0 +1,177 @@
+package thmuggleton.controller;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.event.ActionEvent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import thmuggleton.Command;
+import thmuggleton.metrics.Metrics;
+import thmuggleton.model.MatchHistory;
+import thmuggleton.model.impl.MatchImpl;
+
+/**
+ * Tests for the entry of whole frames, and the archiving of the matches
+ * they finish, through the MatchController class.
+ * <p>
+ * Adopts BDD naming conventions suggested by
+ * <a href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * <p>
+ * Unlike {@link MatchControllerTest}, the controller is driven with a real
+ * match and a {@link HeadlessView}, as by the {@link LoadDriver}, since
+ * whether frames are added depends on how they are read against the match.
+ * Dialogs are disabled, so rejected frames are seen in the rejected scores
+ * counted by {@link Metrics}.
+ *
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class MatchControllerFramesTest {
+
+	// Fields
+	private MatchImpl model;
+	private HeadlessView view;
+	private MatchController controller;
+
+	/**
+	 * Creates a controller for a match between two players.
+	 */
+	@Before
+	public void setUp() {
+
+		Dialogs.setEnabled(false);
+
+		model = new MatchImpl();
+		model.addPlayer("Alice");
+		model.addPlayer("Bob");
+		view = new HeadlessView();
+		controller = new MatchController(model);
+		controller.setView(view);
+		model.addChangeListener(controller);
+	}
+
+	/**
+	 * Shows dialogs again for other tests.
+	 */
+	@After
+	public void tearDown() {
+		Dialogs.setEnabled(true);
+	}
+
+	/**
+	 * Tests that frames whose last frame is not yet complete are rejected
+	 * and kept for the user to finish, without adding any shots.
+	 */
+	@Test
+	public void shouldRejectPartFrameAndKeepFramesEntered() {
+
+		// Record phase
+		view.setFramesEntered("X 7");
+		long added = Metrics.SCORES_ADDED.get();
+		long rejected = Metrics.SCORES_REJECTED.get();
+
+		// Replay phase
+		controller.actionPerformed(new ActionEvent(view, ActionEvent.ACTION_PERFORMED, Command.ADD_FRAMES));
+
+		// Verify phase
+		assertEquals("Part frame should be kept", "X 7", view.getFramesEntered().toString());
+		assertEquals("No shots should be played", 0, model.getNumberOfRolls("Alice"));
+		assertEquals("No shots should be counted as added", added, Metrics.SCORES_ADDED.get());
+		assertEquals("Part frame should be counted as rejected", rejected + 1,
+				Metrics.SCORES_REJECTED.get());
+	}
+
+	/**
+	 * Tests that whole frames are added in one batch and cleared from the
+	 * view.
+	 */
+	@Test
+	public void shouldAddWholeFramesAndClearFramesEntered() {
+
+		// Record phase
+		view.setFramesEntered("X 7/");
+		long added = Metrics.SCORES_ADDED.get();
+
+		// Replay phase
+		controller.actionPerformed(new ActionEvent(view, ActionEvent.ACTION_PERFORMED, Command.ADD_FRAMES));
+
+		// Verify phase
+		assertEquals("Frames added should be cleared", "", view.getFramesEntered().toString());
+		assertEquals("Alice's strike should be played", 1, model.getNumberOfRolls("Alice"));
+		assertEquals("Bob's spare should be played", 2, model.getNumberOfRolls("Bob"));
+		assertEquals("Every shot should be counted as added", added + 3, Metrics.SCORES_ADDED.get());
+	}
+
+	/**
+	 * Tests that a finished match whose last shot was mistyped, taken back
+	 * and entered again is archived with the corrected shot once the next
+	 * match is started.
+	 */
+	@Test
+	public void shouldArchiveCorrectedMatchWhenNextMatchStarts() {
+
+		// Record phase
+		view.setFramesEntered("X X X X X X X X X X X X X X X X X X XX8 XX9");
+		this.send(Command.ADD_FRAMES);
+		int mistyped = model.getTotalScore("Bob");
+
+		// Replay phase
+		this.send(Command.UNDO);
+		view.setFramesEntered("X");
+		this.send(Command.ADD_FRAMES);
+		this.send(Command.NEW_MATCH);
+
+		// Verify phase
+		MatchHistory archived = view.getArchivedMatch();
+
+		assertEquals("Match should be finished before correction", 299, mistyped);
+		assertEquals("Corrected match should be archived", 300,
+				archived.getTotalScoreAt(1, archived.getNumberOfRolls()));
+		assertEquals("Archive should hold every shot", 24, archived.getNumberOfRolls());
+		assertEquals("New match should be started", 0, model.getPlayers().size());
+	}
+
+	/**
+	 * Tests that the match archived holds its final shot when its history
+	 * was taken before that shot, as the scrubber does whenever its slider
+	 * is used.
+	 */
+	@Test
+	public void shouldArchiveFinalShotWhenHistoryTakenBeforeIt() {
+
+		// Record phase
+		view.setFramesEntered("90 90 90 90 90 90 90 90 90 90 90 90 90 90 90 90 90 90 90");
+		this.send(Command.ADD_FRAMES);
+		view.setScoreEntered(8);
+		this.send(Command.ADD_SCORE);
+		model.history();
+
+		// Replay phase
+		view.setScoreEntered(1);
+		this.send(Command.ADD_SCORE);
+		this.send(Command.NEW_MATCH);
+
+		// Verify phase
+		MatchHistory archived = view.getArchivedMatch();
+
+		assertEquals("Archive should hold the final shot", 40, archived.getNumberOfRolls());
+		assertEquals("Archive should count the final shot", 90,
+				archived.getTotalScoreAt(1, archived.getNumberOfRolls()));
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Sends the given command to the controller.
+	 */
+	private void send(String command) {
+		controller.actionPerformed(new ActionEvent(view, ActionEvent.ACTION_PERFORMED, command));
+	}
+}
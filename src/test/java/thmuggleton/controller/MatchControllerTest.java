@@ -357,9 +357,13 @@ public class MatchControllerTest {
 		 * **************/
 		new StrictExpectations() {{
 			view.highlightLeaders(model.getLeaders());
+			view.highlightEliminated(model.getEliminated());
 			
 			model.isFinished();
 			result = false;
+			
+			model.getClinched();
+			result = new HashSet<String>();
 		}};
 		
 		/* **************
@@ -391,6 +395,7 @@ public class MatchControllerTest {
 			result = testWinners;
 			
 			view.highlightLeaders(testWinners);
+			view.highlightEliminated(model.getEliminated());
 			
 			model.isFinished();
 			result = true;
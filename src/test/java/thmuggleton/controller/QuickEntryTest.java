@@ -0,0 +1,124 @@
+package thmuggleton.controller;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import thmuggleton.model.Match;
+import thmuggleton.model.impl.MatchImpl;
+import thmuggleton.model.impl.Notation;
+
+/**
+ * Tests for the QuickEntry class.
+ * <p>
+ * Adopts BDD naming conventions suggested by
+ * <a href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ *
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class QuickEntryTest {
+
+	/**
+	 * Tests that frames are read as the shots of each player in turn, from
+	 * the player due to play next, and checked against where that player
+	 * is in their game.
+	 */
+	@Test
+	public void shouldReadFramesForEachPlayerInTurn() {
+
+		// Record phase
+		QuickEntry entry = new QuickEntry();
+		Match match = new MatchImpl();
+
+		assertEquals(QuickEntry.NO_PLAYERS, entry.check(match.snapshot(), "X"));
+
+		match.addPlayer("Alice");
+		match.addPlayer("Bob");
+
+		// Replay and verify phases
+		this.assertRead(entry, match, "X 7/", QuickEntry.WHOLE_FRAMES, 10, 7, 3);
+		this.assertRead(entry, match, "X|7/|81", QuickEntry.WHOLE_FRAMES, 10, 7, 3, 8, 1);
+		this.assertRead(entry, match, "X|7/|8", QuickEntry.PART_FRAME, 10, 7, 3, 8);
+		this.assertRead(entry, match, "X 7", QuickEntry.PART_FRAME, 10, 7);
+		this.assertRead(entry, match, "", QuickEntry.PART_FRAME);
+		this.assertRead(entry, match, "-/ -", QuickEntry.PART_FRAME, 0, 10, 0);
+
+		assertEquals(Notation.INVALID_MARK, entry.check(match.snapshot(), "X /"));
+		assertEquals(Notation.INVALID_MARK, entry.check(match.snapshot(), "X 7X"));
+		assertEquals(Notation.INVALID_MARK, entry.check(match.snapshot(), "X -X"));
+		assertEquals(Notation.MISPLACED_SEPARATOR, entry.check(match.snapshot(), "7 2"));
+		assertEquals(Notation.INVALID_CHARACTER, entry.check(match.snapshot(), "X a"));
+
+		// Alice has started a frame, so her spare completes it
+		match.addScore(7);
+		this.assertRead(entry, match, "/ 81", QuickEntry.WHOLE_FRAMES, 3, 8, 1);
+		assertEquals(Notation.INVALID_MARK, entry.check(match.snapshot(), "X"));
+
+		// Bob has knocked down no pins with his first ball, so ten is a spare
+		match.addScore(3);
+		match.addScore(0);
+		this.assertRead(entry, match, "/", QuickEntry.WHOLE_FRAMES, 10);
+		assertEquals(Notation.INVALID_MARK, entry.check(match.snapshot(), "X"));
+	}
+
+	/**
+	 * Tests that a match typed a few frames at a time and added in batches
+	 * finishes with the same scores as the match played a shot at a time,
+	 * and that nothing can be typed once it is finished.
+	 */
+	@Test
+	public void shouldAddWholeMatchTypedFramesAtATime() {
+
+		// Record phase
+		QuickEntry entry = new QuickEntry();
+		Match match = new MatchImpl();
+		Match expected = new MatchImpl();
+		String[] frames = { "X 9- 7/", "81 X X", "-5 6/ 9/", "X X -5", "X 33 -- 9/",
+				"52 X 8-", "X 7/ -- 4/", "1/ X 8/ X 9-", "XXX 9/X" };
+
+		for (String player : new String[] { "Alice", "Bob", "Carol" }) {
+			match.addPlayer(player);
+			expected.addPlayer(player);
+		}
+
+		for (int i = 0; i < frames.length; i++) {
+
+			// Replay phase
+			int status = entry.check(match.snapshot(), frames[i]);
+
+			for (int shot = 0; shot < entry.getCount(); shot++)
+				expected.addScore(entry.getScores()[shot]);
+
+			// Verify phase
+			assertEquals(frames[i], QuickEntry.WHOLE_FRAMES, status);
+			assertEquals(entry.getCount(), match.addScores(entry.getScores(), 0, entry.getCount()));
+		}
+
+		for (String player : match.getPlayers())
+			assertEquals(player, expected.getTotalScore(player), match.getTotalScore(player));
+
+		assertEquals(true, match.isFinished());
+		assertEquals(Notation.TOO_MANY_SHOTS, entry.check(match.snapshot(), "X"));
+		assertEquals(QuickEntry.PART_FRAME, entry.check(match.snapshot(), " "));
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Asserts that the given text is read from the match as it stands with
+	 * the given status and shots.
+	 */
+	private void assertRead(QuickEntry entry, Match match, String text, int status, int... scores) {
+
+		assertEquals(text, status, entry.check(match.snapshot(), text));
+		assertArrayEquals(text, scores, Arrays.copyOf(entry.getScores(), entry.getCount()));
+	}
+}
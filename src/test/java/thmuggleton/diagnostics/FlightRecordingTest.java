@@ -0,0 +1,108 @@
+package thmuggleton.diagnostics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import thmuggleton.model.impl.MatchImpl;
+
+/**
+ * Tests for the FlightRecording class and the events recorded by the model.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * 
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class FlightRecordingTest {
+
+	/**
+	 * Stops the recording so that events are not recorded during other
+	 * tests.
+	 */
+	@After
+	public void tearDown() {
+		FlightRecording.stop();
+	}
+	
+	/**
+	 * Tests that scores added while recording can be read back from a dump
+	 * with the player, frame and score for each shot.
+	 */
+	@Test
+	public void shouldDumpScoreEventsWithPlayerFrameAndScore() throws Exception {
+		
+		// Record phase
+		FlightRecording.start();
+		MatchImpl match = new MatchImpl();
+		match.addPlayer("Alice");
+		match.addPlayer("Bob");
+		Path file = Files.createTempFile("bowling", ".jfr");
+		
+		// Replay phase
+		match.addScore(10);
+		match.addScore(7);
+		match.addScore(2);
+		FlightRecording.dump(file);
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		Files.delete(file);
+		
+		// Verify phase
+		int scoreEvents = 0;
+		int lastScore = -1;
+		String lastPlayer = null;
+		int lastFrame = -1;
+		
+		for (RecordedEvent event : events) {
+			if (event.getEventType().getName().equals("thmuggleton.Score")) {
+				scoreEvents++;
+				lastScore = event.getInt("score");
+				lastPlayer = event.getString("player");
+				lastFrame = event.getInt("frame");
+			}
+		}
+		
+		assertTrue("Recording should be running", FlightRecording.isRunning());
+		assertEquals("Every score should be recorded", 3, scoreEvents);
+		assertEquals("Player of last score", "Bob", lastPlayer);
+		assertEquals("Frame of last score", 1, lastFrame);
+		assertEquals("Last score", 2, lastScore);
+	}
+	
+	/**
+	 * Tests that events are only taken, and so created, while a recording
+	 * is running.
+	 */
+	@Test
+	public void shouldOnlyRecordEventsWhileRecording() throws Exception {
+		
+		// Verify phase
+		assertFalse("Score events should not be taken before recording",
+				ScoreEvent.isRecorded());
+		
+		FlightRecording.start();
+		assertTrue("Score events should be taken while recording", ScoreEvent.isRecorded());
+		assertTrue("Dispatch events should be taken while recording",
+				ListenerDispatchEvent.isRecorded());
+		assertTrue("Update events should be taken while recording", MatchUpdateEvent.isRecorded());
+		assertTrue("Image export events should be taken while recording",
+				ImageExportEvent.isRecorded());
+		
+		FlightRecording.stop();
+		assertFalse("Score events should not be taken once recording stops",
+				ScoreEvent.isRecorded());
+	}
+}
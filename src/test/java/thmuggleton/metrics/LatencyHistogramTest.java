@@ -0,0 +1,105 @@
+package thmuggleton.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for the LatencyHistogram class and Prometheus export.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * 
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class LatencyHistogramTest {
+
+	/**
+	 * Tests that buckets cover every value without gaps, each within 12.5%
+	 * of the values counted in it.
+	 */
+	@Test
+	public void shouldCoverEveryValueWithContiguousBuckets() {
+		
+		// Verify phase
+		assertEquals(0, LatencyHistogram.bucketOf(0));
+		
+		for (int bucket = 1; bucket < LatencyHistogram.NUMBER_OF_BUCKETS; bucket++) {
+			long lowest = LatencyHistogram.upperBoundOf(bucket - 1) + 1;
+			long highest = LatencyHistogram.upperBoundOf(bucket);
+			
+			assertEquals("Lowest value should be in bucket " + bucket, bucket, LatencyHistogram.bucketOf(lowest));
+			assertEquals("Highest value should be in bucket " + bucket, bucket, LatencyHistogram.bucketOf(highest));
+			assertTrue("Bucket " + bucket + " should be narrow", highest - lowest <= lowest / 8);
+		}
+		
+		assertEquals(LatencyHistogram.NUMBER_OF_BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+	}
+	
+	/**
+	 * Tests that quantiles are reported to within the width of a bucket
+	 * and that values recorded concurrently are all counted.
+	 */
+	@Test
+	public void shouldReportQuantilesOfValuesRecordedConcurrently() throws InterruptedException {
+		
+		// Record phase
+		final LatencyHistogram histogram = new LatencyHistogram("test_seconds", "Test", null);
+		Thread[] threads = new Thread[4];
+		
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (long value = 1; value <= 10000; value++)
+						histogram.record(value * 1000);
+				}
+			});
+		}
+		
+		// Replay phase
+		for (Thread thread : threads)
+			thread.start();
+		
+		for (Thread thread : threads)
+			thread.join();
+		
+		// Verify phase
+		assertEquals(40000, histogram.getCount());
+		assertEquals(4L * 1000 * 10000 * 10001 / 2, histogram.getSum());
+		
+		long median = histogram.getQuantile(0.5);
+		assertTrue("Median should be about 5ms but was " + median, median >= 5000000 && median <= 5625000);
+	}
+	
+	/**
+	 * Tests that metrics sharing a name are written together with cumulative
+	 * buckets in Prometheus exposition format.
+	 */
+	@Test
+	public void shouldWriteMetricsInPrometheusFormat() {
+		
+		// Record phase
+		LatencyHistogram first = Metrics.histogram("test_phase_seconds", "Test phases", "phase=\"a\"");
+		Metrics.histogram("test_phase_seconds", "Test phases", "phase=\"b\"");
+		Counter counter = Metrics.counter("test_events_total", "Test events", null);
+		
+		// Replay phase
+		first.record(1000);
+		first.record(3000000);
+		counter.increment();
+		String text = Metrics.toPrometheusText();
+		
+		// Verify phase
+		assertEquals("HELP should only be written once per name", text.indexOf("# HELP test_phase_seconds"),
+				text.lastIndexOf("# HELP test_phase_seconds"));
+		assertTrue(text.contains("# TYPE test_phase_seconds histogram\n"));
+		assertTrue(text.contains("test_phase_seconds_bucket{phase=\"a\",le=\"+Inf\"} 2\n"));
+		assertTrue(text.contains("test_phase_seconds_count{phase=\"b\"} 0\n"));
+		assertTrue(text.contains("test_events_total 1\n"));
+	}
+}
@@ -0,0 +1,204 @@
+package thmuggleton.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for the LatencyTrace class.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * 
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class LatencyTraceTest {
+
+	private static final long DISPATCH_NANOS = TimeUnit.MICROSECONDS.toNanos(250);
+	private static final long QUEUED_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+	
+	/**
+	 * Closes traces on the event dispatch thread, as the application does.
+	 */
+	@Before
+	public void setUp() {
+		LatencyTrace.setScheduler(LatencyTrace.EVENT_QUEUE);
+	}
+	
+	/**
+	 * Turns tracing off so that it is not left on for other tests.
+	 */
+	@After
+	public void tearDown() {
+		LatencyTrace.setScheduler(null);
+	}
+	
+	/**
+	 * Tests that a trace is closed once the event dispatch thread has
+	 * processed the events queued while handling, recording every stage.
+	 */
+	@Test
+	public void shouldRecordEachStageOnceQueuedEventsAreProcessed() throws Exception {
+		
+		// Record phase
+		long totalCount = Metrics.ROLL_LATENCY_TOTAL.getCount();
+		long totalSum = Metrics.ROLL_LATENCY_TOTAL.getSum();
+		long dispatchSum = Metrics.ROLL_LATENCY_DISPATCH.getSum();
+		long modelCount = Metrics.ROLL_LATENCY_MODEL.getCount();
+		long paintCount = Metrics.ROLL_LATENCY_PAINT.getCount();
+		
+		// Replay phase
+		this.runOnEventDispatchThread(new Runnable() {
+			@Override
+			public void run() {
+				LatencyTrace.begin(System.nanoTime() - QUEUED_NANOS);
+				
+				// Take as long as the listeners notified
+				long dispatchStart = System.nanoTime();
+				while (System.nanoTime() - dispatchStart < DISPATCH_NANOS);
+				LatencyTrace.dispatched(DISPATCH_NANOS);
+				LatencyTrace.awaitPaint();
+				
+				assertTrue("Trace should stay open until queued events are processed",
+						LatencyTrace.isOpen());
+			}
+		});
+		
+		this.runOnEventDispatchThread(new Runnable() {
+			@Override
+			public void run() {
+				assertFalse("Trace should be closed once queued events are processed",
+						LatencyTrace.isOpen());
+			}
+		});
+		
+		// Verify phase
+		assertEquals(totalCount + 1, Metrics.ROLL_LATENCY_TOTAL.getCount());
+		assertEquals(modelCount + 1, Metrics.ROLL_LATENCY_MODEL.getCount());
+		assertEquals(paintCount + 1, Metrics.ROLL_LATENCY_PAINT.getCount());
+		assertEquals(dispatchSum + DISPATCH_NANOS, Metrics.ROLL_LATENCY_DISPATCH.getSum());
+		assertTrue("Total should include time before handling",
+				Metrics.ROLL_LATENCY_TOTAL.getSum() - totalSum >= QUEUED_NANOS + DISPATCH_NANOS);
+	}
+	
+	/**
+	 * Tests that an abandoned trace records nothing, and that dispatches
+	 * made with no trace open are ignored.
+	 */
+	@Test
+	public void shouldNotRecordAbandonedTrace() throws Exception {
+		
+		// Record phase
+		long totalCount = Metrics.ROLL_LATENCY_TOTAL.getCount();
+		long dispatchCount = Metrics.ROLL_LATENCY_DISPATCH.getCount();
+		
+		// Replay phase
+		this.runOnEventDispatchThread(new Runnable() {
+			@Override
+			public void run() {
+				LatencyTrace.begin(System.nanoTime());
+				LatencyTrace.cancel();
+				LatencyTrace.dispatched(DISPATCH_NANOS);
+				LatencyTrace.awaitPaint();
+			}
+		});
+		
+		this.runOnEventDispatchThread(new Runnable() {
+			@Override
+			public void run() {
+				assertFalse("Abandoned trace should not be open", LatencyTrace.isOpen());
+			}
+		});
+		
+		// Verify phase
+		assertEquals(totalCount, Metrics.ROLL_LATENCY_TOTAL.getCount());
+		assertEquals(dispatchCount, Metrics.ROLL_LATENCY_DISPATCH.getCount());
+	}
+	
+	/**
+	 * Tests that traces are closed through the scheduler set, that nothing
+	 * is traced or scheduled while no scheduler is set, and that a trace is
+	 * only seen by the thread that opened it.
+	 */
+	@Test
+	public void shouldCloseTracesThroughSchedulerAndOnlyWhileTracing() throws Exception {
+		
+		// Record phase
+		final List<Runnable> scheduled = new ArrayList<Runnable>();
+		long totalCount = Metrics.ROLL_LATENCY_TOTAL.getCount();
+		
+		LatencyTrace.setScheduler(new Executor() {
+			@Override
+			public void execute(Runnable task) {
+				scheduled.add(task);
+			}
+		});
+		
+		// Replay phase
+		LatencyTrace.begin(System.nanoTime());
+		LatencyTrace.awaitPaint();
+		
+		final boolean[] openOnOtherThread = { true };
+		Thread other = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				openOnOtherThread[0] = LatencyTrace.isOpen();
+			}
+		});
+		other.start();
+		other.join();
+		
+		// Verify phase
+		assertTrue("Trace should be open until its scheduled close runs", LatencyTrace.isOpen());
+		assertFalse("Trace should not be seen by another thread", openOnOtherThread[0]);
+		assertEquals("Close should be passed to the scheduler", 1, scheduled.size());
+		
+		scheduled.get(0).run();
+		assertFalse("Trace should be closed once its close runs", LatencyTrace.isOpen());
+		assertEquals(totalCount + 1, Metrics.ROLL_LATENCY_TOTAL.getCount());
+		
+		// Turn tracing off
+		LatencyTrace.setScheduler(null);
+		LatencyTrace.begin(System.nanoTime());
+		LatencyTrace.awaitPaint();
+		
+		assertFalse("Nothing should be traced while tracing is off", LatencyTrace.isOpen());
+		assertEquals("Nothing should be scheduled while tracing is off", 1, scheduled.size());
+		assertEquals(totalCount + 1, Metrics.ROLL_LATENCY_TOTAL.getCount());
+	}
+	
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+	
+	/**
+	 * Runs the given task on the event dispatch thread and waits for it,
+	 * rethrowing any assertion it fails.
+	 */
+	private void runOnEventDispatchThread(Runnable task) throws InterruptedException {
+		try {
+			SwingUtilities.invokeAndWait(task);
+		}
+		catch (InvocationTargetException e) {
+			if (e.getCause() instanceof AssertionError)
+				throw (AssertionError) e.getCause();
+			
+			throw new RuntimeException(e.getCause());
+		}
+	}
+}
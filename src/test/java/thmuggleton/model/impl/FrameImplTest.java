@@ -8,6 +8,7 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import thmuggleton.model.Frame;
 import thmuggleton.model.exceptions.ScoreException;
 
 /**
@@ -133,4 +134,26 @@ public class FrameImplTest {
 				"Frame should only contain score for first and second balls",
 				7, frame.getTotal());
 	}
+	
+	/**
+	 * Tests that scores are read through the indexed getter, and that the
+	 * array returned by getScores() cannot be used to change the frame.
+	 */
+	@Test
+	public void shouldNotAllowScoresToBeChangedThroughReturnedArray() {
+
+		// Record phase
+		FrameImpl frame = new FrameImpl();
+		frame.setFirstBall(3);
+
+		// Replay phase
+		frame.getScores()[0] = 9;
+		frame.getScores()[1] = 1;
+
+		// Verify phase
+		assertEquals("Frame should hold two shots", Frame.REGULAR_FRAME, frame.getNumberOfBalls());
+		assertEquals("First score should be unchanged", 3, frame.getScore(0));
+		assertEquals("Second score should still be unset", Frame.SCORE_UNSET, frame.getScore(1));
+		assertEquals("Total should be unchanged", 3, frame.getTotal());
+	}
 }
@@ -9,6 +9,8 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import thmuggleton.Constants;
+import thmuggleton.model.Frame;
+import thmuggleton.model.exceptions.BowlingException;
 
 /**
  * Tests for the Game model class.
@@ -141,4 +143,46 @@ public class GameImplTest {
 		assertEquals("Game should return total indicating maximum scoring game",
 				300, game.getTotalScore());
 	}
+	
+	/**
+	 * Tests that the shots of a game can be read in playing order, one at a
+	 * time or copied in bulk, and match the scores held by the frames.
+	 */
+	@Test
+	public void shouldReturnRollsInPlayingOrderMatchingFrames() {
+		
+		// Record phase
+		GameImpl game = new GameImpl();
+		int[] shots = {10, 7, 3, 9, 0, 10, 0, 8, 8, 2, 0, 6, 10, 10, 10, 8, 1};
+		int[] copied = new int[Constants.MAX_ROLLS_PER_GAME + 1];
+		
+		for (int shot : shots)
+			game.addScore(shot);
+		
+		// Replay phase
+		int count = game.copyRolls(copied, 1);
+		
+		// Verify phase
+		assertEquals("Every shot should be copied", shots.length, count);
+		assertEquals(shots.length, game.getNumberOfRolls());
+		
+		int roll = 0;
+		
+		for (Frame frame : game.getFrames()) {
+			for (int ball = 0; ball < frame.getNumberOfBalls(); ball++) {
+				if (frame.getScore(ball) == Frame.SCORE_UNSET)
+					continue;
+				
+				assertEquals("Roll " + roll, shots[roll], frame.getScore(ball));
+				assertEquals("Roll " + roll, shots[roll], game.getRoll(roll));
+				assertEquals("Roll " + roll, shots[roll], copied[roll + 1]);
+				roll++;
+			}
+		}
+		
+		assertEquals("Frames should hold every shot", shots.length, roll);
+		
+		exception.expect(BowlingException.class);
+		game.getRoll(shots.length);
+	}
 }
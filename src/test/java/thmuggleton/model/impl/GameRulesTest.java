@@ -0,0 +1,123 @@
+package thmuggleton.model.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for the GameRules class.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * <p>
+ * Scores calculated from sequences of shots are cross-validated against the
+ * totals returned by the Game model class for the same shots.
+ * 
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class GameRulesTest {
+
+	/**
+	 * Tests that the running total for a sequence of shots matches the total
+	 * recorded by a game for the same shots, including partial bonus points.
+	 */
+	@Test
+	public void shouldCalculateTheSameRunningTotalAsGameImpl() {
+		
+		// Record phase
+		int[] shots = {10, 7, 3, 9, 0, 10, 10, 10, 2, 3, 6, 4, 7, 3, 10, 10, 8};
+		GameImpl game = new GameImpl();
+		
+		// Replay and verify phases
+		for (int i = 0; i < shots.length; i++) {
+			game.addScore(shots[i]);
+			
+			assertEquals("Running total should match game after shot " + (i + 1),
+					game.getTotalScore(), GameRules.score(shots, 0, i + 1));
+		}
+	}
+	
+	/**
+	 * Tests that a perfect game is only complete after twelve strikes.
+	 */
+	@Test
+	public void shouldCompletePerfectGameAfterTwelveStrikes() {
+		
+		// Record phase
+		int position = GameRules.INITIAL_POSITION;
+		
+		// Replay phase
+		for (int i = 0; i < 11; i++)
+			position = GameRules.advance(position, 10);
+		
+		// Verify phase
+		assertFalse("Game should not be complete after eleven strikes",
+				position == GameRules.COMPLETE);
+		assertEquals("Game should be complete after twelve strikes",
+				GameRules.COMPLETE, GameRules.advance(position, 10));
+	}
+	
+	/**
+	 * Tests that only a strike or spare in the last frame earns a third
+	 * shot, and that pins are only reset after a strike or spare.
+	 */
+	@Test
+	public void shouldOnlyAwardThirdShotInLastFrameForStrikeOrSpare() {
+		
+		// Record phase
+		int[] openTenth = new int[20];
+		int[] spareTenth = new int[20];
+		spareTenth[18] = 0;
+		spareTenth[19] = 10;
+		int[] strikeTenth = new int[20];
+		strikeTenth[18] = 10;
+		strikeTenth[19] = 3;
+		
+		// Replay phase
+		int open = GameRules.position(openTenth, 0, openTenth.length);
+		int spare = GameRules.position(spareTenth, 0, spareTenth.length);
+		int strike = GameRules.position(strikeTenth, 0, strikeTenth.length);
+		
+		// Verify phase
+		assertEquals("Open last frame should complete the game",
+				GameRules.COMPLETE, open);
+		assertEquals("Spare in last frame should leave a full rack for the third shot",
+				10, GameRules.pinsStanding(spare));
+		assertEquals("Strike then three in last frame should leave seven pins",
+				7, GameRules.pinsStanding(strike));
+		assertTrue("Seven should be a valid third shot", GameRules.isValidScore(strike, 7));
+		assertFalse("Eight should not be a valid third shot", GameRules.isValidScore(strike, 8));
+	}
+	
+	/**
+	 * Tests that the maximum points remaining account for bonus points owed
+	 * to earlier strikes and spares.
+	 */
+	@Test
+	public void shouldIncludeBonusOwedInMaximumPointsRemaining() {
+		
+		// Record phase
+		int[] shots = {10, 10, 7};
+		int position = GameRules.INITIAL_POSITION;
+		int pendingBonus = GameRules.NO_BONUS;
+		
+		// Replay phase
+		int atStart = GameRules.maximumRemaining(position, pendingBonus);
+		
+		for (int shot : shots) {
+			pendingBonus = GameRules.nextPendingBonus(position, pendingBonus, shot);
+			position = GameRules.advance(position, shot);
+		}
+		
+		// Verify phase
+		assertEquals("Perfect game should be available at the start", 300, atStart);
+		assertEquals("Spare then strikes should give the highest final score",
+				277 - GameRules.score(shots, 0, shots.length),
+				GameRules.maximumRemaining(position, pendingBonus));
+	}
+}
@@ -0,0 +1,137 @@
+package thmuggleton.model.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for the GameStateSpace class.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * <p>
+ * The state space is built once for all tests since enumeration visits
+ * every reachable state.
+ * 
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class GameStateSpaceTest {
+
+	private static GameStateSpace stateSpace;
+	
+	@BeforeClass
+	public static void buildStateSpace() {
+		stateSpace = GameStateSpace.build();
+	}
+	
+	/**
+	 * Tests that every reachable state is given a different index between
+	 * zero and the number of states.
+	 */
+	@Test
+	public void shouldMapEveryStateToADistinctDenseIndex() {
+		
+		// Record phase
+		boolean[] seen = new boolean[stateSpace.size()];
+		
+		// Replay and verify phases
+		for (int i = 0; i < stateSpace.size(); i++) {
+			int index = stateSpace.indexOf(stateSpace.keyAt(i));
+			
+			assertEquals("Index of key at each slot should be that slot", i, index);
+			assertFalse("No two states should share an index", seen[index]);
+			seen[index] = true;
+		}
+	}
+	
+	/**
+	 * Tests that every state passed through by a game is reachable, and that
+	 * the score packed into each state matches the game total.
+	 */
+	@Test
+	public void shouldContainEveryStateReachedByAGame() {
+		
+		// Record phase
+		int[] shots = {10, 9, 1, 10, 10, 3, 4, 0, 0, 8, 2, 10, 10, 10, 10, 7};
+		GameImpl game = new GameImpl();
+		
+		// Replay and verify phases
+		for (int shot : shots) {
+			game.addScore(shot);
+			int key = game.getStateKey();
+			
+			assertTrue("State after each shot should be reachable",
+					stateSpace.indexOf(key) != GameStateSpace.NOT_REACHABLE);
+			assertEquals("State should record the game total",
+					game.getTotalScore(), GameStateSpace.scoreOf(key));
+		}
+		
+		assertTrue("Perfect game should be reachable",
+				stateSpace.indexOf(GameStateSpace.key(GameRules.COMPLETE, GameRules.NO_BONUS, 300))
+				!= GameStateSpace.NOT_REACHABLE);
+		assertEquals("Points before the first shot should not be reachable",
+				GameStateSpace.NOT_REACHABLE,
+				stateSpace.indexOf(GameStateSpace.key(GameRules.INITIAL_POSITION, GameRules.NO_BONUS, 50)));
+	}
+	
+	/**
+	 * Tests that following the minimised automaton earns the same points as
+	 * the game rules.
+	 */
+	@Test
+	public void shouldEarnSamePointsThroughMinimisedAutomaton() {
+		
+		// Record phase
+		int[] shots = {10, 10, 10, 7, 3, 5, 4, 10, 0, 10, 6, 2, 10, 10, 9, 1};
+		int node = stateSpace.nodeOf(GameRules.INITIAL_POSITION, GameRules.NO_BONUS);
+		int total = 0;
+		
+		// Replay phase
+		for (int shot : shots) {
+			total += stateSpace.pointsFor(node, shot);
+			node = stateSpace.nextNode(node, shot);
+		}
+		
+		// Verify phase
+		assertEquals("Automaton should reach the same final score",
+				GameRules.score(shots, 0, shots.length), total);
+		assertEquals("Automaton should be complete after the final shot",
+				stateSpace.nodeOf(GameRules.COMPLETE, GameRules.NO_BONUS), node);
+	}
+	
+	/**
+	 * Tests that a saved state space is loaded with the same indices.
+	 */
+	@Test
+	public void shouldLoadSavedStateSpaceWithSameIndices() throws Exception {
+		
+		// Record phase
+		Path file = Files.createTempFile("states", ".bin");
+		
+		try {
+			// Replay phase
+			stateSpace.save(file);
+			GameStateSpace loaded = GameStateSpace.load(file);
+			
+			// Verify phase
+			assertEquals("Loaded state space should be the same size",
+					stateSpace.size(), loaded.size());
+			
+			for (int i = 0; i < stateSpace.size(); i += 97)
+				assertEquals("Loaded state space should give the same index",
+						i, loaded.indexOf(stateSpace.keyAt(i)));
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+}
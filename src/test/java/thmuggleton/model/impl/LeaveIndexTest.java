@@ -0,0 +1,177 @@
+package thmuggleton.model.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import thmuggleton.Constants;
+import thmuggleton.model.Frame;
+
+/**
+ * Tests for the LeaveIndex and PostingList classes.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * <p>
+ * Query results are cross-validated against statistics gathered directly
+ * from the frames of each archived match.
+ *
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class LeaveIndexTest {
+
+	private static final String[] PLAYERS = {"Alice", "Bob", "Carol"};
+	private static final LocalDate FIRST_DAY = LocalDate.of(2026, 1, 1);
+
+	/**
+	 * Tests that a cursor finds the first position at or after each target,
+	 * including across skip entries.
+	 */
+	@Test
+	public void shouldAdvanceCursorToFirstPositionAtOrAfterTarget() {
+
+		// Record phase
+		SplittableRandom random = new SplittableRandom(7);
+		PostingList postings = new PostingList();
+		int[] positions = new int[5000];
+
+		for (int i = 0, position = 0; i < positions.length; i++) {
+			position += 1 + random.nextInt(300);
+			positions[i] = position;
+			postings.add(position);
+		}
+
+		// Replay and verify phases
+		PostingList.Cursor cursor = postings.cursor();
+		int target = 0;
+
+		for (int i = 0; i < positions.length; i++) {
+			if (positions[i] < target)
+				continue;
+
+			assertEquals("Cursor should stop at first position from " + target,
+					positions[i], cursor.advance(target));
+
+			target = positions[i] + 1 + random.nextInt(2000);
+		}
+
+		assertEquals(PostingList.NO_MORE_POSITIONS, cursor.advance(Integer.MAX_VALUE - 1));
+	}
+
+	/**
+	 * Tests that queries combining player, date range and leave match the
+	 * statistics gathered from the frames of the matches in range.
+	 */
+	@Test
+	public void shouldMatchStatisticsGatheredFromFramesForCombinedFilters() {
+
+		// Record phase
+		SplittableRandom random = new SplittableRandom(11);
+		LeaveIndex index = new LeaveIndex();
+		List<MatchImpl> matches = new ArrayList<MatchImpl>();
+		List<LocalDate> dates = new ArrayList<LocalDate>();
+
+		for (int i = 0; i < 60; i++) {
+			MatchImpl match = this.playMatch(random);
+			LocalDate date = FIRST_DAY.plusDays(i / 3);
+
+			index.addMatch(match, date);
+			matches.add(match);
+			dates.add(date);
+		}
+
+		LocalDate from = FIRST_DAY.plusDays(4);
+		LocalDate to = FIRST_DAY.plusDays(12);
+		LeaveStatistics expected = new LeaveStatistics();
+		int[] rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+		int balls = 0;
+
+		for (MatchImpl match : matches) {
+			for (String player : PLAYERS)
+				balls += match.getGame(player).copyRolls(rolls, 0);
+		}
+
+		for (int i = 0; i < matches.size(); i++) {
+			if (dates.get(i).isBefore(from) || dates.get(i).isAfter(to))
+				continue;
+
+			for (Frame frame : matches.get(i).getFrames("Bob"))
+				expected.recordFrame(frame);
+		}
+
+		// Replay phase
+		int tenPin = Leaves.of(10);
+		LeaveStatistics tenPinResult = index.query("Bob", from, to, tenPin);
+		LeaveStatistics allLeavesResult = index.query("Bob", from, to, Leaves.UNKNOWN);
+
+		// Verify phase
+		assertEquals("Every ball should be archived", balls, index.size());
+		assertEquals(expected.getAttempts(tenPin), tenPinResult.getAttempts(tenPin));
+		assertEquals(expected.getConversions(tenPin), tenPinResult.getConversions(tenPin));
+
+		for (int leave = 0; leave < Leaves.NUMBER_OF_LEAVES; leave++) {
+			assertEquals("Attempts for " + Leaves.toString(leave),
+					expected.getAttempts(leave), allLeavesResult.getAttempts(leave));
+			assertEquals("Conversions for " + Leaves.toString(leave),
+					expected.getConversions(leave), allLeavesResult.getConversions(leave));
+		}
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Plays a match in which every pin standing stays up with probability
+	 * 0.3, recording the leave for each shot.
+	 */
+	private MatchImpl playMatch(SplittableRandom random) {
+
+		MatchImpl match = new MatchImpl();
+		int[] positions = new int[PLAYERS.length];
+		int[] standing = new int[PLAYERS.length];
+
+		for (int i = 0; i < PLAYERS.length; i++) {
+			match.addPlayer(PLAYERS[i]);
+			positions[i] = GameRules.INITIAL_POSITION;
+			standing[i] = Leaves.FULL_RACK;
+		}
+
+		int player = 0;
+
+		while (!match.isFinished()) {
+
+			int leave = 0;
+
+			for (int pin = 1; pin <= Constants.TOTAL_PINS; pin++) {
+				if (Leaves.isStanding(standing[player], pin) && random.nextInt(10) < 3)
+					leave |= Leaves.of(pin);
+			}
+
+			int score = Leaves.pinsStanding(standing[player]) - Leaves.pinsStanding(leave);
+			int position = GameRules.advance(positions[player], score);
+
+			match.addScore(score, leave);
+			standing[player] = (position != GameRules.COMPLETE
+					&& GameRules.pinsStanding(position) == Constants.TOTAL_PINS) ? Leaves.FULL_RACK : leave;
+
+			// Move to the next player once the frame is over
+			boolean frameOver = position == GameRules.COMPLETE
+					|| GameRules.frameOf(position) != GameRules.frameOf(positions[player]);
+			positions[player] = position;
+
+			if (frameOver)
+				player = (player + 1) % PLAYERS.length;
+		}
+
+		return match;
+	}
+}
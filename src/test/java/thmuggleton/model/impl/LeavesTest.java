@@ -0,0 +1,127 @@
+package thmuggleton.model.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import thmuggleton.model.Frame;
+import thmuggleton.model.exceptions.ScoreException;
+
+/**
+ * Tests for the Leaves and LeaveStatistics classes, and for leaves recorded
+ * by the Game model class.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ *
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class LeavesTest {
+
+	/**
+	 * Tests that well-known leaves are classified as splits, washouts or
+	 * neither.
+	 */
+	@Test
+	public void shouldClassifySplitsAndWashouts() {
+
+		// Verify phase
+		assertTrue("7-10 should be a split", Leaves.isSplit(Leaves.of(7, 10)));
+		assertTrue("4-6 should be a split", Leaves.isSplit(Leaves.of(4, 6)));
+		assertTrue("4-7-10 should be a split", Leaves.isSplit(Leaves.of(4, 7, 10)));
+		assertFalse("2-8 sleeper should not be a split", Leaves.isSplit(Leaves.of(2, 8)));
+		assertFalse("2-4-5-8 bucket should not be a split", Leaves.isSplit(Leaves.of(2, 4, 5, 8)));
+		assertFalse("Single pin should not be a split", Leaves.isSplit(Leaves.of(10)));
+		assertTrue("1-2-10 should be a washout", Leaves.isWashout(Leaves.of(1, 2, 10)));
+		assertFalse("1-2-10 should not be a split", Leaves.isSplit(Leaves.of(1, 2, 10)));
+		assertFalse("Full rack should not be a washout", Leaves.isWashout(Leaves.FULL_RACK));
+		assertEquals("Pins should be listed in order", "7-10", Leaves.toString(Leaves.of(10, 7)));
+	}
+
+	/**
+	 * Tests that pins standing next to each other in the same row are a
+	 * split, as the pin in front of and between them is down, unless a pin
+	 * behind joins them.
+	 */
+	@Test
+	public void shouldClassifyPinsSideBySideAsSplit() {
+
+		// Verify phase
+		assertTrue("4-5 should be a split", Leaves.isSplit(Leaves.of(4, 5)));
+		assertTrue("5-6 should be a split", Leaves.isSplit(Leaves.of(5, 6)));
+		assertTrue("7-8 should be a split", Leaves.isSplit(Leaves.of(7, 8)));
+		assertTrue("8-9 should be a split", Leaves.isSplit(Leaves.of(8, 9)));
+		assertTrue("9-10 should be a split", Leaves.isSplit(Leaves.of(9, 10)));
+		assertTrue("2-3 should be a split", Leaves.isSplit(Leaves.of(2, 3)));
+		assertFalse("4-5-8 should not be a split", Leaves.isSplit(Leaves.of(4, 5, 8)));
+		assertFalse("2-3-5 should not be a split", Leaves.isSplit(Leaves.of(2, 3, 5)));
+		assertFalse("6-9-10 should not be a split", Leaves.isSplit(Leaves.of(6, 9, 10)));
+		assertTrue("1-9-10 should be a washout", Leaves.isWashout(Leaves.of(1, 9, 10)));
+	}
+
+	/**
+	 * Tests that a game records the leave for each shot and that statistics
+	 * count conversions, including attempts after a strike in the last frame.
+	 */
+	@Test
+	public void shouldRecordLeavesAndCountConversions() {
+
+		// Record phase
+		GameImpl game = new GameImpl();
+		LeaveStatistics statistics = new LeaveStatistics();
+
+		// Replay phase
+		game.addScore(8, Leaves.of(7, 10));
+		game.addScore(2, 0);
+		game.addScore(9, Leaves.of(10));
+		game.addScore(0, Leaves.of(10));
+
+		for (int i = 0; i < 7; i++)
+			game.addScore(10, 0);
+
+		game.addScore(10, 0);
+		game.addScore(8, Leaves.of(4, 6));
+		game.addScore(0, Leaves.of(4, 6));
+
+		for (Frame frame : game.getFrames())
+			statistics.recordFrame(frame);
+
+		// Verify phase
+		assertEquals("Leave of first shot", Leaves.of(7, 10), game.getFrames()[0].getLeave(0));
+		assertEquals("7-10 conversions", 1, statistics.getConversions(Leaves.of(7, 10)));
+		assertEquals("10 pin attempts", 1, statistics.getAttempts(Leaves.of(10)));
+		assertEquals("10 pin conversions", 0, statistics.getConversions(Leaves.of(10)));
+		assertEquals("4-6 attempts in last frame", 1, statistics.getAttempts(Leaves.of(4, 6)));
+		assertEquals("Split attempts", 2, statistics.getSplitAttempts());
+		assertEquals("Split conversions", 1, statistics.getSplitConversions());
+	}
+
+	/**
+	 * Tests that a leave including a pin already knocked down is rejected.
+	 */
+	@Test(expected = ScoreException.class)
+	public void shouldRejectLeaveWithPinAlreadyKnockedDown() {
+
+		// Record phase
+		GameImpl game = new GameImpl();
+		game.addScore(9, Leaves.of(10));
+
+		// Replay phase
+		game.addScore(0, Leaves.of(7));
+	}
+
+	/**
+	 * Tests that a leave is rejected if it does not match the score.
+	 */
+	@Test(expected = ScoreException.class)
+	public void shouldRejectLeaveThatDoesNotMatchScore() {
+
+		// Replay phase
+		new GameImpl().addScore(8, Leaves.of(10));
+	}
+}
@@ -0,0 +1,173 @@
+package thmuggleton.model.impl;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import thmuggleton.AllocationMeter;
+
+/**
+ * Allocation budget tests for scoring a match in the model alone.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * <p>
+ * The budgets, in bytes per shot, per new match and per rejected score,
+ * can be overridden with the {@code allocation.budget.model},
+ * {@code allocation.budget.model.match} and
+ * {@code allocation.budget.model.rejected} system properties.
+ * 
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class MatchAllocationTest {
+
+	// Constants
+	private static final String BUDGET_PROPERTY = "allocation.budget.model";
+	private static final long DEFAULT_BUDGET = 96;
+	private static final String NEW_MATCH_BUDGET_PROPERTY = "allocation.budget.model.match";
+	private static final long DEFAULT_NEW_MATCH_BUDGET = 256;
+	private static final String REJECTED_BUDGET_PROPERTY = "allocation.budget.model.rejected";
+	private static final long DEFAULT_REJECTED_BUDGET = 0;
+	private static final int REJECTIONS = 1000;
+	private static final String[] PLAYER_NAMES = {"Player 0", "Player 1", "Player 2", "Player 3"};
+	private static final int PLAYERS = 4;
+	private static final int WARM_UPS = 20000;
+	private static final int REPETITIONS = 2000;
+
+	/**
+	 * Tests that scoring every shot of a match stays within the allocation
+	 * budget per shot.
+	 */
+	@Test
+	public void shouldAllocateWithinBudgetPerShot() {
+		
+		assumeTrue("Thread allocation counter not available", AllocationMeter.isSupported());
+
+		// Record phase
+		final int[] shots = AllocationMeter.matchScript(AllocationMeter.LEAGUE_GAME, PLAYERS);
+		long budget = AllocationMeter.budget(BUDGET_PROPERTY, DEFAULT_BUDGET);
+		
+		Supplier<MatchImpl> setup = new Supplier<MatchImpl>() {
+			@Override
+			public MatchImpl get() {
+				MatchImpl match = new MatchImpl();
+				
+				for (int i = 0; i < PLAYERS; i++)
+					match.addPlayer("Player " + i);
+				
+				return match;
+			}
+		};
+		
+		Consumer<MatchImpl> action = new Consumer<MatchImpl>() {
+			@Override
+			public void accept(MatchImpl match) {
+				for (int shot : shots)
+					match.addScore(shot);
+			}
+		};
+
+		// Replay phase
+		double bytesPerShot = AllocationMeter.bytesPerRun(setup, action, WARM_UPS, REPETITIONS) / shots.length;
+
+		// Verify phase
+		assertTrue(String.format("Allocated %.1f bytes per shot; budget is %d", bytesPerShot, budget),
+				bytesPerShot <= budget);
+	}
+	
+	/**
+	 * Tests that clearing a finished match and adding the players of the
+	 * next match stays within the allocation budget per match, since the
+	 * games and frames of the finished match are reused.
+	 */
+	@Test
+	public void shouldAllocateWithinBudgetPerNewMatch() {
+		
+		assumeTrue("Thread allocation counter not available", AllocationMeter.isSupported());
+
+		// Record phase
+		final int[] shots = AllocationMeter.matchScript(AllocationMeter.LEAGUE_GAME, PLAYERS);
+		long budget = AllocationMeter.budget(NEW_MATCH_BUDGET_PROPERTY, DEFAULT_NEW_MATCH_BUDGET);
+		
+		Supplier<MatchImpl> setup = new Supplier<MatchImpl>() {
+			@Override
+			public MatchImpl get() {
+				MatchImpl match = new MatchImpl();
+				
+				for (String player : PLAYER_NAMES)
+					match.addPlayer(player);
+				
+				for (int shot : shots)
+					match.addScore(shot);
+				
+				return match;
+			}
+		};
+		
+		Consumer<MatchImpl> action = new Consumer<MatchImpl>() {
+			@Override
+			public void accept(MatchImpl match) {
+				match.clear();
+				
+				for (String player : PLAYER_NAMES)
+					match.addPlayer(player);
+			}
+		};
+
+		// Replay phase
+		double bytesPerMatch = AllocationMeter.bytesPerRun(setup, action, WARM_UPS, REPETITIONS);
+
+		// Verify phase
+		assertTrue(String.format("Allocated %.1f bytes per new match; budget is %d", bytesPerMatch, budget),
+				bytesPerMatch <= budget);
+	}
+	
+	/**
+	 * Tests that rejecting invalid scores through tryAddScore() does not
+	 * allocate, unlike addScore(), which builds an exception.
+	 */
+	@Test
+	public void shouldNotAllocateWhenRejectingScores() {
+		
+		assumeTrue("Thread allocation counter not available", AllocationMeter.isSupported());
+
+		// Record phase
+		long budget = AllocationMeter.budget(REJECTED_BUDGET_PROPERTY, DEFAULT_REJECTED_BUDGET);
+		
+		Supplier<MatchImpl> setup = new Supplier<MatchImpl>() {
+			@Override
+			public MatchImpl get() {
+				MatchImpl match = new MatchImpl();
+				
+				for (String player : PLAYER_NAMES)
+					match.addPlayer(player);
+				
+				match.addScore(7);
+				return match;
+			}
+		};
+		
+		Consumer<MatchImpl> action = new Consumer<MatchImpl>() {
+			@Override
+			public void accept(MatchImpl match) {
+				for (int i = 0; i < REJECTIONS; i++)
+					match.tryAddScore(4 + (i & 3));
+			}
+		};
+
+		// Replay phase
+		double bytesPerRejection = AllocationMeter.bytesPerRun(setup, action, WARM_UPS, REPETITIONS)
+				/ REJECTIONS;
+
+		// Verify phase
+		assertTrue(String.format("Allocated %.1f bytes per rejected score; budget is %d", bytesPerRejection, budget),
+				bytesPerRejection <= budget);
+	}
+}
@@ -0,0 +1,229 @@
+package thmuggleton.model.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import thmuggleton.AllocationMeter;
+import thmuggleton.Constants;
+import thmuggleton.model.MatchHistory;
+import thmuggleton.workload.League;
+import thmuggleton.workload.MatchScript;
+
+/**
+ * Tests for the MatchHistoryImpl class.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * <p>
+ * The state read from a history after each shot is checked against the
+ * rolls and totals read from the match when that shot was played. The
+ * allocation budget, in bytes for reading every player's shots and total
+ * at every shot of a match, can be overridden with the
+ * {@code allocation.budget.history} system property.
+ *
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class MatchHistoryTest {
+
+	// Constants
+	private static final String BUDGET_PROPERTY = "allocation.budget.history";
+	private static final long DEFAULT_BUDGET = 0;
+	private static final int WARM_UPS = 5000;
+	private static final int REPETITIONS = 1000;
+
+	/**
+	 * Tests that the state read from the history of each match of a season
+	 * after any number of shots is the state of the match when that many
+	 * shots had been played, across every checkpoint.
+	 */
+	@Test
+	public void shouldReadStateOfMatchAfterEveryShot() {
+
+		// Record phase
+		MatchImpl match = new MatchImpl();
+		League league = new League(Constants.MAX_NUMBER_OF_PLAYERS, Constants.MAX_NUMBER_OF_PLAYERS, 1, 5, 17);
+		MatchScript script = new MatchScript();
+		int[] rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+
+		while (league.next(script)) {
+			match.clear();
+
+			for (int player = 0; player < script.getNumberOfPlayers(); player++)
+				match.addPlayer(script.getPlayerName(player));
+
+			List<int[][]> expectedRolls = new ArrayList<int[][]>();
+			List<int[]> expectedTotals = new ArrayList<int[]>();
+			expectedRolls.add(this.copyRolls(match));
+			expectedTotals.add(this.totals(match));
+
+			// Replay phase
+			for (int shot = 0; shot < script.length(); shot++) {
+				match.addScore(script.getShot(shot), script.getLeave(shot));
+				expectedRolls.add(this.copyRolls(match));
+				expectedTotals.add(this.totals(match));
+			}
+
+			MatchHistory history = match.history();
+
+			// Verify phase
+			assertEquals(script.length(), history.getNumberOfRolls());
+			assertEquals(script.getNumberOfPlayers(), history.getNumberOfPlayers());
+
+			for (int shot = 0; shot <= script.length(); shot++) {
+
+				if (shot < script.length())
+					assertEquals("Player of shot " + shot, script.getPlayer(shot), history.getPlayerOfRoll(shot));
+
+				for (int player = 0; player < history.getNumberOfPlayers(); player++) {
+					int[] expected = expectedRolls.get(shot)[player];
+					int count = history.copyRollsAt(player, shot, rolls, 0);
+
+					assertEquals("Rolls after shot " + shot, expected.length, count);
+					assertEquals("Rolls after shot " + shot, count, history.getNumberOfRollsAt(player, shot));
+
+					for (int roll = 0; roll < count; roll++)
+						assertEquals("Roll after shot " + shot, expected[roll], rolls[roll]);
+
+					assertEquals("Total after shot " + shot, expectedTotals.get(shot)[player],
+							history.getTotalScoreAt(player, shot));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests that a history is kept until the match changes, and is not
+	 * changed when shots are taken back or the match is cleared.
+	 */
+	@Test
+	public void shouldNotChangeHistoryWhenMatchChanges() {
+
+		// Record phase
+		MatchImpl match = new MatchImpl();
+		match.addPlayer("Alice");
+		match.addPlayer("Bob");
+		match.addScore(7);
+		match.addScore(2);
+		match.addScore(10);
+		match.addScore(3);
+		MatchHistory history = match.history();
+
+		// Replay phase
+		MatchHistory unchanged = match.history();
+		match.undo(2);
+		match.addScore(4);
+		MatchHistory undone = match.history();
+		match.clear();
+		match.addPlayer("Carol");
+		match.addScore(5);
+
+		// Verify phase
+		assertSame("Unchanged match should return the same history", history, unchanged);
+		assertNotSame(history, undone);
+		assertEquals(4, history.getNumberOfRolls());
+		assertEquals(1, history.getPlayerOfRoll(2));
+		assertEquals(12, history.getTotalScoreAt(0, 4));
+		assertEquals(10, history.getTotalScoreAt(1, 3));
+		assertEquals("Alice", history.getPlayer(0));
+		assertEquals(3, undone.getNumberOfRolls());
+		assertEquals(4, undone.getTotalScoreAt(1, 3));
+	}
+
+	/**
+	 * Tests that reading the shots and total of every player, at every shot
+	 * of a match, does not allocate.
+	 */
+	@Test
+	public void shouldReadStateWithoutAllocating() {
+
+		assumeTrue("Thread allocation counter not available", AllocationMeter.isSupported());
+
+		// Record phase
+		final int[] shots = AllocationMeter.matchScript(AllocationMeter.LEAGUE_GAME,
+				Constants.MAX_NUMBER_OF_PLAYERS);
+		final int[] rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+		long budget = AllocationMeter.budget(BUDGET_PROPERTY, DEFAULT_BUDGET);
+
+		MatchImpl match = new MatchImpl();
+
+		for (int i = 0; i < Constants.MAX_NUMBER_OF_PLAYERS; i++)
+			match.addPlayer("Player " + i);
+
+		for (int shot : shots)
+			match.addScore(shot);
+
+		final MatchHistory history = match.history();
+
+		Supplier<MatchHistory> setup = new Supplier<MatchHistory>() {
+			@Override
+			public MatchHistory get() {
+				return history;
+			}
+		};
+
+		Consumer<MatchHistory> readEveryShot = new Consumer<MatchHistory>() {
+			@Override
+			public void accept(MatchHistory history) {
+				for (int shot = 0; shot <= history.getNumberOfRolls(); shot++) {
+					for (int player = 0; player < history.getNumberOfPlayers(); player++) {
+						history.copyRollsAt(player, shot, rolls, 0);
+						history.getTotalScoreAt(player, shot);
+					}
+				}
+			}
+		};
+
+		// Replay phase
+		double bytesPerMatch = AllocationMeter.bytesPerRun(setup, readEveryShot, WARM_UPS, REPETITIONS);
+
+		// Verify phase
+		assertTrue(String.format("Reading history allocated %.1f bytes per match; budget is %d",
+				bytesPerMatch, budget), bytesPerMatch <= budget);
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Returns the rolls of every player, read from the match.
+	 */
+	private int[][] copyRolls(MatchImpl match) {
+
+		int[][] rolls = new int[match.getNumberOfPlayers()][];
+
+		for (int player = 0; player < rolls.length; player++) {
+			String name = match.getPlayer(player);
+			rolls[player] = new int[match.getNumberOfRolls(name)];
+			match.copyRolls(name, rolls[player], 0);
+		}
+
+		return rolls;
+	}
+
+	/**
+	 * Returns the total score of every player, read from the match.
+	 */
+	private int[] totals(MatchImpl match) {
+
+		int[] totals = new int[match.getNumberOfPlayers()];
+
+		for (int player = 0; player < totals.length; player++)
+			totals[player] = match.getTotalScore(match.getPlayer(player));
+
+		return totals;
+	}
+}
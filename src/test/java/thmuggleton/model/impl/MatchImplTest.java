@@ -3,6 +3,13 @@ package thmuggleton.model.impl;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -11,7 +18,12 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import thmuggleton.Constants;
+import thmuggleton.model.Frame;
+import thmuggleton.model.Match;
 import thmuggleton.model.exceptions.BowlingException;
+import thmuggleton.model.exceptions.RollRejections;
+import thmuggleton.workload.League;
+import thmuggleton.workload.MatchScript;
 
 /**
  * Tests for the Match model class.
@@ -33,6 +45,9 @@ import thmuggleton.model.exceptions.BowlingException;
 @RunWith(JUnit4.class)
 public class MatchImplTest {
 
+	// Constants
+	private static final long READER_TIMEOUT_MILLIS = 2000;
+
 	@Rule
 	public ExpectedException exception = ExpectedException.none();
 	
@@ -353,4 +368,788 @@ public class MatchImplTest {
 			assertTrue("Winners should contain the three players added.",
 				match.getLeaders().contains(player));
 	}
+	
+	/**
+	 * Tests that a player who can no longer be caught has clinched the match
+	 * and that their opponent is eliminated before the match is finished.
+	 * <p>
+	 * Coverage: addScore(), getClinched() and getEliminated() methods.
+	 */
+	@Test
+	public void shouldDetectClinchedAndEliminatedPlayersBeforeMatchIsFinished() {
+		
+		/* **************
+		 *  Record phase
+		 * **************/
+		String playerOne = "Alice";
+		String playerTwo = "Bob";
+		
+		MatchImpl match = new MatchImpl();
+		match.addPlayer(playerOne);
+		match.addPlayer(playerTwo);
+		
+		/* **************
+		 *  Replay phase
+		 * **************/
+		
+		// Player one bowls strikes while player two bowls gutter balls
+		for (int i = 0; i < 5; i++) {
+			match.addScore(10);
+			
+			assertTrue("No player should be eliminated after " + (i + 1) + " frames",
+					match.getEliminated().isEmpty());
+			
+			match.addScore(0);
+			match.addScore(0);
+		}
+		
+		// After six strikes player one scores at least 30 * 4 + 20 + 10 = 150,
+		// while player two can score at most 120 from the four frames left
+		match.addScore(10);
+		match.addScore(0);
+		match.addScore(0);
+		
+		/* **************
+		 *  Verify phase
+		 * **************/
+		assertFalse("Match should not be finished", match.isFinished());
+		assertTrue("Player one should have clinched the match",
+				match.getClinched().contains(playerOne));
+		assertEquals("Only one player should have clinched the match",
+				1, match.getClinched().size());
+		assertTrue("Player two should be eliminated",
+				match.getEliminated().contains(playerTwo));
+	}
+	
+	/**
+	 * Tests that a listener is no longer notified once removed from a
+	 * frame, and that listeners on the frames of a match are removed when
+	 * the match is cleared.
+	 * <p>
+	 * Coverage: removeChangeListener() and clear() methods.
+	 */
+	@Test
+	public void shouldStopNotifyingListenersOnceRemovedOrCleared() {
+		
+		/* **************
+		 *  Record phase
+		 * **************/
+		MatchImpl match = new MatchImpl();
+		match.addPlayer("Alice");
+		
+		Frame[] frames = match.getFrames("Alice");
+		CountingListener removed = new CountingListener();
+		CountingListener cleared = new CountingListener();
+		frames[0].addChangeListener(removed);
+		frames[1].addChangeListener(cleared);
+		
+		/* **************
+		 *  Replay phase
+		 * **************/
+		frames[0].removeChangeListener(removed);
+		match.addScore(3);
+		match.addScore(4);
+		match.clear();
+		((AbstractFrame) frames[1]).notifyListeners();
+		
+		/* **************
+		 *  Verify phase
+		 * **************/
+		assertEquals("Removed listener should not be notified", 0, removed.count);
+		assertEquals("Listener on cleared match should not be notified", 0, cleared.count);
+	}
+	
+	/**
+	 * Tests that a weak listener is notified while referred to elsewhere,
+	 * and is not kept alive by the frame once it is not.
+	 * <p>
+	 * Coverage: addWeakChangeListener() method.
+	 */
+	@Test
+	public void shouldNotKeepWeakListenerAlive() throws InterruptedException {
+		
+		/* **************
+		 *  Record phase
+		 * **************/
+		MatchImpl match = new MatchImpl();
+		match.addPlayer("Alice");
+		
+		Frame frame = match.getFrames("Alice")[0];
+		CountingListener listener = new CountingListener();
+		frame.addWeakChangeListener(listener);
+		frame.addWeakChangeListener(new CountingListener());
+		
+		/* **************
+		 *  Replay phase
+		 * **************/
+		match.addScore(3);
+		int notifications = listener.count;
+		
+		WeakReference<CountingListener> reference = new WeakReference<CountingListener>(listener);
+		listener = null;
+		
+		for (int i = 0; i < 10 && reference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		
+		/* **************
+		 *  Verify phase
+		 * **************/
+		assertEquals("Weak listener should be notified while referred to", 1, notifications);
+		assertTrue("Weak listener should have been garbage collected", reference.get() == null);
+		
+		// Notifying the frame drops the collected listeners
+		match.addScore(4);
+	}
+	
+	/**
+	 * Tests that the games of a cleared match are reused, with their
+	 * frames reset, by the players of the next match.
+	 * <p>
+	 * Coverage: clear() and addPlayer() methods.
+	 */
+	@Test
+	public void shouldReuseResetGamesForNextMatch() {
+		
+		/* **************
+		 *  Record phase
+		 * **************/
+		MatchImpl match = new MatchImpl();
+		match.addPlayer("Alice");
+		match.addPlayer("Bob");
+		
+		Frame[] aliceFrames = match.getFrames("Alice");
+		Frame[] bobFrames = match.getFrames("Bob");
+		
+		while (!match.isFinished())
+			match.addScore(Constants.TOTAL_PINS, 0);
+		
+		/* **************
+		 *  Replay phase
+		 * **************/
+		match.clear();
+		match.addPlayer("Carol");
+		match.addPlayer("Dave");
+		
+		Frame[] carolFrames = match.getFrames("Carol");
+		
+		/* **************
+		 *  Verify phase
+		 * **************/
+		assertTrue("Frames should be reused", carolFrames == aliceFrames || carolFrames == bobFrames);
+		
+		for (Frame frame : carolFrames) {
+			assertFalse("Reused frame should not be a strike", frame.isStrike());
+			assertEquals("Reused frame should have no total", 0, frame.getTotal());
+			assertEquals("Reused frame should have no leave", Leaves.UNKNOWN, frame.getLeave(0));
+			
+			for (int score : frame.getScores())
+				assertEquals("Reused frame should have no scores", Frame.SCORE_UNSET, score);
+		}
+		
+		// Reused games should score a new match from the start
+		match.addScore(7);
+		match.addScore(2);
+		match.addScore(4);
+		
+		assertEquals(9, match.getTotalScore("Carol"));
+		assertEquals(4, match.getTotalScore("Dave"));
+		assertFalse(match.isFinished());
+	}
+	
+	/**
+	 * Tests that invalid scores and leaves are rejected with a status,
+	 * without changing the match, in the cases where addScore() would throw
+	 * an exception of the same type as the preallocated one.
+	 * <p>
+	 * Coverage: tryAddScore() method.
+	 */
+	@Test
+	public void shouldRejectInvalidScoresWithStatusAndLeaveMatchUnchanged() {
+		
+		/* **************
+		 *  Record phase
+		 * **************/
+		MatchImpl match = new MatchImpl();
+		MatchImpl throwingMatch = new MatchImpl();
+		
+		/* ***************************
+		 *  Replay and verify phases
+		 * ***************************/
+		this.assertRejected(Match.NO_PLAYERS, match, throwingMatch, 5, Leaves.UNKNOWN);
+		
+		match.addPlayer("Alice");
+		throwingMatch.addPlayer("Alice");
+		
+		assertEquals(Match.ROLL_ADDED, match.tryAddScore(7, Leaves.of(1, 2, 3)));
+		throwingMatch.addScore(7, Leaves.of(1, 2, 3));
+		
+		this.assertRejected(Match.INVALID_SCORE, match, throwingMatch, 4, Leaves.UNKNOWN);
+		this.assertRejected(Match.INVALID_SCORE, match, throwingMatch, -1, Leaves.UNKNOWN);
+		this.assertRejected(Match.INVALID_LEAVE, match, throwingMatch, 2, Leaves.of(4));
+		this.assertRejected(Match.INVALID_LEAVE, match, throwingMatch, 2, Leaves.of(1, 2));
+		assertEquals("Rejected scores should not change the match", 7, match.getTotalScore("Alice"));
+		
+		assertEquals(Match.ROLL_ADDED, match.tryAddScore(3));
+		throwingMatch.addScore(3);
+		
+		for (int i = 0; i < 10; i++)
+			assertEquals(Match.ROLL_ADDED, match.tryAddScore(Constants.TOTAL_PINS));
+		
+		assertEquals(Match.GAME_COMPLETE, match.tryAddScore(Constants.TOTAL_PINS));
+		assertEquals(290, match.getTotalScore("Alice"));
+		
+		for (int i = 0; i < 11; i++)
+			throwingMatch.addScore(Constants.TOTAL_PINS);
+		
+		this.assertRejected(Match.GAME_FINISHED, match, throwingMatch, 0, Leaves.UNKNOWN);
+		assertTrue("Preallocated exceptions should have no stack trace",
+				RollRejections.INVALID_SCORE.getStackTrace().length == 0);
+	}
+	
+	/**
+	 * Tests that a reader on another thread only ever copies the rolls of
+	 * one game, while a writer plays game after game in which every roll
+	 * has the same score, clearing the match between games.
+	 * <p>
+	 * Coverage: copyRolls() method.
+	 */
+	@Test(timeout = 60000)
+	public void shouldCopyConsistentRollsWhileScoresAreAdded() throws InterruptedException {
+		
+		/* **************
+		 *  Record phase
+		 * **************/
+		final MatchImpl match = new MatchImpl();
+		final int games = 20000;
+		final int rollsPerGame = 2 * Constants.NUMBER_OF_FRAMES;
+		int[] rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+		int reads = 0;
+		
+		Thread writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				for (int game = 0; game < games; game++) {
+					match.clear();
+					match.addPlayer("Alice");
+					
+					for (int roll = 0; roll < rollsPerGame; roll++)
+						match.addScore(game % 5);
+				}
+			}
+		});
+		
+		/* ***************************
+		 *  Replay and verify phases
+		 * ***************************/
+		writer.start();
+		
+		while (writer.isAlive()) {
+			int count;
+			
+			try {
+				count = match.copyRolls("Alice", rolls, 0);
+			}
+			catch (BowlingException e) {
+				// Match cleared before the player was added again
+				continue;
+			}
+			
+			assertTrue("Copy should hold at most one game", count <= rollsPerGame);
+			
+			for (int roll = 1; roll < count; roll++)
+				assertEquals("Every roll copied should be from the same game", rolls[0], rolls[roll]);
+			
+			reads++;
+		}
+		
+		writer.join();
+		assertTrue("Reader should have copied rolls", reads > 0);
+	}
+	
+	/**
+	 * Tests that the version of a match changes when players or scores are
+	 * added, but not when a score is rejected, and that rolls can be read
+	 * by a listener while a score is being added.
+	 * <p>
+	 * Coverage: version() and copyRolls() methods.
+	 */
+	@Test(timeout = 10000)
+	public void shouldChangeVersionOnlyWhenMatchChanges() {
+		
+		/* **************
+		 *  Record phase
+		 * **************/
+		final MatchImpl match = new MatchImpl();
+		final int[] rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+		final int[] copied = {-1};
+		long initial = match.version();
+		
+		match.addPlayer("Alice");
+		long afterPlayer = match.version();
+		
+		match.getFrames("Alice")[0].addChangeListener(new ChangeListener() {
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				copied[0] = match.copyRolls("Alice", rolls, 0);
+			}
+		});
+		
+		/* **************
+		 *  Replay phase
+		 * **************/
+		match.addScore(7);
+		long afterScore = match.version();
+		match.tryAddScore(9);
+		long afterRejected = match.version();
+		
+		try {
+			match.addScore(9);
+			fail("Expected exception for score 9");
+		}
+		catch (BowlingException e) {
+			// Expected
+		}
+		
+		long afterThrown = match.version();
+		match.addScores(new int[] { 3, 11 }, 0, 2);
+		long afterRejectedBatch = match.version();
+		
+		MatchImpl empty = new MatchImpl();
+		long emptyVersion = empty.version();
+		
+		try {
+			empty.addScore(5);
+			fail("Expected exception for match without players");
+		}
+		catch (BowlingException e) {
+			// Expected
+		}
+		
+		/* **************
+		 *  Verify phase
+		 * **************/
+		assertTrue("Adding a player should change the version", afterPlayer != initial);
+		assertTrue("Adding a score should change the version", afterScore != afterPlayer);
+		assertEquals("Rejected score should not change the version", afterScore, afterRejected);
+		assertEquals("Score that throws should not change the version", afterScore, afterThrown);
+		assertEquals("Rejected batch should not change the version", afterScore, afterRejectedBatch);
+		assertEquals("Score without players should not change the version",
+				emptyVersion, empty.version());
+		assertEquals("Listener should read rolls during the change", 0, copied[0]);
+		assertEquals(1, match.copyRolls("Alice", rolls, 0));
+	}
+	
+	/**
+	 * Tests that taking back any number of shots leaves the match as if
+	 * only the shots before them had been played, across the intervals at
+	 * which the roll log keeps counts of shots, and that playing them again restores the whole match.
+	 * <p>
+	 * Coverage: undo() and redo() methods.
+	 */
+	@Test
+	public void shouldUndoAndRedoShotsToStateOfMatchPlayedWithoutThem() {
+		
+		/* **************
+		 *  Record phase
+		 * **************/
+		League league = new League(Constants.MAX_NUMBER_OF_PLAYERS, 3, 1, 4, 11);
+		MatchScript script = new MatchScript();
+		int[] depths = { 1, 2, 3, 15, 16, 17, 40 };
+		
+		while (league.next(script)) {
+			MatchImpl match = this.createMatch(script);
+			
+			for (int shot = 0; shot < script.length(); shot++)
+				match.addScore(script.getShot(shot), script.getLeave(shot));
+			
+			for (int depth : depths) {
+				
+				/* **************
+				 *  Replay phase
+				 * **************/
+				int undone = match.undo(depth);
+				MatchImpl expected = this.createMatch(script);
+				
+				for (int shot = 0; shot < script.length() - depth; shot++)
+					expected.addScore(script.getShot(shot), script.getLeave(shot));
+				
+				/* **************
+				 *  Verify phase
+				 * **************/
+				assertEquals(depth, undone);
+				this.assertSameMatch("After undoing " + depth, expected, match);
+				
+				// The next shot is played by the same player in both matches
+				int next = script.length() - depth;
+				match.addScore(script.getShot(next), script.getLeave(next));
+				expected.addScore(script.getShot(next), script.getLeave(next));
+				this.assertSameMatch("After undoing " + depth + " and replaying", expected, match);
+				
+				assertEquals(depth - 1, match.redo(depth));
+				assertTrue(match.isFinished());
+			}
+			
+			// Take back and replay the whole match
+			assertEquals(script.length(), match.undo(Integer.MAX_VALUE));
+			assertTrue(match.getLeaders().isEmpty());
+			assertEquals(script.length(), match.redo(Integer.MAX_VALUE));
+			
+			MatchImpl expected = new MatchImpl();
+			script.playInto(expected);
+			this.assertSameMatch("After undoing and redoing every shot", expected, match);
+		}
+	}
+	
+	/**
+	 * Tests that taking back shots only notifies the listeners of frames
+	 * whose scores change, and that a finished match can be resumed.
+	 * <p>
+	 * Coverage: undo() method.
+	 */
+	@Test
+	public void shouldNotifyOnlyFramesChangedByUndo() {
+		
+		/* **************
+		 *  Record phase
+		 * **************/
+		MatchImpl match = new MatchImpl();
+		match.addPlayer("Alice");
+		
+		// Two strikes, then 3 and 4, then 5
+		match.addScore(10);
+		match.addScore(10);
+		match.addScore(3);
+		match.addScore(4);
+		match.addScore(5);
+		
+		Frame[] frames = match.getFrames("Alice");
+		CountingListener[] listeners = new CountingListener[frames.length];
+		CountingListener matchListener = new CountingListener();
+		
+		for (int i = 0; i < frames.length; i++) {
+			listeners[i] = new CountingListener();
+			frames[i].addChangeListener(listeners[i]);
+		}
+		
+		match.addChangeListener(matchListener);
+		
+		/* **************
+		 *  Replay phase
+		 * **************/
+		int undone = match.undo(2);
+		
+		/* **************
+		 *  Verify phase
+		 * **************/
+		assertEquals(2, undone);
+		assertEquals("First frame does not count the 4", 0, listeners[0].count);
+		assertEquals("Second frame counted the 4 as a bonus", 1, listeners[1].count);
+		assertEquals(1, listeners[2].count);
+		assertEquals(1, listeners[3].count);
+		
+		for (int i = 4; i < frames.length; i++)
+			assertEquals("Frame " + i + " was not played", 0, listeners[i].count);
+		
+		assertEquals(1, matchListener.count);
+		assertEquals(23 + 13 + 3, match.getTotalScore("Alice"));
+		assertEquals(Frame.SCORE_UNSET, frames[2].getScore(1));
+		assertEquals(3, match.getNumberOfRolls("Alice"));
+		
+		// A finished game is resumed and finished again
+		while (!match.isFinished())
+			match.addScore(0);
+		
+		assertEquals(1, match.undo(1));
+		assertFalse(match.isFinished());
+		assertTrue(match.addScore(0));
+	}
+	
+	/**
+	 * Tests that shots taken back can be played again until a different
+	 * shot is played in their place.
+	 * <p>
+	 * Coverage: undo(), redo() and addScore() methods.
+	 */
+	@Test
+	public void shouldKeepShotsTakenBackUntilDifferentShotIsPlayed() {
+		
+		/* **************
+		 *  Record phase
+		 * **************/
+		MatchImpl match = new MatchImpl();
+		match.addPlayer("Alice");
+		match.addPlayer("Bob");
+		
+		match.addScore(7);
+		match.addScore(2);
+		match.addScore(4);
+		match.addScore(5);
+		
+		/* **************
+		 *  Replay phase
+		 * **************/
+		match.undo(3);
+		match.addScore(2);
+		int redoneAfterSameShot = match.redo(1);
+		
+		match.undo(2);
+		match.addScore(1);
+		int redoneAfterDifferentShot = match.redo(1);
+		
+		/* **************
+		 *  Verify phase
+		 * **************/
+		assertEquals(1, redoneAfterSameShot);
+		assertEquals(0, redoneAfterDifferentShot);
+		assertEquals(0, match.undo(0));
+		assertEquals(8, match.getTotalScore("Alice"));
+		assertEquals(0, match.getTotalScore("Bob"));
+		
+		// Bob plays next, having had his first shot taken back
+		match.addScore(6);
+		assertEquals(6, match.getTotalScore("Bob"));
+	}
+	
+	/**
+	 * Tests that shots added in batches leave the match as if they had been
+	 * added one at a time, that a batch holding a shot that cannot be
+	 * played is rejected without adding any of its shots, and that
+	 * listeners are told once of all the changes made by a batch.
+	 * <p>
+	 * Coverage: addScores() method.
+	 */
+	@Test
+	public void shouldAddBatchesOfShotsAsIfAddedOneAtATime() {
+		
+		/* **************
+		 *  Record phase
+		 * **************/
+		League league = new League(Constants.MAX_NUMBER_OF_PLAYERS, 3, 1, 4, 13);
+		MatchScript script = new MatchScript();
+		int[] batchSizes = { 1, 2, 5, 7, 31 };
+		
+		assertEquals(Match.NO_PLAYERS, new MatchImpl().addScores(new int[] { 5 }, 0, 1));
+		
+		while (league.next(script)) {
+			int[] shots = script.toShots();
+			
+			for (int batchSize : batchSizes) {
+				MatchImpl match = this.createMatch(script);
+				MatchImpl expected = this.createMatch(script);
+				CountingListener listener = new CountingListener();
+				match.addChangeListener(listener);
+				
+				/* **************
+				 *  Replay phase
+				 * **************/
+				for (int shot = 0; shot < shots.length; shot += batchSize) {
+					int len = Math.min(batchSize, shots.length - shot);
+					
+					// A batch ending with a shot that cannot be played adds nothing
+					int[] invalid = Arrays.copyOfRange(shots, shot, shot + len + 1);
+					invalid[len] = Constants.TOTAL_PINS + 1;
+					assertEquals((shot + len == shots.length) ? Match.GAME_FINISHED : Match.INVALID_SCORE,
+							match.addScores(invalid, 0, invalid.length));
+					this.assertSameMatch("After rejected batch at " + shot, expected, match);
+					
+					assertEquals(len, match.addScores(shots, shot, len));
+					
+					for (int i = shot; i < shot + len; i++)
+						expected.addScore(shots[i]);
+				}
+				
+				/* **************
+				 *  Verify phase
+				 * **************/
+				this.assertSameMatch("In batches of " + batchSize, expected, match);
+				assertTrue(match.isFinished());
+				assertEquals(Match.GAME_FINISHED, match.addScores(shots, 0, 1));
+				assertTrue("Listeners are told when games finish", listener.count > 0);
+			}
+		}
+		
+		// A batch tells listeners once, however many times the leaders change
+		MatchImpl match = new MatchImpl();
+		CountingListener listener = new CountingListener();
+		int[] perfect = new int[Constants.NUMBER_OF_FRAMES + 2];
+		Arrays.fill(perfect, Constants.TOTAL_PINS);
+		
+		match.addPlayer("Alice");
+		match.addPlayer("Bob");
+		match.addChangeListener(listener);
+		
+		assertEquals(perfect.length, match.addScores(perfect, 0, perfect.length));
+		assertEquals(1, listener.count);
+		assertEquals(perfect.length, match.addScores(perfect, 0, perfect.length));
+		assertEquals(2, listener.count);
+		assertEquals(300, match.getTotalScore("Alice"));
+		assertEquals(300, match.getTotalScore("Bob"));
+		assertTrue(match.isFinished());
+	}
+	
+	/**
+	 * Tests that listeners are told of a change once it has been made, so
+	 * that a snapshot or history kept before the change is not returned to
+	 * them, and that readers on other threads are not held up while
+	 * listeners run.
+	 * <p>
+	 * Coverage: snapshot(), history() and addChangeListener() methods.
+	 */
+	@Test
+	public void shouldNotifyListenersOnceChangeIsVisible() throws InterruptedException {
+		
+		// Record phase
+		final MatchImpl match = new MatchImpl();
+		match.addPlayer("Alice");
+		match.addPlayer("Bob");
+		
+		for (int frame = 0; frame < Constants.NUMBER_OF_FRAMES; frame++) {
+			match.addScore(9);
+			match.addScore(0);
+			
+			if (frame < Constants.NUMBER_OF_FRAMES - 1) {
+				match.addScore(9);
+				match.addScore(0);
+			}
+		}
+		
+		match.addScore(8);
+		
+		// Keep a snapshot and history of the match before the last shot
+		match.snapshot();
+		match.history();
+		
+		final int[] stale = new int[1];
+		final int[] blocked = new int[1];
+		final int[] notified = new int[1];
+		
+		match.addChangeListener(new ChangeListener() {
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				
+				notified[0]++;
+				
+				if (match.snapshot().getTotalScore(1) != match.getTotalScore("Bob")
+						|| match.history().getNumberOfRolls() != match.getNumberOfRolls("Alice")
+								+ match.getNumberOfRolls("Bob"))
+					stale[0]++;
+				
+				// Read on another thread, which would wait for the lock if
+				// listeners were called during the change
+				Thread reader = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						match.snapshot();
+					}
+				});
+				
+				reader.start();
+				
+				try {
+					reader.join(READER_TIMEOUT_MILLIS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				
+				if (reader.isAlive())
+					blocked[0]++;
+			}
+		});
+		
+		// Replay phase
+		match.addScore(1);
+		
+		// Verify phase
+		assertEquals("Listeners should see the last shot in the snapshot and history", 0, stale[0]);
+		assertEquals("Other threads should read the match while listeners run", 0, blocked[0]);
+		assertEquals("Listeners should be told once of the last shot", 1, notified[0]);
+		assertEquals(90, match.snapshot().getTotalScore(1));
+		assertEquals(40, match.history().getNumberOfRolls());
+		assertTrue(match.snapshot().isFinished());
+	}
+	
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+	
+	/**
+	 * Creates a match with the players of the given script.
+	 */
+	private MatchImpl createMatch(MatchScript script) {
+		
+		MatchImpl match = new MatchImpl();
+		
+		for (int player = 0; player < script.getNumberOfPlayers(); player++)
+			match.addPlayer(script.getPlayerName(player));
+		
+		return match;
+	}
+	
+	/**
+	 * Asserts that the frames, totals and standings of the two matches are
+	 * the same.
+	 */
+	private void assertSameMatch(String message, MatchImpl expected, MatchImpl actual) {
+		
+		for (String player : expected.getPlayers()) {
+			Frame[] expectedFrames = expected.getFrames(player);
+			Frame[] actualFrames = actual.getFrames(player);
+			
+			for (int i = 0; i < expectedFrames.length; i++) {
+				assertTrue(message + ": frame " + i + " of " + player,
+						Arrays.equals(expectedFrames[i].getScores(), actualFrames[i].getScores()));
+				assertEquals(message + ": total of frame " + i + " of " + player,
+						expectedFrames[i].getTotal(), actualFrames[i].getTotal());
+			}
+			
+			assertEquals(message + ": total of " + player,
+					expected.getTotalScore(player), actual.getTotalScore(player));
+			assertEquals(message + ": shots of " + player,
+					expected.getNumberOfRolls(player), actual.getNumberOfRolls(player));
+		}
+		
+		assertEquals(message + ": leaders", expected.getLeaders(), actual.getLeaders());
+		assertEquals(message + ": clinched", expected.getClinched(), actual.getClinched());
+		assertEquals(message + ": eliminated", expected.getEliminated(), actual.getEliminated());
+		assertEquals(message + ": finished", expected.isFinished(), actual.isFinished());
+	}
+	
+	/**
+	 * Asserts that the given score is rejected with the given status, and
+	 * that adding it with addScore() throws an exception of the same type
+	 * as the one preallocated for the status.
+	 */
+	private void assertRejected(int status, Match match, Match throwingMatch, int score, int leave) {
+		
+		assertEquals("Status for score " + score, status, match.tryAddScore(score, leave));
+		
+		try {
+			throwingMatch.addScore(score, leave);
+			fail("Expected exception for score " + score);
+		}
+		catch (BowlingException e) {
+			assertEquals("Exception type for score " + score,
+					RollRejections.forStatus(status).getClass(), e.getClass());
+		}
+	}
+	
+	/* ****************
+	 *  HELPER CLASSES
+	 * ****************/
+	
+	/**
+	 * Counts the change events received.
+	 */
+	private static class CountingListener implements ChangeListener {
+		
+		private int count;
+		
+		@Override
+		public void stateChanged(ChangeEvent e) {
+			count++;
+		}
+	}
 }
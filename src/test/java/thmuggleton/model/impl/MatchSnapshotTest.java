@@ -0,0 +1,276 @@
+package thmuggleton.model.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import thmuggleton.AllocationMeter;
+import thmuggleton.Constants;
+import thmuggleton.model.MatchSnapshot;
+import thmuggleton.workload.League;
+import thmuggleton.workload.MatchScript;
+
+/**
+ * Tests for the MatchSnapshotImpl and GameSnapshot classes.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * <p>
+ * Snapshots taken after every shot are kept and checked against the rolls
+ * and totals read from the match when each was taken. The allocation budget,
+ * in bytes per shot for a snapshot after every shot, can be overridden with
+ * the {@code allocation.budget.snapshot} system property.
+ *
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class MatchSnapshotTest {
+
+	// Constants
+	private static final String BUDGET_PROPERTY = "allocation.budget.snapshot";
+	private static final long DEFAULT_BUDGET = 256;
+	private static final int WARM_UPS = 5000;
+	private static final int REPETITIONS = 1000;
+
+	/**
+	 * Tests that every snapshot taken during a season of matches keeps the
+	 * rolls and totals of the match when it was taken, while sharing the
+	 * games of players who have not played since the last snapshot.
+	 */
+	@Test
+	public void shouldKeepEveryVersionWhileSharingUnchangedGames() {
+
+		// Record phase
+		MatchImpl match = new MatchImpl();
+		League league = new League(Constants.MAX_NUMBER_OF_PLAYERS, 3, 1, 20, 5);
+		MatchScript script = new MatchScript();
+		List<MatchSnapshot> snapshots = new ArrayList<MatchSnapshot>();
+		List<int[][]> expectedRolls = new ArrayList<int[][]>();
+		List<int[]> expectedTotals = new ArrayList<int[]>();
+
+		// Replay phase
+		while (league.next(script)) {
+			match.clear();
+
+			for (int player = 0; player < script.getNumberOfPlayers(); player++)
+				match.addPlayer(script.getPlayerName(player));
+
+			MatchSnapshotImpl previous = (MatchSnapshotImpl) match.snapshot();
+
+			for (int shot = 0; shot < script.length(); shot++) {
+				int player = script.getPlayer(shot);
+
+				match.addScore(script.getShot(shot), script.getLeave(shot));
+				MatchSnapshotImpl snapshot = (MatchSnapshotImpl) match.snapshot();
+
+				// Verify that only the game of the player who played is new
+				for (int i = 0; i < script.getNumberOfPlayers(); i++) {
+					if (i == player)
+						assertNotSame(previous.getGame(i), snapshot.getGame(i));
+					else
+						assertSame("Unchanged game should be shared", previous.getGame(i), snapshot.getGame(i));
+				}
+
+				assertSame("Unchanged match should return the same snapshot", snapshot, match.snapshot());
+
+				snapshots.add(snapshot);
+				expectedRolls.add(this.copyRolls(match));
+				expectedTotals.add(this.totals(match));
+				previous = snapshot;
+			}
+		}
+
+		// Verify phase
+		int[] rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+
+		for (int i = 0; i < snapshots.size(); i++) {
+			MatchSnapshot snapshot = snapshots.get(i);
+
+			for (int player = 0; player < snapshot.getNumberOfPlayers(); player++) {
+				int[] expected = expectedRolls.get(i)[player];
+				int count = snapshot.copyRolls(player, rolls, 0);
+
+				assertEquals("Rolls in snapshot " + i, expected.length, count);
+
+				for (int roll = 0; roll < count; roll++)
+					assertEquals("Roll in snapshot " + i, expected[roll], rolls[roll]);
+
+				assertEquals("Total in snapshot " + i, expectedTotals.get(i)[player],
+						snapshot.getTotalScore(player));
+			}
+		}
+
+		assertTrue("Last snapshot should be of a finished match",
+				snapshots.get(snapshots.size() - 1).isFinished());
+	}
+
+	/**
+	 * Tests that a snapshot is unchanged when the game it copied is played
+	 * differently from an earlier point, as when the match is cleared and
+	 * replayed.
+	 */
+	@Test
+	public void shouldNotChangeSnapshotWhenGameIsPlayedDifferently() {
+
+		// Record phase
+		MatchImpl match = new MatchImpl();
+		match.addPlayer("Alice");
+		match.addScore(7);
+		match.addScore(2);
+		MatchSnapshot early = match.snapshot();
+		match.addScore(10);
+		MatchSnapshot later = match.snapshot();
+
+		// Replay phase
+		match.clear();
+		match.addPlayer("Alice");
+		match.addScore(3);
+		match.addScore(4);
+		match.addScore(5);
+		MatchSnapshot replayed = match.snapshot();
+
+		// Verify phase
+		assertEquals(2, early.getNumberOfRolls(0));
+		assertEquals(9, early.getTotalScore(0));
+		assertEquals(3, later.getNumberOfRolls(0));
+		assertEquals(10, later.getRoll(0, 2));
+		assertEquals(19, later.getTotalScore(0));
+		assertEquals(5, replayed.getRoll(0, 2));
+		assertEquals(12, replayed.getTotalScore(0));
+	}
+
+	/**
+	 * Tests that a snapshot taken after shots are taken back and played
+	 * again differently holds the new shots, even when the game has as many
+	 * shots as when the last snapshot was taken.
+	 */
+	@Test
+	public void shouldNotKeepStaleSnapshotAfterUndo() {
+
+		// Record phase
+		MatchImpl match = new MatchImpl();
+		match.addPlayer("Alice");
+		match.addScore(3);
+		match.addScore(4);
+		MatchSnapshot before = match.snapshot();
+		GameImpl game = new GameImpl();
+		game.addScore(3);
+		game.addScore(4);
+		GameSnapshot gameBefore = GameSnapshot.EMPTY.update(game);
+
+		// Replay phase
+		match.undo(1);
+		match.addScore(6);
+		MatchSnapshot after = match.snapshot();
+		game.rewind(1);
+		game.addScore(6);
+		GameSnapshot gameAfter = gameBefore.update(game);
+
+		// Verify phase
+		assertEquals("Shot played again should be in new snapshot", 6, after.getRoll(0, 1));
+		assertEquals("Total should follow shot played again", 9, after.getTotalScore(0));
+		assertEquals("Earlier snapshot should be unchanged", 4, before.getRoll(0, 1));
+		assertEquals("Earlier total should be unchanged", 7, before.getTotalScore(0));
+		assertEquals("Game snapshot should not be reused once played differently",
+				6, gameAfter.getRoll(1));
+		assertEquals("Game total should follow shot played again", 9, gameAfter.getTotalScore());
+		assertEquals("Earlier game snapshot should be unchanged", 4, gameBefore.getRoll(1));
+	}
+
+	/**
+	 * Tests that taking a snapshot after every shot of a match stays within
+	 * the allocation budget per shot.
+	 */
+	@Test
+	public void shouldAllocateWithinBudgetPerShotForSnapshotAfterEveryShot() {
+
+		assumeTrue("Thread allocation counter not available", AllocationMeter.isSupported());
+
+		// Record phase
+		final int[] shots = AllocationMeter.matchScript(AllocationMeter.LEAGUE_GAME, 4);
+		long budget = AllocationMeter.budget(BUDGET_PROPERTY, DEFAULT_BUDGET);
+
+		Supplier<MatchImpl> setup = new Supplier<MatchImpl>() {
+			@Override
+			public MatchImpl get() {
+				MatchImpl match = new MatchImpl();
+
+				for (int i = 0; i < 4; i++)
+					match.addPlayer("Player " + i);
+
+				match.snapshot();
+				return match;
+			}
+		};
+
+		Consumer<MatchImpl> withSnapshots = new Consumer<MatchImpl>() {
+			@Override
+			public void accept(MatchImpl match) {
+				for (int shot : shots) {
+					match.addScore(shot);
+					match.snapshot();
+				}
+			}
+		};
+
+		Consumer<MatchImpl> withoutSnapshots = new Consumer<MatchImpl>() {
+			@Override
+			public void accept(MatchImpl match) {
+				for (int shot : shots)
+					match.addScore(shot);
+			}
+		};
+
+		// Replay phase
+		double bytesPerShot = (AllocationMeter.bytesPerRun(setup, withSnapshots, WARM_UPS, REPETITIONS)
+				- AllocationMeter.bytesPerRun(setup, withoutSnapshots, WARM_UPS, REPETITIONS)) / shots.length;
+
+		// Verify phase
+		assertTrue(String.format("Snapshots allocated %.1f bytes per shot; budget is %d", bytesPerShot, budget),
+				bytesPerShot <= budget);
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Returns the rolls of every player, read from the match.
+	 */
+	private int[][] copyRolls(MatchImpl match) {
+
+		int[][] rolls = new int[match.getNumberOfPlayers()][];
+
+		for (int player = 0; player < rolls.length; player++) {
+			String name = match.getPlayer(player);
+			rolls[player] = new int[match.getNumberOfRolls(name)];
+			match.copyRolls(name, rolls[player], 0);
+		}
+
+		return rolls;
+	}
+
+	/**
+	 * Returns the total score of every player, read from the match.
+	 */
+	private int[] totals(MatchImpl match) {
+
+		int[] totals = new int[match.getNumberOfPlayers()];
+
+		for (int player = 0; player < totals.length; player++)
+			totals[player] = match.getTotalScore(match.getPlayer(player));
+
+		return totals;
+	}
+}
@@ -0,0 +1,250 @@
+package thmuggleton.model.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import thmuggleton.AllocationMeter;
+import thmuggleton.Constants;
+import thmuggleton.workload.Bowler;
+import thmuggleton.workload.SkillProfile;
+
+/**
+ * Tests for the Notation class.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * <p>
+ * The allocation budget, in bytes for writing and reading back a game, can
+ * be overridden with the {@code allocation.budget.notation} system
+ * property.
+ *
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class NotationTest {
+
+	// Constants
+	private static final String BUDGET_PROPERTY = "allocation.budget.notation";
+	private static final long DEFAULT_BUDGET = 0;
+	private static final int WARM_UPS = 20000;
+	private static final int REPETITIONS = 10000;
+	private static final int GAMES = 2000;
+	private static final int MAX_LENGTH = Constants.MAX_ROLLS_PER_GAME + Constants.NUMBER_OF_FRAMES - 1;
+
+	/**
+	 * Tests that games written on a score sheet are read as the shots that
+	 * were played.
+	 */
+	@Test
+	public void shouldReadScoreSheetNotation() {
+
+		this.assertParsed("X|7/|9-|X|-8|8/|-6|X|X|X81", 10, 7, 3, 9, 0, 10, 0, 8, 8, 2, 0, 6, 10, 10, 10, 8, 1);
+		this.assertParsed("XXXXXXXXXXXX", 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10);
+		this.assertParsed("9- 9- 9- 9- 9- 9- 9- 9- 9- 9-", 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0);
+		this.assertParsed("x|55|-0|", 10, 5, 5, 0, 0);
+		this.assertParsed("-/|5-", 0, 10, 5, 0);
+		this.assertParsed("9-9-9-9-9-9-9-9-9--/X", 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 0, 10, 10);
+		this.assertParsed("XXXXXXXXXX-/", 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 0, 10);
+		this.assertParsed("");
+	}
+
+	/**
+	 * Tests that text which is not a valid game is rejected with the error
+	 * for its first problem.
+	 */
+	@Test
+	public void shouldRejectInvalidNotationWithErrorCode() {
+
+		int[] rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+
+		assertEquals(Notation.INVALID_CHARACTER, Notation.parse("X|7a", rolls, 0));
+		assertEquals(Notation.INVALID_MARK, Notation.parse("/", rolls, 0));
+		assertEquals(Notation.INVALID_MARK, Notation.parse("7X", rolls, 0));
+		assertEquals(Notation.INVALID_MARK, Notation.parse("78", rolls, 0));
+		assertEquals("Strike after gutter ball", Notation.INVALID_MARK, Notation.parse("-X", rolls, 0));
+		assertEquals("Strike after gutter ball in last frame", Notation.INVALID_MARK,
+				Notation.parse("9-9-9-9-9-9-9-9-9--X", rolls, 0));
+		assertEquals("Strike after strike and gutter ball in last frame", Notation.INVALID_MARK,
+				Notation.parse("XXXXXXXXXX-X", rolls, 0));
+		assertEquals("Spare after strike in last frame", Notation.INVALID_MARK,
+				Notation.parse("XXXXXXXXXX/", rolls, 0));
+		assertEquals(Notation.MISPLACED_SEPARATOR, Notation.parse("7|2", rolls, 0));
+		assertEquals(Notation.TOO_MANY_SHOTS, Notation.parse("9-9-9-9-9-9-9-9-9-9-1", rolls, 0));
+		assertEquals(Notation.ARRAY_TOO_SMALL, Notation.parse("XX", new int[1], 0));
+	}
+
+	/**
+	 * Tests that a game can be read a frame at a time, each frame checked
+	 * against the position reached by the frames before it.
+	 */
+	@Test
+	public void shouldReadFrameFromPositionInGame() {
+
+		// Record phase
+		int[] rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+		int count = Notation.parse("X|7", rolls, 0);
+		int position = GameRules.position(rolls, 0, count);
+
+		// Replay phase
+		int spare = Notation.parse("/", 0, 1, position, rolls[count - 1], rolls, count);
+		int strike = Notation.parse("X", 0, 1, position, rolls[count - 1], rolls, count);
+
+		// Verify phase
+		assertEquals(1, spare);
+		assertEquals(3, rolls[count]);
+		assertEquals(Notation.INVALID_MARK, strike);
+	}
+
+	/**
+	 * Tests that games are written as on a score sheet, and that invalid
+	 * games and full buffers are rejected without writing anything.
+	 */
+	@Test
+	public void shouldWriteScoreSheetNotation() {
+
+		CharBuffer buffer = CharBuffer.allocate(MAX_LENGTH);
+		int[] game = { 10, 7, 3, 9, 0, 10, 0, 8, 8, 2, 0, 6, 10, 10, 10, 8, 1 };
+
+		assertEquals(26, Notation.format(game, 0, game.length, buffer));
+		assertEquals("X|7/|9-|X|-8|8/|-6|X|X|X81", buffer.flip().toString());
+
+		this.assertFormatted("-/|5-", 0, 10, 5, 0);
+		this.assertFormatted("9-|9-|9-|9-|9-|9-|9-|9-|9-|-/X",
+				9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 0, 10, 10);
+		this.assertFormatted("X|X|X|X|X|X|X|X|X|X-/", 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 0, 10);
+		this.assertFormatted("X|X|X|X|X|X|X|X|X|X3/", 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 3, 7);
+
+		buffer.clear();
+		assertEquals(Notation.INVALID_SCORE, Notation.format(new int[] { 7, 4 }, 0, 2, buffer));
+		assertEquals(0, buffer.position());
+
+		CharBuffer small = CharBuffer.allocate(4);
+		assertEquals(Notation.BUFFER_TOO_SMALL, Notation.format(game, 0, game.length, small));
+		assertEquals(0, small.position());
+	}
+
+	/**
+	 * Tests that every game bowled at each skill level reads back as the
+	 * shots written.
+	 */
+	@Test
+	public void shouldReadBackEveryGameWritten() {
+
+		CharBuffer buffer = CharBuffer.allocate(MAX_LENGTH);
+		int[] rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+
+		for (SkillProfile profile : new SkillProfile[] {
+				SkillProfile.BEGINNER, SkillProfile.LEAGUE, SkillProfile.PROFESSIONAL }) {
+
+			Bowler bowler = new Bowler(profile, 17);
+
+			for (int i = 0; i < GAMES; i++) {
+
+				// Record phase
+				int[] game = this.bowl(bowler);
+
+				// Replay phase
+				buffer.clear();
+				int length = Notation.format(game, 0, game.length, buffer);
+				buffer.flip();
+				int count = Notation.parse(buffer, rolls, 0);
+
+				// Verify phase
+				assertEquals(buffer.toString(), length, buffer.length());
+				assertArrayEquals(buffer.toString(), game, Arrays.copyOf(rolls, count));
+			}
+		}
+	}
+
+	/**
+	 * Tests that writing a game and reading it back does not allocate.
+	 */
+	@Test
+	public void shouldWriteAndReadWithoutAllocating() {
+
+		assumeTrue("Thread allocation counter not available", AllocationMeter.isSupported());
+
+		// Record phase
+		final int[] game = AllocationMeter.LEAGUE_GAME;
+		final int[] rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+		final CharBuffer buffer = CharBuffer.allocate(MAX_LENGTH);
+		long budget = AllocationMeter.budget(BUDGET_PROPERTY, DEFAULT_BUDGET);
+
+		Supplier<CharBuffer> setup = new Supplier<CharBuffer>() {
+			@Override
+			public CharBuffer get() {
+				buffer.clear();
+				return buffer;
+			}
+		};
+
+		Consumer<CharBuffer> formatAndParse = new Consumer<CharBuffer>() {
+			@Override
+			public void accept(CharBuffer buffer) {
+				Notation.format(game, 0, game.length, buffer);
+				buffer.flip();
+				Notation.parse(buffer, rolls, 0);
+			}
+		};
+
+		// Replay phase
+		double bytesPerGame = AllocationMeter.bytesPerRun(setup, formatAndParse, WARM_UPS, REPETITIONS);
+
+		// Verify phase
+		assertTrue(String.format("Notation allocated %.1f bytes per game; budget is %d",
+				bytesPerGame, budget), bytesPerGame <= budget);
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Asserts that the given text is read as the given shots.
+	 */
+	private void assertParsed(String text, int... expected) {
+
+		int[] rolls = new int[Constants.MAX_ROLLS_PER_GAME];
+		int count = Notation.parse(text, rolls, 0);
+
+		assertArrayEquals(text, expected, Arrays.copyOf(rolls, Math.max(count, 0)));
+	}
+
+	/**
+	 * Asserts that the given shots are written as the given text.
+	 */
+	private void assertFormatted(String expected, int... scores) {
+
+		CharBuffer buffer = CharBuffer.allocate(MAX_LENGTH);
+
+		assertEquals(expected, expected.length(), Notation.format(scores, 0, scores.length, buffer));
+		assertEquals(expected, buffer.flip().toString());
+	}
+
+	/**
+	 * Returns the shots of the next game bowled by the given bowler.
+	 */
+	private int[] bowl(Bowler bowler) {
+
+		int[] shots = new int[Constants.MAX_ROLLS_PER_GAME];
+		int count = 0;
+
+		bowler.newGame();
+
+		while (!bowler.isFinished())
+			shots[count++] = bowler.nextShot();
+
+		return Arrays.copyOf(shots, count);
+	}
+}
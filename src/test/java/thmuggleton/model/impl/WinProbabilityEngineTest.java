@@ -0,0 +1,97 @@
+package thmuggleton.model.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import thmuggleton.Constants;
+
+/**
+ * Tests for the WinProbabilityEngine class.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * <p>
+ * Uses the synchronous estimate() method with a fixed seed so that results
+ * are repeatable.
+ * 
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class WinProbabilityEngineTest {
+
+	/**
+	 * Tests that the winner of a finished match has a certain chance of
+	 * winning.
+	 */
+	@Test
+	public void shouldGiveWinnerOfFinishedMatchCertainChanceOfWinning() {
+		
+		/* **************
+		 *  Record phase
+		 * **************/
+		MatchImpl match = new MatchImpl();
+		match.addPlayer("Alice");
+		match.addPlayer("Bob");
+		
+		for (int i = 0; i < Constants.NUMBER_OF_FRAMES; i++) {
+			match.addScore(5);
+			match.addScore(4);
+			match.addScore(4);
+			match.addScore(4);
+		}
+		
+		/* **************
+		 *  Replay phase
+		 * **************/
+		Map<String, Double> result = new WinProbabilityEngine(match).estimate(1000, 1L);
+		
+		/* **************
+		 *  Verify phase
+		 * **************/
+		assertEquals("Winner should have certain chance of winning",
+				1.0, result.get("Alice"), 0.0);
+		assertEquals("Loser should have no chance of winning",
+				0.0, result.get("Bob"), 0.0);
+	}
+	
+	/**
+	 * Tests that chances of winning sum to one and favour the player with a
+	 * large lead.
+	 */
+	@Test
+	public void shouldFavourPlayerWithLargeLead() {
+		
+		/* **************
+		 *  Record phase
+		 * **************/
+		MatchImpl match = new MatchImpl();
+		match.addPlayer("Alice");
+		match.addPlayer("Bob");
+		
+		// Alice bowls strikes and Bob bowls gutter balls for six frames
+		for (int i = 0; i < 6; i++) {
+			match.addScore(10);
+			match.addScore(0);
+			match.addScore(0);
+		}
+		
+		/* **************
+		 *  Replay phase
+		 * **************/
+		Map<String, Double> result = new WinProbabilityEngine(match).estimate(20000, 42L);
+		
+		/* **************
+		 *  Verify phase
+		 * **************/
+		assertEquals("Chances of winning should sum to one",
+				1.0, result.get("Alice") + result.get("Bob"), 1e-9);
+		assertTrue("Player with large lead should be very likely to win",
+				result.get("Alice") > 0.95);
+	}
+}
@@ -0,0 +1,212 @@
+package thmuggleton.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import thmuggleton.AllocationMeter;
+import thmuggleton.Constants;
+import thmuggleton.model.impl.MatchImpl;
+
+/**
+ * Tests for the ScoreboardSvgWriter class.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * <p>
+ * The SVG written is parsed as XML, so that the text shown on the
+ * scoreboard can be checked without depending on how it is laid out. The
+ * allocation budget, in bytes for writing a finished match, can be
+ * overridden with the {@code allocation.budget.svg} system property.
+ *
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class ScoreboardSvgWriterTest {
+
+	// Constants
+	private static final String BUDGET_PROPERTY = "allocation.budget.svg";
+	private static final long DEFAULT_BUDGET = 64;
+	private static final int WARM_UPS = 5000;
+	private static final int REPETITIONS = 1000;
+	private static final int MAX_LENGTH = 32 * 1024;
+
+	/**
+	 * Tests that the SVG shows the marks, frame totals and game total of
+	 * each player as the scoreboard does, escaping names and highlighting
+	 * the leader.
+	 */
+	@Test
+	public void shouldWriteMarksAndTotalsOfEachPlayer() throws Exception {
+
+		// Record phase
+		MatchImpl match = new MatchImpl();
+		match.addPlayer("A<B&C");
+		match.addPlayer("Dan");
+
+		for (int score : new int[] { 10, 7, 3, 5, 2, 9, 0 })
+			match.addScore(score);
+
+		StringWriter out = new StringWriter();
+
+		// Replay phase
+		new ScoreboardSvgWriter().write(match, out);
+
+		// Verify phase
+		Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+				.parse(new InputSource(new StringReader(out.toString())));
+
+		assertEquals("svg", document.getDocumentElement().getTagName());
+		assertEquals(Arrays.asList(
+				"A<B&C", "X", "17", "5", "2", "7", "24",
+				"Dan", "7", "/", "19", "9", "0", "9", "28"), this.texts(document));
+
+		assertEquals("", this.findRect(document, "0", "0").getAttribute("class"));
+		assertEquals("Leader's name should be highlighted", "l",
+				this.findRect(document, "0", "40").getAttribute("class"));
+	}
+
+	/**
+	 * Tests that the SVG marks a shot that knocks down the pins left
+	 * standing as a spare, in the last frame as in any other, and a gutter
+	 * ball followed by ten as a spare rather than a strike.
+	 */
+	@Test
+	public void shouldWriteSparesInLastFrameAndAfterGutterBalls() throws Exception {
+
+		// Record phase
+		MatchImpl match = new MatchImpl();
+		match.addPlayer("Alice");
+
+		for (int score : new int[] { 0, 10, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 10, 3, 7 })
+			match.addScore(score);
+
+		StringWriter out = new StringWriter();
+
+		// Replay phase
+		new ScoreboardSvgWriter().write(match, out);
+
+		// Verify phase
+		Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+				.parse(new InputSource(new StringReader(out.toString())));
+		List<String> texts = this.texts(document);
+
+		assertEquals("Gutter ball then ten should be a spare", Arrays.asList("0", "/", "19"),
+				texts.subList(1, 4));
+		assertEquals("Shot after a strike clearing the rack should be a spare",
+				Arrays.asList("X", "3", "/", "20"), texts.subList(texts.size() - 5, texts.size() - 1));
+	}
+
+	/**
+	 * Tests that a finished match with the most players is written in a
+	 * few kilobytes, without allocating.
+	 */
+	@Test
+	public void shouldWriteFinishedMatchCompactlyWithoutAllocating() {
+
+		// Record phase
+		int[] shots = AllocationMeter.matchScript(AllocationMeter.LEAGUE_GAME, Constants.MAX_NUMBER_OF_PLAYERS);
+		final MatchImpl match = new MatchImpl();
+
+		for (int i = 0; i < Constants.MAX_NUMBER_OF_PLAYERS; i++)
+			match.addPlayer("Player " + i);
+
+		for (int shot : shots)
+			match.addScore(shot);
+
+		final ScoreboardSvgWriter writer = new ScoreboardSvgWriter();
+		long budget = AllocationMeter.budget(BUDGET_PROPERTY, DEFAULT_BUDGET);
+
+		Supplier<CharArrayWriter> setup = new Supplier<CharArrayWriter>() {
+			@Override
+			public CharArrayWriter get() {
+				return new CharArrayWriter(MAX_LENGTH);
+			}
+		};
+
+		Consumer<CharArrayWriter> writeMatch = new Consumer<CharArrayWriter>() {
+			@Override
+			public void accept(CharArrayWriter out) {
+				try {
+					writer.write(match, out);
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		};
+
+		// Replay phase
+		CharArrayWriter out = setup.get();
+		writeMatch.accept(out);
+
+		// Verify phase
+		assertTrue("SVG of a finished match should be small, was " + out.size() + " characters",
+				out.size() <= MAX_LENGTH);
+
+		assumeTrue("Thread allocation counter not available", AllocationMeter.isSupported());
+
+		double bytesPerMatch = AllocationMeter.bytesPerRun(setup, writeMatch, WARM_UPS, REPETITIONS);
+
+		assertTrue(String.format("Writing SVG allocated %.1f bytes per match; budget is %d",
+				bytesPerMatch, budget), bytesPerMatch <= budget);
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Returns the first rectangle of the given document at the given
+	 * position.
+	 */
+	private Element findRect(Document document, String x, String y) {
+
+		NodeList nodes = document.getElementsByTagName("rect");
+
+		for (int i = 0; i < nodes.getLength(); i++) {
+			Element rect = (Element) nodes.item(i);
+
+			if (rect.getAttribute("x").equals(x) && rect.getAttribute("y").equals(y))
+				return rect;
+		}
+
+		throw new AssertionError("No rectangle at (" + x + ", " + y + ")");
+	}
+
+	/**
+	 * Returns the content of every text element of the given document, in
+	 * order.
+	 */
+	private List<String> texts(Document document) {
+
+		NodeList nodes = document.getElementsByTagName("text");
+		List<String> texts = new ArrayList<String>();
+
+		for (int i = 0; i < nodes.getLength(); i++)
+			texts.add(nodes.item(i).getTextContent());
+
+		return texts;
+	}
+}
@@ -0,0 +1,158 @@
+package thmuggleton.view.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import thmuggleton.AllocationMeter;
+import thmuggleton.Constants;
+import thmuggleton.model.MatchHistory;
+import thmuggleton.model.impl.MatchImpl;
+
+/**
+ * Tests for the MatchAnimationWriter class.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * <p>
+ * Animations are written to a temporary file, then read back and drawn
+ * frame by frame, as a viewer would, to check what each shot shows.
+ *
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class MatchAnimationWriterTest {
+
+	// Fields
+	@Rule public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Tests that the animation has a frame for each shot, that frames after
+	 * the first hold only the region that changed, and that drawing the
+	 * frames in turn shows the board after every shot.
+	 */
+	@Test
+	public void shouldWriteChangedRegionForEachShot() throws IOException {
+
+		// Record phase
+		int[] shots = AllocationMeter.matchScript(AllocationMeter.LEAGUE_GAME, Constants.MAX_NUMBER_OF_PLAYERS);
+		MatchImpl match = new MatchImpl();
+
+		for (int i = 0; i < Constants.MAX_NUMBER_OF_PLAYERS; i++)
+			match.addPlayer("Player " + i);
+
+		for (int shot : shots)
+			match.addScore(shot);
+
+		MatchHistory history = match.history();
+		File file = folder.newFile("match.gif");
+		MatchAnimationWriter writer = new MatchAnimationWriter();
+
+		// Replay phase
+		int frames;
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			frames = writer.write(history, channel);
+		}
+
+		// Verify phase
+		assertEquals(shots.length + 1, frames);
+
+		ImageInputStream input = ImageIO.createImageInputStream(file);
+		ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+
+		try {
+			reader.setInput(input);
+			assertEquals(frames, reader.getNumImages(true));
+
+			BufferedImage first = reader.read(0);
+			BufferedImage canvas = new BufferedImage(first.getWidth(), first.getHeight(),
+					BufferedImage.TYPE_INT_RGB);
+			HistoryBoard board = new HistoryBoard();
+			board.setSize(first.getWidth(), first.getHeight());
+			long boardArea = (long) first.getWidth() * first.getHeight();
+			long changedArea = 0;
+
+			for (int shot = 0; shot < frames; shot++) {
+				BufferedImage frame = reader.read(shot);
+				IIOMetadataNode descriptor = this.getDescriptor(reader, shot);
+				int x = Integer.parseInt(descriptor.getAttribute("imageLeftPosition"));
+				int y = Integer.parseInt(descriptor.getAttribute("imageTopPosition"));
+
+				if (shot > 0) {
+					assertTrue("Frame " + shot + " should only hold the region that changed",
+							frame.getWidth() * frame.getHeight() < boardArea);
+					changedArea += frame.getWidth() * frame.getHeight();
+				}
+
+				Graphics2D graphics = canvas.createGraphics();
+				graphics.drawImage(frame, x, y, null);
+				graphics.dispose();
+
+				this.assertShowsBoard("Frame " + shot, board, history, shot, canvas);
+			}
+
+			assertTrue("Frames should on average hold under half the board",
+					changedArea < boardArea * (frames - 1) / 2);
+		}
+		finally {
+			reader.dispose();
+			input.close();
+		}
+	}
+
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+
+	/**
+	 * Returns the image descriptor of the given frame.
+	 */
+	private IIOMetadataNode getDescriptor(ImageReader reader, int frame) throws IOException {
+
+		IIOMetadataNode root = (IIOMetadataNode) reader.getImageMetadata(frame)
+				.getAsTree("javax_imageio_gif_image_1.0");
+
+		return (IIOMetadataNode) root.getElementsByTagName("ImageDescriptor").item(0);
+	}
+
+	/**
+	 * Asserts that the given image shows the board after the given number
+	 * of shots.
+	 */
+	private void assertShowsBoard(String message, HistoryBoard board, MatchHistory history,
+			int rolls, BufferedImage image) {
+
+		BufferedImage expected = new BufferedImage(image.getWidth(), image.getHeight(),
+				BufferedImage.TYPE_INT_RGB);
+		board.setHistory(history, rolls);
+
+		Graphics2D graphics = expected.createGraphics();
+		board.paint(graphics);
+		graphics.dispose();
+
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				if (expected.getRGB(x, y) != image.getRGB(x, y))
+					throw new AssertionError(message + " differs at (" + x + ", " + y + ")");
+			}
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package thmuggleton.view.impl;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import thmuggleton.AllocationMeter;
+import thmuggleton.model.impl.MatchImpl;
+
+/**
+ * Allocation budget tests for scoring a match displayed on a scoreboard,
+ * which adds the cost of updating the frame and player panels.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * <p>
+ * The scoreboard is created offscreen and updated on the event dispatch
+ * thread, as in the application. The budgets, in bytes per shot and bytes
+ * per new match, can be overridden with the {@code allocation.budget.view}
+ * and {@code allocation.budget.view.match} system properties.
+ * 
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class ScoreboardAllocationTest {
+
+	// Constants
+	private static final String BUDGET_PROPERTY = "allocation.budget.view";
+	private static final long DEFAULT_BUDGET = 1024;
+	private static final String NEW_MATCH_BUDGET_PROPERTY = "allocation.budget.view.match";
+	private static final long DEFAULT_NEW_MATCH_BUDGET = 32768;
+	private static final String[] PLAYER_NAMES = {"Player 0", "Player 1", "Player 2", "Player 3"};
+	private static final int PLAYERS = 4;
+	private static final int WARM_UPS = 1000;
+	private static final int REPETITIONS = 200;
+
+	/**
+	 * Tests that scoring every shot of a match on a scoreboard stays within
+	 * the allocation budget per shot.
+	 */
+	@Test
+	public void shouldAllocateWithinBudgetPerShot() throws Exception {
+		
+		assumeTrue("Thread allocation counter not available", AllocationMeter.isSupported());
+
+		// Record phase
+		final int[] shots = AllocationMeter.matchScript(AllocationMeter.LEAGUE_GAME, PLAYERS);
+		long budget = AllocationMeter.budget(BUDGET_PROPERTY, DEFAULT_BUDGET);
+		final double[] bytesPerShot = new double[1];
+		
+		final Supplier<MatchImpl> setup = new Supplier<MatchImpl>() {
+			@Override
+			public MatchImpl get() {
+				MatchImpl match = new MatchImpl();
+				Scoreboard scoreboard = new Scoreboard(match);
+				
+				for (int i = 0; i < PLAYERS; i++) {
+					match.addPlayer("Player " + i);
+					scoreboard.addPlayer("Player " + i);
+				}
+				
+				return match;
+			}
+		};
+		
+		final Consumer<MatchImpl> action = new Consumer<MatchImpl>() {
+			@Override
+			public void accept(MatchImpl match) {
+				for (int shot : shots)
+					match.addScore(shot);
+			}
+		};
+
+		// Replay phase
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				bytesPerShot[0] = AllocationMeter.bytesPerRun(setup, action, WARM_UPS, REPETITIONS)
+						/ shots.length;
+			}
+		});
+
+		// Verify phase
+		assertTrue(String.format("Allocated %.1f bytes per shot; budget is %d", bytesPerShot[0], budget),
+				bytesPerShot[0] <= budget);
+	}
+	
+	/**
+	 * Tests that starting a new match on a scoreboard, by clearing the
+	 * scoreboard and match and adding the players again, stays within the
+	 * allocation budget per match, since the player panels are reused.
+	 */
+	@Test
+	public void shouldAllocateWithinBudgetPerNewMatch() throws Exception {
+		
+		assumeTrue("Thread allocation counter not available", AllocationMeter.isSupported());
+
+		// Record phase
+		final int[] shots = AllocationMeter.matchScript(AllocationMeter.LEAGUE_GAME, PLAYERS);
+		long budget = AllocationMeter.budget(NEW_MATCH_BUDGET_PROPERTY, DEFAULT_NEW_MATCH_BUDGET);
+		final double[] bytesPerMatch = new double[1];
+		
+		final Supplier<Table> setup = new Supplier<Table>() {
+			@Override
+			public Table get() {
+				Table table = new Table();
+				
+				for (String player : PLAYER_NAMES) {
+					table.match.addPlayer(player);
+					table.scoreboard.addPlayer(player);
+				}
+				
+				for (int shot : shots)
+					table.match.addScore(shot);
+				
+				return table;
+			}
+		};
+		
+		final Consumer<Table> action = new Consumer<Table>() {
+			@Override
+			public void accept(Table table) {
+				table.scoreboard.clearScoreboard();
+				table.match.clear();
+				
+				for (String player : PLAYER_NAMES) {
+					table.match.addPlayer(player);
+					table.scoreboard.addPlayer(player);
+				}
+			}
+		};
+
+		// Replay phase
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				bytesPerMatch[0] = AllocationMeter.bytesPerRun(setup, action, WARM_UPS, REPETITIONS);
+			}
+		});
+
+		// Verify phase
+		assertTrue(String.format("Allocated %.1f bytes per new match; budget is %d", bytesPerMatch[0], budget),
+				bytesPerMatch[0] <= budget);
+	}
+	
+	/* ****************
+	 *  HELPER CLASSES
+	 * ****************/
+	
+	/**
+	 * A match together with the scoreboard displaying it.
+	 */
+	private static class Table {
+		
+		// Fields
+		private final MatchImpl match = new MatchImpl();
+		private final Scoreboard scoreboard = new Scoreboard(match);
+	}
+}
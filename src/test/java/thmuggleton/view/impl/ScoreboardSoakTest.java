@@ -0,0 +1,191 @@
+package thmuggleton.view.impl;
+
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Component;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.WeakReference;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import thmuggleton.Constants;
+import thmuggleton.model.impl.MatchImpl;
+import thmuggleton.workload.League;
+import thmuggleton.workload.MatchScript;
+
+/**
+ * Soak tests for the scoreboard, checking that panels removed from the
+ * scoreboard are not kept alive by the model across many matches.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * <p>
+ * The scoreboard is created offscreen and updated on the event dispatch
+ * thread, as in the application. The budget for heap growth, in bytes per
+ * match, can be overridden with the {@code soak.budget.view} system property.
+ * 
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class ScoreboardSoakTest {
+
+	// Constants
+	private static final String BUDGET_PROPERTY = "soak.budget.view";
+	private static final long DEFAULT_BUDGET = 256;
+	private static final int MATCHES = 3000;
+	private static final int SAMPLE_INTERVAL = 250;
+	private static final int WARM_UPS = 250;
+	
+	// Fields
+	private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+	
+	/**
+	 * Tests that a player's panel can be garbage collected once the
+	 * scoreboard is cleared and discarded, even though the match it
+	 * displayed is not.
+	 */
+	@Test
+	public void shouldReleasePanelsWhenScoreboardIsCleared() throws Exception {
+		
+		// Record phase
+		final MatchImpl match = new MatchImpl();
+		final WeakReference<?>[] panel = new WeakReference<?>[1];
+		
+		// Replay phase
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				Scoreboard scoreboard = new Scoreboard(match);
+				
+				match.addPlayer("Alice");
+				scoreboard.addPlayer("Alice");
+				match.addScore(7);
+				
+				Component component = scoreboard.getComponent(0);
+				panel[0] = new WeakReference<Component>(component);
+				scoreboard.clearScoreboard();
+			}
+		});
+		
+		for (int i = 0; i < 10 && panel[0].get() != null; i++) {
+			memory.gc();
+			Thread.sleep(10);
+		}
+		
+		// Verify phase
+		assertTrue("Panel should not be kept alive by the match", panel[0].get() == null);
+		match.addScore(2);
+	}
+	
+	/**
+	 * Tests that the heap in use stays flat over thousands of matches
+	 * played on the same scoreboard and match, each cleared before the
+	 * next match, as when a new match is started in the application.
+	 */
+	@Test
+	public void shouldKeepHeapFlatAcrossNewMatches() throws Exception {
+		
+		// Record phase
+		final MatchImpl match = new MatchImpl();
+		final Scoreboard scoreboard = new Scoreboard(match);
+		final League league = new League(Constants.MAX_NUMBER_OF_PLAYERS, 4, 1,
+				WARM_UPS + MATCHES, 1);
+		final MatchScript script = new MatchScript();
+		long budget = Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET);
+		long[] samples = new long[MATCHES / SAMPLE_INTERVAL];
+		
+		// Replay phase
+		this.playMatches(match, scoreboard, league, script, WARM_UPS);
+		
+		for (int i = 0; i < samples.length; i++) {
+			this.playMatches(match, scoreboard, league, script, SAMPLE_INTERVAL);
+			samples[i] = this.usedHeapAfterGarbageCollection();
+		}
+		
+		// Verify phase
+		double growth = this.slope(samples) / SAMPLE_INTERVAL;
+		
+		assertTrue(String.format("Heap grew by %.1f bytes per match; budget is %d", growth, budget),
+				growth < budget);
+	}
+	
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+	
+	/**
+	 * Plays the given number of matches from the league on the event
+	 * dispatch thread, clearing the scoreboard and match before each one.
+	 */
+	private void playMatches(final MatchImpl match, final Scoreboard scoreboard, final League league,
+			final MatchScript script, final int matches) throws Exception {
+		
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				for (int i = 0; i < matches && league.next(script); i++) {
+					scoreboard.clearScoreboard();
+					match.clear();
+					
+					for (int player = 0; player < script.getNumberOfPlayers(); player++) {
+						match.addPlayer(script.getPlayerName(player));
+						scoreboard.addPlayer(script.getPlayerName(player));
+					}
+					
+					for (int shot = 0; shot < script.length(); shot++)
+						match.addScore(script.getShot(shot), script.getLeave(shot));
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Returns the heap in use after asking for garbage collection, once
+	 * the events Swing queued while the matches were played have been
+	 * processed; these refer to the components that were updated, so
+	 * would otherwise keep the last panels removed alive.
+	 */
+	private long usedHeapAfterGarbageCollection() throws Exception {
+		
+		for (int i = 0; i < 2; i++) {
+			SwingUtilities.invokeAndWait(new Runnable() {
+				@Override
+				public void run() {
+				}
+			});
+		}
+		
+		memory.gc();
+		memory.gc();
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+	
+	/**
+	 * Returns the slope of a least-squares fit to the given samples.
+	 */
+	private double slope(long[] samples) {
+		
+		double meanX = (samples.length - 1) / 2.0;
+		double meanY = 0;
+		
+		for (long sample : samples)
+			meanY += sample;
+		
+		meanY /= samples.length;
+		
+		double covariance = 0;
+		double variance = 0;
+		
+		for (int i = 0; i < samples.length; i++) {
+			covariance += (i - meanX) * (samples[i] - meanY);
+			variance += (i - meanX) * (i - meanX);
+		}
+		
+		return covariance / variance;
+	}
+}
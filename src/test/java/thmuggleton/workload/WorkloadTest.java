@@ -0,0 +1,192 @@
+package thmuggleton.workload;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import thmuggleton.AllocationMeter;
+import thmuggleton.Constants;
+import thmuggleton.model.impl.GameRules;
+import thmuggleton.model.impl.MatchImpl;
+
+/**
+ * Tests for the workload generators.
+ * <p>
+ * Adopts BDD naming conventions suggested by <a
+ * href="http://dannorth.net/introducing-bdd/">Dan North</a>.
+ * 
+ * @author Thomas Muggleton
+ */
+@RunWith(JUnit4.class)
+public class WorkloadTest {
+
+	private static final long SEED = 42;
+	private static final int GAMES_PER_PROFILE = 4000;
+	
+	/**
+	 * Tests that leagues created with the same seed produce the same
+	 * matches.
+	 */
+	@Test
+	public void shouldProduceSameLeagueFromSameSeed() {
+		
+		// Record phase
+		League first = new League(14, 4, 3, 2, SEED);
+		League second = new League(14, 4, 3, 2, SEED);
+		MatchScript firstScript = new MatchScript();
+		MatchScript secondScript = new MatchScript();
+		int matches = 0;
+		
+		// Replay and verify phases
+		while (first.next(firstScript)) {
+			assertTrue(second.next(secondScript));
+			assertEquals(first.getSession(), second.getSession());
+			assertEquals(firstScript.getPlayerName(0), secondScript.getPlayerName(0));
+			assertArrayEquals(firstScript.toShots(), secondScript.toShots());
+			matches++;
+		}
+		
+		assertEquals(first.getNumberOfMatches(), matches);
+		assertEquals(2 * 3 * 4, matches);
+	}
+	
+	/**
+	 * Tests that every match of a league can be played to completion,
+	 * with leaves, and that each player's total matches the shots bowled.
+	 */
+	@Test
+	public void shouldPlayEveryLeagueMatchWithValidLeaves() {
+		
+		// Record phase
+		League league = new League(20, Constants.MAX_NUMBER_OF_PLAYERS, 3, 10, SEED);
+		MatchScript script = new MatchScript();
+		int[][] games = new int[Constants.MAX_NUMBER_OF_PLAYERS][Constants.MAX_ROLLS_PER_GAME];
+		int[] lengths = new int[Constants.MAX_NUMBER_OF_PLAYERS];
+		
+		while (league.next(script)) {
+			
+			// Replay phase
+			MatchImpl match = new MatchImpl();
+			script.playInto(match);
+			
+			// Verify phase
+			assertTrue("Match should be finished", match.isFinished());
+			
+			for (int player = 0; player < script.getNumberOfPlayers(); player++)
+				lengths[player] = 0;
+			
+			for (int i = 0; i < script.length(); i++) {
+				int player = script.getPlayer(i);
+				games[player][lengths[player]++] = script.getShot(i);
+			}
+			
+			for (int player = 0; player < script.getNumberOfPlayers(); player++)
+				assertEquals(GameRules.score(games[player], 0, lengths[player]),
+						match.getTotalScore(script.getPlayerName(player)));
+		}
+	}
+	
+	/**
+	 * Tests that each skill profile averages close to its intended score,
+	 * and that better profiles score more.
+	 */
+	@Test
+	public void shouldAverageIntendedScoreForEachProfile() {
+		
+		// Replay phase
+		double beginner = this.averageScore(SkillProfile.BEGINNER);
+		double league = this.averageScore(SkillProfile.LEAGUE);
+		double professional = this.averageScore(SkillProfile.PROFESSIONAL);
+		
+		// Verify phase
+		assertEquals(100, beginner, 20);
+		assertEquals(170, league, 20);
+		assertEquals(220, professional, 20);
+		assertTrue(beginner < league && league < professional);
+	}
+	
+	/**
+	 * Tests that a lane feed drives a match on each lane to completion and
+	 * does not allocate while producing shots.
+	 */
+	@Test
+	public void shouldDriveLaneMatchesWithoutAllocating() {
+		
+		// Record phase
+		final LaneFeed feed = new LaneFeed(8, 4, SEED);
+		MatchImpl[] matches = new MatchImpl[feed.getNumberOfLanes()];
+		int finished = 0;
+		
+		// Replay and verify phases
+		for (int i = 0; i < 20000; i++) {
+			int lane = feed.next();
+			
+			if (feed.isNewMatch()) {
+				matches[lane] = new MatchImpl();
+				
+				for (int player = 0; player < feed.getScript(lane).getNumberOfPlayers(); player++)
+					matches[lane].addPlayer(feed.getScript(lane).getPlayerName(player));
+			}
+			
+			matches[lane].addScore(feed.getShot(), feed.getLeave());
+			assertEquals(feed.isEndOfMatch(), matches[lane].isFinished());
+			
+			if (feed.isEndOfMatch())
+				finished++;
+		}
+		
+		assertTrue("Matches should be finished on every lane", finished > feed.getNumberOfLanes());
+		
+		Assume.assumeTrue(AllocationMeter.isSupported());
+		
+		final int shots = 1000;
+		double bytes = AllocationMeter.bytesPerRun(new Supplier<LaneFeed>() {
+			@Override
+			public LaneFeed get() {
+				return feed;
+			}
+		}, new Consumer<LaneFeed>() {
+			@Override
+			public void accept(LaneFeed target) {
+				for (int i = 0; i < shots; i++)
+					target.next();
+			}
+		}, 200, 50);
+		
+		assertTrue(String.format("Allocated %.1f bytes per %d shots", bytes, shots), bytes < 1);
+	}
+	
+	/* ****************
+	 *  HELPER METHODS
+	 * ****************/
+	
+	/**
+	 * Returns the average score of games bowled with the given profile.
+	 */
+	private double averageScore(SkillProfile profile) {
+		
+		Bowler bowler = new Bowler(profile, SEED);
+		int[] shots = new int[Constants.MAX_ROLLS_PER_GAME];
+		long total = 0;
+		
+		for (int game = 0; game < GAMES_PER_PROFILE; game++) {
+			int count = 0;
+			bowler.newGame();
+			
+			while (!bowler.isFinished())
+				shots[count++] = bowler.nextShot();
+			
+			total += GameRules.score(shots, 0, count);
+		}
+		
+		return (double) total / GAMES_PER_PROFILE;
+	}
+}